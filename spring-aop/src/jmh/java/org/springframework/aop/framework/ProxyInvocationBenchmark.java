@@ -0,0 +1,97 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark for invocations through JDK dynamic proxies and CGLIB proxies,
+ * comparing frozen configurations (interception chains fixed at proxy creation)
+ * with regular ones (chains looked up on every invocation).
+ */
+@BenchmarkMode(Mode.Throughput)
+public class ProxyInvocationBenchmark {
+
+	@Benchmark
+	public int directInvocation(BenchmarkState state) {
+		return state.target.echo(state.argument);
+	}
+
+	@Benchmark
+	public int proxyInvocation(BenchmarkState state) {
+		return state.proxy.echo(state.argument);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"jdk", "cglib"})
+		public String proxyType;
+
+		@Param({"true", "false"})
+		public boolean frozen;
+
+		@Param({"false", "true"})
+		public boolean exposeProxy;
+
+		@Param({"1", "3"})
+		public int interceptorCount;
+
+		public int argument = 42;
+
+		public Echo target;
+
+		public Echo proxy;
+
+		@Setup
+		public void setup() {
+			this.target = new SimpleEcho();
+			ProxyFactory proxyFactory = new ProxyFactory(this.target);
+			proxyFactory.setProxyTargetClass("cglib".equals(this.proxyType));
+			for (int i = 0; i < this.interceptorCount; i++) {
+				proxyFactory.addAdvice((MethodInterceptor) invocation -> invocation.proceed());
+			}
+			proxyFactory.setExposeProxy(this.exposeProxy);
+			proxyFactory.setFrozen(this.frozen);
+			this.proxy = (Echo) proxyFactory.getProxy();
+		}
+	}
+
+
+	public interface Echo {
+
+		int echo(int value);
+	}
+
+
+	public static class SimpleEcho implements Echo {
+
+		@Override
+		public int echo(int value) {
+			return value;
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -60,6 +60,7 @@ import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
@@ -73,6 +74,19 @@ import org.springframework.util.StringUtils;
  * <p>Naturally, as this is to be processed by Spring AOP's proxy-based model,
  * only method execution pointcuts are supported.
  *
+ * <p>As of 5.3.6, the parsed expression and its per-method shadow matches are
+ * shared between equal pointcuts resolved against the same ClassLoader, so that
+ * equal pointcuts (e.g. from several advisors or from several application
+ * contexts, such as cached test contexts) do not have to re-parse and re-match
+ * the same expressions against the same classes.
+ * Expressions using the Spring-specific {@code bean()} designator are not
+ * shared since their matching depends on the containing bean factory, and
+ * neither are pointcuts resolved against a ClassLoader or declaration scope
+ * which is not cache-safe with respect to this class (e.g. an application
+ * ClassLoader below a shared library ClassLoader). The shared state for a
+ * ClassLoader gets dropped through {@link #clearClassLoader}, as called by an
+ * application context on close.
+ *
  * @author Rob Harrop
  * @author Adrian Colyer
  * @author Rod Johnson
@@ -103,6 +117,9 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 
 	private static final Log logger = LogFactory.getLog(AspectJExpressionPointcut.class);
 
+	private static final Map<SharedMatchingKey, SharedMatchingState> sharedMatchingCache =
+			new ConcurrentReferenceHashMap<>(256);
+
 	@Nullable
 	private Class<?> pointcutDeclarationScope;
 
@@ -121,6 +138,8 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 
 	private transient Map<Method, ShadowMatch> shadowMatchCache = new ConcurrentHashMap<>(32);
 
+	private transient boolean beanDesignatorUsed;
+
 
 	/**
 	 * Create a new default AspectJExpressionPointcut.
@@ -195,11 +214,106 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 		}
 		if (this.pointcutExpression == null) {
 			this.pointcutClassLoader = determinePointcutClassLoader();
-			this.pointcutExpression = buildPointcutExpression(this.pointcutClassLoader);
+			SharedMatchingKey key = new SharedMatchingKey(resolveExpression(), this.pointcutDeclarationScope,
+					this.pointcutParameterNames, this.pointcutParameterTypes, this.pointcutClassLoader);
+			SharedMatchingState state = sharedMatchingCache.get(key);
+			if (state == null) {
+				PointcutExpression expression = buildPointcutExpression(this.pointcutClassLoader);
+				if (this.beanDesignatorUsed || !isSharingSafe(key)) {
+					// bean() matching depends on our BeanFactory, or the state would keep
+					// a ClassLoader reachable that is not visible to this class -> keep local state only
+					this.pointcutExpression = expression;
+					return expression;
+				}
+				state = new SharedMatchingState(expression, this.shadowMatchCache);
+				SharedMatchingState existing = sharedMatchingCache.putIfAbsent(key, state);
+				if (existing != null) {
+					state = existing;
+				}
+			}
+			this.shadowMatchCache = state.shadowMatchCache;
+			this.pointcutExpression = state.pointcutExpression;
 		}
 		return this.pointcutExpression;
 	}
 
+	/**
+	 * Determine whether the state for the given key may be held in the VM-wide
+	 * cache, i.e. whether its ClassLoader and classes are visible to this class.
+	 */
+	private static boolean isSharingSafe(SharedMatchingKey key) {
+		ClassLoader aopClassLoader = AspectJExpressionPointcut.class.getClassLoader();
+		if (key.declarationScope != null && !ClassUtils.isCacheSafe(key.declarationScope, aopClassLoader)) {
+			return false;
+		}
+		for (Class<?> parameterType : key.parameterTypes) {
+			if (!ClassUtils.isCacheSafe(parameterType, aopClassLoader)) {
+				return false;
+			}
+		}
+		if (key.classLoader == null) {
+			return true;
+		}
+		ClassLoader current = aopClassLoader;
+		while (current != null) {
+			if (current == key.classLoader) {
+				return true;
+			}
+			current = current.getParent();
+		}
+		return false;
+	}
+
+	/**
+	 * Return whether this pointcut's expression uses the Spring-specific
+	 * {@code bean()} designator, in which case matching it may call back into
+	 * the containing {@code BeanFactory}. Resolves the expression if necessary.
+	 * @since 5.3.6
+	 */
+	public boolean isBeanDesignatorUsed() {
+		obtainPointcutExpression();
+		return this.beanDesignatorUsed;
+	}
+
+	/**
+	 * Clear the VM-wide cache of parsed pointcut expressions and shadow matches
+	 * for the given ClassLoader, removing all state for pointcuts resolved against
+	 * that ClassLoader (or its children) as well as all shadow matches for methods
+	 * declared by classes underneath that ClassLoader. Pointcuts already resolved
+	 * keep their parsed expression.
+	 * @param classLoader the ClassLoader to clear the cache for
+	 * @since 5.3.6
+	 */
+	public static void clearClassLoader(@Nullable ClassLoader classLoader) {
+		sharedMatchingCache.keySet().removeIf(key ->
+				isUnderneathClassLoader(key.classLoader, classLoader));
+		for (SharedMatchingState state : sharedMatchingCache.values()) {
+			state.shadowMatchCache.keySet().removeIf(method ->
+					isUnderneathClassLoader(method.getDeclaringClass().getClassLoader(), classLoader));
+		}
+	}
+
+	/**
+	 * Check whether the given ClassLoader is underneath the given parent,
+	 * that is, whether the parent is within the candidate's hierarchy.
+	 */
+	private static boolean isUnderneathClassLoader(@Nullable ClassLoader candidate, @Nullable ClassLoader parent) {
+		if (candidate == parent) {
+			return true;
+		}
+		if (candidate == null) {
+			return false;
+		}
+		ClassLoader classLoaderToCheck = candidate;
+		while (classLoaderToCheck != null) {
+			classLoaderToCheck = classLoaderToCheck.getParent();
+			if (classLoaderToCheck == parent) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Determine the ClassLoader to use for pointcut evaluation.
 	 */
@@ -596,6 +710,7 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 
 		@Override
 		public ContextBasedMatcher parse(String expression) {
+			beanDesignatorUsed = true;
 			return new BeanContextMatcher(expression);
 		}
 	}
@@ -715,4 +830,76 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 		}
 	}
 
+
+	/**
+	 * Key for a parsed pointcut expression shared between equal pointcuts.
+	 */
+	private static final class SharedMatchingKey {
+
+		private final String expression;
+
+		@Nullable
+		private final Class<?> declarationScope;
+
+		private final String[] parameterNames;
+
+		private final Class<?>[] parameterTypes;
+
+		@Nullable
+		private final ClassLoader classLoader;
+
+		SharedMatchingKey(String expression, @Nullable Class<?> declarationScope,
+				String[] parameterNames, Class<?>[] parameterTypes, @Nullable ClassLoader classLoader) {
+
+			this.expression = expression;
+			this.declarationScope = declarationScope;
+			this.parameterNames = parameterNames.clone();
+			this.parameterTypes = parameterTypes.clone();
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof SharedMatchingKey)) {
+				return false;
+			}
+			SharedMatchingKey otherKey = (SharedMatchingKey) other;
+			return (this.expression.equals(otherKey.expression) &&
+					this.declarationScope == otherKey.declarationScope &&
+					Arrays.equals(this.parameterNames, otherKey.parameterNames) &&
+					Arrays.equals(this.parameterTypes, otherKey.parameterTypes) &&
+					this.classLoader == otherKey.classLoader);
+		}
+
+		@Override
+		public int hashCode() {
+			int hashCode = this.expression.hashCode();
+			hashCode = 31 * hashCode + ObjectUtils.nullSafeHashCode(this.declarationScope);
+			hashCode = 31 * hashCode + Arrays.hashCode(this.parameterNames);
+			hashCode = 31 * hashCode + Arrays.hashCode(this.parameterTypes);
+			hashCode = 31 * hashCode + ObjectUtils.nullSafeHashCode(this.classLoader);
+			return hashCode;
+		}
+	}
+
+
+	/**
+	 * Parsed pointcut expression along with the shadow matches computed for it,
+	 * guarded by the shadow match Map itself (see {@link #getShadowMatch}).
+	 */
+	private static final class SharedMatchingState {
+
+		final PointcutExpression pointcutExpression;
+
+		final Map<Method, ShadowMatch> shadowMatchCache;
+
+		SharedMatchingState(PointcutExpression pointcutExpression, Map<Method, ShadowMatch> shadowMatchCache) {
+			this.pointcutExpression = pointcutExpression;
+			this.shadowMatchCache = shadowMatchCache;
+		}
+	}
+
 }
@@ -21,6 +21,7 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.List;
+import java.util.Map;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.apache.commons.logging.Log;
@@ -28,12 +29,14 @@ import org.apache.commons.logging.LogFactory;
 
 import org.springframework.aop.AopInvocationException;
 import org.springframework.aop.RawTargetAccess;
+import org.springframework.aop.SpringProxy;
 import org.springframework.aop.TargetSource;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.core.DecoratingProxy;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.CollectionUtils;
 
 /**
  * JDK-based {@link AopProxy} implementation for the Spring AOP framework,
@@ -95,6 +98,13 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 	 */
 	private boolean hashCodeDefined;
 
+	/**
+	 * Interception chains per proxied method, fixed at proxy creation if the
+	 * configuration is frozen and the target is static.
+	 */
+	@Nullable
+	private transient Map<Method, List<Object>> fixedChains;
+
 
 	/**
 	 * Construct a new JdkDynamicAopProxy for the given AOP configuration.
@@ -110,6 +120,9 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 		this.advised = config;
 		this.proxiedInterfaces = AopProxyUtils.completeProxiedInterfaces(this.advised, true);
 		findDefinedEqualsAndHashCodeMethods(this.proxiedInterfaces);
+		if (config.isFrozen() && config.getTargetSource().isStatic()) {
+			this.fixedChains = determineFixedChains(this.proxiedInterfaces);
+		}
 	}
 
 
@@ -148,6 +161,29 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 		}
 	}
 
+	/**
+	 * Determine the interception chains for all methods on the supplied set
+	 * of interfaces, apart from the ones implemented by the proxy itself.
+	 * <p>A frozen configuration does not allow advice changes, so the chain
+	 * for each method can be resolved once instead of on every invocation.
+	 * @param proxiedInterfaces the interfaces to introspect
+	 */
+	private Map<Method, List<Object>> determineFixedChains(Class<?>[] proxiedInterfaces) {
+		Class<?> targetClass = this.advised.getTargetClass();
+		Map<Method, List<Object>> fixedChains = CollectionUtils.newHashMap(16);
+		for (Class<?> proxiedInterface : proxiedInterfaces) {
+			if (proxiedInterface == SpringProxy.class || proxiedInterface == Advised.class ||
+					proxiedInterface == DecoratingProxy.class) {
+				continue;
+			}
+			for (Method method : proxiedInterface.getMethods()) {
+				fixedChains.computeIfAbsent(method,
+						key -> this.advised.getInterceptorsAndDynamicInterceptionAdvice(key, targetClass));
+			}
+		}
+		return fixedChains;
+	}
+
 
 	/**
 	 * Implementation of {@code InvocationHandler.invoke}.
@@ -196,7 +232,10 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 			Class<?> targetClass = (target != null ? target.getClass() : null);
 
 			// Get the interception chain for this method.
-			List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+			List<Object> chain = (this.fixedChains != null ? this.fixedChains.get(method) : null);
+			if (chain == null) {
+				chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+			}
 
 			// Check whether we have any advice. If we don't, we can fallback on direct
 			// reflective invocation of the target, and avoid creating a MethodInvocation.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,16 +16,24 @@
 
 package org.springframework.aop.framework.autoproxy;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import org.springframework.aop.Advisor;
+import org.springframework.aop.IntroductionAdvisor;
+import org.springframework.aop.PointcutAdvisor;
 import org.springframework.aop.TargetSource;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 
 /**
  * Generic auto proxy creator that builds AOP proxies for specific beans
@@ -51,9 +59,37 @@ import org.springframework.util.Assert;
 @SuppressWarnings("serial")
 public abstract class AbstractAdvisorAutoProxyCreator extends AbstractAutoProxyCreator {
 
+	private static final boolean aspectjPresent = ClassUtils.isPresent(
+			"org.aspectj.weaver.tools.PointcutParser", AbstractAdvisorAutoProxyCreator.class.getClassLoader());
+
+
 	@Nullable
 	private BeanFactoryAdvisorRetrievalHelper advisorRetrievalHelper;
 
+	@Nullable
+	private Executor advisorMatchingExecutor;
+
+
+	/**
+	 * Specify an {@link Executor} for matching candidate Advisors against a bean
+	 * class in parallel, one task per Advisor.
+	 * <p>Default is none, matching all candidate Advisors on the thread creating
+	 * the bean. An executor is worth considering for large numbers of AspectJ
+	 * expression Advisors on a multi-core machine, since each Advisor has to be
+	 * matched against all methods of every bean class.
+	 * <p>Only Advisors with an {@link AspectJExpressionPointcut} which does not
+	 * use the {@code bean()} designator are matched on the executor, since their
+	 * matching never calls back into the bean factory. All other Advisors are
+	 * matched on the bean creation thread: it may hold the bean factory's singleton
+	 * lock while waiting for the parallel matches, so a worker calling back into
+	 * the bean factory could otherwise deadlock. For the same reason, the executor
+	 * must not depend on the bean creation thread to proceed.
+	 * @since 5.3.6
+	 */
+	public void setAdvisorMatchingExecutor(@Nullable Executor advisorMatchingExecutor) {
+		this.advisorMatchingExecutor = advisorMatchingExecutor;
+	}
+
 
 	@Override
 	public void setBeanFactory(BeanFactory beanFactory) {
@@ -125,6 +161,10 @@ public abstract class AbstractAdvisorAutoProxyCreator extends AbstractAutoProxyC
 
 		ProxyCreationContext.setCurrentProxiedBeanName(beanName);
 		try {
+			Executor executor = this.advisorMatchingExecutor;
+			if (executor != null && candidateAdvisors.size() > 1) {
+				return findAdvisorsThatCanApplyInParallel(candidateAdvisors, beanClass, beanName, executor);
+			}
 			return AopUtils.findAdvisorsThatCanApply(candidateAdvisors, beanClass);
 		}
 		finally {
@@ -132,6 +172,78 @@ public abstract class AbstractAdvisorAutoProxyCreator extends AbstractAutoProxyC
 		}
 	}
 
+	/**
+	 * Variant of {@link AopUtils#findAdvisorsThatCanApply} that matches each
+	 * {@link #isParallelMatchingSupported eligible} candidate Advisor on the
+	 * given Executor and all others on the calling thread, retaining the
+	 * candidate order.
+	 */
+	private List<Advisor> findAdvisorsThatCanApplyInParallel(
+			List<Advisor> candidateAdvisors, Class<?> beanClass, String beanName, Executor executor) {
+
+		List<Advisor> eligibleAdvisors = new ArrayList<>();
+		for (Advisor candidate : candidateAdvisors) {
+			if (candidate instanceof IntroductionAdvisor && AopUtils.canApply(candidate, beanClass)) {
+				eligibleAdvisors.add(candidate);
+			}
+		}
+		boolean hasIntroductions = !eligibleAdvisors.isEmpty();
+		List<CompletableFuture<Boolean>> matches = new ArrayList<>(candidateAdvisors.size());
+		for (Advisor candidate : candidateAdvisors) {
+			if (candidate instanceof IntroductionAdvisor) {
+				matches.add(null);
+			}
+			else if (isParallelMatchingSupported(candidate)) {
+				matches.add(CompletableFuture.supplyAsync(() -> {
+					ProxyCreationContext.setCurrentProxiedBeanName(beanName);
+					try {
+						return AopUtils.canApply(candidate, beanClass, hasIntroductions);
+					}
+					finally {
+						ProxyCreationContext.setCurrentProxiedBeanName(null);
+					}
+				}, executor));
+			}
+			else {
+				matches.add(CompletableFuture.completedFuture(
+						AopUtils.canApply(candidate, beanClass, hasIntroductions)));
+			}
+		}
+		for (int i = 0; i < candidateAdvisors.size(); i++) {
+			CompletableFuture<Boolean> match = matches.get(i);
+			if (match != null && awaitMatch(match)) {
+				eligibleAdvisors.add(candidateAdvisors.get(i));
+			}
+		}
+		return eligibleAdvisors;
+	}
+
+	/**
+	 * Determine whether the given Advisor may be matched on the advisor matching
+	 * executor, i.e. whether it is an AspectJ expression Advisor whose matching
+	 * does not call back into the bean factory.
+	 */
+	private static boolean isParallelMatchingSupported(Advisor candidate) {
+		return (aspectjPresent && candidate instanceof PointcutAdvisor &&
+				AspectJMatchingDelegate.isBeanFactoryIndependent((PointcutAdvisor) candidate));
+	}
+
+	private static boolean awaitMatch(CompletableFuture<Boolean> match) {
+		try {
+			return match.join();
+		}
+		catch (CompletionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw ex;
+		}
+	}
+
 	/**
 	 * Return whether the Advisor bean with the given name is eligible
 	 * for proxying in the first place.
@@ -193,4 +305,16 @@ public abstract class AbstractAdvisorAutoProxyCreator extends AbstractAutoProxyC
 		}
 	}
 
+
+	/**
+	 * Inner class to avoid a hard dependency on AspectJ at runtime.
+	 */
+	private static class AspectJMatchingDelegate {
+
+		public static boolean isBeanFactoryIndependent(PointcutAdvisor advisor) {
+			return (advisor.getPointcut() instanceof AspectJExpressionPointcut &&
+					!((AspectJExpressionPointcut) advisor.getPointcut()).isBeanDesignatorUsed());
+		}
+	}
+
 }
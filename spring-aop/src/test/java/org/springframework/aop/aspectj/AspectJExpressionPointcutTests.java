@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,8 @@
 package org.springframework.aop.aspectj;
 
 import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
 
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
@@ -31,10 +33,12 @@ import org.springframework.aop.MethodMatcher;
 import org.springframework.aop.Pointcut;
 import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.beans.testfixture.beans.IOther;
 import org.springframework.beans.testfixture.beans.ITestBean;
 import org.springframework.beans.testfixture.beans.TestBean;
 import org.springframework.beans.testfixture.beans.subpkg.DeepBean;
+import org.springframework.util.ClassUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -284,6 +288,74 @@ public class AspectJExpressionPointcutTests {
 		assertThat(expr.getPointcutExpression()).isEqualTo("execution(* *(..)) && args(String) && this(Object)");
 	}
 
+	@Test
+	public void testEqualPointcutsShareParsedExpression() {
+		String expression = "execution(* org.springframework.beans.testfixture.beans.TestBean.*Age(..))";
+		AspectJExpressionPointcut pc1 = (AspectJExpressionPointcut) getPointcut(expression);
+		AspectJExpressionPointcut pc2 = (AspectJExpressionPointcut) getPointcut(expression);
+		assertMatchesGetAge(pc1.getMethodMatcher());
+		assertThat(pc2.getPointcutExpression()).isSameAs(pc1.getPointcutExpression());
+		assertMatchesGetAge(pc2.getMethodMatcher());
+		assertThat(pc2.getMethodMatcher().matches(setSomeNumber, TestBean.class)).isFalse();
+
+		AspectJExpressionPointcut pc3 = new AspectJExpressionPointcut(
+				TestBean.class, new String[] {"age"}, new Class<?>[] {int.class});
+		pc3.setExpression(expression + " && args(age)");
+		AspectJExpressionPointcut pc4 = new AspectJExpressionPointcut(
+				TestBean.class, new String[] {"age"}, new Class<?>[] {Integer.class});
+		pc4.setExpression(expression + " && args(age)");
+		assertThat(pc4.getPointcutExpression()).isNotSameAs(pc3.getPointcutExpression());
+	}
+
+	@Test
+	public void testBeanPointcutsDoNotShareParsedExpression() {
+		String expression = "execution(* *..TestBean.getAge()) && bean(myBean)";
+		AspectJExpressionPointcut pc1 = (AspectJExpressionPointcut) getPointcut(expression);
+		AspectJExpressionPointcut pc2 = (AspectJExpressionPointcut) getPointcut(expression);
+		assertThat(pc2.getPointcutExpression()).isNotSameAs(pc1.getPointcutExpression());
+	}
+
+	@Test
+	public void testSharedParsedExpressionDroppedOnClearClassLoader() throws Exception {
+		String expression = "execution(* org.springframework.beans.testfixture.beans.TestBean.getName(..))";
+		AspectJExpressionPointcut pc1 = (AspectJExpressionPointcut) getPointcut(expression);
+		pc1.getMethodMatcher();
+		try (URLClassLoader childClassLoader = new URLClassLoader(new URL[0], getClass().getClassLoader())) {
+			AspectJExpressionPointcut.clearClassLoader(childClassLoader);
+		}
+		AspectJExpressionPointcut pc2 = (AspectJExpressionPointcut) getPointcut(expression);
+		assertThat(pc2.getPointcutExpression()).isSameAs(pc1.getPointcutExpression());
+
+		AspectJExpressionPointcut.clearClassLoader(ClassUtils.getDefaultClassLoader());
+		AspectJExpressionPointcut pc3 = (AspectJExpressionPointcut) getPointcut(expression);
+		assertThat(pc3.getPointcutExpression()).isNotSameAs(pc1.getPointcutExpression());
+	}
+
+	@Test
+	public void testBeanDesignatorUsed() {
+		AspectJExpressionPointcut pc1 = (AspectJExpressionPointcut) getPointcut(
+				"execution(* *..TestBean.getAge()) && bean(myBean)");
+		AspectJExpressionPointcut pc2 = (AspectJExpressionPointcut) getPointcut(
+				"execution(* *..TestBean.getAge())");
+		assertThat(pc1.isBeanDesignatorUsed()).isTrue();
+		assertThat(pc2.isBeanDesignatorUsed()).isFalse();
+	}
+
+	@Test
+	public void testParsedExpressionNotSharedForChildClassLoader() throws Exception {
+		String expression = "execution(* org.springframework.beans.testfixture.beans.TestBean.getSpouse(..))";
+		try (URLClassLoader childClassLoader = new URLClassLoader(new URL[0], getClass().getClassLoader())) {
+			DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+			beanFactory.setBeanClassLoader(childClassLoader);
+			AspectJExpressionPointcut pc1 = (AspectJExpressionPointcut) getPointcut(expression);
+			pc1.setBeanFactory(beanFactory);
+			AspectJExpressionPointcut pc2 = (AspectJExpressionPointcut) getPointcut(expression);
+			pc2.setBeanFactory(beanFactory);
+			assertThat(pc1.getMethodMatcher().matches(TestBean.class.getMethod("getSpouse"), TestBean.class)).isTrue();
+			assertThat(pc2.getPointcutExpression()).isNotSameAs(pc1.getPointcutExpression());
+		}
+	}
+
 	private Pointcut getPointcut(String expression) {
 		AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
 		pointcut.setExpression(expression);
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Strategy for propagating local cache invalidations between the members
+ * sharing a remote cache, e.g. through a message broker or the pub/sub
+ * facility of the remote cache provider itself.
+ *
+ * <p>An invalidation is never delivered back to the listeners of the member
+ * that broadcast it. Delivery may be asynchronous; the time-to-live of local
+ * entries bounds the staleness in case an invalidation gets lost.
+ *
+ * @since 5.3.6
+ * @see TieredCacheManager#setInvalidationBroadcaster
+ * @see LocalCacheInvalidationBroadcaster
+ */
+public interface CacheInvalidationBroadcaster {
+
+	/**
+	 * Notify the other members that the given entry has changed.
+	 * @param cacheName the name of the cache
+	 * @param key the key of the changed entry, or {@code null} if the
+	 * entire cache has been cleared
+	 */
+	void broadcastInvalidation(String cacheName, @Nullable Object key);
+
+	/**
+	 * Register a listener for invalidations broadcast by other members.
+	 * @param listener the listener to register
+	 */
+	void addInvalidationListener(InvalidationListener listener);
+
+
+	/**
+	 * Callback interface for invalidations received from other members.
+	 */
+	@FunctionalInterface
+	interface InvalidationListener {
+
+		/**
+		 * Invalidate the given local entry.
+		 * @param cacheName the name of the cache
+		 * @param key the key of the changed entry, or {@code null} if the
+		 * entire cache has been cleared
+		 */
+		void onInvalidation(String cacheName, @Nullable Object key);
+	}
+
+}
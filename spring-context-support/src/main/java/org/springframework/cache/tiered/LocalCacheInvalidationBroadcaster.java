@@ -0,0 +1,79 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link CacheInvalidationBroadcaster} that delivers invalidations synchronously
+ * to the other members of an in-JVM group, standing in for a distributed
+ * broadcast in tests and single-process setups.
+ *
+ * <p>Each member of the group is a separate instance: the first one is created
+ * through the default constructor, additional ones by passing an existing member
+ * to {@link #LocalCacheInvalidationBroadcaster(LocalCacheInvalidationBroadcaster)}.
+ *
+ * @since 5.3.6
+ */
+public class LocalCacheInvalidationBroadcaster implements CacheInvalidationBroadcaster {
+
+	private final List<LocalCacheInvalidationBroadcaster> group;
+
+	private final List<InvalidationListener> listeners = new CopyOnWriteArrayList<>();
+
+
+	/**
+	 * Create a new broadcaster as the first member of a new group.
+	 */
+	public LocalCacheInvalidationBroadcaster() {
+		this.group = new CopyOnWriteArrayList<>();
+		this.group.add(this);
+	}
+
+	/**
+	 * Create a new broadcaster joining the group of the given member.
+	 * @param member an existing member of the group to join
+	 */
+	public LocalCacheInvalidationBroadcaster(LocalCacheInvalidationBroadcaster member) {
+		Assert.notNull(member, "Group member must not be null");
+		this.group = member.group;
+		this.group.add(this);
+	}
+
+
+	@Override
+	public void broadcastInvalidation(String cacheName, @Nullable Object key) {
+		for (LocalCacheInvalidationBroadcaster member : this.group) {
+			if (member != this) {
+				for (InvalidationListener listener : member.listeners) {
+					listener.onInvalidation(cacheName, key);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void addInvalidationListener(InvalidationListener listener) {
+		Assert.notNull(listener, "InvalidationListener must not be null");
+		this.listeners.add(listener);
+	}
+
+}
@@ -0,0 +1,375 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ClassUtils;
+
+/**
+ * {@link Cache} serving reads from a local cache in front of a remote cache,
+ * as exposed by {@link TieredCacheManager}.
+ *
+ * <p>Local entries are held as {@link ValueWrapper} instances carrying their
+ * expiration time, so that any {@link Cache} implementation can serve as the
+ * local tier.
+ *
+ * <p>A value read from the remote cache is only stored locally if the key has
+ * not been invalidated in the meantime, i.e. changed by this member or by
+ * another member through a broadcast invalidation. Otherwise, a read racing
+ * with a change could put the previous value into the local cache after the
+ * invalidation already happened, serving it until its time-to-live elapses.
+ *
+ * @since 5.3.6
+ * @see TieredCacheManager
+ */
+public class TieredCache implements Cache {
+
+	private static final int INVALIDATION_STRIPES = 64;
+
+	private static final boolean transactionPresent = ClassUtils.isPresent(
+			"org.springframework.transaction.support.TransactionSynchronizationManager",
+			TieredCache.class.getClassLoader());
+
+
+	private final Cache localCache;
+
+	private final Cache remoteCache;
+
+	private final TieredCacheManager cacheManager;
+
+	private final boolean remoteTransactionAware;
+
+	/** Invalidation counters per stripe of keys. */
+	private final AtomicLongArray keyInvalidations = new AtomicLongArray(INVALIDATION_STRIPES);
+
+	/** Invalidation counter for the entire local cache. */
+	private final AtomicLong cacheInvalidations = new AtomicLong();
+
+
+	TieredCache(Cache localCache, Cache remoteCache, TieredCacheManager cacheManager) {
+		this.localCache = localCache;
+		this.remoteCache = remoteCache;
+		this.cacheManager = cacheManager;
+		this.remoteTransactionAware = (transactionPresent && TransactionDelegate.isTransactionAware(remoteCache));
+	}
+
+
+	/**
+	 * Return the local cache serving reads in-process.
+	 */
+	public Cache getLocalCache() {
+		return this.localCache;
+	}
+
+	/**
+	 * Return the remote cache holding the shared state.
+	 */
+	public Cache getRemoteCache() {
+		return this.remoteCache;
+	}
+
+	@Override
+	public String getName() {
+		return this.remoteCache.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return this.remoteCache.getNativeCache();
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper get(Object key) {
+		ValueWrapper local = getLocal(key);
+		if (local != null) {
+			return local;
+		}
+		long stamp = getInvalidationStamp(key);
+		ValueWrapper remote = this.remoteCache.get(key);
+		if (remote != null) {
+			putLocalIfNotInvalidated(key, remote.get(), stamp);
+		}
+		return remote;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, @Nullable Class<T> type) {
+		ValueWrapper wrapper = get(key);
+		Object value = (wrapper != null ? wrapper.get() : null);
+		if (value != null && type != null && !type.isInstance(value)) {
+			throw new IllegalStateException(
+					"Cached value is not of required type [" + type.getName() + "]: " + value);
+		}
+		return (T) value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		ValueWrapper local = getLocal(key);
+		if (local != null) {
+			return (T) local.get();
+		}
+		long stamp = getInvalidationStamp(key);
+		T value = this.remoteCache.get(key, valueLoader);
+		putLocalIfNotInvalidated(key, value, stamp);
+		return value;
+	}
+
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(keys.size());
+		Map<Object, Long> missingKeys = new LinkedHashMap<>(keys.size());
+		for (Object key : keys) {
+			ValueWrapper local = getLocal(key);
+			if (local != null) {
+				result.put(key, local);
+			}
+			else {
+				missingKeys.put(key, getInvalidationStamp(key));
+			}
+		}
+		if (!missingKeys.isEmpty()) {
+			Map<Object, ValueWrapper> remote = this.remoteCache.getAll(missingKeys.keySet());
+			remote.forEach((key, wrapper) -> putLocalIfNotInvalidated(key, wrapper.get(), missingKeys.get(key)));
+			result.putAll(remote);
+		}
+		return result;
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		this.remoteCache.put(key, value);
+		afterRemoteWrite(() -> {
+			markInvalidated(key);
+			putLocal(key, value);
+			broadcastInvalidation(key);
+		});
+	}
+
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		this.remoteCache.putAll(entries);
+		afterRemoteWrite(() -> entries.forEach((key, value) -> {
+			markInvalidated(key);
+			putLocal(key, value);
+			broadcastInvalidation(key);
+		}));
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		long stamp = getInvalidationStamp(key);
+		ValueWrapper existing = this.remoteCache.putIfAbsent(key, value);
+		if (existing != null) {
+			putLocalIfNotInvalidated(key, existing.get(), stamp);
+		}
+		else {
+			markInvalidated(key);
+			putLocal(key, value);
+			broadcastInvalidation(key);
+		}
+		return existing;
+	}
+
+	@Override
+	public void evict(Object key) {
+		this.remoteCache.evict(key);
+		afterRemoteWrite(() -> {
+			invalidateLocal(key);
+			broadcastInvalidation(key);
+		});
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		boolean evicted = this.remoteCache.evictIfPresent(key);
+		invalidateLocal(key);
+		broadcastInvalidation(key);
+		return evicted;
+	}
+
+	@Override
+	public void clear() {
+		this.remoteCache.clear();
+		afterRemoteWrite(() -> {
+			invalidateLocal(null);
+			broadcastInvalidation(null);
+		});
+	}
+
+	@Override
+	public boolean invalidate() {
+		boolean invalidated = this.remoteCache.invalidate();
+		markInvalidated(null);
+		this.localCache.invalidate();
+		broadcastInvalidation(null);
+		return invalidated;
+	}
+
+	/**
+	 * Invalidate the given local entry, or the entire local cache.
+	 * @param key the key of the entry, or {@code null} for all entries
+	 */
+	void invalidateLocal(@Nullable Object key) {
+		markInvalidated(key);
+		if (key != null) {
+			this.localCache.evict(key);
+		}
+		else {
+			this.localCache.clear();
+		}
+	}
+
+
+	@Nullable
+	private ValueWrapper getLocal(Object key) {
+		ValueWrapper wrapper = this.localCache.get(key);
+		if (wrapper == null) {
+			return null;
+		}
+		Object entry = wrapper.get();
+		if (entry instanceof LocalEntry) {
+			LocalEntry localEntry = (LocalEntry) entry;
+			if (!localEntry.isExpired(this.cacheManager.getClock().millis())) {
+				return localEntry;
+			}
+		}
+		this.localCache.evict(key);
+		return null;
+	}
+
+	private void putLocal(Object key, @Nullable Object value) {
+		long expirationTime = this.cacheManager.getClock().millis() + this.cacheManager.getTimeToLive().toMillis();
+		this.localCache.put(key, new LocalEntry(value, expirationTime));
+	}
+
+	/**
+	 * Store the given value read from the remote cache locally, unless the key
+	 * has been invalidated since the given stamp was obtained, i.e. before the
+	 * remote read. An invalidation racing with the local put evicts it again.
+	 */
+	private void putLocalIfNotInvalidated(Object key, @Nullable Object value, long stamp) {
+		if (getInvalidationStamp(key) != stamp) {
+			return;
+		}
+		putLocal(key, value);
+		if (getInvalidationStamp(key) != stamp) {
+			this.localCache.evict(key);
+		}
+	}
+
+	private long getInvalidationStamp(Object key) {
+		// Both counters only ever increase: their sum changes whenever either does
+		return this.cacheInvalidations.get() + this.keyInvalidations.get(getInvalidationStripe(key));
+	}
+
+	private void markInvalidated(@Nullable Object key) {
+		if (key != null) {
+			this.keyInvalidations.incrementAndGet(getInvalidationStripe(key));
+		}
+		else {
+			this.cacheInvalidations.incrementAndGet();
+		}
+	}
+
+	private static int getInvalidationStripe(Object key) {
+		int hash = key.hashCode();
+		return ((hash ^ (hash >>> 16)) & (INVALIDATION_STRIPES - 1));
+	}
+
+	private void broadcastInvalidation(@Nullable Object key) {
+		CacheInvalidationBroadcaster broadcaster = this.cacheManager.getInvalidationBroadcaster();
+		if (broadcaster != null) {
+			broadcaster.broadcastInvalidation(getName(), key);
+		}
+	}
+
+	private void afterRemoteWrite(Runnable localUpdate) {
+		if (!this.remoteTransactionAware || !TransactionDelegate.runAfterCommit(localUpdate)) {
+			localUpdate.run();
+		}
+	}
+
+
+	/**
+	 * A local entry along with its expiration time.
+	 */
+	private static final class LocalEntry implements ValueWrapper {
+
+		@Nullable
+		private final Object value;
+
+		private final long expirationTime;
+
+		LocalEntry(@Nullable Object value, long expirationTime) {
+			this.value = value;
+			this.expirationTime = expirationTime;
+		}
+
+		@Override
+		@Nullable
+		public Object get() {
+			return this.value;
+		}
+
+		boolean isExpired(long now) {
+			return (now >= this.expirationTime);
+		}
+	}
+
+
+	/**
+	 * Inner class to avoid a hard dependency on spring-tx.
+	 */
+	private static class TransactionDelegate {
+
+		static boolean isTransactionAware(Cache cache) {
+			return (cache instanceof TransactionAwareCacheDecorator);
+		}
+
+		static boolean runAfterCommit(Runnable action) {
+			if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+				return false;
+			}
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+			return true;
+		}
+	}
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link CacheManager} decorator fronting the caches of a remote (typically
+ * distributed) CacheManager with the caches of a local CacheManager, so that
+ * repeated reads are served in-process, e.g. a
+ * {@link org.springframework.cache.caffeine.CaffeineCacheManager} with a maximum
+ * size in front of a {@link org.springframework.cache.jcache.JCacheCacheManager}.
+ *
+ * <p>Reads check the local cache first and populate it from the remote cache
+ * on a miss. Writes go to the remote cache, update or invalidate the local cache
+ * and notify the other members through the configured
+ * {@link CacheInvalidationBroadcaster}. Local entries additionally expire after
+ * the configured {@linkplain #setTimeToLive time-to-live}, which bounds their
+ * staleness in case an invalidation is missed. The local CacheManager is
+ * expected to bound the number of entries it holds.
+ *
+ * <p>Remote caches decorated with a
+ * {@link org.springframework.cache.transaction.TransactionAwareCacheDecorator}
+ * (e.g. through a transaction-aware remote CacheManager) defer their writes to
+ * the after-commit phase of a Spring-managed transaction; the local update and
+ * the invalidation broadcast are deferred accordingly. This CacheManager can
+ * also be wrapped in a
+ * {@link org.springframework.cache.transaction.TransactionAwareCacheManagerProxy}
+ * as a whole.
+ *
+ * <p>Caches that the local CacheManager does not provide are exposed as the
+ * plain remote cache.
+ *
+ * @since 5.3.6
+ * @see TieredCache
+ */
+public class TieredCacheManager implements CacheManager {
+
+	/**
+	 * Default time-to-live of local entries: 1 minute.
+	 * @see #setTimeToLive
+	 */
+	public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(1);
+
+
+	private final CacheManager localCacheManager;
+
+	private final CacheManager remoteCacheManager;
+
+	private final ConcurrentMap<String, TieredCache> cacheMap = new ConcurrentHashMap<>(16);
+
+	private Duration timeToLive = DEFAULT_TIME_TO_LIVE;
+
+	@Nullable
+	private CacheInvalidationBroadcaster invalidationBroadcaster;
+
+	private Clock clock = Clock.systemUTC();
+
+
+	/**
+	 * Create a new TieredCacheManager for the given CacheManagers.
+	 * @param localCacheManager the CacheManager providing the local caches
+	 * @param remoteCacheManager the CacheManager providing the remote caches
+	 */
+	public TieredCacheManager(CacheManager localCacheManager, CacheManager remoteCacheManager) {
+		Assert.notNull(localCacheManager, "Local CacheManager must not be null");
+		Assert.notNull(remoteCacheManager, "Remote CacheManager must not be null");
+		this.localCacheManager = localCacheManager;
+		this.remoteCacheManager = remoteCacheManager;
+	}
+
+
+	/**
+	 * Return the CacheManager providing the local caches.
+	 */
+	public CacheManager getLocalCacheManager() {
+		return this.localCacheManager;
+	}
+
+	/**
+	 * Return the CacheManager providing the remote caches.
+	 */
+	public CacheManager getRemoteCacheManager() {
+		return this.remoteCacheManager;
+	}
+
+	/**
+	 * Set the time after which a local entry expires and is reloaded from
+	 * the remote cache, counted from the time it was stored locally.
+	 * <p>Default is {@link #DEFAULT_TIME_TO_LIVE 1 minute}. The time-to-live
+	 * bounds the staleness of local entries in case an invalidation from
+	 * another member is missed, e.g. while the broadcast channel is down.
+	 */
+	public void setTimeToLive(Duration timeToLive) {
+		Assert.notNull(timeToLive, "Time-to-live must not be null");
+		Assert.isTrue(!timeToLive.isNegative() && !timeToLive.isZero(), "Time-to-live must be positive");
+		this.timeToLive = timeToLive;
+	}
+
+	/**
+	 * Return the time-to-live of local entries.
+	 */
+	public Duration getTimeToLive() {
+		return this.timeToLive;
+	}
+
+	/**
+	 * Set the {@link CacheInvalidationBroadcaster} to notify the other members
+	 * of changes, and to receive their invalidations from.
+	 * <p>Default is none, in which case only the time-to-live keeps the local
+	 * caches of different members coherent.
+	 */
+	public void setInvalidationBroadcaster(@Nullable CacheInvalidationBroadcaster invalidationBroadcaster) {
+		this.invalidationBroadcaster = invalidationBroadcaster;
+		if (invalidationBroadcaster != null) {
+			invalidationBroadcaster.addInvalidationListener(this::invalidateLocal);
+		}
+	}
+
+	/**
+	 * Return the {@link CacheInvalidationBroadcaster}, if any.
+	 */
+	@Nullable
+	public CacheInvalidationBroadcaster getInvalidationBroadcaster() {
+		return this.invalidationBroadcaster;
+	}
+
+	/**
+	 * Set the {@link Clock} to calculate the expiration of local entries with.
+	 * <p>By default this is {@code Clock.systemUTC()}.
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "Clock must not be null");
+		this.clock = clock;
+	}
+
+	/**
+	 * Return the clock to calculate the expiration of local entries with.
+	 */
+	public Clock getClock() {
+		return this.clock;
+	}
+
+
+	@Override
+	@Nullable
+	public Cache getCache(String name) {
+		TieredCache cache = this.cacheMap.get(name);
+		if (cache != null) {
+			return cache;
+		}
+		Cache remoteCache = this.remoteCacheManager.getCache(name);
+		if (remoteCache == null) {
+			return null;
+		}
+		Cache localCache = this.localCacheManager.getCache(name);
+		if (localCache == null) {
+			return remoteCache;
+		}
+		return this.cacheMap.computeIfAbsent(name, key -> new TieredCache(localCache, remoteCache, this));
+	}
+
+	@Override
+	public Collection<String> getCacheNames() {
+		return this.remoteCacheManager.getCacheNames();
+	}
+
+	/**
+	 * Invalidate the given local entry in response to a change on another member.
+	 * @param cacheName the name of the cache
+	 * @param key the key of the changed entry, or {@code null} to clear
+	 * the entire local cache
+	 */
+	protected void invalidateLocal(String cacheName, @Nullable Object key) {
+		TieredCache cache = this.cacheMap.get(cacheName);
+		if (cache != null) {
+			cache.invalidateLocal(key);
+		}
+	}
+
+}
@@ -0,0 +1,10 @@
+/**
+ * Two-tier cache support: a bounded local cache in front of a remote cache,
+ * kept coherent across members through pluggable invalidation broadcasts.
+ */
+@NonNullApi
+@NonNullFields
+package org.springframework.cache.tiered;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.tiered;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.testfixture.CallCountingTransactionManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link TieredCacheManager} and {@link TieredCache}.
+ */
+class TieredCacheManagerTests {
+
+	private final CacheManager remoteCacheManager = new ConcurrentMapCacheManager();
+
+	private final Cache remoteCache = this.remoteCacheManager.getCache("testCache");
+
+
+	@Test
+	void readsAreServedLocally() {
+		TieredCacheManager cacheManager = new TieredCacheManager(new ConcurrentMapCacheManager(), this.remoteCacheManager);
+		Cache cache = cacheManager.getCache("testCache");
+		assertThat(cache).isInstanceOf(TieredCache.class).isSameAs(cacheManager.getCache("testCache"));
+		assertThat(cache.getNativeCache()).isSameAs(this.remoteCache.getNativeCache());
+
+		this.remoteCache.put("key", "value1");
+		assertThat(cache.get("key", String.class)).isEqualTo("value1");
+
+		// Changed behind the back of the tiered cache: local entry still served
+		this.remoteCache.put("key", "value2");
+		assertThat(cache.get("key").get()).isEqualTo("value1");
+		assertThat(cache.get("key", () -> "loaded")).isEqualTo("value1");
+		assertThat(cache.get("other", () -> "loaded")).isEqualTo("loaded");
+		assertThat(this.remoteCache.get("other").get()).isEqualTo("loaded");
+	}
+
+	@Test
+	void writesGoThroughToRemoteCache() {
+		TieredCacheManager cacheManager = new TieredCacheManager(new ConcurrentMapCacheManager(), this.remoteCacheManager);
+		Cache cache = cacheManager.getCache("testCache");
+
+		cache.put("key", "value");
+		assertThat(this.remoteCache.get("key").get()).isEqualTo("value");
+		assertThat(cache.putIfAbsent("key", "other").get()).isEqualTo("value");
+
+		cache.evict("key");
+		assertThat(this.remoteCache.get("key")).isNull();
+		assertThat(cache.get("key")).isNull();
+
+		cache.putAll(Collections.singletonMap("key", "value"));
+		this.remoteCache.put("another", "value");
+		Map<Object, Cache.ValueWrapper> all = cache.getAll(Arrays.asList("key", "another", "missing"));
+		assertThat(all).containsOnlyKeys("key", "another");
+
+		cache.clear();
+		assertThat(this.remoteCache.get("another")).isNull();
+		assertThat(cache.get("key")).isNull();
+	}
+
+	@Test
+	void invalidationIsBroadcastToOtherMembers() {
+		LocalCacheInvalidationBroadcaster broadcaster1 = new LocalCacheInvalidationBroadcaster();
+		LocalCacheInvalidationBroadcaster broadcaster2 = new LocalCacheInvalidationBroadcaster(broadcaster1);
+		TieredCacheManager member1 = new TieredCacheManager(new ConcurrentMapCacheManager(), this.remoteCacheManager);
+		member1.setInvalidationBroadcaster(broadcaster1);
+		TieredCacheManager member2 = new TieredCacheManager(new ConcurrentMapCacheManager(), this.remoteCacheManager);
+		member2.setInvalidationBroadcaster(broadcaster2);
+		Cache cache1 = member1.getCache("testCache");
+		Cache cache2 = member2.getCache("testCache");
+
+		cache1.put("key", "value1");
+		assertThat(cache2.get("key", String.class)).isEqualTo("value1");
+
+		cache1.put("key", "value2");
+		assertThat(cache2.get("key", String.class)).isEqualTo("value2");
+
+		cache2.put("other", "value");
+		assertThat(cache1.get("other", String.class)).isEqualTo("value");
+		cache2.clear();
+		assertThat(cache1.get("key")).isNull();
+		assertThat(cache1.get("other")).isNull();
+	}
+
+	@Test
+	void localEntriesExpireAfterTimeToLive() {
+		MutableClock clock = new MutableClock();
+		TieredCacheManager cacheManager = new TieredCacheManager(new ConcurrentMapCacheManager(), this.remoteCacheManager);
+		cacheManager.setTimeToLive(Duration.ofSeconds(10));
+		cacheManager.setClock(clock);
+		Cache cache = cacheManager.getCache("testCache");
+
+		cache.put("key", "value1");
+		this.remoteCache.put("key", "value2");
+		clock.advance(Duration.ofSeconds(9));
+		assertThat(cache.get("key", String.class)).isEqualTo("value1");
+		clock.advance(Duration.ofSeconds(1));
+		assertThat(cache.get("key", String.class)).isEqualTo("value2");
+	}
+
+	@Test
+	void localEntriesExpireAfterDefaultTimeToLive() {
+		MutableClock clock = new MutableClock();
+		TieredCacheManager cacheManager = new TieredCacheManager(new ConcurrentMapCacheManager(), this.remoteCacheManager);
+		cacheManager.setClock(clock);
+		assertThat(cacheManager.getTimeToLive()).isEqualTo(TieredCacheManager.DEFAULT_TIME_TO_LIVE);
+		Cache cache = cacheManager.getCache("testCache");
+
+		cache.put("key", "value1");
+		this.remoteCache.put("key", "value2");
+		assertThat(cache.get("key", String.class)).isEqualTo("value1");
+		clock.advance(TieredCacheManager.DEFAULT_TIME_TO_LIVE);
+		assertThat(cache.get("key", String.class)).isEqualTo("value2");
+	}
+
+	@Test
+	void invalidationDuringRemoteReadDoesNotStoreStaleValueLocally() {
+		ConcurrentMap<Object, Object> store = new ConcurrentHashMap<>();
+		AtomicReference<Runnable> afterRemoteRead = new AtomicReference<>();
+		SimpleCacheManager remoteCacheManager1 = new SimpleCacheManager();
+		remoteCacheManager1.setCaches(Collections.singletonList(new ConcurrentMapCache("testCache", store, true)));
+		remoteCacheManager1.initializeCaches();
+		SimpleCacheManager remoteCacheManager2 = new SimpleCacheManager();
+		remoteCacheManager2.setCaches(Collections.singletonList(new ConcurrentMapCache("testCache", store, true) {
+			@Override
+			public ValueWrapper get(Object key) {
+				ValueWrapper wrapper = super.get(key);
+				Runnable action = afterRemoteRead.getAndSet(null);
+				if (action != null) {
+					action.run();
+				}
+				return wrapper;
+			}
+		}));
+		remoteCacheManager2.initializeCaches();
+		LocalCacheInvalidationBroadcaster broadcaster1 = new LocalCacheInvalidationBroadcaster();
+		LocalCacheInvalidationBroadcaster broadcaster2 = new LocalCacheInvalidationBroadcaster(broadcaster1);
+		TieredCacheManager member1 = new TieredCacheManager(new ConcurrentMapCacheManager(), remoteCacheManager1);
+		member1.setInvalidationBroadcaster(broadcaster1);
+		TieredCacheManager member2 = new TieredCacheManager(new ConcurrentMapCacheManager(), remoteCacheManager2);
+		member2.setInvalidationBroadcaster(broadcaster2);
+		Cache cache1 = member1.getCache("testCache");
+		Cache cache2 = member2.getCache("testCache");
+		cache1.put("key", "value1");
+
+		// Member 2 reads the old value, then member 1's invalidation arrives
+		afterRemoteRead.set(() -> cache1.put("key", "value2"));
+		assertThat(cache2.get("key", String.class)).isEqualTo("value1");
+		assertThat(((TieredCache) cache2).getLocalCache().get("key")).isNull();
+		assertThat(cache2.get("key", String.class)).isEqualTo("value2");
+	}
+
+	@Test
+	void transactionAwareRemoteCacheDefersLocalUpdate() {
+		TransactionTemplate txTemplate = new TransactionTemplate(new CallCountingTransactionManager());
+		CacheManager remoteCacheManager = new TransactionAwareCacheManagerProxy(this.remoteCacheManager);
+		LocalCacheInvalidationBroadcaster broadcaster1 = new LocalCacheInvalidationBroadcaster();
+		LocalCacheInvalidationBroadcaster broadcaster2 = new LocalCacheInvalidationBroadcaster(broadcaster1);
+		TieredCacheManager member1 = new TieredCacheManager(new ConcurrentMapCacheManager(), remoteCacheManager);
+		member1.setInvalidationBroadcaster(broadcaster1);
+		TieredCacheManager member2 = new TieredCacheManager(new ConcurrentMapCacheManager(), remoteCacheManager);
+		member2.setInvalidationBroadcaster(broadcaster2);
+		Cache cache1 = member1.getCache("testCache");
+		Cache cache2 = member2.getCache("testCache");
+		cache1.put("key", "value1");
+		assertThat(cache2.get("key", String.class)).isEqualTo("value1");
+
+		txTemplate.executeWithoutResult(status -> {
+			cache1.put("key", "value2");
+			assertThat(cache1.get("key", String.class)).isEqualTo("value1");
+			assertThat(this.remoteCache.get("key", String.class)).isEqualTo("value1");
+		});
+		assertThat(cache1.get("key", String.class)).isEqualTo("value2");
+		assertThat(cache2.get("key", String.class)).isEqualTo("value2");
+
+		txTemplate.executeWithoutResult(status -> {
+			cache2.evict("key");
+			assertThat(cache1.get("key", String.class)).isEqualTo("value2");
+		});
+		assertThat(cache1.get("key")).isNull();
+	}
+
+	@Test
+	void missingLocalCacheExposesRemoteCache() {
+		ConcurrentMapCacheManager localCacheManager = new ConcurrentMapCacheManager("otherCache");
+		TieredCacheManager cacheManager = new TieredCacheManager(localCacheManager, this.remoteCacheManager);
+		assertThat(cacheManager.getCache("testCache")).isSameAs(this.remoteCache);
+
+		ConcurrentMapCacheManager staticRemoteCacheManager = new ConcurrentMapCacheManager("testCache");
+		cacheManager = new TieredCacheManager(new ConcurrentMapCacheManager(), staticRemoteCacheManager);
+		assertThat(cacheManager.getCache("unknown")).isNull();
+		assertThat(cacheManager.getCacheNames()).containsExactly("testCache");
+	}
+
+
+	private static class MutableClock extends Clock {
+
+		private Instant instant = Instant.now();
+
+		void advance(Duration duration) {
+			this.instant = this.instant.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return this.instant;
+		}
+	}
+
+}
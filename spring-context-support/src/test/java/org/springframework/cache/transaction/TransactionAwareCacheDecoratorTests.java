@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.cache.transaction;
 
+import java.util.Collections;
+
 import org.junit.jupiter.api.Test;
 
 import org.springframework.cache.Cache;
@@ -87,6 +89,20 @@ public class TransactionAwareCacheDecoratorTests {
 		assertThat(target.get(key, String.class)).isEqualTo("123");
 	}
 
+	@Test
+	public void putAllTransactional() {
+		Cache target = new ConcurrentMapCache("testCache");
+		Cache cache = new TransactionAwareCacheDecorator(target);
+		Object key = new Object();
+
+		txTemplate.executeWithoutResult(s -> {
+			cache.putAll(Collections.singletonMap(key, "123"));
+			assertThat(cache.getAll(Collections.singleton(key))).isEmpty();
+		});
+
+		assertThat(cache.getAll(Collections.singleton(key)).get(key).get()).isEqualTo("123");
+	}
+
 	@Test
 	public void putIfAbsentNonTransactional() {
 		Cache target = new ConcurrentMapCache("testCache");
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Benchmark for {@code @Cacheable} cache hits through the caching proxy,
+ * with the default key generator, a plain argument key expression and
+ * a key expression guarded by a condition.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class CacheInterceptorBenchmark {
+
+	@Benchmark
+	public Object defaultKey(BenchmarkState state) {
+		return state.service.defaultKey(state.id);
+	}
+
+	@Benchmark
+	public Object argumentKey(BenchmarkState state) {
+		return state.service.argumentKey(state.id);
+	}
+
+	@Benchmark
+	public Object conditionalKey(BenchmarkState state) {
+		return state.service.conditionalKey(state.id);
+	}
+
+	@Benchmark
+	public Object multipleArgumentsKey(BenchmarkState state) {
+		return state.service.multipleArgumentsKey(state.id, state.name);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		public final Long id = 42L;
+
+		public final String name = "name";
+
+		public AnnotationConfigApplicationContext context;
+
+		public CachedService service;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.context = new AnnotationConfigApplicationContext(BenchmarkConfig.class);
+			this.service = this.context.getBean(CachedService.class);
+			// Populate the caches so that every benchmark invocation is a hit
+			this.service.defaultKey(this.id);
+			this.service.argumentKey(this.id);
+			this.service.conditionalKey(this.id);
+			this.service.multipleArgumentsKey(this.id, this.name);
+		}
+
+		@TearDown(Level.Trial)
+		public void teardown() {
+			this.context.close();
+		}
+	}
+
+
+	public static class CachedService {
+
+		@Cacheable("default")
+		public Object defaultKey(Long id) {
+			return new Object();
+		}
+
+		@Cacheable(cacheNames = "argument", key = "#id")
+		public Object argumentKey(Long id) {
+			return new Object();
+		}
+
+		@Cacheable(cacheNames = "conditional", key = "#id * 2", condition = "#id > 0")
+		public Object conditionalKey(Long id) {
+			return new Object();
+		}
+
+		@Cacheable("multiple")
+		public Object multipleArgumentsKey(Long id, String name) {
+			return new Object();
+		}
+	}
+
+
+	@Configuration
+	@EnableCaching
+	public static class BenchmarkConfig {
+
+		@Bean
+		public CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager();
+		}
+
+		@Bean
+		public CachedService cachedService() {
+			return new CachedService();
+		}
+	}
+
+}
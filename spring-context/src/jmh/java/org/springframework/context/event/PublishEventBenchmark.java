@@ -0,0 +1,148 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Benchmark for {@code ApplicationContext#publishEvent} with an
+ * {@link ApplicationEvent}, a payload event and a payload event
+ * consumed by a conditional {@code @EventListener} method.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class PublishEventBenchmark {
+
+	@Benchmark
+	public void applicationEvent(BenchmarkState state) {
+		state.context.publishEvent(new DomainApplicationEvent(state));
+	}
+
+	@Benchmark
+	public void payloadEvent(BenchmarkState state) {
+		state.context.publishEvent(state.payload);
+	}
+
+	@Benchmark
+	public void conditionalPayloadEvent(BenchmarkState state) {
+		state.context.publishEvent(state.conditionalPayload);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		public final DomainPayload payload = new DomainPayload(false);
+
+		public final DomainPayload conditionalPayload = new DomainPayload(true);
+
+		public AnnotationConfigApplicationContext context;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.context = new AnnotationConfigApplicationContext(BenchmarkConfig.class);
+		}
+
+		@TearDown(Level.Trial)
+		public void teardown() {
+			this.context.close();
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	public static class DomainApplicationEvent extends ApplicationEvent {
+
+		public DomainApplicationEvent(Object source) {
+			super(source);
+		}
+	}
+
+
+	public static class DomainPayload {
+
+		private final boolean important;
+
+		public DomainPayload(boolean important) {
+			this.important = important;
+		}
+
+		public boolean isImportant() {
+			return this.important;
+		}
+	}
+
+
+	public static class DomainEventListeners {
+
+		public int count;
+
+		@EventListener
+		public void onApplicationEvent(DomainApplicationEvent event) {
+			this.count++;
+		}
+
+		@EventListener
+		public void onPayload(DomainPayload payload) {
+			this.count++;
+		}
+
+		@EventListener(condition = "#payload.important")
+		public void onImportantPayload(DomainPayload payload) {
+			this.count++;
+		}
+	}
+
+
+	/**
+	 * Listener not interested in any of the published events, to be filtered out.
+	 */
+	public static class UnrelatedListener implements ApplicationListener<ContextClosedEvent> {
+
+		@Override
+		public void onApplicationEvent(ContextClosedEvent event) {
+		}
+	}
+
+
+	@Configuration
+	public static class BenchmarkConfig {
+
+		@Bean
+		public DomainEventListeners domainEventListeners() {
+			return new DomainEventListeners();
+		}
+
+		@Bean
+		public UnrelatedListener unrelatedListener() {
+			return new UnrelatedListener();
+		}
+	}
+
+}
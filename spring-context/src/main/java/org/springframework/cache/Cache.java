@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 
 package org.springframework.cache;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
 
 import org.springframework.lang.Nullable;
@@ -100,6 +103,30 @@ public interface Cache {
 	@Nullable
 	<T> T get(Object key, Callable<T> valueLoader);
 
+	/**
+	 * Return the values to which this cache maps the specified keys.
+	 * <p>Keys without a mapping are not contained in the returned Map; a cached
+	 * {@code null} value is returned as a {@link ValueWrapper} holding {@code null}.
+	 * <p>The default implementation delegates to {@link #get(Object)} for each key.
+	 * Implementations backed by a provider with a native bulk lookup should
+	 * override it in order to retrieve all keys in a single round-trip.
+	 * @param keys the keys whose associated values are to be returned
+	 * @return a Map of the keys found in this cache to their values,
+	 * in the iteration order of the given keys (never {@code null})
+	 * @since 5.3.6
+	 * @see #get(Object)
+	 */
+	default Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(keys.size());
+		for (Object key : keys) {
+			ValueWrapper value = get(key);
+			if (value != null) {
+				result.put(key, value);
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Associate the specified value with the specified key in this cache.
 	 * <p>If the cache previously contained a mapping for this key, the old
@@ -114,6 +141,21 @@ public interface Cache {
 	 */
 	void put(Object key, @Nullable Object value);
 
+	/**
+	 * Associate all of the specified key-value pairs in this cache.
+	 * <p>Registration follows the same semantics as {@link #put(Object, Object)}
+	 * for each entry, potentially performed in an asynchronous or deferred fashion.
+	 * <p>The default implementation delegates to {@link #put(Object, Object)} for
+	 * each entry. Implementations backed by a provider with a native bulk store
+	 * should override it in order to store all entries in a single round-trip.
+	 * @param entries the key-value pairs to be associated
+	 * @since 5.3.6
+	 * @see #put(Object, Object)
+	 */
+	default void putAll(Map<?, ?> entries) {
+		entries.forEach(this::put);
+	}
+
 	/**
 	 * Atomically associate the specified value with the specified key in this cache
 	 * if it is not set already.
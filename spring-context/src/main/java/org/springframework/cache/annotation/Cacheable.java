@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -179,4 +179,27 @@ public @interface Cacheable {
 	 */
 	boolean sync() default false;
 
+	/**
+	 * Cache the entries of a collection-valued method individually: the method
+	 * takes a single {@link java.util.Collection} parameter whose elements are
+	 * the cache keys, and returns a {@link java.util.Map} of keys to values.
+	 * <p>All keys are looked up at once, the method is invoked for the missing
+	 * keys only, and the returned entries are stored at once and merged with
+	 * the cached ones, in the order of the given keys. This leads to a couple
+	 * of limitations:
+	 * <ol>
+	 * <li>{@link #key()}, {@link #keyGenerator()} and {@link #unless()} are
+	 * not supported</li>
+	 * <li>It cannot be combined with {@link #sync()}</li>
+	 * <li>No other cache-related operation can be combined</li>
+	 * </ol>
+	 * Invoking the method for the missing keys only relies on the invoker
+	 * honoring modified arguments, as the {@code CacheInterceptor} does;
+	 * otherwise, the method is invoked for all keys.
+	 * @since 5.3.6
+	 * @see org.springframework.cache.Cache#getAll(java.util.Collection)
+	 * @see org.springframework.cache.Cache#putAll(java.util.Map)
+	 */
+	boolean batch() default false;
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,17 +18,26 @@ package org.springframework.cache.interceptor;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Mono;
 
 import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.aop.support.AopUtils;
@@ -42,12 +51,17 @@ import org.springframework.beans.factory.annotation.BeanFactoryAnnotationUtils;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.expression.AnnotatedElementKey;
+import org.springframework.context.expression.BeanFactoryResolver;
 import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.CollectionFactory;
+import org.springframework.core.ReactiveAdapter;
+import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.ObjectUtils;
@@ -69,6 +83,14 @@ import org.springframework.util.function.SupplierUtils;
  * used for determining caching operations, a {@link KeyGenerator} will build the
  * cache keys, and a {@link CacheResolver} will resolve the actual cache(s) to use.
  *
+ * <p>As of 5.3.6, methods returning {@code CompletableFuture} (or {@code CompletionStage})
+ * or a single-value reactive type such as {@code Mono} can be cached by their eventual
+ * value rather than by the returned handle (see {@link #setAsyncResultCaching}): puts and late evictions are applied
+ * once the result completes successfully, and cache hits are returned as already
+ * completed results. With {@code @Cacheable(sync=true)}, concurrent loads for
+ * the same key are collapsed into a single invocation of the underlying method,
+ * optionally refreshing entries ahead of expiration (see {@link #setRefreshAfterWrite}).
+ *
  * <p>Note: A cache aspect is serializable but does not perform any actual caching
  * after deserialization.
  *
@@ -83,6 +105,13 @@ import org.springframework.util.function.SupplierUtils;
 public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		implements BeanFactoryAware, InitializingBean, SmartInitializingSingleton {
 
+	/**
+	 * Reactor present on the classpath?
+	 */
+	private static final boolean reactorPresent =
+			ClassUtils.isPresent("reactor.core.publisher.Mono", CacheAspectSupport.class.getClassLoader());
+
+
 	protected final Log logger = LogFactory.getLog(getClass());
 
 	private final Map<CacheOperationCacheKey, CacheOperationMetadata> metadataCache = new ConcurrentHashMap<>(1024);
@@ -100,6 +129,20 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	@Nullable
 	private BeanFactory beanFactory;
 
+	@Nullable
+	private BeanFactoryResolver beanFactoryResolver;
+
+	private boolean asyncResultCaching = false;
+
+	@Nullable
+	private Duration refreshAfterWrite;
+
+	private final Map<AsyncLoadKey, CompletableFuture<Object>> asyncLoads = new ConcurrentHashMap<>(64);
+
+	// Load times for refreshAfterWrite only, dropped on eviction through this aspect;
+	// soft references cover entries expired by the underlying cache
+	private final Map<AsyncLoadKey, Long> asyncLoadTimestamps = new ConcurrentReferenceHashMap<>(256);
+
 	private boolean initialized = false;
 
 
@@ -184,6 +227,62 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return SupplierUtils.resolve(this.cacheResolver);
 	}
 
+	/**
+	 * Specify whether methods with an asynchronous return type
+	 * ({@code CompletableFuture}, {@code CompletionStage} or a single-value
+	 * reactive type such as {@code Mono}) should be cached by their eventual
+	 * value rather than by the returned handle.
+	 * <p>If enabled, a cache hit is returned as a completed result, puts and
+	 * late evictions are applied once the result completes successfully, and
+	 * concurrent misses of a {@code @Cacheable(sync=true)} method share a single
+	 * invocation of the underlying method.
+	 * <p>Default is {@code false}, caching the returned handle itself as before.
+	 * Note that enabling this changes the type of the values stored in the
+	 * cache, as seen by existing cache contents, serializers and any custom
+	 * {@link CacheErrorHandler}.
+	 * @since 5.3.6
+	 * @see #setRefreshAfterWrite
+	 */
+	public void setAsyncResultCaching(boolean asyncResultCaching) {
+		this.asyncResultCaching = asyncResultCaching;
+	}
+
+	/**
+	 * Return whether methods with an asynchronous return type are cached by
+	 * their eventual value.
+	 * @since 5.3.6
+	 */
+	public boolean isAsyncResultCaching() {
+		return this.asyncResultCaching;
+	}
+
+	/**
+	 * Specify a time after which a value loaded by a {@code @Cacheable(sync=true)}
+	 * method with an asynchronous return type ({@code CompletableFuture} or a
+	 * single-value reactive type such as {@code Mono}) is refreshed ahead of its
+	 * expiration: the first cache hit after that time still returns the cached
+	 * value, but also reloads it through the method in the background.
+	 * <p>Default is none. The entry's expiration is still up to the underlying
+	 * cache; this only avoids callers waiting for a reload of a popular entry.
+	 * Only applies if {@link #setAsyncResultCaching async result caching} is enabled.
+	 * @since 5.3.6
+	 */
+	public void setRefreshAfterWrite(@Nullable Duration refreshAfterWrite) {
+		Assert.isTrue(refreshAfterWrite == null || !refreshAfterWrite.isNegative(),
+				"'refreshAfterWrite' must not be negative");
+		this.refreshAfterWrite = refreshAfterWrite;
+	}
+
+	/**
+	 * Return the time after which asynchronously loaded values are refreshed ahead
+	 * of expiration, if any.
+	 * @since 5.3.6
+	 */
+	@Nullable
+	public Duration getRefreshAfterWrite() {
+		return this.refreshAfterWrite;
+	}
+
 	/**
 	 * Set the {@link CacheManager} to use to create a default {@link CacheResolver}.
 	 * Replace the current {@link CacheResolver}, if any.
@@ -202,6 +301,7 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	@Override
 	public void setBeanFactory(BeanFactory beanFactory) {
 		this.beanFactory = beanFactory;
+		this.beanFactoryResolver = new BeanFactoryResolver(beanFactory);
 	}
 
 
@@ -300,7 +400,7 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 				Assert.state(operationCacheResolver != null, "No CacheResolver/CacheManager set");
 			}
 			metadata = new CacheOperationMetadata(operation, method, targetClass,
-					operationKeyGenerator, operationCacheResolver);
+					operationKeyGenerator, operationCacheResolver, this.asyncResultCaching);
 			this.metadataCache.put(cacheKey, metadata);
 		}
 		return metadata;
@@ -372,12 +472,30 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 	@Nullable
 	private Object execute(final CacheOperationInvoker invoker, Method method, CacheOperationContexts contexts) {
+		// Special handling of batch invocation
+		if (contexts.isBatch()) {
+			CacheOperationContext context = contexts.get(CacheableOperation.class).iterator().next();
+			if (isConditionPassing(context, CacheOperationExpressionEvaluator.NO_RESULT) &&
+					context.getArgs()[0] != null) {
+				return handleBatchGet(invoker, method, context);
+			}
+			else {
+				// No caching required, only call the underlying method
+				return invokeOperation(invoker);
+			}
+		}
+
 		// Special handling of synchronized invocation
 		if (contexts.isSynchronized()) {
 			CacheOperationContext context = contexts.get(CacheableOperation.class).iterator().next();
 			if (isConditionPassing(context, CacheOperationExpressionEvaluator.NO_RESULT)) {
 				Object key = generateKey(context, CacheOperationExpressionEvaluator.NO_RESULT);
 				Cache cache = context.getCaches().iterator().next();
+				AsyncResultAdapter asyncAdapter = context.metadata.asyncResultAdapter;
+				if (asyncAdapter != null) {
+					return asyncAdapter.fromFuture(handleSynchronizedRetrieve(
+							() -> asyncAdapter.toFuture(invokeOperation(invoker)), key, cache));
+				}
 				try {
 					return wrapCacheValue(method, handleSynchronizedGet(invoker, key, cache));
 				}
@@ -410,18 +528,32 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		Object cacheValue;
 		Object returnValue;
+		AsyncResultAdapter asyncAdapter = contexts.getAsyncResultAdapter();
 
 		if (cacheHit != null && !hasCachePut(contexts)) {
 			// If there are no put requests, just use the cache hit
 			cacheValue = cacheHit.get();
-			returnValue = wrapCacheValue(method, cacheValue);
+			returnValue = (asyncAdapter != null ? asyncAdapter.fromValue(cacheValue) :
+					wrapCacheValue(method, cacheValue));
 		}
 		else {
 			// Invoke the method if we don't have a cache hit
 			returnValue = invokeOperation(invoker);
+			if (asyncAdapter != null && returnValue != null) {
+				// Apply puts and late evictions to the eventual value of the async result
+				return asyncAdapter.onSuccess(returnValue,
+						value -> applyCachePutsAndLateEvicts(contexts, value, cachePutRequests));
+			}
 			cacheValue = unwrapReturnValue(returnValue);
 		}
 
+		applyCachePutsAndLateEvicts(contexts, cacheValue, cachePutRequests);
+		return returnValue;
+	}
+
+	private void applyCachePutsAndLateEvicts(CacheOperationContexts contexts,
+			@Nullable Object cacheValue, List<CachePutRequest> cachePutRequests) {
+
 		// Collect any explicit @CachePuts
 		collectPutRequests(contexts.get(CachePutOperation.class), cacheValue, cachePutRequests);
 
@@ -432,8 +564,6 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		// Process any late evictions
 		processCacheEvicts(contexts.get(CacheEvictOperation.class), false, cacheValue);
-
-		return returnValue;
 	}
 
 	@Nullable
@@ -452,6 +582,167 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return result;
 	}
 
+	/**
+	 * Look up all keys of a {@code @Cacheable(batch=true)} invocation at once,
+	 * invoke the method for the missing keys only and merge the results.
+	 */
+	private Map<Object, Object> handleBatchGet(CacheOperationInvoker invoker, Method method,
+			CacheOperationContext context) {
+
+		Object[] args = context.getArgs();
+		Collection<?> keys = (Collection<?>) args[0];
+		Set<Object> missingKeys = new LinkedHashSet<>(keys);
+		Map<Object, Object> cached = new HashMap<>();
+		for (Cache cache : context.getCaches()) {
+			if (missingKeys.isEmpty()) {
+				break;
+			}
+			doGetAll(cache, missingKeys).forEach((key, value) -> cached.put(key, value.get()));
+			missingKeys.removeAll(cached.keySet());
+		}
+
+		Map<?, ?> loaded = Collections.emptyMap();
+		if (!missingKeys.isEmpty()) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("No cache entries for " + missingKeys.size() + " of " + keys.size() +
+						" keys in cache(s) " + context.getCacheNames());
+			}
+			Collection<Object> missingArg =
+					CollectionFactory.createCollection(method.getParameterTypes()[0], missingKeys.size());
+			missingArg.addAll(missingKeys);
+			args[0] = missingArg;
+			Object returnValue;
+			try {
+				returnValue = invokeOperation(invoker);
+			}
+			finally {
+				args[0] = keys;
+			}
+			if (returnValue != null) {
+				loaded = (Map<?, ?>) returnValue;
+				if (!loaded.isEmpty()) {
+					for (Cache cache : context.getCaches()) {
+						doPutAll(cache, loaded);
+					}
+				}
+			}
+		}
+		else if (logger.isTraceEnabled()) {
+			logger.trace("Cache entries for all " + keys.size() + " keys found in cache(s) " +
+					context.getCacheNames());
+		}
+
+		Map<Object, Object> result = new LinkedHashMap<>(cached.size() + loaded.size());
+		for (Object key : keys) {
+			if (cached.containsKey(key)) {
+				result.put(key, cached.get(key));
+			}
+			else if (loaded.containsKey(key)) {
+				result.put(key, loaded.get(key));
+			}
+		}
+		// Entries returned beyond the requested keys
+		loaded.forEach(result::putIfAbsent);
+		return result;
+	}
+
+	/**
+	 * Retrieve the value for the given key from the cache, or load it through
+	 * the given loader, sharing a single in-flight load between concurrent callers.
+	 */
+	private CompletableFuture<Object> handleSynchronizedRetrieve(
+			Supplier<CompletableFuture<Object>> loader, Object key, Cache cache) {
+
+		AsyncLoadKey loadKey = new AsyncLoadKey(cache, key);
+		Cache.ValueWrapper cached = doGet(cache, key);
+		if (cached != null) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Cache entry for key '" + key + "' found in cache '" + cache.getName() + "'");
+			}
+			if (this.refreshAfterWrite != null) {
+				refreshIfNecessary(loadKey, loader, this.refreshAfterWrite);
+			}
+			return CompletableFuture.completedFuture(cached.get());
+		}
+		CompletableFuture<Object> load = this.asyncLoads.get(loadKey);
+		if (load == null) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("No cache entry for key '" + key + "' in cache " + cache.getName());
+			}
+			load = loadAsync(loadKey, loader);
+		}
+		else if (logger.isTraceEnabled()) {
+			logger.trace("Joining in-flight load for key '" + key + "' in cache '" + cache.getName() + "'");
+		}
+		// Isolate callers from each other, e.g. in case of cancellation
+		return load.thenApply(value -> value);
+	}
+
+	private void refreshIfNecessary(AsyncLoadKey loadKey, Supplier<CompletableFuture<Object>> loader,
+			Duration refreshAfterWrite) {
+
+		long now = System.nanoTime();
+		Long loadedAt = this.asyncLoadTimestamps.putIfAbsent(loadKey, now);
+		if (loadedAt != null && now - loadedAt >= refreshAfterWrite.toNanos() &&
+				!this.asyncLoads.containsKey(loadKey)) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Refreshing cache entry for key '" + loadKey.key + "' in cache '" +
+						loadKey.cache.getName() + "'");
+			}
+			// Do not retry before another refresh period, in case of failure
+			this.asyncLoadTimestamps.put(loadKey, now);
+			try {
+				loadAsync(loadKey, loader);
+			}
+			catch (RuntimeException ex) {
+				// Keep the current value: the caller asked for a cache hit.
+				logger.debug("Failed to refresh cache entry for key '" + loadKey.key + "'", ex);
+			}
+		}
+	}
+
+	private CompletableFuture<Object> loadAsync(AsyncLoadKey loadKey, Supplier<CompletableFuture<Object>> loader) {
+		CompletableFuture<Object> result = new CompletableFuture<>();
+		CompletableFuture<Object> existing = this.asyncLoads.putIfAbsent(loadKey, result);
+		if (existing != null) {
+			return existing;
+		}
+		CompletableFuture<Object> load;
+		try {
+			load = loader.get();
+		}
+		catch (RuntimeException | Error ex) {
+			this.asyncLoads.remove(loadKey, result);
+			result.completeExceptionally(ex instanceof CacheOperationInvoker.ThrowableWrapper ?
+					((CacheOperationInvoker.ThrowableWrapper) ex).getOriginal() : ex);
+			throw ex;
+		}
+		load.whenComplete((value, ex) -> {
+			Throwable failure = ex;
+			try {
+				if (failure == null) {
+					doPut(loadKey.cache, loadKey.key, value);
+					if (this.refreshAfterWrite != null) {
+						this.asyncLoadTimestamps.put(loadKey, System.nanoTime());
+					}
+				}
+			}
+			catch (RuntimeException putEx) {
+				failure = putEx;
+			}
+			finally {
+				this.asyncLoads.remove(loadKey, result);
+			}
+			if (failure != null) {
+				result.completeExceptionally(failure);
+			}
+			else {
+				result.complete(value);
+			}
+		});
+		return result;
+	}
+
 	@Nullable
 	private Object wrapCacheValue(Method method, @Nullable Object cacheValue) {
 		if (method.getReturnType() == Optional.class &&
@@ -503,6 +794,9 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			if (operation.isCacheWide()) {
 				logInvalidating(context, operation, null);
 				doClear(cache, operation.isBeforeInvocation());
+				if (!this.asyncLoadTimestamps.isEmpty()) {
+					this.asyncLoadTimestamps.keySet().removeIf(loadKey -> loadKey.cache == cache);
+				}
 			}
 			else {
 				if (key == null) {
@@ -510,6 +804,9 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 				}
 				logInvalidating(context, operation, key);
 				doEvict(cache, key, operation.isBeforeInvocation());
+				if (!this.asyncLoadTimestamps.isEmpty()) {
+					this.asyncLoadTimestamps.remove(new AsyncLoadKey(cache, key));
+				}
 			}
 		}
 	}
@@ -607,6 +904,11 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final boolean sync;
 
+		private final boolean batch;
+
+		@Nullable
+		private final AsyncResultAdapter asyncResultAdapter;
+
 		public CacheOperationContexts(Collection<? extends CacheOperation> operations, Method method,
 				Object[] args, Object target, Class<?> targetClass) {
 
@@ -615,6 +917,9 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 				this.contexts.add(op.getClass(), getOperationContext(op, method, args, target, targetClass));
 			}
 			this.sync = determineSyncFlag(method);
+			this.batch = determineBatchFlag(method);
+			this.asyncResultAdapter = (!this.contexts.isEmpty() ?
+					this.contexts.values().iterator().next().get(0).metadata.asyncResultAdapter : null);
 		}
 
 		public Collection<CacheOperationContext> get(Class<? extends CacheOperation> operationClass) {
@@ -626,6 +931,15 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			return this.sync;
 		}
 
+		public boolean isBatch() {
+			return this.batch;
+		}
+
+		@Nullable
+		public AsyncResultAdapter getAsyncResultAdapter() {
+			return this.asyncResultAdapter;
+		}
+
 		private boolean determineSyncFlag(Method method) {
 			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
 			if (cacheOperationContexts == null) {  // no @Cacheable operation at all
@@ -661,6 +975,47 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			}
 			return false;
 		}
+
+		private boolean determineBatchFlag(Method method) {
+			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
+			if (cacheOperationContexts == null) {  // no @Cacheable operation at all
+				return false;
+			}
+			boolean batchEnabled = false;
+			for (CacheOperationContext cacheOperationContext : cacheOperationContexts) {
+				if (((CacheableOperation) cacheOperationContext.getOperation()).isBatch()) {
+					batchEnabled = true;
+					break;
+				}
+			}
+			if (batchEnabled) {
+				if (this.contexts.size() > 1 || cacheOperationContexts.size() > 1) {
+					throw new IllegalStateException(
+							"@Cacheable(batch=true) cannot be combined with other cache operations on '" + method + "'");
+				}
+				CacheableOperation operation = (CacheableOperation) cacheOperationContexts.get(0).getOperation();
+				if (operation.isSync()) {
+					throw new IllegalStateException(
+							"@Cacheable(batch=true) cannot be combined with sync=true on '" + operation + "'");
+				}
+				if (StringUtils.hasText(operation.getUnless())) {
+					throw new IllegalStateException(
+							"@Cacheable(batch=true) does not support unless attribute on '" + operation + "'");
+				}
+				if (StringUtils.hasText(operation.getKey()) || StringUtils.hasText(operation.getKeyGenerator())) {
+					throw new IllegalStateException(
+							"@Cacheable(batch=true) does not support custom keys on '" + operation + "'");
+				}
+				Class<?>[] parameterTypes = method.getParameterTypes();
+				if (parameterTypes.length != 1 || !Collection.class.isAssignableFrom(parameterTypes[0]) ||
+						!method.getReturnType().isAssignableFrom(LinkedHashMap.class)) {
+					throw new IllegalStateException("@Cacheable(batch=true) requires a single Collection " +
+							"parameter and a Map return type on '" + method + "'");
+				}
+				return true;
+			}
+			return false;
+		}
 	}
 
 
@@ -684,9 +1039,22 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final CacheResolver cacheResolver;
 
+		@Nullable
+		private final AsyncResultAdapter asyncResultAdapter;
+
+		// Index of the argument referenced by a plain key expression such as "#id":
+		// -2 if not resolved yet, -1 if the key expression needs to be evaluated
+		private volatile int keyArgumentIndex = -2;
+
 		public CacheOperationMetadata(CacheOperation operation, Method method, Class<?> targetClass,
 				KeyGenerator keyGenerator, CacheResolver cacheResolver) {
 
+			this(operation, method, targetClass, keyGenerator, cacheResolver, false);
+		}
+
+		private CacheOperationMetadata(CacheOperation operation, Method method, Class<?> targetClass,
+				KeyGenerator keyGenerator, CacheResolver cacheResolver, boolean asyncResultCaching) {
+
 			this.operation = operation;
 			this.method = BridgeMethodResolver.findBridgedMethod(method);
 			this.targetClass = targetClass;
@@ -695,6 +1063,22 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			this.methodKey = new AnnotatedElementKey(this.targetMethod, targetClass);
 			this.keyGenerator = keyGenerator;
 			this.cacheResolver = cacheResolver;
+			this.asyncResultAdapter = (asyncResultCaching ?
+					determineAsyncResultAdapter(this.method.getReturnType()) : null);
+		}
+
+		@Nullable
+		private static AsyncResultAdapter determineAsyncResultAdapter(Class<?> returnType) {
+			if (returnType == CompletableFuture.class || returnType == CompletionStage.class) {
+				return FutureResultAdapter.INSTANCE;
+			}
+			if (reactorPresent) {
+				ReactiveAdapter adapter = ReactiveAdapterRegistry.getSharedInstance().getAdapter(returnType);
+				if (adapter != null && !adapter.isMultiValue() && !adapter.isNoValue()) {
+					return new ReactiveResultAdapter(adapter);
+				}
+			}
+			return null;
 		}
 	}
 
@@ -712,17 +1096,23 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final Collection<? extends Cache> caches;
 
-		private final Collection<String> cacheNames;
+		@Nullable
+		private Collection<String> cacheNames;
 
 		@Nullable
 		private Boolean conditionPassing;
 
+		@Nullable
+		private CacheExpressionRootObject rootObject;
+
+		@Nullable
+		private EvaluationContext evaluationContext;
+
 		public CacheOperationContext(CacheOperationMetadata metadata, Object[] args, Object target) {
 			this.metadata = metadata;
 			this.args = extractArgs(metadata.method, args);
 			this.target = target;
 			this.caches = CacheAspectSupport.this.getCaches(this, metadata.cacheResolver);
-			this.cacheNames = createCacheNames(this.caches);
 		}
 
 		@Override
@@ -790,16 +1180,45 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		 */
 		@Nullable
 		protected Object generateKey(@Nullable Object result) {
-			if (StringUtils.hasText(this.metadata.operation.getKey())) {
+			String keyExpression = this.metadata.operation.getKey();
+			if (StringUtils.hasText(keyExpression)) {
+				int argumentIndex = this.metadata.keyArgumentIndex;
+				if (argumentIndex == -2) {
+					argumentIndex = evaluator.findArgumentIndex(keyExpression, this.metadata.targetMethod);
+					this.metadata.keyArgumentIndex = argumentIndex;
+				}
+				if (argumentIndex >= 0 && argumentIndex < this.args.length) {
+					// Plain argument reference: no evaluation context required
+					return this.args[argumentIndex];
+				}
 				EvaluationContext evaluationContext = createEvaluationContext(result);
-				return evaluator.key(this.metadata.operation.getKey(), this.metadata.methodKey, evaluationContext);
+				return evaluator.key(keyExpression, this.metadata.methodKey, evaluationContext);
 			}
 			return this.metadata.keyGenerator.generate(this.target, this.metadata.method, this.args);
 		}
 
 		private EvaluationContext createEvaluationContext(@Nullable Object result) {
-			return evaluator.createEvaluationContext(this.caches, this.metadata.method, this.args,
-					this.target, this.metadata.targetClass, this.metadata.targetMethod, result, beanFactory);
+			if (result != CacheOperationExpressionEvaluator.NO_RESULT) {
+				return doCreateEvaluationContext(result);
+			}
+			// Condition and key evaluated before the invocation share the same context
+			EvaluationContext evaluationContext = this.evaluationContext;
+			if (evaluationContext == null) {
+				evaluationContext = doCreateEvaluationContext(result);
+				this.evaluationContext = evaluationContext;
+			}
+			return evaluationContext;
+		}
+
+		private EvaluationContext doCreateEvaluationContext(@Nullable Object result) {
+			CacheExpressionRootObject rootObject = this.rootObject;
+			if (rootObject == null) {
+				rootObject = new CacheExpressionRootObject(this.caches, this.metadata.method, this.args,
+						this.target, this.metadata.targetClass);
+				this.rootObject = rootObject;
+			}
+			return evaluator.createEvaluationContext(rootObject, this.metadata.targetMethod, this.args,
+					result, beanFactoryResolver);
 		}
 
 		protected Collection<? extends Cache> getCaches() {
@@ -807,7 +1226,12 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		}
 
 		protected Collection<String> getCacheNames() {
-			return this.cacheNames;
+			Collection<String> cacheNames = this.cacheNames;
+			if (cacheNames == null) {
+				cacheNames = createCacheNames(this.caches);
+				this.cacheNames = cacheNames;
+			}
+			return cacheNames;
 		}
 
 		private Collection<String> createCacheNames(Collection<? extends Cache> caches) {
@@ -885,6 +1309,137 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		}
 	}
 
+	/**
+	 * Key for an asynchronous load of a given key into a given cache.
+	 */
+	private static final class AsyncLoadKey {
+
+		private final Cache cache;
+
+		private final Object key;
+
+		AsyncLoadKey(Cache cache, Object key) {
+			this.cache = cache;
+			this.key = key;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof AsyncLoadKey)) {
+				return false;
+			}
+			AsyncLoadKey otherKey = (AsyncLoadKey) other;
+			return (this.cache == otherKey.cache && this.key.equals(otherKey.key));
+		}
+
+		@Override
+		public int hashCode() {
+			return (System.identityHashCode(this.cache) * 31 + this.key.hashCode());
+		}
+	}
+
+
+	/**
+	 * Strategy for caching the eventual value of an asynchronous method result.
+	 */
+	private interface AsyncResultAdapter {
+
+		/**
+		 * Adapt a cached value to a completed result of the method's return type.
+		 */
+		Object fromValue(@Nullable Object value);
+
+		/**
+		 * Adapt the given future to a result of the method's return type.
+		 */
+		Object fromFuture(CompletableFuture<Object> future);
+
+		/**
+		 * Obtain a future for the eventual value of the given method result.
+		 */
+		CompletableFuture<Object> toFuture(@Nullable Object result);
+
+		/**
+		 * Decorate the given method result to notify the callback of its value.
+		 */
+		Object onSuccess(Object result, Consumer<Object> callback);
+	}
+
+
+	/**
+	 * {@link AsyncResultAdapter} for {@code CompletableFuture} and {@code CompletionStage}.
+	 */
+	private static final class FutureResultAdapter implements AsyncResultAdapter {
+
+		static final FutureResultAdapter INSTANCE = new FutureResultAdapter();
+
+		@Override
+		public Object fromValue(@Nullable Object value) {
+			return CompletableFuture.completedFuture(value);
+		}
+
+		@Override
+		public Object fromFuture(CompletableFuture<Object> future) {
+			return future;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public CompletableFuture<Object> toFuture(@Nullable Object result) {
+			Assert.state(result != null, "Asynchronous cacheable method must not return null");
+			return ((CompletionStage<Object>) result).toCompletableFuture();
+		}
+
+		@Override
+		public Object onSuccess(Object result, Consumer<Object> callback) {
+			return toFuture(result).thenApply(value -> {
+				callback.accept(value);
+				return value;
+			});
+		}
+	}
+
+
+	/**
+	 * {@link AsyncResultAdapter} for single-value reactive types such as {@code Mono}.
+	 * <p>Note that a load shared between concurrent callers subscribes to the
+	 * method's publisher on a cache miss, rather than on subscription to the
+	 * returned publisher.
+	 */
+	private static final class ReactiveResultAdapter implements AsyncResultAdapter {
+
+		private final ReactiveAdapter adapter;
+
+		ReactiveResultAdapter(ReactiveAdapter adapter) {
+			this.adapter = adapter;
+		}
+
+		@Override
+		public Object fromValue(@Nullable Object value) {
+			return this.adapter.fromPublisher(Mono.justOrEmpty(value));
+		}
+
+		@Override
+		public Object fromFuture(CompletableFuture<Object> future) {
+			return this.adapter.fromPublisher(Mono.fromFuture(future));
+		}
+
+		@Override
+		public CompletableFuture<Object> toFuture(@Nullable Object result) {
+			Assert.state(result != null, "Reactive cacheable method must not return null");
+			return Mono.from(this.adapter.toPublisher(result)).toFuture();
+		}
+
+		@Override
+		public Object onSuccess(Object result, Consumer<Object> callback) {
+			return this.adapter.fromPublisher(Mono.from(this.adapter.toPublisher(result)).doOnSuccess(callback));
+		}
+	}
+
+
 	/**
 	 * Internal holder class for recording that a cache method was invoked.
 	 */
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -44,7 +44,8 @@ import org.springframework.lang.Nullable;
  */
 class CacheEvaluationContext extends MethodBasedEvaluationContext {
 
-	private final Set<String> unavailableVariables = new HashSet<>(1);
+	@Nullable
+	private Set<String> unavailableVariables;
 
 
 	CacheEvaluationContext(Object rootObject, Method method, Object[] arguments,
@@ -62,6 +63,9 @@ class CacheEvaluationContext extends MethodBasedEvaluationContext {
 	 * trying to use that variable should therefore fail to evaluate.
 	 */
 	public void addUnavailableVariable(String name) {
+		if (this.unavailableVariables == null) {
+			this.unavailableVariables = new HashSet<>(1);
+		}
 		this.unavailableVariables.add(name);
 	}
 
@@ -72,7 +76,7 @@ class CacheEvaluationContext extends MethodBasedEvaluationContext {
 	@Override
 	@Nullable
 	public Object lookupVariable(String name) {
-		if (this.unavailableVariables.contains(name)) {
+		if (this.unavailableVariables != null && this.unavailableVariables.contains(name)) {
 			throw new VariableNotAvailableException(name);
 		}
 		return super.lookupVariable(name);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,8 +26,10 @@ import org.springframework.cache.Cache;
 import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.context.expression.BeanFactoryResolver;
 import org.springframework.context.expression.CachedExpressionEvaluator;
+import org.springframework.expression.BeanResolver;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
 import org.springframework.lang.Nullable;
 
 /**
@@ -35,7 +37,9 @@ import org.springframework.lang.Nullable;
  * Meant to be used as a reusable, thread-safe component.
  *
  * <p>Performs internal caching for performance reasons
- * using {@link AnnotatedElementKey}.
+ * using {@link AnnotatedElementKey}. Expressions are compiled in
+ * {@link SpelCompilerMode#MIXED} mode unless a different mode is set
+ * through the {@code spring.expression.compiler.mode} property.
  *
  * @author Costin Leau
  * @author Phillip Webb
@@ -67,6 +71,13 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 
 	private final Map<ExpressionKey, Expression> unlessCache = new ConcurrentHashMap<>(64);
 
+	private final Map<Method, String[]> parameterNamesCache = new ConcurrentHashMap<>(64);
+
+
+	CacheOperationExpressionEvaluator() {
+		super(SpelCompilerMode.MIXED);
+	}
+
 
 	/**
 	 * Create an {@link EvaluationContext}.
@@ -85,6 +96,24 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 
 		CacheExpressionRootObject rootObject = new CacheExpressionRootObject(
 				caches, method, args, target, targetClass);
+		return createEvaluationContext(rootObject, targetMethod, args, result,
+				(beanFactory != null ? new BeanFactoryResolver(beanFactory) : null));
+	}
+
+	/**
+	 * Create an {@link EvaluationContext} for the given, possibly shared, root object.
+	 * @param rootObject the root object
+	 * @param targetMethod the target method
+	 * @param args the method arguments
+	 * @param result the return value (can be {@code null}) or
+	 * {@link #NO_RESULT} if there is no return at this time
+	 * @param beanResolver the bean resolver to expose, if any
+	 * @return the evaluation context
+	 * @since 5.3.6
+	 */
+	EvaluationContext createEvaluationContext(CacheExpressionRootObject rootObject, Method targetMethod,
+			Object[] args, @Nullable Object result, @Nullable BeanResolver beanResolver) {
+
 		CacheEvaluationContext evaluationContext = new CacheEvaluationContext(
 				rootObject, targetMethod, args, getParameterNameDiscoverer());
 		if (result == RESULT_UNAVAILABLE) {
@@ -93,12 +122,56 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 		else if (result != NO_RESULT) {
 			evaluationContext.setVariable(RESULT_VARIABLE, result);
 		}
-		if (beanFactory != null) {
-			evaluationContext.setBeanResolver(new BeanFactoryResolver(beanFactory));
+		if (beanResolver != null) {
+			evaluationContext.setBeanResolver(beanResolver);
 		}
 		return evaluationContext;
 	}
 
+	/**
+	 * Determine whether the given expression is a plain reference to a method
+	 * argument, such as {@code #id}, {@code #p0} or {@code #a0}, and return the
+	 * index of that argument, so that it can be read without an evaluation context.
+	 * @param expression the expression to inspect
+	 * @param targetMethod the method whose parameters are exposed as variables
+	 * @return the index of the referenced argument, or {@code -1} if the
+	 * expression needs to be evaluated
+	 * @since 5.3.6
+	 */
+	int findArgumentIndex(String expression, Method targetMethod) {
+		String variable = expression.trim();
+		if (variable.length() < 2 || variable.charAt(0) != '#' || targetMethod.isVarArgs() ||
+				!Character.isJavaIdentifierStart(variable.charAt(1))) {
+			return -1;
+		}
+		for (int i = 2; i < variable.length(); i++) {
+			if (!Character.isJavaIdentifierPart(variable.charAt(i))) {
+				return -1;
+			}
+		}
+		String name = variable.substring(1);
+		if (name.equals("root") || name.equals("this") || name.equals(RESULT_VARIABLE)) {
+			return -1;
+		}
+		// Same precedence as MethodBasedEvaluationContext: later variables win
+		String[] paramNames = getParameterNames(targetMethod);
+		int index = -1;
+		for (int i = 0; i < targetMethod.getParameterCount(); i++) {
+			if (name.equals("a" + i) || name.equals("p" + i) ||
+					(i < paramNames.length && name.equals(paramNames[i]))) {
+				index = i;
+			}
+		}
+		return index;
+	}
+
+	private String[] getParameterNames(Method method) {
+		return this.parameterNamesCache.computeIfAbsent(method, key -> {
+			String[] names = getParameterNameDiscoverer().getParameterNames(key);
+			return (names != null ? names : new String[0]);
+		});
+	}
+
 	@Nullable
 	public Object key(String keyExpression, AnnotatedElementKey methodKey, EvaluationContext evalContext) {
 		return getExpression(this.keyCache, methodKey, keyExpression).getValue(evalContext);
@@ -121,6 +194,7 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 		this.keyCache.clear();
 		this.conditionCache.clear();
 		this.unlessCache.clear();
+		this.parameterNamesCache.clear();
 	}
 
 }
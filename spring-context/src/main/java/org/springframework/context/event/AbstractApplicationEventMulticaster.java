@@ -16,6 +16,8 @@
 
 package org.springframework.context.event;
 
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashSet;
@@ -34,6 +36,7 @@ import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.lang.Nullable;
@@ -68,6 +71,8 @@ public abstract class AbstractApplicationEventMulticaster
 
 	final Map<ListenerCacheKey, CachedListenerRetriever> retrieverCache = new ConcurrentHashMap<>(64);
 
+	final Map<DispatchKey, CachedListenerRetriever> dispatchTable = new ConcurrentHashMap<>(64);
+
 	@Nullable
 	private ClassLoader beanClassLoader;
 
@@ -110,7 +115,7 @@ public abstract class AbstractApplicationEventMulticaster
 				this.defaultRetriever.applicationListeners.remove(singletonTarget);
 			}
 			this.defaultRetriever.applicationListeners.add(listener);
-			this.retrieverCache.clear();
+			clearListenerCaches();
 		}
 	}
 
@@ -118,7 +123,7 @@ public abstract class AbstractApplicationEventMulticaster
 	public void addApplicationListenerBean(String listenerBeanName) {
 		synchronized (this.defaultRetriever) {
 			this.defaultRetriever.applicationListenerBeans.add(listenerBeanName);
-			this.retrieverCache.clear();
+			clearListenerCaches();
 		}
 	}
 
@@ -126,7 +131,7 @@ public abstract class AbstractApplicationEventMulticaster
 	public void removeApplicationListener(ApplicationListener<?> listener) {
 		synchronized (this.defaultRetriever) {
 			this.defaultRetriever.applicationListeners.remove(listener);
-			this.retrieverCache.clear();
+			clearListenerCaches();
 		}
 	}
 
@@ -134,7 +139,7 @@ public abstract class AbstractApplicationEventMulticaster
 	public void removeApplicationListenerBean(String listenerBeanName) {
 		synchronized (this.defaultRetriever) {
 			this.defaultRetriever.applicationListenerBeans.remove(listenerBeanName);
-			this.retrieverCache.clear();
+			clearListenerCaches();
 		}
 	}
 
@@ -142,7 +147,7 @@ public abstract class AbstractApplicationEventMulticaster
 	public void removeApplicationListeners(Predicate<ApplicationListener<?>> predicate) {
 		synchronized (this.defaultRetriever) {
 			this.defaultRetriever.applicationListeners.removeIf(predicate);
-			this.retrieverCache.clear();
+			clearListenerCaches();
 		}
 	}
 
@@ -150,7 +155,7 @@ public abstract class AbstractApplicationEventMulticaster
 	public void removeApplicationListenerBeans(Predicate<String> predicate) {
 		synchronized (this.defaultRetriever) {
 			this.defaultRetriever.applicationListenerBeans.removeIf(predicate);
-			this.retrieverCache.clear();
+			clearListenerCaches();
 		}
 	}
 
@@ -159,11 +164,17 @@ public abstract class AbstractApplicationEventMulticaster
 		synchronized (this.defaultRetriever) {
 			this.defaultRetriever.applicationListeners.clear();
 			this.defaultRetriever.applicationListenerBeans.clear();
-			this.retrieverCache.clear();
+			clearListenerCaches();
 		}
 	}
 
 
+	private void clearListenerCaches() {
+		this.retrieverCache.clear();
+		this.dispatchTable.clear();
+	}
+
+
 	/**
 	 * Return a Collection containing all ApplicationListeners.
 	 * @return a Collection of ApplicationListeners
@@ -189,6 +200,19 @@ public abstract class AbstractApplicationEventMulticaster
 
 		Object source = event.getSource();
 		Class<?> sourceType = (source != null ? source.getClass() : null);
+
+		// Quick check for a dispatch table entry, keyed by class identity only
+		DispatchKey dispatchKey = DispatchKey.forEvent(event, eventType, sourceType);
+		if (dispatchKey != null) {
+			CachedListenerRetriever dispatchRetriever = this.dispatchTable.get(dispatchKey);
+			if (dispatchRetriever != null) {
+				Collection<ApplicationListener<?>> result = dispatchRetriever.getApplicationListeners();
+				if (result != null) {
+					return result;
+				}
+			}
+		}
+
 		ListenerCacheKey cacheKey = new ListenerCacheKey(eventType, sourceType);
 
 		// Potential new retriever to populate
@@ -212,13 +236,34 @@ public abstract class AbstractApplicationEventMulticaster
 		if (existingRetriever != null) {
 			Collection<ApplicationListener<?>> result = existingRetriever.getApplicationListeners();
 			if (result != null) {
+				registerDispatch(dispatchKey, cacheKey, existingRetriever);
 				return result;
 			}
 			// If result is null, the existing retriever is not fully populated yet by another thread.
 			// Proceed like caching wasn't possible for this current local attempt.
 		}
 
-		return retrieveApplicationListeners(eventType, sourceType, newRetriever);
+		Collection<ApplicationListener<?>> result = retrieveApplicationListeners(eventType, sourceType, newRetriever);
+		if (newRetriever != null) {
+			registerDispatch(dispatchKey, cacheKey, newRetriever);
+		}
+		return result;
+	}
+
+	/**
+	 * Expose the given populated retriever through the dispatch table as well,
+	 * unless the listener registrations changed in the meantime.
+	 */
+	private void registerDispatch(@Nullable DispatchKey dispatchKey, ListenerCacheKey cacheKey,
+			CachedListenerRetriever retriever) {
+
+		if (dispatchKey != null && (this.beanClassLoader == null || dispatchKey.isCacheSafe(this.beanClassLoader))) {
+			synchronized (this.defaultRetriever) {
+				if (this.retrieverCache.get(cacheKey) == retriever) {
+					this.dispatchTable.put(dispatchKey, retriever);
+				}
+			}
+		}
 	}
 
 	/**
@@ -435,6 +480,82 @@ public abstract class AbstractApplicationEventMulticaster
 	}
 
 
+	/**
+	 * Dispatch table key for events whose type is fully determined by their class,
+	 * or by the class of their payload in case of a {@link PayloadApplicationEvent},
+	 * based on class identity rather than {@link ResolvableType} equality.
+	 */
+	private static final class DispatchKey {
+
+		private final Class<?> eventClass;
+
+		@Nullable
+		private final Class<?> payloadClass;
+
+		@Nullable
+		private final Class<?> sourceType;
+
+		private DispatchKey(Class<?> eventClass, @Nullable Class<?> payloadClass, @Nullable Class<?> sourceType) {
+			this.eventClass = eventClass;
+			this.payloadClass = payloadClass;
+			this.sourceType = sourceType;
+		}
+
+		/**
+		 * Create a key for the given event if the given event type is the plain
+		 * event class or a {@code PayloadApplicationEvent} of the plain payload class.
+		 * @return the key, or {@code null} if the event type carries further information
+		 */
+		@Nullable
+		static DispatchKey forEvent(ApplicationEvent event, ResolvableType eventType, @Nullable Class<?> sourceType) {
+			Class<?> eventClass = event.getClass();
+			Type type = eventType.getType();
+			if (type == eventClass) {
+				return new DispatchKey(eventClass, null, sourceType);
+			}
+			if (eventClass == PayloadApplicationEvent.class && type instanceof ParameterizedType &&
+					((ParameterizedType) type).getRawType() == PayloadApplicationEvent.class) {
+				Class<?> payloadClass = ((PayloadApplicationEvent<?>) event).getPayload().getClass();
+				if (((ParameterizedType) type).getActualTypeArguments()[0] == payloadClass) {
+					return new DispatchKey(eventClass, payloadClass, sourceType);
+				}
+			}
+			return null;
+		}
+
+		boolean isCacheSafe(ClassLoader classLoader) {
+			return (ClassUtils.isCacheSafe(this.eventClass, classLoader) &&
+					(this.payloadClass == null || ClassUtils.isCacheSafe(this.payloadClass, classLoader)) &&
+					(this.sourceType == null || ClassUtils.isCacheSafe(this.sourceType, classLoader)));
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof DispatchKey)) {
+				return false;
+			}
+			DispatchKey otherKey = (DispatchKey) other;
+			return (this.eventClass == otherKey.eventClass && this.payloadClass == otherKey.payloadClass &&
+					this.sourceType == otherKey.sourceType);
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.eventClass.hashCode() * 29 + ObjectUtils.nullSafeHashCode(this.payloadClass)) * 29 +
+					ObjectUtils.nullSafeHashCode(this.sourceType);
+		}
+
+		@Override
+		public String toString() {
+			return "DispatchKey [eventClass = " + this.eventClass + ", payloadClass = " + this.payloadClass +
+					", sourceType = " + this.sourceType + "]";
+		}
+	}
+
+
 	/**
 	 * Helper class that encapsulates a specific set of target listeners,
 	 * allowing for efficient retrieval of pre-filtered listeners.
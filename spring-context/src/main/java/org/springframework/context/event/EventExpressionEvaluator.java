@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,12 +27,18 @@ import org.springframework.context.expression.BeanFactoryResolver;
 import org.springframework.context.expression.CachedExpressionEvaluator;
 import org.springframework.context.expression.MethodBasedEvaluationContext;
 import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 /**
  * Utility class for handling SpEL expression parsing for application events.
  * <p>Meant to be used as a reusable, thread-safe component.
  *
+ * <p>Conditions are compiled in {@link SpelCompilerMode#MIXED} mode unless
+ * a different mode is set through the {@code spring.expression.compiler.mode}
+ * property.
+ *
  * @author Stephane Nicoll
  * @since 4.2
  * @see CachedExpressionEvaluator
@@ -41,6 +47,14 @@ class EventExpressionEvaluator extends CachedExpressionEvaluator {
 
 	private final Map<ExpressionKey, Expression> conditionCache = new ConcurrentHashMap<>(64);
 
+	private final Map<BeanFactory, BeanFactoryResolver> beanResolverCache =
+			new ConcurrentReferenceHashMap<>(16, ConcurrentReferenceHashMap.ReferenceType.WEAK);
+
+
+	EventExpressionEvaluator() {
+		super(SpelCompilerMode.MIXED);
+	}
+
 
 	/**
 	 * Determine if the condition defined by the specified expression evaluates
@@ -53,7 +67,8 @@ class EventExpressionEvaluator extends CachedExpressionEvaluator {
 		MethodBasedEvaluationContext evaluationContext = new MethodBasedEvaluationContext(
 				root, targetMethod, args, getParameterNameDiscoverer());
 		if (beanFactory != null) {
-			evaluationContext.setBeanResolver(new BeanFactoryResolver(beanFactory));
+			evaluationContext.setBeanResolver(
+					this.beanResolverCache.computeIfAbsent(beanFactory, BeanFactoryResolver::new));
 		}
 
 		return (Boolean.TRUE.equals(getExpression(this.conditionCache, methodKey, conditionExpression).getValue(
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,7 +20,10 @@ import java.util.Map;
 
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.SpringProperties;
 import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -56,6 +59,25 @@ public abstract class CachedExpressionEvaluator {
 		this(new SpelExpressionParser());
 	}
 
+	/**
+	 * Create a new instance with a {@link SpelExpressionParser} compiling expressions
+	 * in the given mode, unless a mode is set explicitly through the
+	 * {@value SpelParserConfiguration#SPRING_EXPRESSION_COMPILER_MODE_PROPERTY_NAME} property.
+	 * @param defaultCompilerMode the compiler mode to use by default
+	 * @since 5.3.6
+	 */
+	protected CachedExpressionEvaluator(SpelCompilerMode defaultCompilerMode) {
+		this(new SpelExpressionParser(createParserConfiguration(defaultCompilerMode)));
+	}
+
+	private static SpelParserConfiguration createParserConfiguration(SpelCompilerMode defaultCompilerMode) {
+		// An explicitly set mode is applied by SpelParserConfiguration itself
+		if (SpringProperties.getProperty(SpelParserConfiguration.SPRING_EXPRESSION_COMPILER_MODE_PROPERTY_NAME) != null) {
+			return new SpelParserConfiguration();
+		}
+		return new SpelParserConfiguration(defaultCompilerMode, null);
+	}
+
 
 	/**
 	 * Return the {@link SpelExpressionParser} to use.
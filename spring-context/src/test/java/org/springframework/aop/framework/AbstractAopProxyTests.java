@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,6 +27,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.aopalliance.aop.Advice;
 import org.aopalliance.intercept.MethodInterceptor;
@@ -827,6 +828,43 @@ public abstract class AbstractAopProxyTests {
 		assertThat(advised.getAdvisors().length).isEqualTo(0);
 	}
 
+	@Test
+	public void testFrozenProxyWithStaticTarget() {
+		TestBean target = new TestBean();
+		target.setAge(21);
+		ProxyFactory pc = new ProxyFactory(target);
+		NopInterceptor nop = new NopInterceptor();
+		pc.addAdvice(nop);
+		pc.setFrozen(true);
+		ITestBean proxied = (ITestBean) createProxy(pc);
+
+		assertThat(proxied.getAge()).isEqualTo(21);
+		proxied.setAge(22);
+		assertThat(proxied.getAge()).isEqualTo(22);
+		assertThat(nop.getCount()).isEqualTo(3);
+		assertThat(((Advised) proxied).getAdvisors().length).isEqualTo(1);
+		assertThat(proxied).isEqualTo(proxied);
+	}
+
+	@Test
+	public void testFrozenProxyWithStaticTargetExposesProxy() {
+		TestBean target = new TestBean();
+		target.setAge(21);
+		ProxyFactory pc = new ProxyFactory(target);
+		AtomicReference<Object> exposedProxy = new AtomicReference<>();
+		pc.addAdvice((MethodInterceptor) invocation -> {
+			exposedProxy.set(AopContext.currentProxy());
+			return invocation.proceed();
+		});
+		pc.setExposeProxy(true);
+		pc.setFrozen(true);
+		ITestBean proxied = (ITestBean) createProxy(pc);
+
+		assertThat(proxied.getAge()).isEqualTo(21);
+		assertThat(exposedProxy.get()).isSameAs(proxied);
+		assertThatIllegalStateException().isThrownBy(AopContext::currentProxy);
+	}
+
 	@Test
 	public void testUseAsHashKey() {
 		TestBean target1 = new TestBean();
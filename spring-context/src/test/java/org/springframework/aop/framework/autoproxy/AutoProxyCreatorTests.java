@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,14 +20,25 @@ import java.io.Serializable;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 import org.junit.jupiter.api.Test;
 
+import org.springframework.aop.Advisor;
 import org.springframework.aop.TargetSource;
+import org.springframework.aop.aspectj.AspectJExpressionPointcutAdvisor;
+import org.springframework.aop.framework.Advised;
 import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.NameMatchMethodPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcutAdvisor;
 import org.springframework.aop.target.SingletonTargetSource;
 import org.springframework.beans.MutablePropertyValues;
 import org.springframework.beans.factory.BeanFactory;
@@ -178,6 +189,69 @@ public class AutoProxyCreatorTests {
 		assertThat(tapc.testInterceptor.nrOfInvocations).isEqualTo(2);
 	}
 
+	@Test
+	public void testAdvisorAutoProxyCreatorWithAdvisorMatchingExecutor() {
+		StaticApplicationContext sac = new StaticApplicationContext();
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		AtomicInteger parallelMatches = new AtomicInteger();
+		Executor countingExecutor = task -> {
+			parallelMatches.incrementAndGet();
+			executor.execute(task);
+		};
+		Set<Thread> matchingThreads = ConcurrentHashMap.newKeySet();
+		try {
+			RootBeanDefinition proxyCreator = new RootBeanDefinition(DefaultAdvisorAutoProxyCreator.class);
+			proxyCreator.getPropertyValues().add("advisorMatchingExecutor", countingExecutor);
+			sac.getDefaultListableBeanFactory().registerBeanDefinition("advisorAutoProxyCreator", proxyCreator);
+			TestInterceptor getAgeInterceptor = new TestInterceptor();
+			TestInterceptor otherBeanInterceptor = new TestInterceptor();
+			TestInterceptor ageInterceptor = new TestInterceptor();
+			sac.getBeanFactory().registerSingleton("getAgeAdvisor",
+					new NameMatchMethodPointcutAdvisor(getAgeInterceptor) {{ setMappedName("getAge"); }});
+			AspectJExpressionPointcutAdvisor otherBeanAdvisor = new AspectJExpressionPointcutAdvisor();
+			otherBeanAdvisor.setExpression("execution(* *..ITestBean.*(..)) && bean(otherBean)");
+			otherBeanAdvisor.setAdvice(otherBeanInterceptor);
+			sac.getBeanFactory().registerSingleton("otherBeanAdvisor", otherBeanAdvisor);
+			AspectJExpressionPointcutAdvisor ageAdvisor = new AspectJExpressionPointcutAdvisor();
+			ageAdvisor.setExpression("execution(* *..ITestBean.*Age(..))");
+			ageAdvisor.setAdvice(ageInterceptor);
+			sac.getBeanFactory().registerSingleton("ageAdvisor", ageAdvisor);
+			sac.getBeanFactory().registerSingleton("recordingAdvisor", new StaticMethodMatcherPointcutAdvisor() {
+				@Override
+				public boolean matches(Method method, Class<?> targetClass) {
+					matchingThreads.add(Thread.currentThread());
+					return false;
+				}
+			});
+			sac.registerSingleton("singletonToBeProxied", TestBean.class);
+			sac.registerSingleton("otherBean", TestBean.class);
+			sac.refresh();
+
+			ITestBean singletonToBeProxied = (ITestBean) sac.getBean("singletonToBeProxied");
+			assertThat(((Advised) singletonToBeProxied).getAdvisors()).containsExactly(
+					sac.getBean("getAgeAdvisor", Advisor.class), ageAdvisor);
+			singletonToBeProxied.getAge();
+			singletonToBeProxied.setAge(1);
+			singletonToBeProxied.getName();
+			assertThat(getAgeInterceptor.nrOfInvocations).isEqualTo(1);
+			assertThat(ageInterceptor.nrOfInvocations).isEqualTo(2);
+			assertThat(otherBeanInterceptor.nrOfInvocations).isEqualTo(0);
+
+			ITestBean otherBean = (ITestBean) sac.getBean("otherBean");
+			otherBean.getName();
+			assertThat(otherBeanInterceptor.nrOfInvocations).isEqualTo(1);
+
+			// Only the AspectJ expression Advisor without bean() goes to the executor,
+			// all others are matched on the bean creation thread
+			assertThat(parallelMatches.get()).isEqualTo(2);
+			assertThat(matchingThreads).containsExactly(Thread.currentThread());
+		}
+		finally {
+			sac.close();
+			executor.shutdown();
+		}
+	}
+
 	@Test
 	public void testAutoProxyCreatorWithFallbackToTargetClass() {
 		StaticApplicationContext sac = new StaticApplicationContext();
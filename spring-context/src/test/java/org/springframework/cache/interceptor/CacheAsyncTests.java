@@ -0,0 +1,229 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.CachingConfigurerSupport;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link Cacheable @Cacheable} methods with asynchronous return types.
+ */
+class CacheAsyncTests {
+
+	private ConfigurableApplicationContext context;
+
+	private AsyncService service;
+
+	private Cache cache;
+
+
+	@BeforeEach
+	void setUp() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.context.getBean(CacheInterceptor.class).setAsyncResultCaching(true);
+		this.service = this.context.getBean(AsyncService.class);
+		this.cache = this.context.getBean(CacheManager.class).getCache("testCache");
+	}
+
+	@AfterEach
+	void closeContext() {
+		this.context.close();
+	}
+
+
+	@Test
+	void completableFutureIsCachedAsHandleByDefault() {
+		this.context.close();
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.service = this.context.getBean(AsyncService.class);
+		this.cache = this.context.getBean(CacheManager.class).getCache("testCache");
+
+		CompletableFuture<Long> first = this.service.future("key");
+		assertThat(this.service.future("key")).isSameAs(first);
+		assertThat(this.cache.get("key").get()).isSameAs(first);
+	}
+
+	@Test
+	void completableFutureIsCachedByValue() {
+		CompletableFuture<Long> first = this.service.future("key");
+		CompletableFuture<Long> second = this.service.future("key");
+
+		assertThat(first.join()).isEqualTo(1L);
+		assertThat(second.join()).isEqualTo(1L);
+		assertThat(second).isNotSameAs(first);
+		assertThat(this.cache.get("key").get()).isEqualTo(1L);
+	}
+
+	@Test
+	void synchronizedCompletableFutureCollapsesConcurrentLoads() {
+		CompletableFuture<Long> first = this.service.pending("key");
+		CompletableFuture<Long> second = this.service.pending("key");
+		assertThat(this.service.getPending()).hasSize(1);
+		assertThat(this.cache.get("key")).isNull();
+
+		this.service.getPending().get(0).complete(42L);
+		assertThat(first.join()).isEqualTo(42L);
+		assertThat(second.join()).isEqualTo(42L);
+		assertThat(this.cache.get("key").get()).isEqualTo(42L);
+
+		assertThat(this.service.pending("key").join()).isEqualTo(42L);
+		assertThat(this.service.pending("other")).isNotDone();
+		assertThat(this.service.getPending()).hasSize(2);
+	}
+
+	@Test
+	void synchronizedCompletableFutureFailureIsNotCached() {
+		CompletableFuture<Long> first = this.service.pending("key");
+		CompletableFuture<Long> second = this.service.pending("key");
+		IllegalStateException failure = new IllegalStateException("boom");
+		this.service.getPending().get(0).completeExceptionally(failure);
+
+		assertThatExceptionOfType(Exception.class).isThrownBy(first::join).withCause(failure);
+		assertThatExceptionOfType(Exception.class).isThrownBy(second::join).withCause(failure);
+		assertThat(this.cache.get("key")).isNull();
+
+		this.service.pending("key");
+		assertThat(this.service.getPending()).hasSize(2);
+	}
+
+	@Test
+	void cancellationIsIsolatedBetweenCallers() {
+		CompletableFuture<Long> first = this.service.pending("key");
+		CompletableFuture<Long> second = this.service.pending("key");
+		first.cancel(true);
+
+		this.service.getPending().get(0).complete(42L);
+		assertThat(second.join()).isEqualTo(42L);
+		assertThat(this.cache.get("key").get()).isEqualTo(42L);
+	}
+
+	@Test
+	void refreshAheadReturnsStaleValueWhileReloading() {
+		this.context.getBean(CacheInterceptor.class).setRefreshAfterWrite(Duration.ZERO);
+		CompletableFuture<Long> initial = this.service.pending("key");
+		this.service.getPending().get(0).complete(1L);
+		assertThat(initial.join()).isEqualTo(1L);
+
+		assertThat(this.service.pending("key").join()).isEqualTo(1L);
+		assertThat(this.service.getPending()).hasSize(2);
+		assertThat(this.service.pending("key").join()).isEqualTo(1L);
+		assertThat(this.service.getPending()).hasSize(2);
+
+		this.service.getPending().get(1).complete(2L);
+		assertThat(this.cache.get("key").get()).isEqualTo(2L);
+		assertThat(this.service.pending("key").join()).isEqualTo(2L);
+	}
+
+	@Test
+	void monoIsCachedByValue() {
+		assertThat(this.service.mono("key").block()).isEqualTo(1L);
+		assertThat(this.service.mono("key").block()).isEqualTo(1L);
+		assertThat(this.cache.get("key").get()).isEqualTo(1L);
+		assertThat(this.service.getCounter()).isEqualTo(1L);
+	}
+
+	@Test
+	void synchronizedMonoCollapsesConcurrentLoads() {
+		Mono<Long> first = this.service.pendingMono("key");
+		Mono<Long> second = this.service.pendingMono("key");
+		assertThat(this.service.getPending()).hasSize(1);
+
+		this.service.getPending().get(0).complete(42L);
+		assertThat(first.block()).isEqualTo(42L);
+		assertThat(second.block()).isEqualTo(42L);
+		assertThat(this.service.pendingMono("key").block()).isEqualTo(42L);
+		assertThat(this.service.getPending()).hasSize(1);
+	}
+
+
+	static class AsyncService {
+
+		private final AtomicLong counter = new AtomicLong();
+
+		private final List<CompletableFuture<Long>> pending = new CopyOnWriteArrayList<>();
+
+		@Cacheable("testCache")
+		public CompletableFuture<Long> future(String key) {
+			return CompletableFuture.completedFuture(this.counter.incrementAndGet());
+		}
+
+		@Cacheable(cacheNames = "testCache", sync = true)
+		public CompletableFuture<Long> pending(String key) {
+			CompletableFuture<Long> future = new CompletableFuture<>();
+			this.pending.add(future);
+			return future;
+		}
+
+		@Cacheable("testCache")
+		public Mono<Long> mono(String key) {
+			return Mono.fromSupplier(this.counter::incrementAndGet);
+		}
+
+		@Cacheable(cacheNames = "testCache", sync = true)
+		public Mono<Long> pendingMono(String key) {
+			return Mono.fromFuture(pending(key));
+		}
+
+		public long getCounter() {
+			return this.counter.get();
+		}
+
+		public List<CompletableFuture<Long>> getPending() {
+			return this.pending;
+		}
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config extends CachingConfigurerSupport {
+
+		@Override
+		@Bean
+		public CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager("testCache");
+		}
+
+		@Bean
+		public AsyncService asyncService() {
+			return new AsyncService();
+		}
+	}
+
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.CachingConfigurerSupport;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link Cacheable#batch() @Cacheable(batch=true)} methods.
+ */
+class CacheBatchTests {
+
+	private ConfigurableApplicationContext context;
+
+	private BatchService service;
+
+	private Cache cache;
+
+
+	@BeforeEach
+	void setUp() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.service = this.context.getBean(BatchService.class);
+		this.cache = this.context.getBean(CacheManager.class).getCache("testCache");
+	}
+
+	@AfterEach
+	void closeContext() {
+		this.context.close();
+	}
+
+
+	@Test
+	void invokesMethodForMissingKeysOnly() {
+		Map<Long, String> first = this.service.findAll(Arrays.asList(1L, 2L, 3L));
+		assertThat(first).containsExactly(entry(1L), entry(2L), entry(3L));
+		assertThat(this.cache.get(2L).get()).isEqualTo("value2");
+
+		Map<Long, String> second = this.service.findAll(Arrays.asList(3L, 4L, 1L, 4L));
+		assertThat(second).containsExactly(entry(3L), entry(4L), entry(1L));
+
+		Map<Long, String> third = this.service.findAll(Arrays.asList(4L, 2L));
+		assertThat(third).containsExactly(entry(4L), entry(2L));
+
+		assertThat(this.service.getInvocations()).containsExactly(
+				Arrays.asList(1L, 2L, 3L), Arrays.asList(4L));
+	}
+
+	@Test
+	void keepsParameterCollectionType() {
+		this.cache.put(1L, "cached");
+
+		assertThat(this.service.findSet(new HashSet<>(Arrays.asList(1L, 2L))))
+				.containsOnly(entry(2L), new AbstractMap.SimpleEntry<>(1L, "cached"));
+		assertThat(this.service.getInvocations()).hasSize(1);
+		assertThat(this.service.getInvocations().get(0)).isInstanceOf(Set.class).containsExactly(2L);
+	}
+
+	@Test
+	void conditionNotPassingInvokesMethodForAllKeys() {
+		this.cache.put(1L, "cached");
+
+		assertThat(this.service.findAllIfSmall(Arrays.asList(1L, 2L, 3L, 4L)))
+				.containsExactly(entry(1L), entry(2L), entry(3L), entry(4L));
+		assertThat(this.cache.get(2L)).isNull();
+	}
+
+	@Test
+	void invalidDeclarations() {
+		assertThatIllegalStateException().isThrownBy(() -> this.service.withKey(Arrays.asList(1L)))
+				.withMessageContaining("does not support custom keys");
+		assertThatIllegalStateException().isThrownBy(() -> this.service.withoutCollection(1L))
+				.withMessageContaining("requires a single Collection parameter");
+		assertThatIllegalStateException().isThrownBy(() -> this.service.withSync(Arrays.asList(1L)))
+				.withMessageContaining("cannot be combined with sync=true");
+	}
+
+	private static Map.Entry<Long, String> entry(Long key) {
+		return new AbstractMap.SimpleEntry<>(key, "value" + key);
+	}
+
+
+	static class BatchService {
+
+		private final List<Collection<Long>> invocations = new CopyOnWriteArrayList<>();
+
+		@Cacheable(cacheNames = "testCache", batch = true)
+		public Map<Long, String> findAll(List<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", batch = true)
+		public Map<Long, String> findSet(Set<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", batch = true, condition = "#ids.size() < 4")
+		public Map<Long, String> findAllIfSmall(Collection<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", batch = true, key = "#ids")
+		public Map<Long, String> withKey(Collection<Long> ids) {
+			return load(ids);
+		}
+
+		@Cacheable(cacheNames = "testCache", batch = true)
+		public Map<Long, String> withoutCollection(Long id) {
+			return load(Arrays.asList(id));
+		}
+
+		@Cacheable(cacheNames = "testCache", batch = true, sync = true)
+		public Map<Long, String> withSync(Collection<Long> ids) {
+			return load(ids);
+		}
+
+		public List<Collection<Long>> getInvocations() {
+			return this.invocations;
+		}
+
+		private Map<Long, String> load(Collection<Long> ids) {
+			this.invocations.add(ids);
+			Map<Long, String> result = new LinkedHashMap<>();
+			ids.forEach(id -> result.put(id, "value" + id));
+			return result;
+		}
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config extends CachingConfigurerSupport {
+
+		@Override
+		@Bean
+		public CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager("testCache");
+		}
+
+		@Bean
+		public BatchService batchService() {
+			return new BatchService();
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -136,6 +136,40 @@ public class ExpressionEvaluatorTests {
 		assertThat(value).isEqualTo(String.class.getName());
 	}
 
+	@Test
+	public void findArgumentIndexForPlainArgumentReference() {
+		Method method = ReflectionUtils.findMethod(
+				AnnotatedClass.class, "multipleCaching", Object.class, Object.class);
+		assertThat(this.eval.findArgumentIndex("#a", method)).isEqualTo(0);
+		assertThat(this.eval.findArgumentIndex(" #b ", method)).isEqualTo(1);
+		assertThat(this.eval.findArgumentIndex("#p1", method)).isEqualTo(1);
+		assertThat(this.eval.findArgumentIndex("#a0", method)).isEqualTo(0);
+		assertThat(this.eval.findArgumentIndex("#p2", method)).isEqualTo(-1);
+		assertThat(this.eval.findArgumentIndex("#c", method)).isEqualTo(-1);
+		assertThat(this.eval.findArgumentIndex("#a.hashCode()", method)).isEqualTo(-1);
+		assertThat(this.eval.findArgumentIndex("#root", method)).isEqualTo(-1);
+		assertThat(this.eval.findArgumentIndex("#result", method)).isEqualTo(-1);
+		assertThat(this.eval.findArgumentIndex("'a'", method)).isEqualTo(-1);
+	}
+
+	@Test
+	public void conditionWithCompiledExpression() {
+		AnnotatedClass target = new AnnotatedClass();
+		Method method = ReflectionUtils.findMethod(
+				AnnotatedClass.class, "multipleCaching", Object.class, Object.class);
+		AnnotatedElementKey key = new AnnotatedElementKey(method, AnnotatedClass.class);
+		Collection<ConcurrentMapCache> caches = Collections.singleton(new ConcurrentMapCache("test"));
+
+		// Run past the interpreted threshold of the MIXED compiler mode
+		for (int i = 0; i < 300; i++) {
+			Object[] args = new Object[] {i, "b"};
+			EvaluationContext evalCtx = this.eval.createEvaluationContext(caches, method, args,
+					target, target.getClass(), method, CacheOperationExpressionEvaluator.NO_RESULT, null);
+			assertThat(this.eval.condition("#a % 2 == 0", key, evalCtx)).isEqualTo(i % 2 == 0);
+			assertThat(this.eval.key("#a + #b", key, evalCtx)).isEqualTo(i + "b");
+		}
+	}
+
 	private EvaluationContext createEvaluationContext(Object result) {
 		return createEvaluationContext(result, null);
 	}
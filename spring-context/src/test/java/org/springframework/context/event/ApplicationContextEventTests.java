@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -198,6 +198,33 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 		assertThat(listener1.seenEvents.size()).isEqualTo(2);
 	}
 
+	@Test
+	public void dispatchTableClearedOnListenerRegistration() {
+		MyOrderedListener1 listener1 = new MyOrderedListener1();
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.addApplicationListener(listener1);
+
+		smc.multicastEvent(new MyEvent(this));
+		smc.multicastEvent(new MyEvent(this));
+		assertThat(listener1.seenEvents.size()).isEqualTo(2);
+		assertThat(smc.dispatchTable.size()).isEqualTo(1);
+
+		// Generic event types are only cached by ResolvableType
+		smc.multicastEvent(createGenericTestEvent("test"),
+				ResolvableType.forClassWithGenerics(GenericTestEvent.class, String.class));
+		assertThat(smc.retrieverCache.size()).isEqualTo(2);
+		assertThat(smc.dispatchTable.size()).isEqualTo(1);
+
+		MyOrderedListener1 listener2 = new MyOrderedListener1();
+		smc.addApplicationListener(listener2);
+		assertThat(smc.dispatchTable).isEmpty();
+
+		smc.multicastEvent(new MyEvent(this));
+		assertThat(listener1.seenEvents.size()).isEqualTo(4);
+		assertThat(listener2.seenEvents.size()).isEqualTo(1);
+		assertThat(smc.dispatchTable.size()).isEqualTo(1);
+	}
+
 	@Test
 	public void orderedListenersWithAnnotation() {
 		MyOrderedListener3 listener1 = new MyOrderedListener3();
@@ -325,6 +352,7 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 
 		AbstractApplicationEventMulticaster multicaster = context.getBean(AbstractApplicationEventMulticaster.class);
 		assertThat(multicaster.retrieverCache.size()).isEqualTo(2);
+		assertThat(multicaster.dispatchTable.size()).isEqualTo(2);
 
 		context.close();
 	}
@@ -27,6 +27,7 @@ import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.PayloadApplicationEvent;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.ResolvableType;
 import org.springframework.stereotype.Component;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -61,6 +62,18 @@ public class PayloadApplicationEventTests {
 		assertThat(events.contains(event)).isTrue();
 	}
 
+	@Test
+	public void testResolvableTypeSharedForPayloadClass() {
+		ResolvableType type = new PayloadApplicationEvent<>(this, "xyz").getResolvableType();
+		assertThat(type.toClass()).isEqualTo(PayloadApplicationEvent.class);
+		assertThat(type.getGeneric().toClass()).isEqualTo(String.class);
+		assertThat(new PayloadApplicationEvent<>(this, "abc").getResolvableType()).isSameAs(type);
+		assertThat(new PayloadApplicationEvent<>(this, 123).getResolvableType().getGeneric().toClass())
+				.isEqualTo(Integer.class);
+		assertThat(new AuditablePayloadEvent<>(this, "xyz").getResolvableType())
+				.isEqualTo(ResolvableType.forClassWithGenerics(AuditablePayloadEvent.class, String.class));
+	}
+
 	@Test
 	public void testProgrammaticPayloadListener() {
 		List<String> events = new ArrayList<>();
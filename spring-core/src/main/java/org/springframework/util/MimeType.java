@@ -111,6 +111,8 @@ public class MimeType implements Comparable<MimeType>, Serializable {
 	@Nullable
 	private volatile String toStringValue;
 
+	private transient int hashCode;
+
 
 	/**
 	 * Create a new {@code MimeType} for the given primary type.
@@ -493,9 +495,13 @@ public class MimeType implements Comparable<MimeType>, Serializable {
 
 	@Override
 	public int hashCode() {
-		int result = this.type.hashCode();
-		result = 31 * result + this.subtype.hashCode();
-		result = 31 * result + this.parameters.hashCode();
+		int result = this.hashCode;
+		if (result == 0) {
+			result = this.type.hashCode();
+			result = 31 * result + this.subtype.hashCode();
+			result = 31 * result + this.parameters.hashCode();
+			this.hashCode = result;
+		}
 		return result;
 	}
 
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+/**
+ * Benchmarks for mapping query results from an embedded database with
+ * {@link BeanPropertyRowMapper} and {@link DataClassRowMapper}, compared
+ * to a hand-written {@link RowMapper}.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class BeanPropertyRowMapperBenchmark {
+
+	private static final String QUERY = "select id, first_name, last_name, age, balance, created from customer";
+
+
+	@Benchmark
+	public List<Customer> handWrittenRowMapper(BenchmarkData data) {
+		return data.jdbcTemplate.query(QUERY, (rs, rowNum) -> {
+			Customer customer = new Customer();
+			customer.setId(rs.getLong(1));
+			customer.setFirstName(rs.getString(2));
+			customer.setLastName(rs.getString(3));
+			customer.setAge(rs.getInt(4));
+			customer.setBalance(rs.getBigDecimal(5));
+			customer.setCreated(rs.getTimestamp(6));
+			return customer;
+		});
+	}
+
+	@Benchmark
+	public List<Customer> beanPropertyRowMapper(BenchmarkData data) {
+		return data.jdbcTemplate.query(QUERY, data.beanPropertyRowMapper);
+	}
+
+	@Benchmark
+	public List<CustomerRecord> dataClassRowMapper(BenchmarkData data) {
+		return data.jdbcTemplate.query(QUERY, data.dataClassRowMapper);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"H2", "HSQL"})
+		public EmbeddedDatabaseType databaseType;
+
+		@Param({"1000"})
+		public int rows;
+
+		public EmbeddedDatabase database;
+
+		public JdbcTemplate jdbcTemplate;
+
+		public BeanPropertyRowMapper<Customer> beanPropertyRowMapper;
+
+		public DataClassRowMapper<CustomerRecord> dataClassRowMapper;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.database = new EmbeddedDatabaseBuilder().generateUniqueName(true).setType(this.databaseType).build();
+			this.jdbcTemplate = new JdbcTemplate(this.database);
+			this.jdbcTemplate.execute("create table customer (id bigint primary key, first_name varchar(50), " +
+					"last_name varchar(50), age int, balance decimal(12,2), created timestamp)");
+			List<Object[]> batchArgs = new ArrayList<>(this.rows);
+			for (int i = 0; i < this.rows; i++) {
+				batchArgs.add(new Object[] {i, "first" + i, "last" + i, i % 100,
+						new BigDecimal(i + ".50"), new Timestamp(1_600_000_000_000L + i)});
+			}
+			this.jdbcTemplate.batchUpdate("insert into customer values (?, ?, ?, ?, ?, ?)", batchArgs);
+			this.beanPropertyRowMapper = new BeanPropertyRowMapper<>(Customer.class);
+			this.dataClassRowMapper = new DataClassRowMapper<>(CustomerRecord.class);
+		}
+
+		@TearDown(Level.Trial)
+		public void shutdown() {
+			this.database.shutdown();
+		}
+	}
+
+
+	public static class Customer {
+
+		private long id;
+
+		private String firstName;
+
+		private String lastName;
+
+		private int age;
+
+		private BigDecimal balance;
+
+		private Timestamp created;
+
+		public long getId() {
+			return this.id;
+		}
+
+		public void setId(long id) {
+			this.id = id;
+		}
+
+		public String getFirstName() {
+			return this.firstName;
+		}
+
+		public void setFirstName(String firstName) {
+			this.firstName = firstName;
+		}
+
+		public String getLastName() {
+			return this.lastName;
+		}
+
+		public void setLastName(String lastName) {
+			this.lastName = lastName;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+
+		public BigDecimal getBalance() {
+			return this.balance;
+		}
+
+		public void setBalance(BigDecimal balance) {
+			this.balance = balance;
+		}
+
+		public Timestamp getCreated() {
+			return this.created;
+		}
+
+		public void setCreated(Timestamp created) {
+			this.created = created;
+		}
+	}
+
+
+	public static class CustomerRecord {
+
+		private final long id;
+
+		private final String firstName;
+
+		private final String lastName;
+
+		private final int age;
+
+		private final BigDecimal balance;
+
+		private final Timestamp created;
+
+		public CustomerRecord(long id, String firstName, String lastName, int age, BigDecimal balance, Timestamp created) {
+			this.id = id;
+			this.firstName = firstName;
+			this.lastName = lastName;
+			this.age = age;
+			this.balance = balance;
+			this.created = created;
+		}
+
+		public long getId() {
+			return this.id;
+		}
+
+		public String getFirstName() {
+			return this.firstName;
+		}
+
+		public String getLastName() {
+			return this.lastName;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public BigDecimal getBalance() {
+			return this.balance;
+		}
+
+		public Timestamp getCreated() {
+			return this.created;
+		}
+	}
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.Statement;
+
+/**
+ * Summarized update counts of a streaming batch update, as returned from
+ * {@link JdbcOperations#batchUpdate(String, java.util.Iterator, int, ParameterizedPreparedStatementSetter)}.
+ *
+ * <p>In contrast to the {@code int[][]} returned from the collection-based
+ * batch update variants, this summary does not retain an update count per
+ * statement and therefore has a fixed memory footprint, independent of the
+ * number of statements executed.
+ *
+ * @since 5.3.6
+ * @see JdbcOperations#batchUpdate(String, java.util.stream.Stream, int, ParameterizedPreparedStatementSetter)
+ */
+public final class BatchUpdateSummary {
+
+	private long batchCount;
+
+	private long statementCount;
+
+	private long rowsAffected;
+
+	private long unknownCount;
+
+
+	/**
+	 * Create a new, empty {@code BatchUpdateSummary}.
+	 */
+	public BatchUpdateSummary() {
+	}
+
+
+	/**
+	 * Register the update counts of an executed batch.
+	 * @param updateCounts the update counts as returned from
+	 * {@link Statement#executeBatch()}
+	 */
+	public void addBatch(int[] updateCounts) {
+		this.batchCount++;
+		for (int updateCount : updateCounts) {
+			addUpdateCount(updateCount);
+		}
+	}
+
+	/**
+	 * Register the update count of a single statement executed outside of a batch.
+	 */
+	void addUpdate(int updateCount) {
+		this.batchCount++;
+		addUpdateCount(updateCount);
+	}
+
+	private void addUpdateCount(int updateCount) {
+		this.statementCount++;
+		if (updateCount >= 0) {
+			this.rowsAffected += updateCount;
+		}
+		else {
+			this.unknownCount++;
+		}
+	}
+
+
+	/**
+	 * Return the number of round trips to the database, i.e. the number of
+	 * executed batches (or single updates if the driver does not support
+	 * batch updates).
+	 */
+	public long getBatchCount() {
+		return this.batchCount;
+	}
+
+	/**
+	 * Return the total number of statements executed.
+	 */
+	public long getStatementCount() {
+		return this.statementCount;
+	}
+
+	/**
+	 * Return the total number of rows affected by all statements with
+	 * a known update count.
+	 */
+	public long getRowsAffected() {
+		return this.rowsAffected;
+	}
+
+	/**
+	 * Return the number of statements for which the driver did not report
+	 * an update count, typically {@link Statement#SUCCESS_NO_INFO}.
+	 */
+	public long getUnknownCount() {
+		return this.unknownCount;
+	}
+
+
+	@Override
+	public String toString() {
+		return "BatchUpdateSummary [batches=" + this.batchCount + ", statements=" + this.statementCount +
+				", rowsAffected=" + this.rowsAffected + ", unknown=" + this.unknownCount + "]";
+	}
+
+}
@@ -16,12 +16,20 @@
 
 package org.springframework.jdbc.core;
 
+import java.beans.PropertyChangeEvent;
 import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
@@ -32,6 +40,7 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeanWrapper;
 import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.MethodInvocationException;
 import org.springframework.beans.NotWritablePropertyException;
 import org.springframework.beans.TypeConverter;
 import org.springframework.beans.TypeMismatchException;
@@ -43,6 +52,8 @@ import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -68,6 +79,14 @@ import org.springframework.util.StringUtils;
  * Be aware that if you use the values from the generated bean to update the database the primitive value
  * will have been set to the primitive's default value instead of null.
  *
+ * <p>The column-to-property bindings are resolved once per result set shape, i.e. per
+ * sequence of column labels, and reused for subsequent rows and queries with the same
+ * columns. Column values which already match the exact type of the target property are
+ * written through a direct setter handle; all other values go through a
+ * {@link BeanWrapper} with full type conversion. Note that direct writes are only
+ * applied with the default {@link ConversionService} (or none) and if
+ * {@link #initBeanWrapper} has not been overridden.
+ *
  * <p>Please note that this class is designed to provide convenience rather than high performance.
  * For best performance, consider using a custom {@link RowMapper} implementation.
  *
@@ -79,6 +98,9 @@ import org.springframework.util.StringUtils;
  */
 public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 
+	private static final int PLAN_CACHE_LIMIT = 32;
+
+
 	/** Logger available to subclasses. */
 	protected final Log logger = LogFactory.getLog(getClass());
 
@@ -104,6 +126,14 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 	@Nullable
 	private Set<String> mappedProperties;
 
+	/** Mapping plans per sequence of column labels. */
+	private final ConcurrentLruCache<List<String>, MappingPlan> mappingPlans =
+			new ConcurrentLruCache<>(PLAN_CACHE_LIMIT, this::buildMappingPlan);
+
+	/** Mapping plan for the most recently mapped result set. */
+	@Nullable
+	private volatile BoundMappingPlan boundMappingPlan;
+
 
 	/**
 	 * Create a new {@code BeanPropertyRowMapper} for bean-style configuration.
@@ -196,11 +226,15 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 	 * or {@code null} for none.
 	 * <p>Default is a {@link DefaultConversionService}, as of Spring 4.3. This
 	 * provides support for {@code java.time} conversion and other special types.
+	 * <p>Changing the ConversionService discards any cached mapping plans,
+	 * since those depend on whether the default ConversionService is in use.
 	 * @since 4.3
 	 * @see #initBeanWrapper(BeanWrapper)
 	 */
 	public void setConversionService(@Nullable ConversionService conversionService) {
 		this.conversionService = conversionService;
+		this.mappingPlans.clear();
+		this.boundMappingPlan = null;
 	}
 
 	/**
@@ -222,6 +256,8 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 		this.mappedClass = mappedClass;
 		this.mappedFields = new HashMap<>();
 		this.mappedProperties = new HashSet<>();
+		this.mappingPlans.clear();
+		this.boundMappingPlan = null;
 
 		for (PropertyDescriptor pd : BeanUtils.getPropertyDescriptors(mappedClass)) {
 			if (pd.getWriteMethod() != null) {
@@ -280,27 +316,32 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 	 */
 	@Override
 	public T mapRow(ResultSet rs, int rowNumber) throws SQLException {
+		MappingPlan plan = getMappingPlan(rs);
+
 		BeanWrapperImpl bw = new BeanWrapperImpl();
 		initBeanWrapper(bw);
 
 		T mappedObject = constructMappedInstance(rs, bw);
 		bw.setBeanInstance(mappedObject);
 
-		ResultSetMetaData rsmd = rs.getMetaData();
-		int columnCount = rsmd.getColumnCount();
-		Set<String> populatedProperties = (isCheckFullyPopulated() ? new HashSet<>() : null);
+		String[] columns = plan.columns;
+		PropertyMapping[] mappings = plan.mappings;
 
-		for (int index = 1; index <= columnCount; index++) {
-			String column = JdbcUtils.lookupColumnName(rsmd, index);
-			String field = lowerCaseName(StringUtils.delete(column, " "));
-			PropertyDescriptor pd = (this.mappedFields != null ? this.mappedFields.get(field) : null);
-			if (pd != null) {
+		for (int i = 0; i < mappings.length; i++) {
+			int index = i + 1;
+			PropertyMapping mapping = mappings[i];
+			if (mapping != null) {
+				PropertyDescriptor pd = mapping.propertyDescriptor;
 				try {
 					Object value = getColumnValue(rs, index, pd);
 					if (rowNumber == 0 && logger.isDebugEnabled()) {
-						logger.debug("Mapping column '" + column + "' to property '" + pd.getName() +
+						logger.debug("Mapping column '" + columns[i] + "' to property '" + pd.getName() +
 								"' of type '" + ClassUtils.getQualifiedName(pd.getPropertyType()) + "'");
 					}
+					if (mapping.writeHandle != null && value != null && value.getClass() == mapping.valueType) {
+						writeDirectly(mapping, mappedObject, value);
+						continue;
+					}
 					try {
 						bw.setPropertyValue(pd.getName(), value);
 					}
@@ -308,7 +349,7 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 						if (value == null && this.primitivesDefaultedForNullValue) {
 							if (logger.isDebugEnabled()) {
 								logger.debug("Intercepted TypeMismatchException for row " + rowNumber +
-										" and column '" + column + "' with null value when setting property '" +
+										" and column '" + columns[i] + "' with null value when setting property '" +
 										pd.getName() + "' of type '" +
 										ClassUtils.getQualifiedName(pd.getPropertyType()) +
 										"' on object: " + mappedObject, ex);
@@ -318,24 +359,22 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 							throw ex;
 						}
 					}
-					if (populatedProperties != null) {
-						populatedProperties.add(pd.getName());
-					}
 				}
 				catch (NotWritablePropertyException ex) {
 					throw new DataRetrievalFailureException(
-							"Unable to map column '" + column + "' to property '" + pd.getName() + "'", ex);
+							"Unable to map column '" + columns[i] + "' to property '" + pd.getName() + "'", ex);
 				}
 			}
 			else {
 				// No PropertyDescriptor found
 				if (rowNumber == 0 && logger.isDebugEnabled()) {
-					logger.debug("No property found for column '" + column + "' mapped to field '" + field + "'");
+					logger.debug("No property found for column '" + columns[i] + "' mapped to field '" +
+							lowerCaseName(StringUtils.delete(columns[i], " ")) + "'");
 				}
 			}
 		}
 
-		if (populatedProperties != null && !populatedProperties.equals(this.mappedProperties)) {
+		if (isCheckFullyPopulated() && !plan.fullyPopulating) {
 			throw new InvalidDataAccessApiUsageException("Given ResultSet does not contain all fields " +
 					"necessary to populate object of " + this.mappedClass + ": " + this.mappedProperties);
 		}
@@ -343,6 +382,91 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 		return mappedObject;
 	}
 
+	/**
+	 * Return the mapping plan for the given result set, reusing the plan for the
+	 * previous result set and otherwise the plan cached for the same column labels.
+	 */
+	MappingPlan getMappingPlan(ResultSet rs) throws SQLException {
+		BoundMappingPlan bound = this.boundMappingPlan;
+		if (bound != null && bound.resultSet.get() == rs) {
+			return bound.plan;
+		}
+
+		ResultSetMetaData rsmd = rs.getMetaData();
+		String[] columns = new String[rsmd.getColumnCount()];
+		for (int i = 0; i < columns.length; i++) {
+			columns[i] = JdbcUtils.lookupColumnName(rsmd, i + 1);
+		}
+		MappingPlan plan = (bound != null && Arrays.equals(bound.plan.columns, columns) ?
+				bound.plan : this.mappingPlans.get(Arrays.asList(columns)));
+		this.boundMappingPlan = new BoundMappingPlan(rs, plan);
+		return plan;
+	}
+
+	private MappingPlan buildMappingPlan(List<String> columnLabels) {
+		String[] columns = columnLabels.toArray(new String[0]);
+		boolean directWrite = isDirectWriteSupported();
+		PropertyMapping[] mappings = new PropertyMapping[columns.length];
+		Set<String> mappedNames = new HashSet<>();
+		for (int i = 0; i < columns.length; i++) {
+			String field = lowerCaseName(StringUtils.delete(columns[i], " "));
+			PropertyDescriptor pd = (this.mappedFields != null ? this.mappedFields.get(field) : null);
+			if (pd != null) {
+				mappings[i] = new PropertyMapping(pd, (directWrite ? createWriteHandle(pd) : null));
+				mappedNames.add(pd.getName());
+			}
+		}
+		return new MappingPlan(columns, mappings, directWrite, mappedNames.equals(this.mappedProperties));
+	}
+
+	/**
+	 * Determine whether values of the exact property type may be written
+	 * without going through the {@link BeanWrapper}: only if the default
+	 * {@link ConversionService} (or none) is in use and the bean wrapper
+	 * initialization has not been customized.
+	 */
+	private boolean isDirectWriteSupported() {
+		ConversionService cs = getConversionService();
+		if (cs != null && cs != DefaultConversionService.getSharedInstance()) {
+			return false;
+		}
+		Method initMethod = ReflectionUtils.findMethod(getClass(), "initBeanWrapper", BeanWrapper.class);
+		return (initMethod != null && initMethod.getDeclaringClass() == BeanPropertyRowMapper.class);
+	}
+
+	@Nullable
+	private MethodHandle createWriteHandle(PropertyDescriptor pd) {
+		Method writeMethod = pd.getWriteMethod();
+		if (writeMethod == null) {
+			return null;
+		}
+		try {
+			ReflectionUtils.makeAccessible(writeMethod);
+			return MethodHandles.lookup().unreflect(writeMethod)
+					.asType(MethodType.methodType(void.class, Object.class, Object.class));
+		}
+		catch (Exception ex) {
+			// Not accessible -> write through the BeanWrapper instead
+			if (logger.isDebugEnabled()) {
+				logger.debug("Cannot create direct setter handle for property '" + pd.getName() + "'", ex);
+			}
+			return null;
+		}
+	}
+
+	private void writeDirectly(PropertyMapping mapping, Object mappedObject, Object value) {
+		MethodHandle writeHandle = mapping.writeHandle;
+		Assert.state(writeHandle != null, "No write handle");
+		try {
+			writeHandle.invokeExact(mappedObject, value);
+		}
+		catch (Throwable ex) {
+			PropertyChangeEvent event = new PropertyChangeEvent(
+					mappedObject, mapping.propertyDescriptor.getName(), null, value);
+			throw new MethodInvocationException(event, ex);
+		}
+	}
+
 	/**
 	 * Construct an instance of the mapped class for the current row.
 	 * @param rs the ResultSet to map (pre-initialized for the current row)
@@ -434,4 +558,69 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 		return rowMapper;
 	}
 
+
+
+	/**
+	 * Column-to-property bindings for a specific sequence of column labels.
+	 */
+	static final class MappingPlan {
+
+		final String[] columns;
+
+		final PropertyMapping[] mappings;
+
+		final boolean directWrite;
+
+		final boolean fullyPopulating;
+
+		/** Constructor parameter column indexes, resolved by {@link DataClassRowMapper}. */
+		@Nullable
+		volatile int[] constructorColumnIndexes;
+
+		MappingPlan(String[] columns, PropertyMapping[] mappings, boolean directWrite, boolean fullyPopulating) {
+			this.columns = columns;
+			this.mappings = mappings;
+			this.directWrite = directWrite;
+			this.fullyPopulating = fullyPopulating;
+		}
+	}
+
+
+	/**
+	 * Binding of a column to a bean property.
+	 */
+	private static final class PropertyMapping {
+
+		final PropertyDescriptor propertyDescriptor;
+
+		final Class<?> valueType;
+
+		@Nullable
+		final MethodHandle writeHandle;
+
+		PropertyMapping(PropertyDescriptor propertyDescriptor, @Nullable MethodHandle writeHandle) {
+			this.propertyDescriptor = propertyDescriptor;
+			this.valueType = ClassUtils.resolvePrimitiveIfNecessary(propertyDescriptor.getPropertyType());
+			this.writeHandle = writeHandle;
+		}
+	}
+
+
+	/**
+	 * A mapping plan along with the result set it was last used for.
+	 * The result set is weakly referenced in order to not keep it (and
+	 * its statement) reachable after the query completed.
+	 */
+	private static final class BoundMappingPlan {
+
+		final WeakReference<ResultSet> resultSet;
+
+		final MappingPlan plan;
+
+		BoundMappingPlan(ResultSet resultSet, MappingPlan plan) {
+			this.resultSet = new WeakReference<>(resultSet);
+			this.plan = plan;
+		}
+	}
+
 }
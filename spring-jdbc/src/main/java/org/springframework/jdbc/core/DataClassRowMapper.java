@@ -25,6 +25,7 @@ import org.springframework.beans.TypeConverter;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 
 /**
  * {@link RowMapper} implementation that converts a row into a new instance
@@ -87,11 +88,18 @@ public class DataClassRowMapper<T> extends BeanPropertyRowMapper<T> {
 
 		Object[] args;
 		if (this.constructorParameterNames != null && this.constructorParameterTypes != null) {
+			MappingPlan plan = getMappingPlan(rs);
+			int[] columnIndexes = getConstructorColumnIndexes(rs, plan);
 			args = new Object[this.constructorParameterNames.length];
 			for (int i = 0; i < args.length; i++) {
-				String name = underscoreName(this.constructorParameterNames[i]);
 				Class<?> type = this.constructorParameterTypes[i];
-				args[i] = tc.convertIfNecessary(getColumnValue(rs, rs.findColumn(name), type), type);
+				Object value = getColumnValue(rs, columnIndexes[i], type);
+				if (plan.directWrite && value != null && value.getClass() == ClassUtils.resolvePrimitiveIfNecessary(type)) {
+					args[i] = value;
+				}
+				else {
+					args[i] = tc.convertIfNecessary(value, type);
+				}
 			}
 		}
 		else {
@@ -101,6 +109,23 @@ public class DataClassRowMapper<T> extends BeanPropertyRowMapper<T> {
 		return BeanUtils.instantiateClass(this.mappedConstructor, args);
 	}
 
+	/**
+	 * Resolve the column index for each constructor parameter, once per
+	 * result set shape.
+	 */
+	private int[] getConstructorColumnIndexes(ResultSet rs, MappingPlan plan) throws SQLException {
+		int[] columnIndexes = plan.constructorColumnIndexes;
+		if (columnIndexes == null) {
+			Assert.state(this.constructorParameterNames != null, "No constructor parameter names");
+			columnIndexes = new int[this.constructorParameterNames.length];
+			for (int i = 0; i < columnIndexes.length; i++) {
+				columnIndexes[i] = rs.findColumn(underscoreName(this.constructorParameterNames[i]));
+			}
+			plan.constructorColumnIndexes = columnIndexes;
+		}
+		return columnIndexes;
+	}
+
 
 	/**
 	 * Static factory method to create a new {@code DataClassRowMapper}.
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Lazily reported update count of an update statement that may have been
+ * deferred by a {@link JdbcTemplate} in write-behind mode, as returned from
+ * {@link JdbcTemplate#deferUpdate(String, Object...)}.
+ *
+ * <p>Deferred updates are executed as part of a JDBC batch once their
+ * transaction flushes its pending updates. Asking for the update count of a
+ * pending update flushes the pending updates of its transaction right away.
+ *
+ * @since 5.3.6
+ * @see JdbcTemplate#setWriteBehindBatchSize
+ */
+public final class DeferredUpdateCount {
+
+	@Nullable
+	private DeferredUpdateQueue queue;
+
+	private int updateCount;
+
+	private boolean executed;
+
+	private boolean discarded;
+
+
+	/**
+	 * Create a pending update count, to be completed by the given queue.
+	 */
+	DeferredUpdateCount(DeferredUpdateQueue queue) {
+		this.queue = queue;
+	}
+
+	/**
+	 * Create an update count for an update that has been executed right away.
+	 */
+	DeferredUpdateCount(int updateCount) {
+		complete(updateCount);
+	}
+
+
+	/**
+	 * Return whether the update has been executed already.
+	 */
+	public boolean isExecuted() {
+		return this.executed;
+	}
+
+	/**
+	 * Return the number of rows affected by the update, flushing the pending
+	 * updates of the current transaction if the update has not been executed yet.
+	 * @return the update count, possibly {@link java.sql.Statement#SUCCESS_NO_INFO}
+	 * if the JDBC driver does not report update counts for batched statements
+	 * @throws IllegalStateException if the update has been discarded since
+	 * its transaction completed before flushing it
+	 * @throws org.springframework.dao.DataAccessException if flushing failed
+	 */
+	public int getUpdateCount() {
+		if (!this.executed && !this.discarded && this.queue != null) {
+			this.queue.flush();
+		}
+		if (!this.executed) {
+			throw new IllegalStateException("Deferred update has been discarded without execution");
+		}
+		return this.updateCount;
+	}
+
+	void complete(int updateCount) {
+		this.updateCount = updateCount;
+		this.executed = true;
+		this.queue = null;
+	}
+
+	void discard() {
+		this.discarded = true;
+		this.queue = null;
+	}
+
+	@Override
+	public String toString() {
+		return (this.executed ? "DeferredUpdateCount: " + this.updateCount :
+				"DeferredUpdateCount: " + (this.discarded ? "discarded" : "pending"));
+	}
+
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Transaction-scoped buffer of deferred updates for a {@link JdbcTemplate}
+ * in write-behind mode, bound per {@link DataSource} to the current transaction
+ * under the {@linkplain DataSourceUtils#getDeferredWorkKey deferred work key}.
+ *
+ * <p>Consecutive updates with the same SQL are collected into runs which are
+ * executed as JDBC batches, in order of registration, whenever the queue gets
+ * flushed: before any other operation of a {@code JdbcTemplate} on the same
+ * DataSource, when the configured threshold of pending updates is reached,
+ * on an explicit transaction flush or suspension, before a savepoint gets
+ * created or rolled back to, and before commit. Pending updates are discarded
+ * on rollback.
+ *
+ * @since 5.3.6
+ * @see JdbcTemplate#setWriteBehindBatchSize
+ */
+final class DeferredUpdateQueue implements TransactionSynchronization {
+
+	private final Object key;
+
+	private final List<Run> runs = new ArrayList<>();
+
+	private int pendingCount;
+
+	private boolean active = true;
+
+
+	private DeferredUpdateQueue(Object key) {
+		this.key = key;
+	}
+
+
+	/**
+	 * Register an update for deferred execution, flushing pending updates
+	 * once the given threshold is reached.
+	 */
+	DeferredUpdateCount add(JdbcTemplate template, String sql, @Nullable PreparedStatementSetter pss, int threshold) {
+		Run run = (this.runs.isEmpty() ? null : this.runs.get(this.runs.size() - 1));
+		if (run == null || run.template != template || !run.sql.equals(sql)) {
+			run = new Run(template, sql);
+			this.runs.add(run);
+		}
+		DeferredUpdateCount updateCount = new DeferredUpdateCount(this);
+		run.setters.add(pss);
+		run.updateCounts.add(updateCount);
+		this.pendingCount++;
+		if (this.pendingCount >= threshold) {
+			flush();
+		}
+		return updateCount;
+	}
+
+	/**
+	 * Execute all pending updates as JDBC batches, one per run.
+	 * <p>If a batch fails, the updates of subsequent runs are discarded.
+	 * @see org.springframework.transaction.TransactionStatus#flush()
+	 */
+	@Override
+	public void flush() {
+		if (this.runs.isEmpty()) {
+			return;
+		}
+		// Detach the pending runs first: executing them goes through JdbcTemplate
+		// operations which check for pending updates again.
+		List<Run> runsToExecute = new ArrayList<>(this.runs);
+		this.runs.clear();
+		this.pendingCount = 0;
+		int executed = 0;
+		try {
+			for (Run run : runsToExecute) {
+				run.execute();
+				executed++;
+			}
+		}
+		finally {
+			for (int i = executed; i < runsToExecute.size(); i++) {
+				runsToExecute.get(i).discard();
+			}
+		}
+	}
+
+	private void discard() {
+		for (Run run : this.runs) {
+			run.discard();
+		}
+		this.runs.clear();
+		this.pendingCount = 0;
+	}
+
+
+	@Override
+	public int getOrder() {
+		// Flush before any JDBC Connection gets released on suspension.
+		return DataSourceUtils.CONNECTION_SYNCHRONIZATION_ORDER - 100;
+	}
+
+	@Override
+	public void suspend() {
+		if (this.active) {
+			flush();
+			TransactionSynchronizationManager.unbindResource(this.key);
+		}
+	}
+
+	@Override
+	public void resume() {
+		if (this.active) {
+			TransactionSynchronizationManager.bindResource(this.key, this);
+		}
+	}
+
+	@Override
+	public void beforeCommit(boolean readOnly) {
+		flush();
+	}
+
+	@Override
+	public void afterCompletion(int status) {
+		if (this.active) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(this.key);
+			this.active = false;
+		}
+		discard();
+	}
+
+
+	/**
+	 * Return the queue bound to the current transaction for the given key,
+	 * or {@code null} if none.
+	 */
+	@Nullable
+	static DeferredUpdateQueue get(Object key) {
+		return (DeferredUpdateQueue) TransactionSynchronizationManager.getResource(key);
+	}
+
+	/**
+	 * Return the queue bound to the current transaction for the given key,
+	 * binding a new queue if none exists yet.
+	 * <p>Must only be called with active transaction synchronization.
+	 */
+	static DeferredUpdateQueue obtain(Object key) {
+		DeferredUpdateQueue queue = (DeferredUpdateQueue) TransactionSynchronizationManager.getResource(key);
+		if (queue == null) {
+			queue = new DeferredUpdateQueue(key);
+			TransactionSynchronizationManager.registerSynchronization(queue);
+			TransactionSynchronizationManager.bindResource(key, queue);
+		}
+		return queue;
+	}
+
+
+	/**
+	 * Consecutive deferred updates with the same SQL from the same template.
+	 */
+	private static final class Run implements BatchPreparedStatementSetter {
+
+		final JdbcTemplate template;
+
+		final String sql;
+
+		final List<PreparedStatementSetter> setters = new ArrayList<>();
+
+		final List<DeferredUpdateCount> updateCounts = new ArrayList<>();
+
+		Run(JdbcTemplate template, String sql) {
+			this.template = template;
+			this.sql = sql;
+		}
+
+		@Override
+		public void setValues(PreparedStatement ps, int i) throws SQLException {
+			PreparedStatementSetter pss = this.setters.get(i);
+			if (pss != null) {
+				pss.setValues(ps);
+			}
+		}
+
+		@Override
+		public int getBatchSize() {
+			return this.setters.size();
+		}
+
+		void execute() {
+			int[] rows;
+			try {
+				rows = this.template.batchUpdate(this.sql, this);
+			}
+			finally {
+				for (PreparedStatementSetter pss : this.setters) {
+					if (pss instanceof ParameterDisposer) {
+						((ParameterDisposer) pss).cleanupParameters();
+					}
+				}
+			}
+			for (int i = 0; i < this.updateCounts.size(); i++) {
+				this.updateCounts.get(i).complete(i < rows.length ? rows[i] : Statement.SUCCESS_NO_INFO);
+			}
+		}
+
+		void discard() {
+			for (DeferredUpdateCount updateCount : this.updateCounts) {
+				updateCount.discard();
+			}
+		}
+	}
+
+}
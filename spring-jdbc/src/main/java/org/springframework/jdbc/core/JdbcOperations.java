@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,9 @@
 
 package org.springframework.jdbc.core;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
@@ -1025,6 +1027,66 @@ public interface JdbcOperations {
 	<T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
 			ParameterizedPreparedStatementSetter<T> pss) throws DataAccessException;
 
+	/**
+	 * Execute multiple batches using the supplied SQL statement with the stream of
+	 * supplied arguments, sending a batch to the database for every 'batchSize'
+	 * arguments. The arguments' values will be set using the ParameterizedPreparedStatementSetter.
+	 * <p>In contrast to {@link #batchUpdate(String, Collection, int, ParameterizedPreparedStatementSetter)},
+	 * the arguments are consumed lazily and the update counts are summarized rather
+	 * than retained per statement, allowing for an unbounded number of arguments.
+	 * <p>Note: The given Stream is not closed by this method.
+	 * @param sql the SQL statement to execute
+	 * @param batchArgs the Stream of arguments for the batches
+	 * @param batchSize batch size
+	 * @param pss the ParameterizedPreparedStatementSetter to use
+	 * @return the summarized update counts of all batches
+	 * @throws DataAccessException if there is any problem issuing the update
+	 * @since 5.3.6
+	 * @see #batchUpdate(String, Iterator, int, ParameterizedPreparedStatementSetter)
+	 */
+	default <T> BatchUpdateSummary batchUpdate(String sql, Stream<T> batchArgs, int batchSize,
+			ParameterizedPreparedStatementSetter<T> pss) throws DataAccessException {
+
+		return batchUpdate(sql, batchArgs.iterator(), batchSize, pss);
+	}
+
+	/**
+	 * Execute multiple batches using the supplied SQL statement with the arguments
+	 * provided by the given Iterator, sending a batch to the database for every
+	 * 'batchSize' arguments. The arguments' values will be set using the
+	 * ParameterizedPreparedStatementSetter.
+	 * <p>In contrast to {@link #batchUpdate(String, Collection, int, ParameterizedPreparedStatementSetter)},
+	 * the arguments are consumed lazily and the update counts are summarized rather
+	 * than retained per statement, allowing for an unbounded number of arguments.
+	 * <p>The default implementation collects 'batchSize' arguments at a time and
+	 * delegates to {@link #batchUpdate(String, Collection, int, ParameterizedPreparedStatementSetter)}
+	 * for each such chunk.
+	 * @param sql the SQL statement to execute
+	 * @param batchArgs the Iterator over the arguments for the batches
+	 * @param batchSize batch size
+	 * @param pss the ParameterizedPreparedStatementSetter to use
+	 * @return the summarized update counts of all batches
+	 * @throws DataAccessException if there is any problem issuing the update
+	 * @since 5.3.6
+	 * @see #batchUpdate(String, Stream, int, ParameterizedPreparedStatementSetter)
+	 */
+	default <T> BatchUpdateSummary batchUpdate(String sql, Iterator<T> batchArgs, int batchSize,
+			ParameterizedPreparedStatementSetter<T> pss) throws DataAccessException {
+
+		BatchUpdateSummary summary = new BatchUpdateSummary();
+		List<T> chunk = new ArrayList<>(batchSize);
+		while (batchArgs.hasNext()) {
+			chunk.add(batchArgs.next());
+			if (chunk.size() == batchSize || !batchArgs.hasNext()) {
+				for (int[] updateCounts : batchUpdate(sql, chunk, batchSize, pss)) {
+					summary.addBatch(updateCounts);
+				}
+				chunk.clear();
+			}
+		}
+		return summary;
+	}
+
 
 	//-------------------------------------------------------------------------
 	// Methods dealing with callable statements
@@ -31,6 +31,7 @@ import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -54,6 +55,7 @@ import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.LinkedCaseInsensitiveMap;
@@ -153,6 +155,12 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	 */
 	private boolean resultsMapCaseInsensitive = false;
 
+	/**
+	 * If this variable is set to a positive value, updates within a transaction
+	 * are deferred and executed in JDBC batches of up to this size.
+	 */
+	private int writeBehindBatchSize = 0;
+
 
 	/**
 	 * Construct a new JdbcTemplate for bean usage.
@@ -317,6 +325,43 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return this.resultsMapCaseInsensitive;
 	}
 
+	/**
+	 * Set the number of updates to defer within a transaction before executing
+	 * them as JDBC batches ("write-behind"). Default is 0, executing every update
+	 * immediately.
+	 * <p>If set to a positive value, parameterized updates issued through
+	 * {@link #update(String, PreparedStatementSetter)} and its variants while an
+	 * actual transaction with synchronization is active are buffered per
+	 * transaction. Consecutive updates with the same SQL are executed as a single
+	 * JDBC batch, in order, before any other operation of a {@code JdbcTemplate}
+	 * on the same DataSource, once this number of updates is pending, on
+	 * suspension of the transaction, and before commit. With
+	 * {@link org.springframework.jdbc.datasource.DataSourceTransactionManager},
+	 * pending updates are also executed before a savepoint for a nested
+	 * transaction gets created or rolled back to.
+	 * <p>Deferred updates return {@link Statement#SUCCESS_NO_INFO} from
+	 * {@code update}; use {@link #deferUpdate(String, Object...)} to obtain their
+	 * update count lazily. Note that statement parameters are only bound when
+	 * the updates get executed, and that data access code bypassing
+	 * {@code JdbcTemplate} does not trigger a flush of pending updates:
+	 * call {@link #flushDeferredUpdates()} before such access.
+	 * @since 5.3.6
+	 * @see #deferUpdate(String, Object...)
+	 * @see #flushDeferredUpdates()
+	 */
+	public void setWriteBehindBatchSize(int writeBehindBatchSize) {
+		this.writeBehindBatchSize = writeBehindBatchSize;
+	}
+
+	/**
+	 * Return the number of updates to defer within a transaction before
+	 * executing them as JDBC batches.
+	 * @since 5.3.6
+	 */
+	public int getWriteBehindBatchSize() {
+		return this.writeBehindBatchSize;
+	}
+
 
 	//-------------------------------------------------------------------------
 	// Methods dealing with a plain java.sql.Connection
@@ -326,6 +371,7 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	@Nullable
 	public <T> T execute(ConnectionCallback<T> action) throws DataAccessException {
 		Assert.notNull(action, "Callback object must not be null");
+		flushDeferredUpdates();
 
 		Connection con = DataSourceUtils.getConnection(obtainDataSource());
 		try {
@@ -372,6 +418,7 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	@Nullable
 	private <T> T execute(StatementCallback<T> action, boolean closeResources) throws DataAccessException {
 		Assert.notNull(action, "Callback object must not be null");
+		flushDeferredUpdates();
 
 		Connection con = DataSourceUtils.getConnection(obtainDataSource());
 		Statement stmt = null;
@@ -642,6 +689,7 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 			String sql = getSql(psc);
 			logger.debug("Executing prepared SQL statement" + (sql != null ? " [" + sql + "]" : ""));
 		}
+		flushDeferredUpdates();
 
 		Connection con = DataSourceUtils.getConnection(obtainDataSource());
 		PreparedStatement ps = null;
@@ -1012,6 +1060,11 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 
 	@Override
 	public int update(String sql, @Nullable PreparedStatementSetter pss) throws DataAccessException {
+		DeferredUpdateQueue queue = obtainDeferredUpdateQueue();
+		if (queue != null) {
+			queue.add(this, sql, pss, this.writeBehindBatchSize);
+			return Statement.SUCCESS_NO_INFO;
+		}
 		return update(new SimplePreparedStatementCreator(sql), pss);
 	}
 
@@ -1025,6 +1078,60 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return update(sql, newArgPreparedStatementSetter(args));
 	}
 
+	/**
+	 * Issue a single SQL update operation via a prepared statement, deferring it
+	 * to a later JDBC batch if write-behind is active for the current transaction.
+	 * Otherwise, the update gets executed immediately.
+	 * @param sql the SQL containing bind parameters
+	 * @param args arguments to bind to the query
+	 * @return the lazily reported number of rows affected
+	 * @throws DataAccessException if there is any problem issuing the update
+	 * @since 5.3.6
+	 * @see #setWriteBehindBatchSize
+	 */
+	public DeferredUpdateCount deferUpdate(String sql, @Nullable Object... args) throws DataAccessException {
+		PreparedStatementSetter pss = newArgPreparedStatementSetter(args);
+		DeferredUpdateQueue queue = obtainDeferredUpdateQueue();
+		if (queue != null) {
+			return queue.add(this, sql, pss, this.writeBehindBatchSize);
+		}
+		return new DeferredUpdateCount(update(new SimplePreparedStatementCreator(sql), pss));
+	}
+
+	/**
+	 * Execute the updates deferred within the current transaction against this
+	 * template's DataSource, if any.
+	 * <p>Called automatically before every operation of this template.
+	 * @throws DataAccessException if there is any problem executing the updates
+	 * @since 5.3.6
+	 * @see #setWriteBehindBatchSize
+	 */
+	public void flushDeferredUpdates() throws DataAccessException {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			DeferredUpdateQueue queue = DeferredUpdateQueue.get(deferredUpdatesKey());
+			if (queue != null) {
+				queue.flush();
+			}
+		}
+	}
+
+	/**
+	 * Obtain the queue for deferred updates if write-behind applies within the
+	 * current transaction, or {@code null} to execute updates immediately.
+	 */
+	@Nullable
+	private DeferredUpdateQueue obtainDeferredUpdateQueue() {
+		if (this.writeBehindBatchSize <= 0 || !TransactionSynchronizationManager.isSynchronizationActive() ||
+				!TransactionSynchronizationManager.isActualTransactionActive()) {
+			return null;
+		}
+		return DeferredUpdateQueue.obtain(deferredUpdatesKey());
+	}
+
+	private Object deferredUpdatesKey() {
+		return DataSourceUtils.getDeferredWorkKey(obtainDataSource());
+	}
+
 	@Override
 	public int[] batchUpdate(String sql, final BatchPreparedStatementSetter pss) throws DataAccessException {
 		if (logger.isDebugEnabled()) {
@@ -1165,6 +1272,63 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return result;
 	}
 
+	@Override
+	public <T> BatchUpdateSummary batchUpdate(String sql, Stream<T> batchArgs, int batchSize,
+			ParameterizedPreparedStatementSetter<T> pss) throws DataAccessException {
+
+		return batchUpdate(sql, batchArgs.iterator(), batchSize, pss);
+	}
+
+	@Override
+	public <T> BatchUpdateSummary batchUpdate(String sql, Iterator<T> batchArgs, int batchSize,
+			ParameterizedPreparedStatementSetter<T> pss) throws DataAccessException {
+
+		Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+		if (logger.isDebugEnabled()) {
+			logger.debug("Executing streaming SQL batch update [" + sql + "] with a batch size of " + batchSize);
+		}
+		BatchUpdateSummary result = execute(sql, (PreparedStatementCallback<BatchUpdateSummary>) ps -> {
+			BatchUpdateSummary summary = new BatchUpdateSummary();
+			try {
+				boolean batchSupported = JdbcUtils.supportsBatchUpdates(ps.getConnection());
+				int n = 0;
+				while (batchArgs.hasNext()) {
+					pss.setValues(ps, batchArgs.next());
+					if (batchSupported) {
+						ps.addBatch();
+						if (++n == batchSize) {
+							if (logger.isTraceEnabled()) {
+								logger.trace("Sending SQL batch update #" + (summary.getBatchCount() + 1) +
+										" with " + n + " items");
+							}
+							summary.addBatch(ps.executeBatch());
+							n = 0;
+						}
+					}
+					else {
+						summary.addUpdate(ps.executeUpdate());
+					}
+				}
+				if (n > 0) {
+					if (logger.isTraceEnabled()) {
+						logger.trace("Sending SQL batch update #" + (summary.getBatchCount() + 1) +
+								" with " + n + " items");
+					}
+					summary.addBatch(ps.executeBatch());
+				}
+				return summary;
+			}
+			finally {
+				if (pss instanceof ParameterDisposer) {
+					((ParameterDisposer) pss).cleanupParameters();
+				}
+			}
+		});
+
+		Assert.state(result != null, "No batch update summary");
+		return result;
+	}
+
 
 	//-------------------------------------------------------------------------
 	// Methods dealing with callable statements
@@ -1181,6 +1345,7 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 			String sql = getSql(csc);
 			logger.debug("Calling stored procedure" + (sql != null ? " [" + sql  + "]" : ""));
 		}
+		flushDeferredUpdates();
 
 		Connection con = DataSourceUtils.getConnection(obtainDataSource());
 		CallableStatement cs = null;
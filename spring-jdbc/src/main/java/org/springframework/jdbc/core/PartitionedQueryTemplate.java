@@ -0,0 +1,503 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.sql.DataSource;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Helper for running a query as multiple partitions concurrently, each on its
+ * own Connection obtained from the {@link JdbcTemplate}'s {@link DataSource}.
+ *
+ * <p>The query is specified as an SQL template containing the
+ * {@link #PARTITION_PLACEHOLDER} where each partition's predicate gets inserted,
+ * for example:
+ *
+ * <pre class="code">
+ * List&lt;QueryPartition&gt; partitions = QueryPartition.hashBuckets("customer_id", 8);
+ * try (Stream&lt;Order&gt; orders = partitionedQueryTemplate.queryForStream(
+ *         "SELECT * FROM orders WHERE {partition} AND status = ?", partitions, orderMapper, false, "OPEN")) {
+ *     orders.forEach(...);
+ * }</pre>
+ *
+ * <p>Arguments of the partition predicate are bound at the position of the
+ * placeholder, i.e. after the template arguments for any '?' before it.
+ * At most {@link #setMaxParallelism maxParallelism} partitions run at the
+ * same time, on threads of the configured {@link #setExecutor Executor}.
+ *
+ * <p>Since each partition runs on its own Connection, partitions do not
+ * participate in a transaction of the calling thread and do not necessarily
+ * see the same database snapshot.
+ *
+ * <p><b>NOTE: An instance of this class is thread-safe once configured.</b>
+ *
+ * @since 5.3.6
+ * @see QueryPartition
+ */
+public class PartitionedQueryTemplate {
+
+	/** The placeholder for the partition predicate in SQL templates. */
+	public static final String PARTITION_PLACEHOLDER = "{partition}";
+
+	/** Default number of rows buffered per partition for streaming: 1024. */
+	public static final int DEFAULT_BUFFER_SIZE = 1024;
+
+	private static final Object NULL_ROW = new Object();
+
+	private static final Object END_OF_PARTITION = new Object();
+
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private int maxParallelism = Runtime.getRuntime().availableProcessors();
+
+	private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+	private Executor executor = new SimpleAsyncTaskExecutor("partitioned-query-");
+
+
+	/**
+	 * Create a new PartitionedQueryTemplate for the given DataSource.
+	 * @param dataSource the JDBC DataSource to obtain Connections from
+	 */
+	public PartitionedQueryTemplate(DataSource dataSource) {
+		this(new JdbcTemplate(dataSource));
+	}
+
+	/**
+	 * Create a new PartitionedQueryTemplate for the given JdbcTemplate,
+	 * applying its settings (such as fetch size and exception translation)
+	 * to each partition.
+	 * @param jdbcTemplate the JdbcTemplate to run the partitions with
+	 */
+	public PartitionedQueryTemplate(JdbcTemplate jdbcTemplate) {
+		Assert.notNull(jdbcTemplate, "JdbcTemplate must not be null");
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+
+	/**
+	 * Return the JdbcTemplate that the partitions are run with.
+	 */
+	public JdbcTemplate getJdbcTemplate() {
+		return this.jdbcTemplate;
+	}
+
+	/**
+	 * Set the maximum number of partitions to run at the same time, i.e. the
+	 * maximum number of Connections in use for a single partitioned query.
+	 * Default is the number of available processors.
+	 */
+	public void setMaxParallelism(int maxParallelism) {
+		Assert.isTrue(maxParallelism > 0, "'maxParallelism' must be positive");
+		this.maxParallelism = maxParallelism;
+	}
+
+	/**
+	 * Return the maximum number of partitions to run at the same time.
+	 */
+	public int getMaxParallelism() {
+		return this.maxParallelism;
+	}
+
+	/**
+	 * Set the number of mapped rows to buffer per partition when streaming,
+	 * before a partition waits for the consumer to catch up. Default is 1024.
+	 */
+	public void setBufferSize(int bufferSize) {
+		Assert.isTrue(bufferSize > 0, "'bufferSize' must be positive");
+		this.bufferSize = bufferSize;
+	}
+
+	/**
+	 * Return the number of mapped rows to buffer per partition when streaming.
+	 */
+	public int getBufferSize() {
+		return this.bufferSize;
+	}
+
+	/**
+	 * Set the Executor to run the partitions on.
+	 * <p>Default is a {@link SimpleAsyncTaskExecutor}. The Executor needs to
+	 * be able to run {@link #setMaxParallelism maxParallelism} tasks at the same
+	 * time; otherwise partitions effectively run with lower parallelism.
+	 */
+	public void setExecutor(Executor executor) {
+		Assert.notNull(executor, "Executor must not be null");
+		this.executor = executor;
+	}
+
+	/**
+	 * Return the Executor to run the partitions on.
+	 */
+	public Executor getExecutor() {
+		return this.executor;
+	}
+
+
+	/**
+	 * Run the given partitions of a query concurrently, passing each row
+	 * to the given RowCallbackHandler, and wait for all partitions to complete.
+	 * <p>Calls to the RowCallbackHandler are serialized, so it does not need to
+	 * be thread-safe; rows of different partitions arrive interleaved though.
+	 * @param sqlTemplate the SQL query containing the {@link #PARTITION_PLACEHOLDER}
+	 * @param partitions the partitions to run
+	 * @param rch a callback that will extract results, one row at a time
+	 * @param args arguments to bind to the query template
+	 * @throws DataAccessException if any of the partitions failed, in which
+	 * case the remaining partitions get cancelled
+	 */
+	public void query(String sqlTemplate, List<QueryPartition> partitions, RowCallbackHandler rch,
+			@Nullable Object... args) throws DataAccessException {
+
+		PartitionedExecution execution = new PartitionedExecution(sqlTemplate, partitions, args);
+		execution.start((index, rs) -> {
+			synchronized (rch) {
+				rch.processRow(rs);
+			}
+		}, index -> {});
+		execution.awaitCompletion();
+	}
+
+	/**
+	 * Run the given partitions of a query concurrently, mapping each row
+	 * to a result object via a RowMapper, and expose the results as a Stream.
+	 * <p>The partitions run in the background, buffering up to
+	 * {@link #setBufferSize bufferSize} rows each. The Stream needs to be
+	 * closed once fully processed, e.g. through a try-with-resources clause;
+	 * closing it before it is exhausted cancels all partitions.
+	 * @param sqlTemplate the SQL query containing the {@link #PARTITION_PLACEHOLDER}
+	 * @param partitions the partitions to run
+	 * @param rowMapper a callback that will map one object per row
+	 * @param ordered whether to expose the results in partition order, with
+	 * the results of each partition in query order, rather than as they arrive
+	 * @param args arguments to bind to the query template
+	 * @return the result Stream, containing mapped objects
+	 * @throws DataAccessException when consuming the Stream, if any of the
+	 * partitions failed
+	 */
+	public <T> Stream<T> queryForStream(String sqlTemplate, List<QueryPartition> partitions,
+			RowMapper<T> rowMapper, boolean ordered, @Nullable Object... args) throws DataAccessException {
+
+		PartitionedExecution execution = new PartitionedExecution(sqlTemplate, partitions, args);
+		int queueCount = (ordered ? partitions.size() : 1);
+		List<BlockingQueue<Object>> queues = new ArrayList<>(queueCount);
+		for (int i = 0; i < queueCount; i++) {
+			queues.add(new ArrayBlockingQueue<>(ordered ? this.bufferSize : this.bufferSize * execution.workerCount));
+		}
+		int[] rowNums = new int[partitions.size()];
+		execution.start((index, rs) -> {
+			T row = rowMapper.mapRow(rs, rowNums[index]++);
+			execution.put(queues.get(ordered ? index : 0), (row != null ? row : NULL_ROW));
+		}, index -> execution.put(queues.get(ordered ? index : 0), END_OF_PARTITION));
+
+		Iterator<T> iterator = new PartitionedResultIterator<>(execution, queues, partitions.size());
+		Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(iterator, (ordered ? Spliterator.ORDERED : 0));
+		return StreamSupport.stream(spliterator, false).onClose(execution::cancel);
+	}
+
+
+	/**
+	 * Build the SQL statement for the given partition.
+	 * @param sqlTemplate the SQL query containing the {@link #PARTITION_PLACEHOLDER}
+	 * @param partition the partition
+	 * @return the SQL statement for the partition
+	 */
+	protected String buildPartitionSql(String sqlTemplate, QueryPartition partition) {
+		return sqlTemplate.replace(PARTITION_PLACEHOLDER, "(" + partition.getPredicate() + ")");
+	}
+
+	/**
+	 * Combine the template arguments with the given partition's arguments,
+	 * the latter being bound at the position of the placeholder.
+	 * @param sqlTemplate the SQL query containing the {@link #PARTITION_PLACEHOLDER}
+	 * @param args the template arguments (may be {@code null})
+	 * @param partition the partition
+	 * @return the arguments for the partition's SQL statement
+	 */
+	protected Object[] buildPartitionArgs(String sqlTemplate, @Nullable Object[] args, QueryPartition partition) {
+		Object[] partitionArgs = partition.getArgs();
+		if (args == null || args.length == 0) {
+			return partitionArgs;
+		}
+		int position = 0;
+		int placeholderIndex = sqlTemplate.indexOf(PARTITION_PLACEHOLDER);
+		for (int i = 0; i < placeholderIndex; i++) {
+			if (sqlTemplate.charAt(i) == '?') {
+				position++;
+			}
+		}
+		position = Math.min(position, args.length);
+		Object[] combined = new Object[args.length + partitionArgs.length];
+		System.arraycopy(args, 0, combined, 0, position);
+		System.arraycopy(partitionArgs, 0, combined, position, partitionArgs.length);
+		System.arraycopy(args, position, combined, position + partitionArgs.length, args.length - position);
+		return combined;
+	}
+
+
+	/**
+	 * Callback for each row of a partition.
+	 */
+	@FunctionalInterface
+	private interface PartitionRowHandler {
+
+		void processRow(int partitionIndex, ResultSet rs) throws SQLException;
+	}
+
+
+	/**
+	 * Callback for each completed partition.
+	 */
+	@FunctionalInterface
+	private interface PartitionCompletionHandler {
+
+		void partitionCompleted(int partitionIndex);
+	}
+
+
+	/**
+	 * Runtime exception to abort a partition's query once cancelled.
+	 */
+	@SuppressWarnings("serial")
+	private static class PartitionCancelledException extends RuntimeException {
+
+		PartitionCancelledException() {
+			super(null, null, false, false);
+		}
+	}
+
+
+	/**
+	 * The state of a single partitioned query.
+	 */
+	private class PartitionedExecution {
+
+		private final String sqlTemplate;
+
+		private final List<QueryPartition> partitions;
+
+		@Nullable
+		private final Object[] args;
+
+		private final int workerCount;
+
+		private final AtomicInteger nextPartition = new AtomicInteger();
+
+		private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+		private final CountDownLatch workersDone;
+
+		private volatile boolean cancelled;
+
+		PartitionedExecution(String sqlTemplate, List<QueryPartition> partitions, @Nullable Object[] args) {
+			Assert.isTrue(sqlTemplate.contains(PARTITION_PLACEHOLDER),
+					() -> "SQL template does not contain " + PARTITION_PLACEHOLDER + ": " + sqlTemplate);
+			Assert.notEmpty(partitions, "Partitions must not be empty");
+			this.sqlTemplate = sqlTemplate;
+			this.partitions = partitions;
+			this.args = args;
+			this.workerCount = Math.min(maxParallelism, partitions.size());
+			this.workersDone = new CountDownLatch(this.workerCount);
+		}
+
+		void start(PartitionRowHandler rowHandler, PartitionCompletionHandler completionHandler) {
+			int started = 0;
+			try {
+				for (; started < this.workerCount; started++) {
+					executor.execute(() -> {
+						try {
+							runPartitions(rowHandler, completionHandler);
+						}
+						finally {
+							this.workersDone.countDown();
+						}
+					});
+				}
+			}
+			catch (RuntimeException ex) {
+				// Stop the workers started so far, and account for the ones never started
+				cancel();
+				for (int i = started; i < this.workerCount; i++) {
+					this.workersDone.countDown();
+				}
+				throw ex;
+			}
+		}
+
+		private void runPartitions(PartitionRowHandler rowHandler, PartitionCompletionHandler completionHandler) {
+			int index;
+			while (!this.cancelled && (index = this.nextPartition.getAndIncrement()) < this.partitions.size()) {
+				int partitionIndex = index;
+				QueryPartition partition = this.partitions.get(partitionIndex);
+				try {
+					jdbcTemplate.query(buildPartitionSql(this.sqlTemplate, partition), rs -> {
+						if (this.cancelled) {
+							throw new PartitionCancelledException();
+						}
+						rowHandler.processRow(partitionIndex, rs);
+					}, buildPartitionArgs(this.sqlTemplate, this.args, partition));
+					completionHandler.partitionCompleted(partitionIndex);
+				}
+				catch (PartitionCancelledException ex) {
+					return;
+				}
+				catch (RuntimeException ex) {
+					if (this.failure.compareAndSet(null, ex)) {
+						this.cancelled = true;
+					}
+					return;
+				}
+			}
+		}
+
+		void put(BlockingQueue<Object> queue, Object item) {
+			try {
+				while (!queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+					if (this.cancelled) {
+						throw new PartitionCancelledException();
+					}
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new PartitionCancelledException();
+			}
+		}
+
+		void awaitCompletion() {
+			try {
+				this.workersDone.await();
+			}
+			catch (InterruptedException ex) {
+				cancel();
+				Thread.currentThread().interrupt();
+				throw new DataAccessResourceFailureException("Interrupted while waiting for partitioned query", ex);
+			}
+			rethrowFailure();
+		}
+
+		void rethrowFailure() {
+			RuntimeException failure = this.failure.get();
+			if (failure != null) {
+				throw failure;
+			}
+		}
+
+		void cancel() {
+			this.cancelled = true;
+		}
+	}
+
+
+	/**
+	 * Iterator over the mapped rows of a partitioned query, as buffered in
+	 * one queue per partition (ordered) or a single shared queue (unordered).
+	 */
+	private static class PartitionedResultIterator<T> implements Iterator<T> {
+
+		private final PartitionedExecution execution;
+
+		private final List<BlockingQueue<Object>> queues;
+
+		private int remainingPartitions;
+
+		private int currentQueue;
+
+		@Nullable
+		private Object next;
+
+		PartitionedResultIterator(PartitionedExecution execution, List<BlockingQueue<Object>> queues, int partitions) {
+			this.execution = execution;
+			this.queues = queues;
+			this.remainingPartitions = partitions;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (this.next == null && this.remainingPartitions > 0) {
+				Object item = poll(this.queues.get(this.currentQueue));
+				if (item == END_OF_PARTITION) {
+					this.remainingPartitions--;
+					if (this.queues.size() > 1) {
+						this.currentQueue++;
+					}
+				}
+				else {
+					this.next = item;
+				}
+			}
+			return (this.next != null);
+		}
+
+		@Override
+		@Nullable
+		@SuppressWarnings("unchecked")
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Object item = this.next;
+			this.next = null;
+			return (item != NULL_ROW ? (T) item : null);
+		}
+
+		private Object poll(BlockingQueue<Object> queue) {
+			try {
+				while (true) {
+					Object item = queue.poll(100, TimeUnit.MILLISECONDS);
+					if (item != null) {
+						return item;
+					}
+					this.execution.rethrowFailure();
+					if (this.execution.cancelled) {
+						throw new IllegalStateException("Partitioned query has been cancelled");
+					}
+				}
+			}
+			catch (InterruptedException ex) {
+				this.execution.cancel();
+				Thread.currentThread().interrupt();
+				throw new DataAccessResourceFailureException("Interrupted while waiting for partitioned query", ex);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * A partition of a query as executed by {@link PartitionedQueryTemplate}:
+ * an SQL predicate with JDBC-style '?' placeholders, plus its arguments.
+ *
+ * <p>The predicates of all partitions of a query need to be disjoint and
+ * together cover all rows of interest, as is the case for the key ranges
+ * returned by {@link #ranges} and the hash buckets returned by {@link #hashBuckets}.
+ *
+ * @since 5.3.6
+ * @see PartitionedQueryTemplate
+ */
+public final class QueryPartition {
+
+	private final String predicate;
+
+	private final Object[] args;
+
+
+	private QueryPartition(String predicate, Object[] args) {
+		this.predicate = predicate;
+		this.args = args;
+	}
+
+
+	/**
+	 * Return the SQL predicate of this partition.
+	 */
+	public String getPredicate() {
+		return this.predicate;
+	}
+
+	/**
+	 * Return the arguments to bind to the predicate's placeholders.
+	 */
+	public Object[] getArgs() {
+		return this.args;
+	}
+
+	@Override
+	public boolean equals(@Nullable Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof QueryPartition)) {
+			return false;
+		}
+		QueryPartition otherPartition = (QueryPartition) other;
+		return (this.predicate.equals(otherPartition.predicate) && Arrays.equals(this.args, otherPartition.args));
+	}
+
+	@Override
+	public int hashCode() {
+		return this.predicate.hashCode() * 31 + Arrays.hashCode(this.args);
+	}
+
+	@Override
+	public String toString() {
+		return "QueryPartition [" + this.predicate + "] with args " + Arrays.toString(this.args);
+	}
+
+
+	/**
+	 * Create a partition for the given SQL predicate.
+	 * @param predicate the SQL predicate, with '?' placeholders for the given arguments
+	 * @param args the arguments to bind
+	 */
+	public static QueryPartition of(String predicate, Object... args) {
+		Assert.hasText(predicate, "Predicate must not be empty");
+		return new QueryPartition(predicate, args.clone());
+	}
+
+	/**
+	 * Create a partition for the key range between the given bounds.
+	 * @param column the key column (or SQL expression)
+	 * @param lowerBound the inclusive lower bound, or {@code null} for none
+	 * @param upperBound the exclusive upper bound, or {@code null} for none
+	 */
+	public static QueryPartition range(String column, @Nullable Object lowerBound, @Nullable Object upperBound) {
+		Assert.hasText(column, "Column must not be empty");
+		if (lowerBound != null && upperBound != null) {
+			return new QueryPartition(column + " >= ? AND " + column + " < ?", new Object[] {lowerBound, upperBound});
+		}
+		else if (lowerBound != null) {
+			return new QueryPartition(column + " >= ?", new Object[] {lowerBound});
+		}
+		else if (upperBound != null) {
+			return new QueryPartition(column + " < ?", new Object[] {upperBound});
+		}
+		else {
+			return new QueryPartition("1 = 1", new Object[0]);
+		}
+	}
+
+	/**
+	 * Create partitions for the key ranges delimited by the given boundaries,
+	 * in ascending order: below the first boundary, between each two
+	 * subsequent boundaries, and from the last boundary on.
+	 * @param column the key column (or SQL expression)
+	 * @param boundaries the boundaries between the partitions, in ascending order
+	 * @return {@code boundaries.length + 1} partitions
+	 */
+	public static List<QueryPartition> ranges(String column, Object... boundaries) {
+		List<QueryPartition> partitions = new ArrayList<>(boundaries.length + 1);
+		Object lowerBound = null;
+		for (Object boundary : boundaries) {
+			partitions.add(range(column, lowerBound, boundary));
+			lowerBound = boundary;
+		}
+		partitions.add(range(column, lowerBound, null));
+		return partitions;
+	}
+
+	/**
+	 * Create a partition for a hash bucket of the given integer expression,
+	 * using the SQL {@code MOD} function.
+	 * @param expression the SQL expression to hash, typically a numeric key
+	 * column or a database-specific hash function applied to a column
+	 * @param bucket the bucket of this partition, between 0 and {@code bucketCount - 1}
+	 * @param bucketCount the total number of buckets
+	 */
+	public static QueryPartition hashBucket(String expression, int bucket, int bucketCount) {
+		Assert.hasText(expression, "Expression must not be empty");
+		Assert.isTrue(bucket >= 0 && bucket < bucketCount, "Bucket must be between 0 and bucketCount - 1");
+		return new QueryPartition("MOD(" + expression + ", " + bucketCount + ") = ?", new Object[] {bucket});
+	}
+
+	/**
+	 * Create partitions for all hash buckets of the given integer expression.
+	 * <p>Note that {@code MOD} of a negative value is negative on most databases:
+	 * apply {@code ABS} to the expression if it may be negative.
+	 * @param expression the SQL expression to hash
+	 * @param bucketCount the number of buckets
+	 * @return {@code bucketCount} partitions
+	 * @see #hashBucket
+	 */
+	public static List<QueryPartition> hashBuckets(String expression, int bucketCount) {
+		Assert.isTrue(bucketCount > 0, "Bucket count must be positive");
+		List<QueryPartition> partitions = new ArrayList<>(bucketCount);
+		for (int i = 0; i < bucketCount; i++) {
+			partitions.add(hashBucket(expression, i, bucketCount));
+		}
+		return partitions;
+	}
+
+}
@@ -0,0 +1,460 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Reactive bridge for running JDBC queries as a {@link Flux} of mapped rows,
+ * reading rows from the {@link ResultSet} only as requested by the subscriber.
+ *
+ * <p>The query runs on a worker of the configured {@link #setScheduler Scheduler}
+ * (by default {@link Schedulers#boundedElastic()}), since JDBC is blocking.
+ * The Connection is obtained lazily on first demand, and the JDBC fetch size
+ * follows the outstanding demand, capped at {@link #setMaxFetchSize maxFetchSize},
+ * so that no more rows than requested get transferred from the database.
+ * This allows for streaming large results, for example a WebFlux export
+ * endpoint, in constant memory:
+ *
+ * <pre class="code">
+ * &#064;GetMapping(path = "/orders", produces = MediaType.APPLICATION_NDJSON_VALUE)
+ * public Flux&lt;Order&gt; orders() {
+ *     return reactiveQueryTemplate.queryForFlux("SELECT * FROM orders", orderMapper);
+ * }</pre>
+ *
+ * <p>The Connection is released when the result has been fully emitted,
+ * when the query fails, and when the subscription gets cancelled.
+ * An {@link SQLException} is translated with the {@link JdbcTemplate}'s
+ * {@link JdbcTemplate#getExceptionTranslator() exception translator} and
+ * signalled as a {@link DataAccessException} error.
+ *
+ * <p>Since the query runs on a separate thread, it does not participate in
+ * a transaction of the subscribing thread.
+ *
+ * <p><b>NOTE: An instance of this class is thread-safe once configured.</b>
+ *
+ * @since 5.3.6
+ * @see JdbcTemplate#queryForStream
+ */
+public class ReactiveQueryTemplate {
+
+	/** Default maximum JDBC fetch size derived from demand: 1000. */
+	public static final int DEFAULT_MAX_FETCH_SIZE = 1000;
+
+	private static final Log logger = LogFactory.getLog(ReactiveQueryTemplate.class);
+
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private Scheduler scheduler = Schedulers.boundedElastic();
+
+	private int maxFetchSize = DEFAULT_MAX_FETCH_SIZE;
+
+
+	/**
+	 * Create a new ReactiveQueryTemplate for the given DataSource.
+	 * @param dataSource the JDBC DataSource to obtain Connections from
+	 */
+	public ReactiveQueryTemplate(DataSource dataSource) {
+		this(new JdbcTemplate(dataSource));
+	}
+
+	/**
+	 * Create a new ReactiveQueryTemplate for the given JdbcTemplate,
+	 * applying its settings (max rows, query timeout, exception translation)
+	 * to each query.
+	 * @param jdbcTemplate the JdbcTemplate to obtain settings and Connections from
+	 */
+	public ReactiveQueryTemplate(JdbcTemplate jdbcTemplate) {
+		Assert.notNull(jdbcTemplate, "JdbcTemplate must not be null");
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+
+	/**
+	 * Return the JdbcTemplate that settings and Connections are obtained from.
+	 */
+	public JdbcTemplate getJdbcTemplate() {
+		return this.jdbcTemplate;
+	}
+
+	/**
+	 * Set the Scheduler to run the blocking JDBC calls on.
+	 * Default is {@link Schedulers#boundedElastic()}.
+	 */
+	public void setScheduler(Scheduler scheduler) {
+		Assert.notNull(scheduler, "Scheduler must not be null");
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * Return the Scheduler to run the blocking JDBC calls on.
+	 */
+	public Scheduler getScheduler() {
+		return this.scheduler;
+	}
+
+	/**
+	 * Set the maximum JDBC fetch size to apply for outstanding demand.
+	 * Default is 1000.
+	 * <p>The fetch size is set to the outstanding demand of the subscriber,
+	 * limited to this value: an unbounded request, for example, results in
+	 * this fetch size rather than in the driver's default behavior, which
+	 * might be to load the entire result into memory.
+	 */
+	public void setMaxFetchSize(int maxFetchSize) {
+		Assert.isTrue(maxFetchSize > 0, "'maxFetchSize' must be positive");
+		this.maxFetchSize = maxFetchSize;
+	}
+
+	/**
+	 * Return the maximum JDBC fetch size to apply for outstanding demand.
+	 */
+	public int getMaxFetchSize() {
+		return this.maxFetchSize;
+	}
+
+
+	/**
+	 * Query given SQL to create a prepared statement from SQL and a list of
+	 * arguments to bind to the query, mapping each row to a result object
+	 * via a RowMapper, and emitting the results as requested.
+	 * @param sql the SQL query to execute
+	 * @param rowMapper a callback that will map one object per row
+	 * @param args arguments to bind to the query
+	 * (leaving it to the PreparedStatement to guess the corresponding SQL type);
+	 * may also contain {@link SqlParameterValue} objects which indicate not
+	 * only the argument value but also the SQL type and optionally the scale
+	 * @return a Flux of the mapped rows, executing the query on subscription
+	 */
+	public <T> Flux<T> queryForFlux(String sql, RowMapper<T> rowMapper, @Nullable Object... args) {
+		return queryForFlux(new SimplePreparedStatementCreator(sql),
+				this.jdbcTemplate.newArgPreparedStatementSetter(args), rowMapper);
+	}
+
+	/**
+	 * Query given SQL to create a prepared statement from SQL and a
+	 * PreparedStatementSetter implementation that knows how to bind values to
+	 * the query, mapping each row to a result object via a RowMapper, and
+	 * emitting the results as requested.
+	 * @param sql the SQL query to execute
+	 * @param pss a callback that knows how to set values on the prepared statement
+	 * (may be {@code null})
+	 * @param rowMapper a callback that will map one object per row
+	 * @return a Flux of the mapped rows, executing the query on subscription
+	 */
+	public <T> Flux<T> queryForFlux(String sql, @Nullable PreparedStatementSetter pss, RowMapper<T> rowMapper) {
+		return queryForFlux(new SimplePreparedStatementCreator(sql), pss, rowMapper);
+	}
+
+	/**
+	 * Query using a prepared statement, mapping each row to a result object
+	 * via a RowMapper, and emitting the results as requested.
+	 * @param psc a callback that creates a PreparedStatement given a Connection
+	 * @param rowMapper a callback that will map one object per row
+	 * @return a Flux of the mapped rows, executing the query on subscription
+	 */
+	public <T> Flux<T> queryForFlux(PreparedStatementCreator psc, RowMapper<T> rowMapper) {
+		return queryForFlux(psc, null, rowMapper);
+	}
+
+	/**
+	 * Query using a prepared statement, allowing for a PreparedStatementCreator
+	 * and a PreparedStatementSetter, mapping each row to a result object via a
+	 * RowMapper, and emitting the results as requested.
+	 * <p>Each subscription executes the query on its own Connection.
+	 * @param psc a callback that creates a PreparedStatement given a Connection
+	 * @param pss a callback that knows how to set values on the prepared statement
+	 * (may be {@code null})
+	 * @param rowMapper a callback that will map one object per row
+	 * @return a Flux of the mapped rows, executing the query on subscription
+	 */
+	public <T> Flux<T> queryForFlux(PreparedStatementCreator psc, @Nullable PreparedStatementSetter pss,
+			RowMapper<T> rowMapper) {
+
+		Assert.notNull(psc, "PreparedStatementCreator must not be null");
+		Assert.notNull(rowMapper, "RowMapper must not be null");
+		return Flux.create(sink -> {
+			RowEmitter<T> emitter = new RowEmitter<>(sink, psc, pss, rowMapper, this.scheduler.createWorker());
+			sink.onRequest(emitter::request);
+			sink.onDispose(emitter::cancel);
+		});
+	}
+
+
+	/**
+	 * Determine the fetch size to apply for the given outstanding demand.
+	 * @param demand the number of rows requested but not emitted yet
+	 * @return the fetch size, between 1 and the maximum fetch size
+	 * @see #setMaxFetchSize
+	 */
+	protected int determineFetchSize(long demand) {
+		int fetchSize = (int) Math.max(Math.min(demand, this.maxFetchSize), 1);
+		int maxRows = this.jdbcTemplate.getMaxRows();
+		return (maxRows > 0 ? Math.min(fetchSize, maxRows) : fetchSize);
+	}
+
+	/**
+	 * Translate the given {@link SQLException} into a generic {@link DataAccessException}.
+	 * @param sql the SQL query that caused the problem (may be {@code null})
+	 * @param ex the offending {@code SQLException}
+	 * @return a DataAccessException wrapping the {@code SQLException}
+	 */
+	protected DataAccessException translateException(@Nullable String sql, SQLException ex) {
+		DataAccessException dae = this.jdbcTemplate.getExceptionTranslator().translate("ReactiveQuery", sql, ex);
+		return (dae != null ? dae : new UncategorizedSQLException("ReactiveQuery", sql, ex));
+	}
+
+
+	/**
+	 * Simple adapter for PreparedStatementCreator, allowing to use a plain SQL statement.
+	 */
+	private static class SimplePreparedStatementCreator implements PreparedStatementCreator, SqlProvider {
+
+		private final String sql;
+
+		public SimplePreparedStatementCreator(String sql) {
+			Assert.notNull(sql, "SQL must not be null");
+			this.sql = sql;
+		}
+
+		@Override
+		public PreparedStatement createPreparedStatement(Connection con) throws SQLException {
+			return con.prepareStatement(this.sql);
+		}
+
+		@Override
+		public String getSql() {
+			return this.sql;
+		}
+	}
+
+
+	/**
+	 * Emits the rows of a single subscription. All JDBC calls happen in
+	 * {@link #run()} on the Scheduler worker, which is triggered by requests
+	 * and cancellation and never runs concurrently with itself.
+	 */
+	private class RowEmitter<T> implements Runnable {
+
+		private final FluxSink<T> sink;
+
+		private final PreparedStatementCreator psc;
+
+		@Nullable
+		private final PreparedStatementSetter pss;
+
+		private final RowMapper<T> rowMapper;
+
+		private final Scheduler.Worker worker;
+
+		private final AtomicLong requested = new AtomicLong();
+
+		private final AtomicInteger wip = new AtomicInteger();
+
+		private volatile boolean cancelled;
+
+		// State below only accessed from the worker
+
+		@Nullable
+		private Connection connection;
+
+		@Nullable
+		private PreparedStatement statement;
+
+		@Nullable
+		private ResultSet resultSet;
+
+		private int fetchSize;
+
+		private int rowNum;
+
+		private boolean done;
+
+		private boolean released;
+
+		public RowEmitter(FluxSink<T> sink, PreparedStatementCreator psc, @Nullable PreparedStatementSetter pss,
+				RowMapper<T> rowMapper, Scheduler.Worker worker) {
+
+			this.sink = sink;
+			this.psc = psc;
+			this.pss = pss;
+			this.rowMapper = rowMapper;
+			this.worker = worker;
+		}
+
+		public void request(long n) {
+			this.requested.getAndUpdate(r -> Operators.addCap(r, n));
+			schedule();
+		}
+
+		public void cancel() {
+			this.cancelled = true;
+			schedule();
+		}
+
+		private void schedule() {
+			if (this.wip.getAndIncrement() == 0) {
+				this.worker.schedule(this);
+			}
+		}
+
+		@Override
+		public void run() {
+			int missed = 1;
+			do {
+				if (this.cancelled) {
+					this.done = true;
+					release();
+					this.worker.dispose();
+					return;
+				}
+				if (!this.done) {
+					drain();
+				}
+				missed = this.wip.addAndGet(-missed);
+			}
+			while (missed != 0);
+		}
+
+		private void drain() {
+			try {
+				long demand = this.requested.get();
+				if (demand == 0) {
+					return;
+				}
+				ResultSet rs = this.resultSet;
+				if (rs == null) {
+					rs = executeQuery(demand);
+				}
+				else {
+					applyFetchSize(rs, demand);
+				}
+				long emitted = 0;
+				while (emitted != demand) {
+					if (this.cancelled) {
+						break;
+					}
+					if (!rs.next()) {
+						this.done = true;
+						release();
+						this.sink.complete();
+						return;
+					}
+					T row = this.rowMapper.mapRow(rs, this.rowNum++);
+					if (row == null) {
+						throw new IllegalStateException(
+								"RowMapper returned null for row " + (this.rowNum - 1) + ": cannot emit null");
+					}
+					this.sink.next(row);
+					emitted++;
+				}
+				if (demand != Long.MAX_VALUE) {
+					this.requested.addAndGet(-emitted);
+				}
+			}
+			catch (SQLException ex) {
+				this.done = true;
+				String sql = (this.psc instanceof SqlProvider ? ((SqlProvider) this.psc).getSql() : null);
+				release();
+				this.sink.error(translateException(sql, ex));
+			}
+			catch (Throwable ex) {
+				this.done = true;
+				release();
+				this.sink.error(ex);
+			}
+		}
+
+		private ResultSet executeQuery(long demand) throws SQLException {
+			JdbcTemplate jdbcTemplate = getJdbcTemplate();
+			DataSource dataSource = jdbcTemplate.getDataSource();
+			Assert.state(dataSource != null, "No DataSource set");
+			this.connection = DataSourceUtils.getConnection(dataSource);
+			PreparedStatement ps = this.psc.createPreparedStatement(this.connection);
+			this.statement = ps;
+			int maxRows = jdbcTemplate.getMaxRows();
+			if (maxRows != -1) {
+				ps.setMaxRows(maxRows);
+			}
+			DataSourceUtils.applyTimeout(ps, dataSource, jdbcTemplate.getQueryTimeout());
+			this.fetchSize = determineFetchSize(demand);
+			ps.setFetchSize(this.fetchSize);
+			if (this.pss != null) {
+				this.pss.setValues(ps);
+			}
+			ResultSet rs = ps.executeQuery();
+			this.resultSet = rs;
+			return rs;
+		}
+
+		private void applyFetchSize(ResultSet rs, long demand) throws SQLException {
+			int fetchSize = determineFetchSize(demand);
+			if (fetchSize != this.fetchSize) {
+				rs.setFetchSize(fetchSize);
+				this.fetchSize = fetchSize;
+			}
+		}
+
+		private void release() {
+			if (this.released) {
+				return;
+			}
+			this.released = true;
+			JdbcUtils.closeResultSet(this.resultSet);
+			this.resultSet = null;
+			if (this.pss instanceof ParameterDisposer) {
+				((ParameterDisposer) this.pss).cleanupParameters();
+			}
+			if (this.psc instanceof ParameterDisposer) {
+				((ParameterDisposer) this.psc).cleanupParameters();
+			}
+			JdbcUtils.closeStatement(this.statement);
+			this.statement = null;
+			if (this.connection != null) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Releasing JDBC Connection after " + this.rowNum + " rows");
+				}
+				DataSourceUtils.releaseConnection(this.connection, getJdbcTemplate().getDataSource());
+				this.connection = null;
+			}
+		}
+	}
+
+}
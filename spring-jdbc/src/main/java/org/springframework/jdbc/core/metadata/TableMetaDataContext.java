@@ -272,6 +272,19 @@ public class TableMetaDataContext {
 	 * @return the insert string to be used
 	 */
 	public String createInsertString(String... generatedKeyNames) {
+		return createInsertString(1, generatedKeyNames);
+	}
+
+	/**
+	 * Build a multi-row insert string based on configuration and meta-data information,
+	 * i.e. an insert statement with the given number of {@code VALUES} row constructors.
+	 * @param rowCount the number of rows to insert with a single statement
+	 * @param generatedKeyNames names of generated key columns
+	 * @return the insert string to be used
+	 * @since 5.3.6
+	 */
+	public String createInsertString(int rowCount, String... generatedKeyNames) {
+		Assert.isTrue(rowCount > 0, "Row count must be greater than 0");
 		Set<String> keys = new LinkedHashSet<>(generatedKeyNames.length);
 		for (String key : generatedKeyNames) {
 			keys.add(key.toUpperCase());
@@ -314,6 +327,9 @@ public class TableMetaDataContext {
 		String params = String.join(", ", Collections.nCopies(columnCount, "?"));
 		insertStatement.append(params);
 		insertStatement.append(")");
+		for (int i = 1; i < rowCount; i++) {
+			insertStatement.append(", (").append(params).append(")");
+		}
 		return insertStatement.toString();
 	}
 
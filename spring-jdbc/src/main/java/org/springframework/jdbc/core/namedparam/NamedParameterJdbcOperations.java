@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,11 +16,14 @@
 
 package org.springframework.jdbc.core.namedparam;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
 
 import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchUpdateSummary;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.jdbc.core.PreparedStatementCallback;
 import org.springframework.jdbc.core.ResultSetExtractor;
@@ -548,4 +551,61 @@ public interface NamedParameterJdbcOperations {
 	 */
 	int[] batchUpdate(String sql, SqlParameterSource[] batchArgs);
 
+	/**
+	 * Execute multiple batches using the supplied SQL statement with the stream of
+	 * supplied arguments, sending a batch to the database for every 'batchSize'
+	 * arguments. The arguments are consumed lazily and the update counts are
+	 * summarized rather than retained per statement.
+	 * <p>Note: The SQL statement is expanded based on the first parameter source,
+	 * so collection-valued parameters need to be of the same size in all sources.
+	 * The given Stream is not closed by this method.
+	 * @param sql the SQL statement to execute
+	 * @param batchArgs the Stream of {@link SqlParameterSource} containing the
+	 * arguments for the batches
+	 * @param batchSize batch size
+	 * @return the summarized update counts of all batches
+	 * @throws DataAccessException if there is any problem issuing the update
+	 * @since 5.3.6
+	 * @see JdbcOperations#batchUpdate(String, Stream, int, org.springframework.jdbc.core.ParameterizedPreparedStatementSetter)
+	 */
+	default BatchUpdateSummary batchUpdate(String sql, Stream<? extends SqlParameterSource> batchArgs, int batchSize)
+			throws DataAccessException {
+
+		return batchUpdate(sql, batchArgs.iterator(), batchSize);
+	}
+
+	/**
+	 * Execute multiple batches using the supplied SQL statement with the arguments
+	 * provided by the given Iterator, sending a batch to the database for every
+	 * 'batchSize' arguments. The arguments are consumed lazily and the update counts
+	 * are summarized rather than retained per statement.
+	 * <p>Note: The SQL statement is expanded based on the first parameter source,
+	 * so collection-valued parameters need to be of the same size in all sources.
+	 * <p>The default implementation collects 'batchSize' parameter sources at a
+	 * time and delegates to {@link #batchUpdate(String, SqlParameterSource[])}
+	 * for each such chunk.
+	 * @param sql the SQL statement to execute
+	 * @param batchArgs the Iterator over the {@link SqlParameterSource} containing
+	 * the arguments for the batches
+	 * @param batchSize batch size
+	 * @return the summarized update counts of all batches
+	 * @throws DataAccessException if there is any problem issuing the update
+	 * @since 5.3.6
+	 * @see JdbcOperations#batchUpdate(String, Iterator, int, org.springframework.jdbc.core.ParameterizedPreparedStatementSetter)
+	 */
+	default BatchUpdateSummary batchUpdate(String sql, Iterator<? extends SqlParameterSource> batchArgs, int batchSize)
+			throws DataAccessException {
+
+		BatchUpdateSummary summary = new BatchUpdateSummary();
+		List<SqlParameterSource> chunk = new ArrayList<>(batchSize);
+		while (batchArgs.hasNext()) {
+			chunk.add(batchArgs.next());
+			if (chunk.size() == batchSize || !batchArgs.hasNext()) {
+				summary.addBatch(batchUpdate(sql, chunk.toArray(new SqlParameterSource[0])));
+				chunk.clear();
+			}
+		}
+		return summary;
+	}
+
 }
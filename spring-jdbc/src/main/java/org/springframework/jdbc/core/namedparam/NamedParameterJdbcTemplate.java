@@ -18,8 +18,15 @@ package org.springframework.jdbc.core.namedparam;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
@@ -28,6 +35,7 @@ import javax.sql.DataSource;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.support.DataAccessUtils;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.BatchUpdateSummary;
 import org.springframework.jdbc.core.ColumnMapRowMapper;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -39,6 +47,7 @@ import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.SingleColumnRowMapper;
 import org.springframework.jdbc.core.SqlParameter;
+import org.springframework.jdbc.core.SqlParameterValue;
 import org.springframework.jdbc.core.SqlRowSetResultSetExtractor;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
@@ -59,6 +68,13 @@ import org.springframework.util.ConcurrentLruCache;
  * exposed to allow for convenient access to the traditional
  * {@link org.springframework.jdbc.core.JdbcTemplate} methods.
  *
+ * <p>Substituted SQL statements are cached per statement shape, i.e. per
+ * parsed statement and number of elements of each collection parameter.
+ * Since every distinct {@code IN} list size leads to a distinct statement,
+ * {@link #setInClauseParameterPadding "in clause parameter padding"} can be
+ * switched on in order to limit the number of statements that the driver and
+ * the database need to prepare.
+ *
  * <p><b>NOTE: An instance of this class is thread-safe once configured.</b>
  *
  * @author Thomas Risberg
@@ -72,6 +88,14 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 	/** Default maximum number of entries for this template's SQL cache: 256. */
 	public static final int DEFAULT_CACHE_LIMIT = 256;
 
+	/**
+	 * Default maximum number of elements of a padded {@code IN} list: 1000,
+	 * staying within common database limits such as Oracle's.
+	 * @since 5.3.6
+	 * @see #setInClauseParameterPaddingLimit
+	 */
+	public static final int DEFAULT_IN_CLAUSE_PARAMETER_PADDING_LIMIT = 1000;
+
 
 	/** The JdbcTemplate we are wrapping. */
 	private final JdbcOperations classicJdbcTemplate;
@@ -80,6 +104,14 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 	private volatile ConcurrentLruCache<String, ParsedSql> parsedSqlCache =
 			new ConcurrentLruCache<>(DEFAULT_CACHE_LIMIT, NamedParameterUtils::parseSqlStatement);
 
+	/** Cache of statement shape to substituted SQL String. */
+	private volatile ConcurrentLruCache<StatementShape, String> substitutedSqlCache =
+			new ConcurrentLruCache<>(DEFAULT_CACHE_LIMIT, StatementShape::substituteNamedParameters);
+
+	private boolean inClauseParameterPadding = false;
+
+	private int inClauseParameterPaddingLimit = DEFAULT_IN_CLAUSE_PARAMETER_PADDING_LIMIT;
+
 
 	/**
 	 * Create a new NamedParameterJdbcTemplate for the given {@link DataSource}.
@@ -126,9 +158,12 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 	/**
 	 * Specify the maximum number of entries for this template's SQL cache.
 	 * Default is 256. 0 indicates no caching, always parsing each statement.
+	 * <p>The same limit applies to the cache of substituted SQL statements
+	 * per statement shape.
 	 */
 	public void setCacheLimit(int cacheLimit) {
 		this.parsedSqlCache = new ConcurrentLruCache<>(cacheLimit, NamedParameterUtils::parseSqlStatement);
+		this.substitutedSqlCache = new ConcurrentLruCache<>(cacheLimit, StatementShape::substituteNamedParameters);
 	}
 
 	/**
@@ -138,6 +173,56 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 		return this.parsedSqlCache.sizeLimit();
 	}
 
+	/**
+	 * Set whether to pad the collection values of {@code IN} list parameters
+	 * to the next power of two by repeating their last element.
+	 * <p>Default is "false". Switch this to "true" in order to bound the number
+	 * of distinct statements that result from {@code IN} lists of varying size,
+	 * allowing the driver and the database to reuse prepared statements and
+	 * execution plans: e.g. lists with 5 to 8 elements all lead to 8 placeholders.
+	 * <p>Padding does not change the result of an {@code IN} predicate. It only
+	 * applies to parameters which are the sole element of an {@code IN} list in
+	 * the statement, such as {@code id IN (:ids)}, and which do not occur anywhere
+	 * else in it: collections expanded elsewhere, e.g. as the rows of a
+	 * {@code VALUES} clause, are left as-is. So are collections declared as
+	 * {@link Types#ARRAY} as well as empty collections, and collections which
+	 * would exceed the {@link #setInClauseParameterPaddingLimit padding limit}.
+	 * @since 5.3.6
+	 */
+	public void setInClauseParameterPadding(boolean inClauseParameterPadding) {
+		this.inClauseParameterPadding = inClauseParameterPadding;
+	}
+
+	/**
+	 * Return whether collection parameter values get padded to the next power of two.
+	 * @since 5.3.6
+	 */
+	public boolean isInClauseParameterPadding() {
+		return this.inClauseParameterPadding;
+	}
+
+	/**
+	 * Specify the maximum number of elements of a padded {@code IN} list.
+	 * Collections whose padded size would exceed this limit are not padded,
+	 * e.g. a collection with 600 elements stays as-is with the default limit,
+	 * instead of leading to 1024 placeholders.
+	 * <p>Default is {@link #DEFAULT_IN_CLAUSE_PARAMETER_PADDING_LIMIT 1000}.
+	 * @since 5.3.6
+	 * @see #setInClauseParameterPadding
+	 */
+	public void setInClauseParameterPaddingLimit(int inClauseParameterPaddingLimit) {
+		Assert.isTrue(inClauseParameterPaddingLimit > 0, "Padding limit must be greater than 0");
+		this.inClauseParameterPaddingLimit = inClauseParameterPaddingLimit;
+	}
+
+	/**
+	 * Return the maximum number of elements of a padded {@code IN} list.
+	 * @since 5.3.6
+	 */
+	public int getInClauseParameterPaddingLimit() {
+		return this.inClauseParameterPaddingLimit;
+	}
+
 
 	@Override
 	@Nullable
@@ -368,14 +453,16 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 		}
 
 		ParsedSql parsedSql = getParsedSql(sql);
-		PreparedStatementCreatorFactory pscf = getPreparedStatementCreatorFactory(parsedSql, batchArgs[0]);
+		PreparedStatementCreatorFactory pscf =
+				getPreparedStatementCreatorFactory(parsedSql, padInClauseParameters(parsedSql, batchArgs[0]));
 
 		return getJdbcOperations().batchUpdate(
 				pscf.getSql(),
 				new BatchPreparedStatementSetter() {
 					@Override
 					public void setValues(PreparedStatement ps, int i) throws SQLException {
-						Object[] values = NamedParameterUtils.buildValueArray(parsedSql, batchArgs[i], null);
+						Object[] values = NamedParameterUtils.buildValueArray(
+								parsedSql, padInClauseParameters(parsedSql, batchArgs[i]), null);
 						pscf.newPreparedStatementSetter(values).setValues(ps);
 					}
 					@Override
@@ -385,6 +472,46 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 				});
 	}
 
+	@Override
+	public BatchUpdateSummary batchUpdate(String sql, Stream<? extends SqlParameterSource> batchArgs, int batchSize) {
+		return batchUpdate(sql, batchArgs.iterator(), batchSize);
+	}
+
+	@Override
+	public BatchUpdateSummary batchUpdate(String sql, Iterator<? extends SqlParameterSource> batchArgs, int batchSize) {
+		if (!batchArgs.hasNext()) {
+			return new BatchUpdateSummary();
+		}
+
+		SqlParameterSource firstArgs = batchArgs.next();
+		ParsedSql parsedSql = getParsedSql(sql);
+		PreparedStatementCreatorFactory pscf =
+				getPreparedStatementCreatorFactory(parsedSql, padInClauseParameters(parsedSql, firstArgs));
+
+		Iterator<SqlParameterSource> allArgs = new Iterator<SqlParameterSource>() {
+			@Nullable
+			private SqlParameterSource pending = firstArgs;
+			@Override
+			public boolean hasNext() {
+				return (this.pending != null || batchArgs.hasNext());
+			}
+			@Override
+			public SqlParameterSource next() {
+				SqlParameterSource next = this.pending;
+				if (next != null) {
+					this.pending = null;
+					return next;
+				}
+				return batchArgs.next();
+			}
+		};
+
+		return getJdbcOperations().batchUpdate(pscf.getSql(), allArgs, batchSize, (ps, paramSource) -> {
+			Object[] values = NamedParameterUtils.buildValueArray(parsedSql, padInClauseParameters(parsedSql, paramSource), null);
+			pscf.newPreparedStatementSetter(values).setValues(ps);
+		});
+	}
+
 
 	/**
 	 * Build a {@link PreparedStatementCreator} based on the given SQL and named parameters.
@@ -418,11 +545,12 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 			@Nullable Consumer<PreparedStatementCreatorFactory> customizer) {
 
 		ParsedSql parsedSql = getParsedSql(sql);
-		PreparedStatementCreatorFactory pscf = getPreparedStatementCreatorFactory(parsedSql, paramSource);
+		SqlParameterSource paramSourceToUse = padInClauseParameters(parsedSql, paramSource);
+		PreparedStatementCreatorFactory pscf = getPreparedStatementCreatorFactory(parsedSql, paramSourceToUse);
 		if (customizer != null) {
 			customizer.accept(pscf);
 		}
-		Object[] params = NamedParameterUtils.buildValueArray(parsedSql, paramSource, null);
+		Object[] params = NamedParameterUtils.buildValueArray(parsedSql, paramSourceToUse, null);
 		return pscf.newPreparedStatementCreator(params);
 	}
 
@@ -448,9 +576,177 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 	protected PreparedStatementCreatorFactory getPreparedStatementCreatorFactory(
 			ParsedSql parsedSql, SqlParameterSource paramSource) {
 
-		String sqlToUse = NamedParameterUtils.substituteNamedParameters(parsedSql, paramSource);
+		String sqlToUse = getSubstitutedSql(parsedSql, paramSource);
 		List<SqlParameter> declaredParameters = NamedParameterUtils.buildSqlParameterList(parsedSql, paramSource);
 		return new PreparedStatementCreatorFactory(sqlToUse, declaredParameters);
 	}
 
+	/**
+	 * Obtain the SQL statement with JDBC-style placeholders for the given
+	 * parsed statement and named parameters.
+	 * <p>The default implementation uses an LRU cache keyed by statement shape,
+	 * i.e. by the number of placeholders that each named parameter expands to,
+	 * with an upper limit of 256 entries.
+	 * @param parsedSql parsed representation of the given SQL statement
+	 * @param paramSource container of arguments to bind
+	 * @return the SQL statement with substituted parameters
+	 * @since 5.3.6
+	 * @see NamedParameterUtils#substituteNamedParameters(ParsedSql, SqlParameterSource)
+	 */
+	protected String getSubstitutedSql(ParsedSql parsedSql, SqlParameterSource paramSource) {
+		if (parsedSql.getParameterNames().isEmpty()) {
+			return parsedSql.getOriginalSql();
+		}
+		int[] shape = NamedParameterUtils.buildParameterShape(parsedSql, paramSource);
+		return this.substitutedSqlCache.get(new StatementShape(parsedSql, shape));
+	}
+
+	private SqlParameterSource padInClauseParameters(ParsedSql parsedSql, SqlParameterSource paramSource) {
+		if (!this.inClauseParameterPadding) {
+			return paramSource;
+		}
+		Set<String> inClauseParameterNames = parsedSql.getInClauseParameterNames();
+		return (!inClauseParameterNames.isEmpty() ?
+				new PaddedInClauseParameterSource(paramSource, inClauseParameterNames,
+						this.inClauseParameterPaddingLimit) : paramSource);
+	}
+
+
+	/**
+	 * Cache key for a substituted SQL statement: the original SQL statement
+	 * plus the placeholder shape of its named parameters.
+	 */
+	private static final class StatementShape {
+
+		private final ParsedSql parsedSql;
+
+		private final int[] shape;
+
+		private final int hashCode;
+
+		StatementShape(ParsedSql parsedSql, int[] shape) {
+			this.parsedSql = parsedSql;
+			this.shape = shape;
+			this.hashCode = parsedSql.getOriginalSql().hashCode() * 31 + Arrays.hashCode(shape);
+		}
+
+		String substituteNamedParameters() {
+			return NamedParameterUtils.substitutePlaceholders(this.parsedSql, this.shape);
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof StatementShape)) {
+				return false;
+			}
+			StatementShape otherShape = (StatementShape) other;
+			return (this.hashCode == otherShape.hashCode && Arrays.equals(this.shape, otherShape.shape) &&
+					(this.parsedSql == otherShape.parsedSql ||
+							this.parsedSql.getOriginalSql().equals(otherShape.parsedSql.getOriginalSql())));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+
+
+	/**
+	 * {@link SqlParameterSource} decorator which pads the collection values of
+	 * {@code IN} list parameters to the next power of two by repeating their
+	 * last element, up to the given padding limit.
+	 * @see #setInClauseParameterPadding
+	 * @see #setInClauseParameterPaddingLimit
+	 */
+	private static class PaddedInClauseParameterSource implements SqlParameterSource {
+
+		private final SqlParameterSource source;
+
+		private final Set<String> inClauseParameterNames;
+
+		private final int paddingLimit;
+
+		private final Map<String, Object> paddedValues = new HashMap<>(4);
+
+		PaddedInClauseParameterSource(SqlParameterSource source, Set<String> inClauseParameterNames,
+				int paddingLimit) {
+
+			this.source = source;
+			this.inClauseParameterNames = inClauseParameterNames;
+			this.paddingLimit = paddingLimit;
+		}
+
+		@Override
+		public boolean hasValue(String paramName) {
+			return this.source.hasValue(paramName);
+		}
+
+		@Override
+		@Nullable
+		public Object getValue(String paramName) throws IllegalArgumentException {
+			if (!this.inClauseParameterNames.contains(paramName)) {
+				return this.source.getValue(paramName);
+			}
+			Object value = this.paddedValues.get(paramName);
+			if (value == null) {
+				value = this.source.getValue(paramName);
+				if (value instanceof SqlParameterValue) {
+					SqlParameterValue paramValue = (SqlParameterValue) value;
+					if (paramValue.getSqlType() != Types.ARRAY && isPaddingCandidate(paramValue.getValue())) {
+						value = new SqlParameterValue(paramValue, pad((Collection<?>) paramValue.getValue()));
+					}
+				}
+				else if (isPaddingCandidate(value) && this.source.getSqlType(paramName) != Types.ARRAY) {
+					value = pad((Collection<?>) value);
+				}
+				if (value != null) {
+					this.paddedValues.put(paramName, value);
+				}
+			}
+			return value;
+		}
+
+		@Override
+		public int getSqlType(String paramName) {
+			return this.source.getSqlType(paramName);
+		}
+
+		@Override
+		@Nullable
+		public String getTypeName(String paramName) {
+			return this.source.getTypeName(paramName);
+		}
+
+		@Override
+		@Nullable
+		public String[] getParameterNames() {
+			return this.source.getParameterNames();
+		}
+
+		private boolean isPaddingCandidate(@Nullable Object value) {
+			if (!(value instanceof Collection)) {
+				return false;
+			}
+			int size = ((Collection<?>) value).size();
+			// Padded size (twice the highest one bit) must not exceed the limit
+			return (size > 0 && Integer.bitCount(size) > 1 && Integer.highestOneBit(size) <= this.paddingLimit / 2);
+		}
+
+		private static List<Object> pad(Collection<?> values) {
+			int size = values.size();
+			int paddedSize = Integer.highestOneBit(size) << 1;
+			List<Object> padded = new ArrayList<>(paddedSize);
+			padded.addAll(values);
+			Object last = padded.get(size - 1);
+			for (int i = size; i < paddedSize; i++) {
+				padded.add(last);
+			}
+			return padded;
+		}
+	}
+
 }
@@ -17,6 +17,8 @@
 package org.springframework.jdbc.core.namedparam;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -322,6 +324,167 @@ public abstract class NamedParameterUtils {
 		return actualSql.toString();
 	}
 
+	/**
+	 * Determine the placeholder shape that {@link #substituteNamedParameters(ParsedSql, SqlParameterSource)}
+	 * would produce for the given parameter values, as a compact key for caching the
+	 * substituted SQL statement.
+	 * <p>Each parameter contributes {@code -1} for a single placeholder, or the number
+	 * of elements of an {@link Iterable} value. An {@code Iterable} containing
+	 * expression lists contributes {@code -(n + 2)}, followed by the length of each
+	 * of its {@code n} elements ({@code -1} for a non-array element).
+	 * @param parsedSql the parsed representation of the SQL statement
+	 * @param paramSource the source for named parameters
+	 * @return the shape of the substituted statement
+	 * @since 5.3.6
+	 * @see #substitutePlaceholders(ParsedSql, int[])
+	 */
+	static int[] buildParameterShape(ParsedSql parsedSql, SqlParameterSource paramSource) {
+		List<String> paramNames = parsedSql.getParameterNames();
+		int[] shape = new int[paramNames.size()];
+		int pos = 0;
+		for (String paramName : paramNames) {
+			int size = -1;
+			int[] expressionLengths = null;
+			if (paramSource.hasValue(paramName)) {
+				Object value = paramSource.getValue(paramName);
+				if (value instanceof SqlParameterValue) {
+					value = ((SqlParameterValue) value).getValue();
+				}
+				if (value instanceof Iterable) {
+					size = 0;
+					for (Object entryItem : (Iterable<?>) value) {
+						if (entryItem instanceof Object[] && expressionLengths == null) {
+							expressionLengths = new int[Math.max(size + 1,
+									value instanceof Collection ? ((Collection<?>) value).size() : 16)];
+							Arrays.fill(expressionLengths, 0, size, -1);
+						}
+						if (expressionLengths != null) {
+							if (size == expressionLengths.length) {
+								expressionLengths = Arrays.copyOf(expressionLengths, size * 2);
+							}
+							expressionLengths[size] = (entryItem instanceof Object[] ? ((Object[]) entryItem).length : -1);
+						}
+						size++;
+					}
+				}
+			}
+			if (expressionLengths != null) {
+				shape = Arrays.copyOf(shape, shape.length + size);
+				shape[pos++] = -(size + 2);
+				System.arraycopy(expressionLengths, 0, shape, pos, size);
+				pos += size;
+			}
+			else {
+				shape[pos++] = size;
+			}
+		}
+		return shape;
+	}
+
+	/**
+	 * Substitute the named parameters of the given statement according to a
+	 * placeholder shape as determined by {@link #buildParameterShape}, producing
+	 * the same SQL statement as {@link #substituteNamedParameters(ParsedSql, SqlParameterSource)}
+	 * would for the original parameter values.
+	 * @param parsedSql the parsed representation of the SQL statement
+	 * @param shape the placeholder shape of the statement
+	 * @return the SQL statement with substituted parameters
+	 * @since 5.3.6
+	 */
+	static String substitutePlaceholders(ParsedSql parsedSql, int[] shape) {
+		String originalSql = parsedSql.getOriginalSql();
+		List<String> paramNames = parsedSql.getParameterNames();
+		if (paramNames.isEmpty()) {
+			return originalSql;
+		}
+		StringBuilder actualSql = new StringBuilder(originalSql.length());
+		int lastIndex = 0;
+		int pos = 0;
+		for (int i = 0; i < paramNames.size(); i++) {
+			int[] indexes = parsedSql.getParameterIndexes(i);
+			actualSql.append(originalSql, lastIndex, indexes[0]);
+			int size = shape[pos++];
+			if (size == -1) {
+				actualSql.append('?');
+			}
+			else if (size >= 0) {
+				for (int k = 0; k < size; k++) {
+					actualSql.append(k > 0 ? ", ?" : "?");
+				}
+			}
+			else {
+				size = -size - 2;
+				for (int k = 0; k < size; k++) {
+					if (k > 0) {
+						actualSql.append(", ");
+					}
+					int expressionLength = shape[pos++];
+					if (expressionLength >= 0) {
+						actualSql.append('(');
+						for (int m = 0; m < expressionLength; m++) {
+							actualSql.append(m > 0 ? ", ?" : "?");
+						}
+						actualSql.append(')');
+					}
+					else {
+						actualSql.append('?');
+					}
+				}
+			}
+			lastIndex = indexes[1];
+		}
+		actualSql.append(originalSql, lastIndex, originalSql.length());
+		return actualSql.toString();
+	}
+
+	/**
+	 * Determine the named parameters of the given statement which only occur
+	 * as the sole element of an {@code IN} list, e.g. {@code id IN (:ids)}.
+	 * @param parsedSql the parsed representation of the SQL statement
+	 * @return the names of the {@code IN} list parameters
+	 * @since 5.3.6
+	 */
+	static Set<String> findInClauseParameterNames(ParsedSql parsedSql) {
+		String sql = parsedSql.getOriginalSql();
+		List<String> paramNames = parsedSql.getParameterNames();
+		Set<String> inClauseNames = new HashSet<>();
+		Set<String> otherNames = new HashSet<>();
+		for (int i = 0; i < paramNames.size(); i++) {
+			int[] indexes = parsedSql.getParameterIndexes(i);
+			if (isInClauseParameter(sql, indexes[0], indexes[1])) {
+				inClauseNames.add(paramNames.get(i));
+			}
+			else {
+				otherNames.add(paramNames.get(i));
+			}
+		}
+		inClauseNames.removeAll(otherNames);
+		return inClauseNames;
+	}
+
+	private static boolean isInClauseParameter(String sql, int startIndex, int endIndex) {
+		int next = endIndex;
+		while (next < sql.length() && Character.isWhitespace(sql.charAt(next))) {
+			next++;
+		}
+		if (next == sql.length() || sql.charAt(next) != ')') {
+			return false;
+		}
+		int prev = startIndex - 1;
+		while (prev >= 0 && Character.isWhitespace(sql.charAt(prev))) {
+			prev--;
+		}
+		if (prev < 0 || sql.charAt(prev) != '(') {
+			return false;
+		}
+		prev--;
+		while (prev >= 0 && Character.isWhitespace(sql.charAt(prev))) {
+			prev--;
+		}
+		return (prev >= 1 && sql.regionMatches(true, prev - 1, "IN", 0, 2) &&
+				(prev == 1 || !Character.isJavaIdentifierPart(sql.charAt(prev - 2))));
+	}
+
 	/**
 	 * Convert a Map of named parameter values to a corresponding array.
 	 * @param parsedSql the parsed SQL statement
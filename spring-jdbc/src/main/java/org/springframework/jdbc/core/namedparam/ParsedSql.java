@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,9 @@ package org.springframework.jdbc.core.namedparam;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+
+import org.springframework.lang.Nullable;
 
 /**
  * Holds information about a parsed SQL statement.
@@ -40,6 +43,9 @@ public class ParsedSql {
 
 	private int totalParameterCount;
 
+	@Nullable
+	private volatile Set<String> inClauseParameterNames;
+
 
 	/**
 	 * Create a new instance of the {@link ParsedSql} class.
@@ -133,6 +139,20 @@ public class ParsedSql {
 		return this.totalParameterCount;
 	}
 
+	/**
+	 * Return the names of the parameters which only occur as the sole element
+	 * of an {@code IN} list in the SQL statement, e.g. {@code id IN (:ids)}.
+	 * @since 5.3.6
+	 */
+	Set<String> getInClauseParameterNames() {
+		Set<String> names = this.inClauseParameterNames;
+		if (names == null) {
+			names = NamedParameterUtils.findInClauseParameterNames(this);
+			this.inClauseParameterNames = names;
+		}
+		return names;
+	}
+
 
 	/**
 	 * Exposes the original SQL String.
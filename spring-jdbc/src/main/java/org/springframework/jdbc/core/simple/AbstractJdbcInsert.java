@@ -17,6 +17,7 @@
 package org.springframework.jdbc.core.simple;
 
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -25,8 +26,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.sql.DataSource;
 
@@ -46,8 +49,10 @@ import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.jdbc.support.MetaDataAccessException;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
 
 /**
  * Abstract class to provide base functionality for easy inserts
@@ -61,6 +66,28 @@ import org.springframework.util.Assert;
  */
 public abstract class AbstractJdbcInsert {
 
+	/**
+	 * Default maximum number of parameters in a multi-row insert statement,
+	 * staying below common driver limits such as 2100 for SQL Server.
+	 * @since 5.3.6
+	 */
+	public static final int DEFAULT_MAX_PARAMETERS_PER_INSERT = 2000;
+
+	/**
+	 * Default maximum number of rows in a multi-row insert statement.
+	 * @since 5.3.6
+	 */
+	public static final int DEFAULT_MAX_ROWS_PER_INSERT = 1000;
+
+	/**
+	 * Databases whose JDBC drivers are known to report a generated key for every
+	 * row of a multi-row insert statement, as determined by
+	 * {@link JdbcUtils#commonDatabaseName}.
+	 */
+	private static final Set<String> multiRowGeneratedKeysProducts =
+			new HashSet<>(Arrays.asList("H2", "MySQL", "PostgreSQL"));
+
+
 	/** Logger available to subclasses. */
 	protected final Log logger = LogFactory.getLog(getClass());
 
@@ -88,6 +115,26 @@ public abstract class AbstractJdbcInsert {
 	/** The SQL type information for the insert columns. */
 	private int[] insertTypes = new int[0];
 
+	/** Whether to combine the rows of a batch into multi-row insert statements. */
+	private boolean multiRowInserts = false;
+
+	/** The maximum number of parameters in a multi-row insert statement. */
+	private int maxParametersPerInsert = DEFAULT_MAX_PARAMETERS_PER_INSERT;
+
+	/** The maximum number of rows in a multi-row insert statement. */
+	private int maxRowsPerInsert = DEFAULT_MAX_ROWS_PER_INSERT;
+
+	/** The number of rows per multi-row insert statement, determined on compile. */
+	private int rowsPerInsert = 1;
+
+	/** Cache of multi-row insert strings, keyed by row count. */
+	@Nullable
+	private ConcurrentLruCache<Integer, String> multiRowInsertStrings;
+
+	/** Whether the driver reports a generated key per row of a multi-row insert, determined lazily. */
+	@Nullable
+	private volatile Boolean multiRowGeneratedKeysSupported;
+
 
 	/**
 	 * Constructor to be used when initializing using a {@link DataSource}.
@@ -221,6 +268,77 @@ public abstract class AbstractJdbcInsert {
 		this.tableMetaDataContext.setOverrideIncludeSynonymsDefault(override);
 	}
 
+	/**
+	 * Specify whether the rows of a batch should be combined into multi-row
+	 * {@code INSERT ... VALUES (...), (...)} statements, for drivers which do
+	 * not rewrite batched inserts themselves.
+	 * <p>The number of rows per statement is limited by the
+	 * {@link #setMaxParametersPerInsert maximum number of parameters} and the
+	 * {@link #setMaxRowsPerInsert maximum number of rows} per statement.
+	 * Note that the database needs to support multi-row {@code VALUES} lists.
+	 * <p>When generated keys are requested for a batch, the JDBC driver also needs
+	 * to report a key for every row of a multi-row statement, which some drivers
+	 * don't (e.g. reporting the last generated identity only). This is checked
+	 * against the database product name before executing: for databases not known
+	 * to report a key per row, batches with generated keys are inserted one row
+	 * per statement instead.
+	 * <p>The default is {@code false}.
+	 * @since 5.3.6
+	 */
+	public void setMultiRowInserts(boolean multiRowInserts) {
+		checkIfConfigurationModificationIsAllowed();
+		this.multiRowInserts = multiRowInserts;
+	}
+
+	/**
+	 * Return whether the rows of a batch are combined into multi-row insert statements.
+	 * @since 5.3.6
+	 */
+	public boolean isMultiRowInserts() {
+		return this.multiRowInserts;
+	}
+
+	/**
+	 * Specify the maximum number of parameters in a multi-row insert statement,
+	 * according to the limit of the JDBC driver or database.
+	 * <p>The default is {@link #DEFAULT_MAX_PARAMETERS_PER_INSERT}.
+	 * @since 5.3.6
+	 * @see #setMultiRowInserts
+	 */
+	public void setMaxParametersPerInsert(int maxParametersPerInsert) {
+		checkIfConfigurationModificationIsAllowed();
+		Assert.isTrue(maxParametersPerInsert > 0, "Max parameters per insert must be greater than 0");
+		this.maxParametersPerInsert = maxParametersPerInsert;
+	}
+
+	/**
+	 * Return the maximum number of parameters in a multi-row insert statement.
+	 * @since 5.3.6
+	 */
+	public int getMaxParametersPerInsert() {
+		return this.maxParametersPerInsert;
+	}
+
+	/**
+	 * Specify the maximum number of rows in a multi-row insert statement.
+	 * <p>The default is {@link #DEFAULT_MAX_ROWS_PER_INSERT}.
+	 * @since 5.3.6
+	 * @see #setMultiRowInserts
+	 */
+	public void setMaxRowsPerInsert(int maxRowsPerInsert) {
+		checkIfConfigurationModificationIsAllowed();
+		Assert.isTrue(maxRowsPerInsert > 0, "Max rows per insert must be greater than 0");
+		this.maxRowsPerInsert = maxRowsPerInsert;
+	}
+
+	/**
+	 * Return the maximum number of rows in a multi-row insert statement.
+	 * @since 5.3.6
+	 */
+	public int getMaxRowsPerInsert() {
+		return this.maxRowsPerInsert;
+	}
+
 	/**
 	 * Get the insert string to be used.
 	 */
@@ -280,6 +398,15 @@ public abstract class AbstractJdbcInsert {
 		if (logger.isDebugEnabled()) {
 			logger.debug("Compiled insert object: insert string is [" + this.insertString + "]");
 		}
+		if (this.multiRowInserts && this.insertTypes.length > 0) {
+			this.rowsPerInsert = Math.max(1,
+					Math.min(this.maxRowsPerInsert, this.maxParametersPerInsert / this.insertTypes.length));
+			this.multiRowInsertStrings = new ConcurrentLruCache<>(16,
+					rowCount -> this.tableMetaDataContext.createInsertString(rowCount, getGeneratedKeyNames()));
+			if (logger.isDebugEnabled()) {
+				logger.debug("Using multi-row inserts with up to " + this.rowsPerInsert + " rows per statement");
+			}
+		}
 		onCompileInternal();
 	}
 
@@ -432,7 +559,7 @@ public abstract class AbstractJdbcInsert {
 		if (this.tableMetaDataContext.isGetGeneratedKeysSupported()) {
 			getJdbcTemplate().update(
 					con -> {
-						PreparedStatement ps = prepareStatementForGeneratedKeys(con);
+						PreparedStatement ps = prepareStatementForGeneratedKeys(con, getInsertString());
 						setParameterValues(ps, values, getInsertTypes());
 						return ps;
 					},
@@ -510,9 +637,10 @@ public abstract class AbstractJdbcInsert {
 	/**
 	 * Create a PreparedStatement to be used for an insert operation with generated keys.
 	 * @param con the Connection to use
+	 * @param sql the insert string to use
 	 * @return the PreparedStatement
 	 */
-	private PreparedStatement prepareStatementForGeneratedKeys(Connection con) throws SQLException {
+	private PreparedStatement prepareStatementForGeneratedKeys(Connection con, String sql) throws SQLException {
 		if (getGeneratedKeyNames().length < 1) {
 			throw new InvalidDataAccessApiUsageException("Generated Key Name(s) not specified. " +
 					"Using the generated keys features requires specifying the name(s) of the generated column(s).");
@@ -522,13 +650,13 @@ public abstract class AbstractJdbcInsert {
 			if (logger.isDebugEnabled()) {
 				logger.debug("Using generated keys support with array of column names.");
 			}
-			ps = con.prepareStatement(getInsertString(), getGeneratedKeyNames());
+			ps = con.prepareStatement(sql, getGeneratedKeyNames());
 		}
 		else {
 			if (logger.isDebugEnabled()) {
 				logger.debug("Using generated keys support with Statement.RETURN_GENERATED_KEYS.");
 			}
-			ps = con.prepareStatement(getInsertString(), Statement.RETURN_GENERATED_KEYS);
+			ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
 		}
 		return ps;
 	}
@@ -562,10 +690,46 @@ public abstract class AbstractJdbcInsert {
 		return executeBatchInternal(batchValues);
 	}
 
+	/**
+	 * Delegate method that executes a batch insert using the passed-in Maps of parameters
+	 * and returns all generated keys.
+	 * @param batch array of Maps with parameter names and values to be used in batch insert
+	 * @return the KeyHolder containing keys generated by the batch insert
+	 * @since 5.3.6
+	 */
+	@SuppressWarnings("unchecked")
+	protected KeyHolder doExecuteBatchAndReturnKeyHolder(Map<String, ?>... batch) {
+		checkCompiled();
+		List<List<Object>> batchValues = new ArrayList<>(batch.length);
+		for (Map<String, ?> args : batch) {
+			batchValues.add(matchInParameterValuesWithInsertColumns(args));
+		}
+		return executeBatchAndReturnKeyHolderInternal(batchValues);
+	}
+
+	/**
+	 * Delegate method that executes a batch insert using the passed-in
+	 * {@link SqlParameterSource SqlParameterSources} and returns all generated keys.
+	 * @param batch array of SqlParameterSource with parameter names and values to be used in insert
+	 * @return the KeyHolder containing keys generated by the batch insert
+	 * @since 5.3.6
+	 */
+	protected KeyHolder doExecuteBatchAndReturnKeyHolder(SqlParameterSource... batch) {
+		checkCompiled();
+		List<List<Object>> batchValues = new ArrayList<>(batch.length);
+		for (SqlParameterSource parameterSource : batch) {
+			batchValues.add(matchInParameterValuesWithInsertColumns(parameterSource));
+		}
+		return executeBatchAndReturnKeyHolderInternal(batchValues);
+	}
+
 	/**
 	 * Delegate method to execute the batch insert.
 	 */
 	private int[] executeBatchInternal(final List<List<Object>> batchValues) {
+		if (isMultiRowInsertApplicable(batchValues.size())) {
+			return executeMultiRowBatchInternal(batchValues);
+		}
 		if (logger.isDebugEnabled()) {
 			logger.debug("Executing statement " + getInsertString() + " with batch of size: " + batchValues.size());
 		}
@@ -582,6 +746,154 @@ public abstract class AbstractJdbcInsert {
 				});
 	}
 
+	/**
+	 * Delegate method to execute the batch insert through multi-row insert statements:
+	 * a JDBC batch of statements with the maximum number of rows each, followed by
+	 * a single statement for the remaining rows.
+	 * @return the number of rows affected per batch row, or
+	 * {@link Statement#SUCCESS_NO_INFO} for the rows of a statement whose update
+	 * count does not match its number of rows
+	 */
+	private int[] executeMultiRowBatchInternal(final List<List<Object>> batchValues) {
+		final int rowsPerInsert = this.rowsPerInsert;
+		final int fullInserts = batchValues.size() / rowsPerInsert;
+		final int remainingRows = batchValues.size() % rowsPerInsert;
+		int[] rowsAffected = new int[batchValues.size()];
+
+		if (fullInserts > 0) {
+			String insertString = getMultiRowInsertString(rowsPerInsert);
+			if (logger.isDebugEnabled()) {
+				logger.debug("Executing " + fullInserts + " multi-row insert statements with " +
+						rowsPerInsert + " rows each");
+			}
+			int[] updateCounts = getJdbcTemplate().batchUpdate(insertString,
+					new BatchPreparedStatementSetter() {
+						@Override
+						public void setValues(PreparedStatement ps, int i) throws SQLException {
+							setMultiRowParameterValues(ps, batchValues, i * rowsPerInsert, rowsPerInsert);
+						}
+						@Override
+						public int getBatchSize() {
+							return fullInserts;
+						}
+					});
+			for (int i = 0; i < updateCounts.length; i++) {
+				fillRowsAffected(rowsAffected, i * rowsPerInsert, rowsPerInsert, updateCounts[i]);
+			}
+		}
+
+		if (remainingRows > 0) {
+			int offset = fullInserts * rowsPerInsert;
+			String insertString = getMultiRowInsertString(remainingRows);
+			if (logger.isDebugEnabled()) {
+				logger.debug("Executing multi-row insert statement with " + remainingRows + " rows");
+			}
+			int updateCount = getJdbcTemplate().update(insertString,
+					ps -> setMultiRowParameterValues(ps, batchValues, offset, remainingRows));
+			fillRowsAffected(rowsAffected, offset, remainingRows, updateCount);
+		}
+
+		return rowsAffected;
+	}
+
+	/**
+	 * Delegate method to execute the batch insert, generating any number of keys.
+	 * <p>Executes one (multi-row, if enabled) insert statement after the other,
+	 * collecting the keys generated by each.
+	 */
+	private KeyHolder executeBatchAndReturnKeyHolderInternal(final List<List<Object>> batchValues) {
+		if (!this.tableMetaDataContext.isGetGeneratedKeysSupported()) {
+			throw new InvalidDataAccessResourceUsageException(
+					"The getGeneratedKeys feature is not supported by this database for batch inserts");
+		}
+		KeyHolder keyHolder = new GeneratedKeyHolder();
+		int rowsPerInsert = (isMultiRowInsertApplicable(batchValues.size()) &&
+				isMultiRowGeneratedKeysSupported() ? this.rowsPerInsert : 1);
+		for (int offset = 0; offset < batchValues.size(); offset += rowsPerInsert) {
+			int rowCount = Math.min(rowsPerInsert, batchValues.size() - offset);
+			String insertString = (rowCount > 1 ? getMultiRowInsertString(rowCount) : getInsertString());
+			int rowOffset = offset;
+			KeyHolder statementKeyHolder = new GeneratedKeyHolder();
+			getJdbcTemplate().update(
+					con -> {
+						PreparedStatement ps = prepareStatementForGeneratedKeys(con, insertString);
+						setMultiRowParameterValues(ps, batchValues, rowOffset, rowCount);
+						return ps;
+					},
+					statementKeyHolder);
+			List<Map<String, Object>> keys = statementKeyHolder.getKeyList();
+			if (rowCount > 1 && keys.size() != rowCount) {
+				throw new InvalidDataAccessResourceUsageException("Multi-row insert of " + rowCount +
+						" rows returned " + keys.size() + " generated keys: the JDBC driver does not report " +
+						"a key per row - disable multi-row inserts for retrieving generated keys");
+			}
+			keyHolder.getKeyList().addAll(keys);
+		}
+		return keyHolder;
+	}
+
+	private boolean isMultiRowInsertApplicable(int batchSize) {
+		return (this.multiRowInsertStrings != null && this.rowsPerInsert > 1 && batchSize > 1);
+	}
+
+	/**
+	 * Determine whether the JDBC driver is known to report a generated key for
+	 * every row of a multi-row insert statement, based on the database product name.
+	 */
+	private boolean isMultiRowGeneratedKeysSupported() {
+		Boolean supported = this.multiRowGeneratedKeysSupported;
+		if (supported == null) {
+			DataSource dataSource = getJdbcTemplate().getDataSource();
+			Assert.state(dataSource != null, "No DataSource set");
+			String databaseProductName = null;
+			try {
+				databaseProductName = JdbcUtils.commonDatabaseName(JdbcUtils.extractDatabaseMetaData(
+						dataSource, DatabaseMetaData::getDatabaseProductName));
+			}
+			catch (MetaDataAccessException ex) {
+				if (logger.isWarnEnabled()) {
+					logger.warn("Could not determine database product name: " + ex.getMessage());
+				}
+			}
+			supported = (databaseProductName != null && multiRowGeneratedKeysProducts.contains(databaseProductName));
+			if (!supported && logger.isDebugEnabled()) {
+				logger.debug("Database [" + databaseProductName + "] not known to report generated keys " +
+						"for multi-row inserts - using single-row inserts for retrieving generated keys");
+			}
+			this.multiRowGeneratedKeysSupported = supported;
+		}
+		return supported;
+	}
+
+	private String getMultiRowInsertString(int rowCount) {
+		Assert.state(this.multiRowInsertStrings != null, "Multi-row inserts not enabled");
+		return this.multiRowInsertStrings.get(rowCount);
+	}
+
+	/**
+	 * Set the parameter values of the given range of batch rows, one row after the other.
+	 */
+	private void setMultiRowParameterValues(PreparedStatement preparedStatement, List<List<Object>> batchValues,
+			int offset, int rowCount) throws SQLException {
+
+		int[] columnTypes = getInsertTypes();
+		int colIndex = 0;
+		for (int row = offset; row < offset + rowCount; row++) {
+			int typeIndex = 0;
+			for (Object value : batchValues.get(row)) {
+				colIndex++;
+				int columnType = (typeIndex < columnTypes.length ? columnTypes[typeIndex] : SqlTypeValue.TYPE_UNKNOWN);
+				StatementCreatorUtils.setParameterValue(preparedStatement, colIndex, columnType, value);
+				typeIndex++;
+			}
+		}
+	}
+
+	private static void fillRowsAffected(int[] rowsAffected, int offset, int rowCount, int updateCount) {
+		Arrays.fill(rowsAffected, offset, offset + rowCount,
+				(updateCount == rowCount ? 1 : Statement.SUCCESS_NO_INFO));
+	}
+
 	/**
 	 * Internal implementation for setting parameter values.
 	 * @param preparedStatement the PreparedStatement
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -112,6 +112,19 @@ public class SimpleJdbcInsert extends AbstractJdbcInsert implements SimpleJdbcIn
 		return this;
 	}
 
+	/**
+	 * Combine the rows of a batch into multi-row {@code INSERT ... VALUES (...), (...)}
+	 * statements, for databases supporting multi-row {@code VALUES} lists.
+	 * @return the instance of this SimpleJdbcInsert
+	 * @since 5.3.6
+	 * @see #setMultiRowInserts
+	 * @see #setMaxParametersPerInsert
+	 */
+	public SimpleJdbcInsert withMultiRowInserts() {
+		setMultiRowInserts(true);
+		return this;
+	}
+
 	@Override
 	public int execute(Map<String, ?> args) {
 		return doExecute(args);
@@ -153,4 +166,29 @@ public class SimpleJdbcInsert extends AbstractJdbcInsert implements SimpleJdbcIn
 		return doExecuteBatch(batch);
 	}
 
+	/**
+	 * Execute a batch insert using the batch of values passed in and return the generated keys.
+	 * <p>This requires that the name of the columns with auto generated keys have been specified
+	 * and that the database supports the retrieval of generated keys.
+	 * @param batch an array of Maps containing a batch of column names and corresponding value
+	 * @return the KeyHolder containing the keys generated for all rows of the batch
+	 * @since 5.3.6
+	 */
+	@SuppressWarnings("unchecked")
+	public KeyHolder executeBatchAndReturnKeyHolder(Map<String, ?>... batch) {
+		return doExecuteBatchAndReturnKeyHolder(batch);
+	}
+
+	/**
+	 * Execute a batch insert using the batch of values passed in and return the generated keys.
+	 * <p>This requires that the name of the columns with auto generated keys have been specified
+	 * and that the database supports the retrieval of generated keys.
+	 * @param batch an array of SqlParameterSource containing values for the batch
+	 * @return the KeyHolder containing the keys generated for all rows of the batch
+	 * @since 5.3.6
+	 */
+	public KeyHolder executeBatchAndReturnKeyHolder(SqlParameterSource... batch) {
+		return doExecuteBatchAndReturnKeyHolder(batch);
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,10 +22,14 @@ import java.sql.Statement;
 
 import javax.sql.DataSource;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.lang.Nullable;
 import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.TransactionSystemException;
 import org.springframework.transaction.support.AbstractPlatformTransactionManager;
 import org.springframework.transaction.support.DefaultTransactionStatus;
@@ -97,6 +101,11 @@ import org.springframework.util.Assert;
  * resources operating on the underlying JDBC {@code Connection}. This allows for
  * setup analogous to {@code JtaTransactionManager}, in particular with respect to
  * lazily registered ORM resources (e.g. a Hibernate {@code Session}).
+ * As of 5.3.6, work deferred against the transaction's DataSource (e.g.
+ * write-behind updates of a {@code JdbcTemplate}, see
+ * {@link DataSourceUtils#flushDeferredWork}) is also executed before a savepoint
+ * gets created or rolled back to, so that it is subject to the savepoint of the
+ * nested transaction that issued it.
  *
  * <p><b>NOTE: As of 5.3, {@link org.springframework.jdbc.support.JdbcTransactionManager}
  * is available as an extended subclass which includes commit/rollback exception
@@ -240,10 +249,11 @@ public class DataSourceTransactionManager extends AbstractPlatformTransactionMan
 
 	@Override
 	protected Object doGetTransaction() {
-		DataSourceTransactionObject txObject = new DataSourceTransactionObject();
+		DataSource dataSource = obtainDataSource();
+		DataSourceTransactionObject txObject = new DataSourceTransactionObject(dataSource);
 		txObject.setSavepointAllowed(isNestedTransactionAllowed());
 		ConnectionHolder conHolder =
-				(ConnectionHolder) TransactionSynchronizationManager.getResource(obtainDataSource());
+				(ConnectionHolder) TransactionSynchronizationManager.getResource(dataSource);
 		txObject.setConnectionHolder(conHolder, false);
 		return txObject;
 	}
@@ -442,10 +452,18 @@ public class DataSourceTransactionManager extends AbstractPlatformTransactionMan
 	 */
 	private static class DataSourceTransactionObject extends JdbcTransactionObjectSupport {
 
+		private static final Log logger = LogFactory.getLog(DataSourceTransactionObject.class);
+
+		private final DataSource dataSource;
+
 		private boolean newConnectionHolder;
 
 		private boolean mustRestoreAutoCommit;
 
+		public DataSourceTransactionObject(DataSource dataSource) {
+			this.dataSource = dataSource;
+		}
+
 		public void setConnectionHolder(@Nullable ConnectionHolder connectionHolder, boolean newConnectionHolder) {
 			super.setConnectionHolder(connectionHolder);
 			this.newConnectionHolder = newConnectionHolder;
@@ -478,6 +496,26 @@ public class DataSourceTransactionManager extends AbstractPlatformTransactionMan
 				TransactionSynchronizationUtils.triggerFlush();
 			}
 		}
+
+		@Override
+		public Object createSavepoint() throws TransactionException {
+			// Deferred work issued so far belongs to the enclosing transaction.
+			DataSourceUtils.flushDeferredWork(this.dataSource);
+			return super.createSavepoint();
+		}
+
+		@Override
+		public void rollbackToSavepoint(Object savepoint) throws TransactionException {
+			// Deferred work still pending has been issued within the scope of the
+			// savepoint: execute it now so that it gets rolled back along with it.
+			try {
+				DataSourceUtils.flushDeferredWork(this.dataSource);
+			}
+			catch (RuntimeException ex) {
+				logger.debug("Failed to flush deferred work before rolling back to savepoint", ex);
+			}
+			super.rollbackToSavepoint(savepoint);
+		}
 	}
 
 }
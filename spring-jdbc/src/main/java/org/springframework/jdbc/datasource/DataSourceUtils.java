@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -442,6 +442,38 @@ public abstract class DataSourceUtils {
 		return conToUse;
 	}
 
+	/**
+	 * Return the key under which work deferred within the current transaction
+	 * against the given DataSource gets bound as a transaction resource, e.g.
+	 * the pending updates of a {@code JdbcTemplate} in write-behind mode.
+	 * <p>The bound resource is expected to be a {@link TransactionSynchronization}
+	 * which executes the deferred work on {@link TransactionSynchronization#flush()}.
+	 * @param dataSource the DataSource that the work is deferred against
+	 * @return the transaction resource key
+	 * @since 5.3.6
+	 * @see #flushDeferredWork(DataSource)
+	 */
+	public static Object getDeferredWorkKey(DataSource dataSource) {
+		Assert.notNull(dataSource, "No DataSource specified");
+		return new DeferredWorkKey(dataSource);
+	}
+
+	/**
+	 * Execute the work deferred within the current transaction against the
+	 * given DataSource, if any.
+	 * @param dataSource the DataSource that the work is deferred against
+	 * @since 5.3.6
+	 * @see #getDeferredWorkKey(DataSource)
+	 */
+	public static void flushDeferredWork(DataSource dataSource) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			Object deferredWork = TransactionSynchronizationManager.getResource(getDeferredWorkKey(dataSource));
+			if (deferredWork instanceof TransactionSynchronization) {
+				((TransactionSynchronization) deferredWork).flush();
+			}
+		}
+	}
+
 	/**
 	 * Determine the connection synchronization order to use for the given
 	 * DataSource. Decreased for every level of nesting that a DataSource
@@ -545,4 +577,33 @@ public abstract class DataSourceUtils {
 		}
 	}
 
+
+	/**
+	 * Transaction resource key for work deferred against a specific DataSource.
+	 */
+	private static final class DeferredWorkKey {
+
+		private final DataSource dataSource;
+
+		DeferredWorkKey(DataSource dataSource) {
+			this.dataSource = dataSource;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			return (this == other || (other instanceof DeferredWorkKey &&
+					this.dataSource == ((DeferredWorkKey) other).dataSource));
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(this.dataSource);
+		}
+
+		@Override
+		public String toString() {
+			return "Deferred work for " + this.dataSource;
+		}
+	}
+
 }
@@ -0,0 +1,904 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Lightweight connection pool which keeps the physical JDBC Connections
+ * of a target {@link DataSource} (e.g. a {@link SimpleDriverDataSource})
+ * open for reuse, handing out Connection handles whose {@code close()}
+ * call returns the physical Connection to the pool.
+ *
+ * <p>Borrowing a Connection does not involve any locks: the number of
+ * borrowed Connections is bounded by a {@link Semaphore}, and idle
+ * Connections are claimed through a compare-and-set on their pool state,
+ * trying the Connection last returned by the current thread first.
+ * Threads only block when all Connections are in use, for at most the
+ * {@link #setConnectionTimeout connection timeout}.
+ *
+ * <p>A Connection that has been idle for longer than the
+ * {@link #setValidationInterval validation interval} is checked through
+ * {@link Connection#isValid} before being handed out. Auto-commit, read-only
+ * and isolation level settings changed through a handle are reset on return,
+ * with uncommitted work being rolled back. A background thread evicts idle
+ * and expired Connections, maintains the {@link #setMinIdle minimum number of
+ * idle Connections}, and logs Connections which have been borrowed for longer
+ * than the {@link #setLeakDetectionThreshold leak detection threshold},
+ * including the stack trace of the borrowing call.
+ *
+ * <p>This DataSource works with {@link DataSourceTransactionManager} and
+ * {@link org.springframework.jdbc.support.JdbcTransactionManager} as-is:
+ * a transaction borrows a single Connection which {@link DataSourceUtils}
+ * then reuses for all data access within the transaction, and the settings
+ * that the transaction manager restores on completion are tracked by the
+ * handle, so returning it to the pool does not cause any further calls on
+ * the physical Connection.
+ *
+ * <p>Connections requested with explicit user credentials through
+ * {@link #getConnection(String, String)} are not pooled but obtained from
+ * the target DataSource directly.
+ *
+ * @since 5.3.6
+ * @see #getConnection()
+ * @see #destroy()
+ */
+public class PoolingDataSource extends DelegatingDataSource implements DisposableBean {
+
+	/** Default maximum number of pooled Connections: 10. */
+	public static final int DEFAULT_MAX_POOL_SIZE = 10;
+
+	private static final long HOUSEKEEPING_PERIOD = TimeUnit.SECONDS.toMillis(30);
+
+	private static final Log logger = LogFactory.getLog(PoolingDataSource.class);
+
+
+	private int maxPoolSize = DEFAULT_MAX_POOL_SIZE;
+
+	private int minIdle = 0;
+
+	private Duration connectionTimeout = Duration.ofSeconds(30);
+
+	private Duration validationInterval = Duration.ofMillis(500);
+
+	private int validationTimeout = 5;
+
+	private Duration idleTimeout = Duration.ofMinutes(10);
+
+	private Duration maxLifetime = Duration.ofMinutes(30);
+
+	private Duration leakDetectionThreshold = Duration.ZERO;
+
+	private final CopyOnWriteArrayList<PoolEntry> entries = new CopyOnWriteArrayList<>();
+
+	private final AtomicInteger totalConnections = new AtomicInteger();
+
+	private final ThreadLocal<WeakReference<PoolEntry>> lastReturned = new ThreadLocal<>();
+
+	/** Number of times that an entry became idle or a pool slot became free. */
+	private final AtomicLong availabilityCount = new AtomicLong();
+
+	private final AtomicInteger availabilityWaiters = new AtomicInteger();
+
+	private final ReentrantLock availabilityLock = new ReentrantLock();
+
+	private final Condition availability = this.availabilityLock.newCondition();
+
+	private final LongAdder borrowCount = new LongAdder();
+
+	private final LongAdder createdCount = new LongAdder();
+
+	private final LongAdder timeoutCount = new LongAdder();
+
+	private final LongAdder leakCount = new LongAdder();
+
+	@Nullable
+	private volatile Semaphore permits;
+
+	@Nullable
+	private ScheduledExecutorService housekeeper;
+
+	private volatile boolean closed;
+
+
+	/**
+	 * Create a new PoolingDataSource.
+	 * @see #setTargetDataSource
+	 */
+	public PoolingDataSource() {
+	}
+
+	/**
+	 * Create a new PoolingDataSource for the given target DataSource.
+	 * @param targetDataSource the target DataSource to obtain physical Connections from
+	 */
+	public PoolingDataSource(DataSource targetDataSource) {
+		super(targetDataSource);
+	}
+
+
+	/**
+	 * Set the maximum number of Connections in the pool, i.e. the maximum
+	 * number of Connections in use at the same time. Default is 10.
+	 * <p>Cannot be changed once the pool has been started.
+	 */
+	public void setMaxPoolSize(int maxPoolSize) {
+		Assert.isTrue(maxPoolSize > 0, "'maxPoolSize' must be positive");
+		Assert.state(this.permits == null, "'maxPoolSize' cannot be changed once the pool has been started");
+		this.maxPoolSize = maxPoolSize;
+	}
+
+	/**
+	 * Return the maximum number of Connections in the pool.
+	 */
+	public int getMaxPoolSize() {
+		return this.maxPoolSize;
+	}
+
+	/**
+	 * Set the minimum number of idle Connections that the pool tries to
+	 * maintain in the background. Default is 0.
+	 */
+	public void setMinIdle(int minIdle) {
+		Assert.isTrue(minIdle >= 0, "'minIdle' must not be negative");
+		this.minIdle = minIdle;
+	}
+
+	/**
+	 * Return the minimum number of idle Connections to maintain.
+	 */
+	public int getMinIdle() {
+		return this.minIdle;
+	}
+
+	/**
+	 * Set the maximum time to wait for a Connection when all Connections
+	 * are in use, before failing with a {@link SQLTransientConnectionException}.
+	 * Default is 30 seconds.
+	 */
+	public void setConnectionTimeout(Duration connectionTimeout) {
+		Assert.notNull(connectionTimeout, "'connectionTimeout' must not be null");
+		this.connectionTimeout = connectionTimeout;
+	}
+
+	/**
+	 * Return the maximum time to wait for a Connection.
+	 */
+	public Duration getConnectionTimeout() {
+		return this.connectionTimeout;
+	}
+
+	/**
+	 * Set the time after which an idle Connection gets validated through
+	 * {@link Connection#isValid} before being handed out. Default is 500 ms.
+	 * <p>Specify {@link Duration#ZERO} to validate on every borrow.
+	 */
+	public void setValidationInterval(Duration validationInterval) {
+		Assert.notNull(validationInterval, "'validationInterval' must not be null");
+		this.validationInterval = validationInterval;
+	}
+
+	/**
+	 * Return the time after which an idle Connection gets validated.
+	 */
+	public Duration getValidationInterval() {
+		return this.validationInterval;
+	}
+
+	/**
+	 * Set the timeout in seconds to pass to {@link Connection#isValid}.
+	 * Default is 5 seconds.
+	 */
+	public void setValidationTimeout(int validationTimeout) {
+		Assert.isTrue(validationTimeout >= 0, "'validationTimeout' must not be negative");
+		this.validationTimeout = validationTimeout;
+	}
+
+	/**
+	 * Return the timeout in seconds to pass to {@link Connection#isValid}.
+	 */
+	public int getValidationTimeout() {
+		return this.validationTimeout;
+	}
+
+	/**
+	 * Set the time after which an idle Connection gets closed, as long as
+	 * more than {@link #setMinIdle minIdle} Connections remain in the pool.
+	 * Default is 10 minutes; {@link Duration#ZERO} indicates no idle timeout.
+	 */
+	public void setIdleTimeout(Duration idleTimeout) {
+		Assert.notNull(idleTimeout, "'idleTimeout' must not be null");
+		this.idleTimeout = idleTimeout;
+	}
+
+	/**
+	 * Return the time after which an idle Connection gets closed.
+	 */
+	public Duration getIdleTimeout() {
+		return this.idleTimeout;
+	}
+
+	/**
+	 * Set the maximum lifetime of a physical Connection, after which it gets
+	 * closed once it is not in use anymore. Default is 30 minutes;
+	 * {@link Duration#ZERO} indicates no maximum lifetime.
+	 */
+	public void setMaxLifetime(Duration maxLifetime) {
+		Assert.notNull(maxLifetime, "'maxLifetime' must not be null");
+		this.maxLifetime = maxLifetime;
+	}
+
+	/**
+	 * Return the maximum lifetime of a physical Connection.
+	 */
+	public Duration getMaxLifetime() {
+		return this.maxLifetime;
+	}
+
+	/**
+	 * Set the time that a Connection may be borrowed before a warning about a
+	 * potential leak is logged, including the stack trace of the borrowing call.
+	 * Default is {@link Duration#ZERO}, indicating no leak detection.
+	 * <p>Note that a stack trace is captured for every borrow when leak
+	 * detection is active. Cannot be changed once the pool has been started.
+	 */
+	public void setLeakDetectionThreshold(Duration leakDetectionThreshold) {
+		Assert.notNull(leakDetectionThreshold, "'leakDetectionThreshold' must not be null");
+		Assert.state(this.permits == null, "'leakDetectionThreshold' cannot be changed once the pool has been started");
+		this.leakDetectionThreshold = leakDetectionThreshold;
+	}
+
+	/**
+	 * Return the time that a Connection may be borrowed before a leak gets reported.
+	 */
+	public Duration getLeakDetectionThreshold() {
+		return this.leakDetectionThreshold;
+	}
+
+
+	@Override
+	public void afterPropertiesSet() {
+		super.afterPropertiesSet();
+		if (this.minIdle > this.maxPoolSize) {
+			throw new IllegalArgumentException("'minIdle' must not be larger than 'maxPoolSize'");
+		}
+		startPool();
+	}
+
+	/**
+	 * Borrow a Connection from the pool, creating a new physical Connection
+	 * if no idle one is available and the pool is not full yet.
+	 * <p>The returned handle returns the physical Connection to the pool on
+	 * {@code close()}. {@link ConnectionProxy#getTargetConnection()} exposes
+	 * the physical Connection for native access.
+	 * @throws SQLTransientConnectionException if no Connection became
+	 * available within the {@link #setConnectionTimeout connection timeout}
+	 */
+	@Override
+	public Connection getConnection() throws SQLException {
+		Semaphore permits = obtainPermits();
+		long startTime = System.nanoTime();
+		long timeout = this.connectionTimeout.toNanos();
+		if (!permits.tryAcquire()) {
+			try {
+				if (!permits.tryAcquire(timeout, TimeUnit.NANOSECONDS)) {
+					throw timeoutException();
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new SQLTransientConnectionException("Interrupted while waiting for a pooled JDBC Connection", ex);
+			}
+		}
+		try {
+			PoolEntry entry = acquireEntry(startTime + timeout);
+			entry.borrowTime = System.nanoTime();
+			if (!this.leakDetectionThreshold.isZero()) {
+				entry.borrowTrace = new Throwable(
+						"JDBC Connection borrowed by thread '" + Thread.currentThread().getName() + "'");
+				entry.leakReported = false;
+			}
+			this.borrowCount.increment();
+			return (Connection) Proxy.newProxyInstance(
+					ConnectionProxy.class.getClassLoader(),
+					new Class<?>[] {ConnectionProxy.class},
+					new PooledConnectionInvocationHandler(entry));
+		}
+		catch (Throwable ex) {
+			permits.release();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Obtain a Connection for the given user credentials from the target
+	 * DataSource directly, bypassing the pool.
+	 */
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return super.getConnection(username, password);
+	}
+
+	/**
+	 * Close all idle Connections and stop the housekeeping thread.
+	 * Connections in use get closed when returned to the pool, and
+	 * further attempts to borrow a Connection fail.
+	 */
+	@Override
+	public void destroy() {
+		ScheduledExecutorService housekeeper;
+		synchronized (this) {
+			this.closed = true;
+			housekeeper = this.housekeeper;
+			this.housekeeper = null;
+		}
+		if (housekeeper != null) {
+			housekeeper.shutdownNow();
+		}
+		for (PoolEntry entry : this.entries) {
+			if (entry.state.compareAndSet(PoolEntry.IDLE, PoolEntry.IN_USE)) {
+				discard(entry);
+			}
+		}
+	}
+
+
+	/**
+	 * Return the current number of physical Connections in the pool.
+	 */
+	public int getTotalConnections() {
+		return this.totalConnections.get();
+	}
+
+	/**
+	 * Return the current number of Connections in use.
+	 */
+	public int getActiveConnections() {
+		return countEntries(PoolEntry.IN_USE);
+	}
+
+	/**
+	 * Return the current number of idle Connections.
+	 */
+	public int getIdleConnections() {
+		return countEntries(PoolEntry.IDLE);
+	}
+
+	/**
+	 * Return the number of threads currently waiting for a Connection.
+	 */
+	public int getThreadsAwaitingConnection() {
+		Semaphore permits = this.permits;
+		return (permits != null ? permits.getQueueLength() : 0);
+	}
+
+	/**
+	 * Return the number of Connections borrowed from the pool so far.
+	 */
+	public long getBorrowCount() {
+		return this.borrowCount.sum();
+	}
+
+	/**
+	 * Return the number of physical Connections created so far.
+	 */
+	public long getCreatedConnectionCount() {
+		return this.createdCount.sum();
+	}
+
+	/**
+	 * Return the number of borrow attempts that timed out so far.
+	 */
+	public long getTimeoutCount() {
+		return this.timeoutCount.sum();
+	}
+
+	/**
+	 * Return the number of potential Connection leaks detected so far.
+	 * @see #setLeakDetectionThreshold
+	 */
+	public long getLeakCount() {
+		return this.leakCount.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "PoolingDataSource [total=" + getTotalConnections() + ", active=" + getActiveConnections() +
+				", idle=" + getIdleConnections() + ", waiting=" + getThreadsAwaitingConnection() + "]";
+	}
+
+
+	/**
+	 * Evict idle and expired Connections, report potential leaks and
+	 * replenish the pool up to the minimum number of idle Connections.
+	 * <p>Invoked periodically by the housekeeping thread.
+	 */
+	synchronized void runHousekeeping() {
+		long now = System.nanoTime();
+		long leakThreshold = this.leakDetectionThreshold.toNanos();
+		long idleTimeout = this.idleTimeout.toNanos();
+		for (PoolEntry entry : this.entries) {
+			int state = entry.state.get();
+			if (state == PoolEntry.IN_USE) {
+				Throwable borrowTrace = entry.borrowTrace;
+				if (leakThreshold > 0 && borrowTrace != null && !entry.leakReported &&
+						now - entry.borrowTime > leakThreshold) {
+					entry.leakReported = true;
+					this.leakCount.increment();
+					logger.warn("Potential JDBC Connection leak: " + entry.connection +
+							" has been borrowed for more than " + this.leakDetectionThreshold.toMillis() + " ms",
+							borrowTrace);
+				}
+			}
+			else if (state == PoolEntry.IDLE) {
+				boolean evict = (isExpired(entry, now) || (idleTimeout > 0 &&
+						now - entry.lastAccessTime > idleTimeout && this.totalConnections.get() > this.minIdle));
+				if (evict && entry.state.compareAndSet(PoolEntry.IDLE, PoolEntry.IN_USE)) {
+					discard(entry);
+				}
+			}
+		}
+		while (!this.closed && getIdleConnections() < this.minIdle && reserveNewConnection()) {
+			try {
+				createEntry().release();
+				signalAvailability();
+			}
+			catch (SQLException ex) {
+				logger.debug("Could not create idle JDBC Connection for pool", ex);
+				break;
+			}
+		}
+	}
+
+	private Semaphore obtainPermits() throws SQLException {
+		Semaphore permits = this.permits;
+		if (permits == null) {
+			permits = startPool();
+		}
+		if (this.closed) {
+			throw new SQLException("PoolingDataSource has been closed");
+		}
+		return permits;
+	}
+
+	private synchronized Semaphore startPool() {
+		Semaphore permits = this.permits;
+		if (permits == null) {
+			permits = new Semaphore(this.maxPoolSize);
+			if (!this.closed) {
+				long period = HOUSEKEEPING_PERIOD;
+				if (!this.leakDetectionThreshold.isZero()) {
+					period = Math.min(period, Math.max(this.leakDetectionThreshold.toMillis() / 2, 100));
+				}
+				ScheduledExecutorService housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+					Thread thread = new Thread(runnable, "PoolingDataSource housekeeper");
+					thread.setDaemon(true);
+					return thread;
+				});
+				housekeeper.scheduleWithFixedDelay(() -> {
+					try {
+						runHousekeeping();
+					}
+					catch (Throwable ex) {
+						logger.warn("Housekeeping of JDBC Connection pool failed", ex);
+					}
+				}, (this.minIdle > 0 ? 0 : period), period, TimeUnit.MILLISECONDS);
+				this.housekeeper = housekeeper;
+			}
+			this.permits = permits;
+		}
+		return permits;
+	}
+
+	private PoolEntry acquireEntry(long deadline) throws SQLException {
+		while (true) {
+			long availabilityCount = this.availabilityCount.get();
+			PoolEntry entry = reserveIdleEntry();
+			if (entry != null) {
+				if (isUsable(entry)) {
+					return entry;
+				}
+				discard(entry);
+			}
+			else if (reserveNewConnection()) {
+				return createEntry();
+			}
+			else {
+				// A Connection is about to be returned or discarded...
+				awaitAvailability(availabilityCount, deadline);
+			}
+		}
+	}
+
+	/**
+	 * Block until an entry became idle or a pool slot became free since the
+	 * given availability count has been read, or until the given deadline.
+	 */
+	private void awaitAvailability(long availabilityCount, long deadline) throws SQLException {
+		long remaining = deadline - System.nanoTime();
+		if (remaining <= 0) {
+			throw timeoutException();
+		}
+		// Register as waiter before re-checking the count, see signalAvailability()
+		this.availabilityWaiters.incrementAndGet();
+		this.availabilityLock.lock();
+		try {
+			while (this.availabilityCount.get() == availabilityCount) {
+				if (remaining <= 0) {
+					throw timeoutException();
+				}
+				remaining = this.availability.awaitNanos(remaining);
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new SQLTransientConnectionException("Interrupted while waiting for a pooled JDBC Connection", ex);
+		}
+		finally {
+			this.availabilityLock.unlock();
+			this.availabilityWaiters.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Wake up threads waiting for an entry, after an entry became idle or a pool
+	 * slot became free. Only takes the lock if there are any waiting threads.
+	 */
+	private void signalAvailability() {
+		this.availabilityCount.incrementAndGet();
+		if (this.availabilityWaiters.get() > 0) {
+			this.availabilityLock.lock();
+			try {
+				this.availability.signalAll();
+			}
+			finally {
+				this.availabilityLock.unlock();
+			}
+		}
+	}
+
+	@Nullable
+	private PoolEntry reserveIdleEntry() {
+		WeakReference<PoolEntry> lastReturned = this.lastReturned.get();
+		if (lastReturned != null) {
+			PoolEntry entry = lastReturned.get();
+			if (entry != null && entry.state.compareAndSet(PoolEntry.IDLE, PoolEntry.IN_USE)) {
+				return entry;
+			}
+		}
+		for (PoolEntry entry : this.entries) {
+			if (entry.state.compareAndSet(PoolEntry.IDLE, PoolEntry.IN_USE)) {
+				return entry;
+			}
+		}
+		return null;
+	}
+
+	private boolean reserveNewConnection() {
+		while (true) {
+			int total = this.totalConnections.get();
+			if (total >= this.maxPoolSize) {
+				return false;
+			}
+			if (this.totalConnections.compareAndSet(total, total + 1)) {
+				return true;
+			}
+		}
+	}
+
+	private PoolEntry createEntry() throws SQLException {
+		Connection con = null;
+		try {
+			con = obtainTargetDataSource().getConnection();
+			PoolEntry entry = new PoolEntry(con);
+			this.entries.add(entry);
+			this.createdCount.increment();
+			if (logger.isDebugEnabled()) {
+				logger.debug("Added JDBC Connection to pool: " + con);
+			}
+			return entry;
+		}
+		catch (Throwable ex) {
+			this.totalConnections.decrementAndGet();
+			signalAvailability();
+			if (con != null) {
+				closeConnection(con);
+			}
+			throw ex;
+		}
+	}
+
+	private boolean isUsable(PoolEntry entry) {
+		long now = System.nanoTime();
+		if (entry.broken || isExpired(entry, now)) {
+			return false;
+		}
+		if (now - entry.lastAccessTime >= this.validationInterval.toNanos()) {
+			try {
+				return entry.connection.isValid(this.validationTimeout);
+			}
+			catch (SQLException ex) {
+				logger.debug("Validation of pooled JDBC Connection failed", ex);
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isExpired(PoolEntry entry, long now) {
+		return (!this.maxLifetime.isZero() && now - entry.creationTime > this.maxLifetime.toNanos());
+	}
+
+	private void returnToPool(PoolEntry entry) {
+		entry.borrowTrace = null;
+		if (entry.broken || this.closed || isExpired(entry, System.nanoTime())) {
+			discard(entry);
+		}
+		else {
+			entry.release();
+			this.lastReturned.set(entry.reference);
+			signalAvailability();
+		}
+		Semaphore permits = this.permits;
+		if (permits != null) {
+			permits.release();
+		}
+	}
+
+	private void discard(PoolEntry entry) {
+		entry.state.set(PoolEntry.REMOVED);
+		if (this.entries.remove(entry)) {
+			this.totalConnections.decrementAndGet();
+			signalAvailability();
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Closing pooled JDBC Connection: " + entry.connection);
+		}
+		closeConnection(entry.connection);
+	}
+
+	private void closeConnection(Connection con) {
+		try {
+			con.close();
+		}
+		catch (Throwable ex) {
+			logger.debug("Could not close pooled JDBC Connection", ex);
+		}
+	}
+
+	private int countEntries(int state) {
+		int count = 0;
+		for (PoolEntry entry : this.entries) {
+			if (entry.state.get() == state) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private SQLTransientConnectionException timeoutException() {
+		this.timeoutCount.increment();
+		return new SQLTransientConnectionException("No pooled JDBC Connection available within " +
+				this.connectionTimeout.toMillis() + " ms: " + this);
+	}
+
+
+	/**
+	 * A physical Connection in the pool, along with its pool state.
+	 */
+	private static final class PoolEntry {
+
+		static final int IDLE = 0;
+
+		static final int IN_USE = 1;
+
+		static final int REMOVED = 2;
+
+		final Connection connection;
+
+		final AtomicInteger state = new AtomicInteger(IN_USE);
+
+		final WeakReference<PoolEntry> reference = new WeakReference<>(this);
+
+		final long creationTime = System.nanoTime();
+
+		final boolean defaultAutoCommit;
+
+		final boolean defaultReadOnly;
+
+		final int defaultTransactionIsolation;
+
+		volatile long lastAccessTime = this.creationTime;
+
+		volatile long borrowTime;
+
+		@Nullable
+		volatile Throwable borrowTrace;
+
+		volatile boolean leakReported;
+
+		volatile boolean broken;
+
+		PoolEntry(Connection connection) throws SQLException {
+			this.connection = connection;
+			this.defaultAutoCommit = connection.getAutoCommit();
+			this.defaultReadOnly = connection.isReadOnly();
+			this.defaultTransactionIsolation = connection.getTransactionIsolation();
+		}
+
+		void release() {
+			this.lastAccessTime = System.nanoTime();
+			this.state.set(IDLE);
+		}
+	}
+
+
+	/**
+	 * Invocation handler for a borrowed Connection handle, returning the
+	 * physical Connection to the pool on close.
+	 */
+	private class PooledConnectionInvocationHandler implements InvocationHandler {
+
+		private final PoolEntry entry;
+
+		private boolean autoCommit;
+
+		private boolean readOnly;
+
+		private int transactionIsolation;
+
+		private final AtomicBoolean closed = new AtomicBoolean();
+
+		public PooledConnectionInvocationHandler(PoolEntry entry) {
+			this.entry = entry;
+			this.autoCommit = entry.defaultAutoCommit;
+			this.readOnly = entry.defaultReadOnly;
+			this.transactionIsolation = entry.defaultTransactionIsolation;
+		}
+
+		@Override
+		@Nullable
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			// Invocation on ConnectionProxy interface coming in...
+			switch (method.getName()) {
+				case "equals":
+					// Only consider equal when proxies are identical.
+					return (proxy == args[0]);
+				case "hashCode":
+					// Use hashCode of Connection proxy.
+					return System.identityHashCode(proxy);
+				case "toString":
+					return "Pooled JDBC Connection handle [" + this.entry.connection + "]";
+				case "close":
+					// Handle close method: return physical Connection to the pool.
+					if (this.closed.compareAndSet(false, true)) {
+						resetConnection();
+						returnToPool(this.entry);
+					}
+					return null;
+				case "isClosed":
+					return (this.closed.get() || this.entry.connection.isClosed());
+			}
+
+			if (this.closed.get()) {
+				throw new SQLException("Connection handle has already been closed and returned to the pool");
+			}
+
+			switch (method.getName()) {
+				case "getTargetConnection":
+					// Handle getTargetConnection method: return underlying Connection.
+					return this.entry.connection;
+				case "unwrap":
+					return (((Class<?>) args[0]).isInstance(proxy) ? proxy :
+							this.entry.connection.unwrap((Class<?>) args[0]));
+				case "isWrapperFor":
+					return (((Class<?>) args[0]).isInstance(proxy) ||
+							this.entry.connection.isWrapperFor((Class<?>) args[0]));
+				case "abort":
+					this.entry.broken = true;
+					break;
+			}
+
+			// Invoke method on target Connection.
+			Object result;
+			try {
+				result = method.invoke(this.entry.connection, args);
+			}
+			catch (InvocationTargetException ex) {
+				Throwable targetEx = ex.getTargetException();
+				if (targetEx instanceof SQLException) {
+					String sqlState = ((SQLException) targetEx).getSQLState();
+					if (sqlState != null && sqlState.startsWith("08")) {
+						// Connection exception: do not return the Connection to the pool.
+						this.entry.broken = true;
+					}
+				}
+				throw targetEx;
+			}
+
+			// Track changes to be reset on return to the pool.
+			switch (method.getName()) {
+				case "setAutoCommit":
+					this.autoCommit = (Boolean) args[0];
+					break;
+				case "setReadOnly":
+					this.readOnly = (Boolean) args[0];
+					break;
+				case "setTransactionIsolation":
+					this.transactionIsolation = (Integer) args[0];
+					break;
+			}
+			return result;
+		}
+
+		private void resetConnection() {
+			PoolEntry entry = this.entry;
+			if (entry.broken) {
+				return;
+			}
+			Connection con = entry.connection;
+			try {
+				if (!this.autoCommit) {
+					// Discard any uncommitted work.
+					con.rollback();
+				}
+				if (this.autoCommit != entry.defaultAutoCommit) {
+					con.setAutoCommit(entry.defaultAutoCommit);
+				}
+				if (this.readOnly != entry.defaultReadOnly) {
+					con.setReadOnly(entry.defaultReadOnly);
+				}
+				if (this.transactionIsolation != entry.defaultTransactionIsolation) {
+					con.setTransactionIsolation(entry.defaultTransactionIsolation);
+				}
+			}
+			catch (Throwable ex) {
+				logger.debug("Could not reset pooled JDBC Connection - discarding it", ex);
+				entry.broken = true;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,521 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.lookup;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * DataSource that routes read-only transactions to one of several replica
+ * DataSources and everything else to a primary DataSource, based on
+ * {@link TransactionSynchronizationManager#isCurrentTransactionReadOnly()}.
+ *
+ * <p>The replicas are configured as {@link #setTargetDataSources target DataSources}
+ * (or through the {@link #setReplicaDataSources} convenience method), with the
+ * primary DataSource as {@link #setDefaultTargetDataSource default target DataSource}.
+ * A replica is chosen per Connection according to the configured
+ * {@link LoadBalancingStrategy}: by the least number of outstanding Connections
+ * (the default), or randomly weighted by the inverse of the average latency of
+ * each replica, measured as the time that obtaining a Connection from it takes.
+ * The time that a Connection is held by the application does not count, since
+ * it depends on the work done rather than on the replica.
+ *
+ * <p>A replica that fails to provide a Connection a number of times in a row
+ * (see {@link #setFailureThreshold}) is ejected from the rotation for the
+ * {@link #setEjectionDuration ejection duration}, after which it gets tried
+ * again. If no replica is available, read-only Connections are obtained from
+ * the primary DataSource. {@link #getPrimaryTarget()} and {@link #getReplicaTargets()}
+ * expose per-target statistics.
+ *
+ * <p><b>NOTE:</b> Transaction managers such as
+ * {@link org.springframework.jdbc.datasource.DataSourceTransactionManager} obtain
+ * the Connection before the transaction's read-only flag is exposed. This router
+ * therefore needs to be wrapped with a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * which is then passed to the transaction manager and data access code alike,
+ * deferring the actual routing decision to the first Statement:
+ *
+ * <pre class="code">
+ * ReadWriteRoutingDataSource router = new ReadWriteRoutingDataSource();
+ * router.setDefaultTargetDataSource(primaryDataSource);
+ * router.setReplicaDataSources(replicaDataSources);
+ * router.afterPropertiesSet();
+ * DataSource dataSource = new LazyConnectionDataSourceProxy(router);</pre>
+ *
+ * @since 5.3.6
+ * @see org.springframework.transaction.annotation.Transactional#readOnly()
+ * @see org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+	private LoadBalancingStrategy loadBalancingStrategy = LoadBalancingStrategy.LEAST_OUTSTANDING;
+
+	private int failureThreshold = 3;
+
+	private Duration ejectionDuration = Duration.ofSeconds(30);
+
+	private boolean fallbackToPrimary = true;
+
+	@Nullable
+	private RoutingTarget primaryTarget;
+
+	private List<RoutingTarget> replicaTargets = Collections.emptyList();
+
+	private final AtomicInteger rotation = new AtomicInteger();
+
+
+	/**
+	 * Specify the replica DataSources, keyed by a name for each replica.
+	 * <p>This is a convenient alternative to {@link #setTargetDataSources}.
+	 * The mapped values can either be {@link DataSource} instances or data
+	 * source names to be resolved via a {@link #setDataSourceLookup DataSourceLookup}.
+	 */
+	public void setReplicaDataSources(Map<String, ?> replicaDataSources) {
+		setTargetDataSources(new LinkedHashMap<>(replicaDataSources));
+	}
+
+	/**
+	 * Specify how to choose among the available replicas.
+	 * Default is {@link LoadBalancingStrategy#LEAST_OUTSTANDING}.
+	 */
+	public void setLoadBalancingStrategy(LoadBalancingStrategy loadBalancingStrategy) {
+		Assert.notNull(loadBalancingStrategy, "LoadBalancingStrategy must not be null");
+		this.loadBalancingStrategy = loadBalancingStrategy;
+	}
+
+	/**
+	 * Return the strategy used for choosing among the available replicas.
+	 */
+	public LoadBalancingStrategy getLoadBalancingStrategy() {
+		return this.loadBalancingStrategy;
+	}
+
+	/**
+	 * Specify the number of consecutive failures to obtain a Connection
+	 * after which a replica gets ejected. Default is 3.
+	 */
+	public void setFailureThreshold(int failureThreshold) {
+		Assert.isTrue(failureThreshold > 0, "'failureThreshold' must be positive");
+		this.failureThreshold = failureThreshold;
+	}
+
+	/**
+	 * Return the number of consecutive failures after which a replica gets ejected.
+	 */
+	public int getFailureThreshold() {
+		return this.failureThreshold;
+	}
+
+	/**
+	 * Specify how long an ejected replica is left out of the rotation
+	 * before being tried again. Default is 30 seconds.
+	 */
+	public void setEjectionDuration(Duration ejectionDuration) {
+		Assert.notNull(ejectionDuration, "'ejectionDuration' must not be null");
+		this.ejectionDuration = ejectionDuration;
+	}
+
+	/**
+	 * Return how long an ejected replica is left out of the rotation.
+	 */
+	public Duration getEjectionDuration() {
+		return this.ejectionDuration;
+	}
+
+	/**
+	 * Specify whether read-only Connections should be obtained from the
+	 * primary DataSource when no replica is available. Default is "true".
+	 * <p>Switch this flag to "false" in order to propagate the replica
+	 * failure to the caller instead.
+	 */
+	public void setFallbackToPrimary(boolean fallbackToPrimary) {
+		this.fallbackToPrimary = fallbackToPrimary;
+	}
+
+	/**
+	 * Return whether read-only Connections fall back to the primary DataSource.
+	 */
+	public boolean isFallbackToPrimary() {
+		return this.fallbackToPrimary;
+	}
+
+
+	@Override
+	public void afterPropertiesSet() {
+		super.afterPropertiesSet();
+		DataSource primary = getResolvedDefaultDataSource();
+		if (primary == null) {
+			throw new IllegalArgumentException("Property 'defaultTargetDataSource' is required as primary DataSource");
+		}
+		this.primaryTarget = new RoutingTarget("primary", primary);
+		List<RoutingTarget> replicaTargets = new ArrayList<>();
+		getResolvedDataSources().forEach((key, dataSource) -> replicaTargets.add(new RoutingTarget(key, dataSource)));
+		this.replicaTargets = Collections.unmodifiableList(replicaTargets);
+	}
+
+	/**
+	 * Return the routing target for the primary DataSource.
+	 * @throws IllegalStateException if the router has not been initialized yet
+	 */
+	public RoutingTarget getPrimaryTarget() {
+		Assert.state(this.primaryTarget != null, "DataSource router not initialized");
+		return this.primaryTarget;
+	}
+
+	/**
+	 * Return the routing targets for the replica DataSources.
+	 */
+	public List<RoutingTarget> getReplicaTargets() {
+		return this.replicaTargets;
+	}
+
+
+	/**
+	 * Obtain a Connection from a replica within a read-only transaction,
+	 * and from the primary DataSource otherwise.
+	 * @see TransactionSynchronizationManager#isCurrentTransactionReadOnly()
+	 */
+	@Override
+	public Connection getConnection() throws SQLException {
+		RoutingTarget primary = getPrimaryTarget();
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			return primary.getConnection();
+		}
+		SQLException replicaFailure = null;
+		RoutingTarget replica;
+		List<RoutingTarget> failed = null;
+		while ((replica = selectReplica(failed)) != null) {
+			try {
+				return replica.getConnection();
+			}
+			catch (SQLException ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Could not obtain JDBC Connection from replica '" + replica.getKey() + "'", ex);
+				}
+				replicaFailure = ex;
+				if (failed == null) {
+					failed = new ArrayList<>(this.replicaTargets.size());
+				}
+				failed.add(replica);
+			}
+		}
+		if (replicaFailure != null && !this.fallbackToPrimary) {
+			throw replicaFailure;
+		}
+		if (this.fallbackToPrimary || this.replicaTargets.isEmpty()) {
+			return primary.getConnection();
+		}
+		throw new SQLException("No replica available for read-only Connection");
+	}
+
+	/**
+	 * Return the key of the replica to use within a read-only transaction,
+	 * or {@code null} for the primary DataSource.
+	 * <p>Only used for {@link #getConnection(String, String)} and for unwrapping;
+	 * {@link #getConnection()} selects a {@link RoutingTarget} directly.
+	 */
+	@Override
+	@Nullable
+	protected Object determineCurrentLookupKey() {
+		if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			RoutingTarget replica = selectReplica(null);
+			if (replica != null) {
+				return replica.getKey();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Select a replica according to the {@link #setLoadBalancingStrategy
+	 * load balancing strategy}, skipping ejected replicas.
+	 * @param excluded replicas to skip in any case (may be {@code null})
+	 * @return the selected replica, or {@code null} if none is available
+	 */
+	@Nullable
+	protected RoutingTarget selectReplica(@Nullable List<RoutingTarget> excluded) {
+		List<RoutingTarget> replicas = this.replicaTargets;
+		int size = replicas.size();
+		if (size == 0) {
+			return null;
+		}
+		long now = System.nanoTime();
+		boolean leastOutstanding = (this.loadBalancingStrategy == LoadBalancingStrategy.LEAST_OUTSTANDING);
+		int offset = (leastOutstanding ? Math.abs(this.rotation.getAndIncrement() % size) : 0);
+		RoutingTarget selected = null;
+		int selectedOutstanding = Integer.MAX_VALUE;
+		double[] weights = (leastOutstanding ? null : new double[size]);
+		double totalWeight = 0;
+		for (int i = 0; i < size; i++) {
+			RoutingTarget replica = replicas.get((offset + i) % size);
+			if (!replica.isAvailable(now) || (excluded != null && excluded.contains(replica))) {
+				continue;
+			}
+			if (weights != null) {
+				// Latency-weighted: a replica without latency samples yet gets the best weight.
+				double latency = Math.max(replica.averageLatency.get(), 1000);
+				weights[i] = 1 / latency;
+				totalWeight += weights[i];
+			}
+			else {
+				int outstanding = replica.activeConnections.get();
+				if (outstanding < selectedOutstanding) {
+					selected = replica;
+					selectedOutstanding = outstanding;
+				}
+			}
+		}
+		if (weights != null && totalWeight > 0) {
+			double point = ThreadLocalRandom.current().nextDouble(totalWeight);
+			for (int i = 0; i < size; i++) {
+				if (weights[i] > 0) {
+					selected = replicas.get(i);
+					point -= weights[i];
+					if (point < 0) {
+						break;
+					}
+				}
+			}
+		}
+		return selected;
+	}
+
+
+	/**
+	 * Load balancing strategies for choosing among replicas.
+	 */
+	public enum LoadBalancingStrategy {
+
+		/**
+		 * Choose the replica with the least number of outstanding Connections,
+		 * rotating among replicas with the same number.
+		 */
+		LEAST_OUTSTANDING,
+
+		/**
+		 * Choose a replica randomly, weighted by the inverse of its average latency
+		 * for obtaining a Connection.
+		 */
+		LATENCY_WEIGHTED
+	}
+
+
+	/**
+	 * A target DataSource of this router, along with its statistics.
+	 */
+	public final class RoutingTarget {
+
+		private final Object key;
+
+		private final DataSource dataSource;
+
+		private final AtomicInteger activeConnections = new AtomicInteger();
+
+		private final LongAdder connectionCount = new LongAdder();
+
+		private final LongAdder failureCount = new LongAdder();
+
+		private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+		private final AtomicLong averageLatency = new AtomicLong();
+
+		private volatile long ejectedUntil;
+
+		private volatile boolean ejected;
+
+		RoutingTarget(Object key, DataSource dataSource) {
+			this.key = key;
+			this.dataSource = dataSource;
+		}
+
+		/**
+		 * Return the lookup key of this target.
+		 */
+		public Object getKey() {
+			return this.key;
+		}
+
+		/**
+		 * Return the target DataSource.
+		 */
+		public DataSource getDataSource() {
+			return this.dataSource;
+		}
+
+		/**
+		 * Return the number of Connections currently obtained from this target.
+		 */
+		public int getActiveConnections() {
+			return this.activeConnections.get();
+		}
+
+		/**
+		 * Return the number of Connections obtained from this target so far.
+		 */
+		public long getConnectionCount() {
+			return this.connectionCount.sum();
+		}
+
+		/**
+		 * Return the number of failed attempts to obtain a Connection so far.
+		 */
+		public long getFailureCount() {
+			return this.failureCount.sum();
+		}
+
+		/**
+		 * Return the exponentially weighted average time that obtaining
+		 * a Connection from this target takes.
+		 */
+		public Duration getAverageLatency() {
+			return Duration.ofNanos(this.averageLatency.get());
+		}
+
+		/**
+		 * Return whether this target is currently ejected from the rotation.
+		 */
+		public boolean isEjected() {
+			return (this.ejected && System.nanoTime() - this.ejectedUntil < 0);
+		}
+
+		boolean isAvailable(long now) {
+			return (!this.ejected || now - this.ejectedUntil >= 0);
+		}
+
+		Connection getConnection() throws SQLException {
+			long startTime = System.nanoTime();
+			Connection con;
+			try {
+				con = this.dataSource.getConnection();
+			}
+			catch (SQLException | RuntimeException ex) {
+				this.failureCount.increment();
+				if (this.consecutiveFailures.incrementAndGet() >= failureThreshold) {
+					this.ejectedUntil = System.nanoTime() + ejectionDuration.toNanos();
+					if (!this.ejected) {
+						this.ejected = true;
+						logger.warn("Ejecting DataSource '" + this.key + "' from rotation for " +
+								ejectionDuration.toMillis() + " ms after " + this.consecutiveFailures.get() +
+								" consecutive failures to obtain a JDBC Connection");
+					}
+				}
+				throw ex;
+			}
+			recordLatency(System.nanoTime() - startTime);
+			this.consecutiveFailures.set(0);
+			this.ejected = false;
+			this.connectionCount.increment();
+			this.activeConnections.incrementAndGet();
+			return (Connection) Proxy.newProxyInstance(
+					ConnectionProxy.class.getClassLoader(),
+					new Class<?>[] {ConnectionProxy.class},
+					new RoutedConnectionInvocationHandler(con, this));
+		}
+
+		void recordLatency(long latency) {
+			this.averageLatency.updateAndGet(average ->
+					(average == 0 ? latency : average + (latency - average) / 8));
+		}
+
+		void recordRelease() {
+			this.activeConnections.decrementAndGet();
+		}
+
+		@Override
+		public String toString() {
+			return "RoutingTarget '" + this.key + "' [active=" + getActiveConnections() +
+					", latency=" + getAverageLatency().toMillis() + "ms" + (isEjected() ? ", ejected" : "") + "]";
+		}
+	}
+
+
+	/**
+	 * Invocation handler that records the release of a routed Connection.
+	 */
+	private static class RoutedConnectionInvocationHandler implements InvocationHandler {
+
+		private final Connection target;
+
+		private final RoutingTarget routingTarget;
+
+		private boolean released;
+
+		public RoutedConnectionInvocationHandler(Connection target, RoutingTarget routingTarget) {
+			this.target = target;
+			this.routingTarget = routingTarget;
+		}
+
+		@Override
+		@Nullable
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			// Invocation on ConnectionProxy interface coming in...
+			switch (method.getName()) {
+				case "equals":
+					// Only consider equal when proxies are identical.
+					return (proxy == args[0]);
+				case "hashCode":
+					// Use hashCode of Connection proxy.
+					return System.identityHashCode(proxy);
+				case "close":
+					// Handle close method: record release, then close the target Connection.
+					synchronized (this) {
+						if (!this.released) {
+							this.released = true;
+							this.routingTarget.recordRelease();
+						}
+					}
+					break;
+				case "getTargetConnection":
+					// Handle getTargetConnection method: return underlying Connection.
+					return this.target;
+				case "unwrap":
+					return (((Class<?>) args[0]).isInstance(proxy) ? proxy : this.target.unwrap((Class<?>) args[0]));
+				case "isWrapperFor":
+					return (((Class<?>) args[0]).isInstance(proxy) || this.target.isWrapperFor((Class<?>) args[0]));
+			}
+			// Invoke method on target Connection.
+			try {
+				return method.invoke(this.target, args);
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getTargetException();
+			}
+		}
+	}
+
+}
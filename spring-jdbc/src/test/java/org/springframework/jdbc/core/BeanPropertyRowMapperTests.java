@@ -21,6 +21,7 @@ import java.util.List;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.jdbc.core.test.ConcretePerson;
 import org.springframework.jdbc.core.test.DatePerson;
@@ -30,6 +31,9 @@ import org.springframework.jdbc.core.test.SpacePerson;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * @author Thomas Risberg
@@ -134,4 +138,83 @@ public class BeanPropertyRowMapperTests extends AbstractRowMapperTests {
 		mock.verifyClosed();
 	}
 
+	@Test
+	public void testMappingPlanResolvedOncePerResultSet() throws Exception {
+		Mock mock = new Mock();
+		given(mock.getResultSet().next()).willReturn(true, true, true, false);
+		List<Person> result = mock.getJdbcTemplate().query(
+				"select name, age, birth_date, balance from people",
+				new BeanPropertyRowMapper<>(Person.class));
+		assertThat(result.size()).isEqualTo(3);
+		result.forEach(this::verifyPerson);
+		verify(mock.getResultSet(), times(1)).getMetaData();
+		mock.verifyClosed();
+	}
+
+	@Test
+	public void testMappingPlanReusedForSameColumns() throws Exception {
+		BeanPropertyRowMapper<Person> mapper = new BeanPropertyRowMapper<>(Person.class);
+		Mock mock1 = new Mock();
+		Mock mock2 = new Mock();
+		List<Person> result1 = mock1.getJdbcTemplate().query(
+				"select name, age, birth_date, balance from people", mapper);
+		BeanPropertyRowMapper.MappingPlan plan = mapper.getMappingPlan(mock1.getResultSet());
+		List<Person> result2 = mock2.getJdbcTemplate().query(
+				"select name, age, birth_date, balance from people", mapper);
+		verifyPerson(result1.get(0));
+		verifyPerson(result2.get(0));
+		assertThat(mapper.getMappingPlan(mock2.getResultSet())).isSameAs(plan);
+	}
+
+	@Test
+	public void testMappingPlanRebuiltForDifferentColumns() throws Exception {
+		BeanPropertyRowMapper<SpacePerson> mapper = new BeanPropertyRowMapper<>(SpacePerson.class);
+		Mock mock1 = new Mock();
+		Mock mock2 = new Mock(MockType.THREE);
+		List<SpacePerson> result1 = mock1.getJdbcTemplate().query(
+				"select name, age, birth_date, balance from people", mapper);
+		List<SpacePerson> result2 = mock2.getJdbcTemplate().query(
+				"select last_name as \"Last Name\", age, birth_date, balance from people", mapper);
+		assertThat(result1.get(0).getLastName()).isNull();
+		verifyPerson(result2.get(0));
+	}
+
+	@Test
+	public void testMappingPlansCachedForAlternatingColumns() throws Exception {
+		BeanPropertyRowMapper<SpacePerson> mapper = new BeanPropertyRowMapper<>(SpacePerson.class);
+		Mock mock1 = new Mock();
+		Mock mock2 = new Mock(MockType.THREE);
+		BeanPropertyRowMapper.MappingPlan plan1 = mapper.getMappingPlan(mock1.getResultSet());
+		BeanPropertyRowMapper.MappingPlan plan2 = mapper.getMappingPlan(mock2.getResultSet());
+		assertThat(plan2).isNotSameAs(plan1);
+		assertThat(mapper.getMappingPlan(mock1.getResultSet())).isSameAs(plan1);
+		assertThat(mapper.getMappingPlan(mock2.getResultSet())).isSameAs(plan2);
+	}
+
+	@Test
+	public void testMappingWithCustomConversionService() throws Exception {
+		Mock mock = new Mock();
+		DefaultConversionService conversionService = new DefaultConversionService();
+		conversionService.addConverter(String.class, String.class, String::toUpperCase);
+		List<Person> result = mock.getJdbcTemplate().query(
+				"select name, age, birth_date, balance from people",
+				BeanPropertyRowMapper.newInstance(Person.class, conversionService));
+		assertThat(result.get(0).getName()).isEqualTo("BUBBA");
+	}
+
+	@Test
+	public void testMappingPlansDiscardedOnConversionServiceChange() throws Exception {
+		BeanPropertyRowMapper<Person> mapper = new BeanPropertyRowMapper<>(Person.class);
+		List<Person> result1 = new Mock().getJdbcTemplate().query(
+				"select name, age, birth_date, balance from people", mapper);
+		assertThat(result1.get(0).getName()).isEqualTo("Bubba");
+
+		DefaultConversionService conversionService = new DefaultConversionService();
+		conversionService.addConverter(String.class, String.class, String::toUpperCase);
+		mapper.setConversionService(conversionService);
+		List<Person> result2 = new Mock().getJdbcTemplate().query(
+				"select name, age, birth_date, balance from people", mapper);
+		assertThat(result2.get(0).getName()).isEqualTo("BUBBA");
+	}
+
 }
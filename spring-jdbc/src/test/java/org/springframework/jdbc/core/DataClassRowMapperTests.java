@@ -23,6 +23,9 @@ import org.junit.jupiter.api.Test;
 import org.springframework.jdbc.core.test.ConstructorPerson;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * @author Juergen Hoeller
@@ -42,4 +45,18 @@ public class DataClassRowMapperTests extends AbstractRowMapperTests {
 		mock.verifyClosed();
 	}
 
+	@Test
+	public void testConstructorColumnsResolvedOncePerResultSet() throws Exception {
+		Mock mock = new Mock();
+		given(mock.getResultSet().next()).willReturn(true, true, false);
+		List<ConstructorPerson> result = mock.getJdbcTemplate().query(
+				"select name, age, birth_date, balance from people",
+				new DataClassRowMapper<>(ConstructorPerson.class));
+		assertThat(result.size()).isEqualTo(2);
+		result.forEach(this::verifyPerson);
+		verify(mock.getResultSet(), times(1)).findColumn("name");
+
+		mock.verifyClosed();
+	}
+
 }
@@ -32,6 +32,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 import javax.sql.DataSource;
 
@@ -54,9 +55,13 @@ import org.springframework.util.StringUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -780,6 +785,66 @@ public class JdbcTemplateTests {
 		verify(this.connection, atLeastOnce()).close();
 	}
 
+	@Test
+	public void testBatchUpdateWithStreamOfObjects() throws Exception {
+		final String sql = "UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?";
+		given(this.preparedStatement.executeBatch()).willReturn(
+				new int[] {1, 1}, new int[] {1, Statement.SUCCESS_NO_INFO}, new int[] {2});
+		mockDatabaseMetaData(true);
+
+		ParameterizedPreparedStatementSetter<Integer> setter = (ps, argument) -> ps.setInt(1, argument.intValue());
+		JdbcTemplate template = new JdbcTemplate(this.dataSource, false);
+
+		BatchUpdateSummary summary = template.batchUpdate(sql, IntStream.of(100, 200, 300, 400, 500).boxed(), 2, setter);
+		assertThat(summary.getBatchCount()).isEqualTo(3);
+		assertThat(summary.getStatementCount()).isEqualTo(5);
+		assertThat(summary.getRowsAffected()).isEqualTo(5);
+		assertThat(summary.getUnknownCount()).isEqualTo(1);
+
+		verify(this.preparedStatement, times(5)).addBatch();
+		verify(this.preparedStatement, times(3)).executeBatch();
+		verify(this.preparedStatement).setInt(1, 500);
+		verify(this.preparedStatement).close();
+		verify(this.connection, atLeastOnce()).close();
+	}
+
+	@Test
+	public void testBatchUpdateWithStreamOnCustomJdbcOperations() {
+		final String sql = "UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?";
+		ParameterizedPreparedStatementSetter<Integer> setter = (ps, argument) -> ps.setInt(1, argument.intValue());
+		JdbcOperations operations = mock(JdbcOperations.class, CALLS_REAL_METHODS);
+		given(operations.batchUpdate(eq(sql), anyCollection(), eq(2), same(setter))).willReturn(
+				new int[][] {{1, 1}}, new int[][] {{1, Statement.SUCCESS_NO_INFO}}, new int[][] {{2}});
+
+		BatchUpdateSummary summary = operations.batchUpdate(sql, IntStream.of(100, 200, 300, 400, 500).boxed(), 2, setter);
+		assertThat(summary.getBatchCount()).isEqualTo(3);
+		assertThat(summary.getStatementCount()).isEqualTo(5);
+		assertThat(summary.getRowsAffected()).isEqualTo(5);
+		assertThat(summary.getUnknownCount()).isEqualTo(1);
+		verify(operations, times(3)).batchUpdate(eq(sql), anyCollection(), eq(2), same(setter));
+	}
+
+	@Test
+	public void testBatchUpdateWithIteratorAndNoBatchSupport() throws Exception {
+		final String sql = "UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?";
+		given(this.preparedStatement.executeUpdate()).willReturn(1, 2, 0);
+		mockDatabaseMetaData(false);
+
+		ParameterizedPreparedStatementSetter<Integer> setter = (ps, argument) -> ps.setInt(1, argument.intValue());
+		JdbcTemplate template = new JdbcTemplate(this.dataSource, false);
+
+		BatchUpdateSummary summary = template.batchUpdate(sql, Arrays.asList(100, 200, 300).iterator(), 2, setter);
+		assertThat(summary.getBatchCount()).isEqualTo(3);
+		assertThat(summary.getStatementCount()).isEqualTo(3);
+		assertThat(summary.getRowsAffected()).isEqualTo(3);
+		assertThat(summary.getUnknownCount()).isEqualTo(0);
+
+		verify(this.preparedStatement, never()).addBatch();
+		verify(this.preparedStatement, times(3)).executeUpdate();
+		verify(this.preparedStatement).close();
+		verify(this.connection, atLeastOnce()).close();
+	}
+
 	@Test
 	public void testCouldNotGetConnectionForOperationOrExceptionTranslator() throws SQLException {
 		SQLException sqlException = new SQLException("foo", "07xxx");
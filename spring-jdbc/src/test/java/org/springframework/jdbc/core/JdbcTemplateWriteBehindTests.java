@@ -0,0 +1,206 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.support.JdbcTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for the write-behind mode of {@link JdbcTemplate}.
+ */
+class JdbcTemplateWriteBehindTests {
+
+	private static final String INSERT = "insert into item (id, name) values (?, ?)";
+
+	private EmbeddedDatabase database;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private TransactionTemplate transactionTemplate;
+
+
+	@BeforeEach
+	void setUp() {
+		this.database = new EmbeddedDatabaseBuilder().generateUniqueName(true).setType(EmbeddedDatabaseType.H2).build();
+		this.jdbcTemplate = new JdbcTemplate(this.database);
+		this.jdbcTemplate.execute("create table item (id int primary key, name varchar(10))");
+		this.jdbcTemplate.setWriteBehindBatchSize(100);
+		this.transactionTemplate = new TransactionTemplate(new JdbcTransactionManager(this.database));
+	}
+
+	@AfterEach
+	void shutdown() {
+		this.database.shutdown();
+		assertThat(TransactionSynchronizationManager.getResourceMap()).isEmpty();
+	}
+
+
+	@Test
+	void updatesDeferredUntilCommit() {
+		List<DeferredUpdateCount> updateCounts = new ArrayList<>();
+		this.transactionTemplate.executeWithoutResult(status -> {
+			assertThat(this.jdbcTemplate.update(INSERT, 1, "one")).isEqualTo(Statement.SUCCESS_NO_INFO);
+			updateCounts.add(this.jdbcTemplate.deferUpdate(INSERT, 2, "two"));
+			updateCounts.add(this.jdbcTemplate.deferUpdate("update item set name = ? where id < ?", "any", 3));
+			assertThat(updateCounts).noneMatch(DeferredUpdateCount::isExecuted);
+		});
+
+		assertThat(updateCounts).allMatch(DeferredUpdateCount::isExecuted);
+		assertThat(updateCounts.get(0).getUpdateCount()).isEqualTo(1);
+		assertThat(updateCounts.get(1).getUpdateCount()).isEqualTo(2);
+		assertThat(this.jdbcTemplate.queryForList("select name from item order by id", String.class))
+				.containsExactly("any", "any");
+	}
+
+	@Test
+	void updatesFlushedBeforeQuery() {
+		this.transactionTemplate.executeWithoutResult(status -> {
+			DeferredUpdateCount updateCount = this.jdbcTemplate.deferUpdate(INSERT, 1, "one");
+			this.jdbcTemplate.update(INSERT, 2, "two");
+			assertThat(updateCount.isExecuted()).isFalse();
+
+			JdbcTemplate otherTemplate = new JdbcTemplate(this.database);
+			assertThat(otherTemplate.queryForObject("select count(*) from item", Integer.class)).isEqualTo(2);
+			assertThat(updateCount.isExecuted()).isTrue();
+		});
+	}
+
+	@Test
+	void updatesFlushedOnThreshold() {
+		this.jdbcTemplate.setWriteBehindBatchSize(2);
+		this.transactionTemplate.executeWithoutResult(status -> {
+			DeferredUpdateCount first = this.jdbcTemplate.deferUpdate(INSERT, 1, "one");
+			assertThat(first.isExecuted()).isFalse();
+			DeferredUpdateCount second = this.jdbcTemplate.deferUpdate(INSERT, 2, "two");
+			assertThat(first.isExecuted()).isTrue();
+			assertThat(second.getUpdateCount()).isEqualTo(1);
+			DeferredUpdateCount third = this.jdbcTemplate.deferUpdate(INSERT, 3, "three");
+			assertThat(third.isExecuted()).isFalse();
+			assertThat(third.getUpdateCount()).isEqualTo(1);
+		});
+		assertThat(this.jdbcTemplate.queryForObject("select count(*) from item", Integer.class)).isEqualTo(3);
+	}
+
+	@Test
+	void updatesFlushedOnSuspension() {
+		this.transactionTemplate.executeWithoutResult(status -> {
+			DeferredUpdateCount updateCount = this.jdbcTemplate.deferUpdate(INSERT, 1, "one");
+			TransactionTemplate requiresNew = new TransactionTemplate(this.transactionTemplate.getTransactionManager());
+			requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+			requiresNew.executeWithoutResult(innerStatus -> {
+				assertThat(updateCount.isExecuted()).isTrue();
+				this.jdbcTemplate.update(INSERT, 2, "two");
+			});
+			this.jdbcTemplate.update(INSERT, 3, "three");
+		});
+		assertThat(this.jdbcTemplate.queryForObject("select count(*) from item", Integer.class)).isEqualTo(3);
+	}
+
+	@Test
+	void updatesWithinRolledBackSavepointNotCommitted() {
+		this.transactionTemplate.executeWithoutResult(status -> {
+			DeferredUpdateCount outer = this.jdbcTemplate.deferUpdate(INSERT, 1, "one");
+			TransactionTemplate nested = new TransactionTemplate(this.transactionTemplate.getTransactionManager());
+			nested.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+			nested.executeWithoutResult(innerStatus -> {
+				assertThat(outer.isExecuted()).isTrue();
+				this.jdbcTemplate.update(INSERT, 2, "two");
+				innerStatus.setRollbackOnly();
+			});
+			nested.executeWithoutResult(innerStatus -> this.jdbcTemplate.update(INSERT, 3, "three"));
+			this.jdbcTemplate.update(INSERT, 4, "four");
+		});
+		assertThat(this.jdbcTemplate.queryForList("select name from item order by id", String.class))
+				.containsExactly("one", "three", "four");
+	}
+
+	@Test
+	void savepointsFlushOnlyUpdatesForSameDataSource() {
+		AtomicInteger otherFlushes = new AtomicInteger();
+		this.transactionTemplate.executeWithoutResult(status -> {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void flush() {
+					otherFlushes.incrementAndGet();
+				}
+			});
+			DeferredUpdateCount outer = this.jdbcTemplate.deferUpdate(INSERT, 1, "one");
+			TransactionTemplate nested = new TransactionTemplate(this.transactionTemplate.getTransactionManager());
+			nested.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+			nested.executeWithoutResult(innerStatus -> {
+				assertThat(outer.isExecuted()).isTrue();
+				this.jdbcTemplate.update(INSERT, 2, "two");
+				innerStatus.setRollbackOnly();
+			});
+		});
+		assertThat(otherFlushes.get()).isEqualTo(0);
+		assertThat(this.jdbcTemplate.queryForList("select name from item order by id", String.class))
+				.containsExactly("one");
+	}
+
+	@Test
+	void updatesDiscardedOnRollback() {
+		List<DeferredUpdateCount> updateCounts = new ArrayList<>();
+		this.transactionTemplate.executeWithoutResult(status -> {
+			updateCounts.add(this.jdbcTemplate.deferUpdate(INSERT, 1, "one"));
+			status.setRollbackOnly();
+		});
+
+		assertThatIllegalStateException().isThrownBy(() -> updateCounts.get(0).getUpdateCount());
+		assertThat(this.jdbcTemplate.queryForObject("select count(*) from item", Integer.class)).isEqualTo(0);
+	}
+
+	@Test
+	void failedFlushOnCommitRollsBack() {
+		assertThatExceptionOfType(DuplicateKeyException.class).isThrownBy(() ->
+				this.transactionTemplate.executeWithoutResult(status -> {
+					this.jdbcTemplate.update("insert into item (id, name) values (0, 'zero')");
+					this.jdbcTemplate.update(INSERT, 1, "one");
+					this.jdbcTemplate.update(INSERT, 1, "again");
+				}));
+		assertThat(this.jdbcTemplate.queryForObject("select count(*) from item", Integer.class)).isEqualTo(0);
+	}
+
+	@Test
+	void updatesExecutedImmediatelyWithoutTransaction() {
+		DeferredUpdateCount updateCount = this.jdbcTemplate.deferUpdate(INSERT, 1, "one");
+		assertThat(updateCount.isExecuted()).isTrue();
+		assertThat(updateCount.getUpdateCount()).isEqualTo(1);
+		assertThat(this.jdbcTemplate.update(INSERT, 2, "two")).isEqualTo(1);
+	}
+
+}
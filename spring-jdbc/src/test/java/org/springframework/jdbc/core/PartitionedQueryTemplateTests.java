@@ -0,0 +1,165 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Integration tests for {@link PartitionedQueryTemplate} against an embedded H2 database.
+ */
+class PartitionedQueryTemplateTests {
+
+	private static final int ROW_COUNT = 1000;
+
+	private static final String SQL = "select id from item where {partition} and category = ? order by id";
+
+	private EmbeddedDatabase database;
+
+	private PartitionedQueryTemplate template;
+
+	private List<Integer> expectedIds;
+
+
+	@BeforeEach
+	void setUp() {
+		this.database = new EmbeddedDatabaseBuilder().generateUniqueName(true).setType(EmbeddedDatabaseType.H2).build();
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(this.database);
+		jdbcTemplate.execute("create table item (id int primary key, category varchar(10))");
+		jdbcTemplate.batchUpdate("insert into item (id, category) values (?, ?)",
+				IntStream.range(0, ROW_COUNT).boxed().collect(Collectors.toList()), 100,
+				(ps, id) -> {
+					ps.setInt(1, id);
+					ps.setString(2, id % 2 == 0 ? "even" : "odd");
+				});
+		this.template = new PartitionedQueryTemplate(jdbcTemplate);
+		this.template.setMaxParallelism(3);
+		this.expectedIds = IntStream.range(0, ROW_COUNT).filter(id -> id % 2 == 0).boxed().collect(Collectors.toList());
+	}
+
+	@AfterEach
+	void shutdown() {
+		this.database.shutdown();
+	}
+
+
+	@Test
+	void queryWithRowCallbackHandler() {
+		List<Integer> ids = new ArrayList<>();
+		this.template.query(SQL, QueryPartition.hashBuckets("id", 8), rs -> {
+			ids.add(rs.getInt(1));
+		}, "even");
+
+		Collections.sort(ids);
+		assertThat(ids).isEqualTo(this.expectedIds);
+	}
+
+	@Test
+	void queryForOrderedStream() {
+		this.template.setBufferSize(10);
+		List<QueryPartition> partitions = QueryPartition.ranges("id", 100, 250, 600);
+		try (Stream<Integer> ids = this.template.queryForStream(SQL, partitions, (rs, rowNum) -> rs.getInt(1), true, "even")) {
+			assertThat(ids.collect(Collectors.toList())).isEqualTo(this.expectedIds);
+		}
+	}
+
+	@Test
+	void queryForUnorderedStream() {
+		List<QueryPartition> partitions = QueryPartition.hashBuckets("id", 5);
+		try (Stream<Integer> ids = this.template.queryForStream(SQL, partitions, (rs, rowNum) -> rs.getInt(1), false, "even")) {
+			Set<Integer> result = ids.collect(Collectors.toSet());
+			assertThat(result).isEqualTo(new HashSet<>(this.expectedIds));
+		}
+	}
+
+	@Test
+	void queryWithFailingPartition() {
+		List<QueryPartition> partitions = new ArrayList<>(QueryPartition.hashBuckets("id", 4));
+		partitions.add(QueryPartition.of("no_such_column = ?", 1));
+
+		assertThatExceptionOfType(BadSqlGrammarException.class).isThrownBy(() ->
+				this.template.query(SQL, partitions, rs -> {}, "even"));
+		assertThatExceptionOfType(BadSqlGrammarException.class).isThrownBy(() -> {
+			try (Stream<Integer> ids = this.template.queryForStream(SQL, partitions, (rs, rowNum) -> 1, true, "even")) {
+				ids.count();
+			}
+		});
+	}
+
+	@Test
+	void closingStreamCancelsPartitions() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		this.template.setExecutor(executor);
+		this.template.setBufferSize(1);
+
+		try (Stream<Integer> ids = this.template.queryForStream(
+				SQL, QueryPartition.hashBuckets("id", 6), (rs, rowNum) -> rs.getInt(1), true, "even")) {
+			assertThat(ids.limit(3).count()).isEqualTo(3);
+		}
+		executor.shutdown();
+		assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void rejectedWorkerCancelsStartedPartitions() throws Exception {
+		ExecutorService executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new SynchronousQueue<>());
+		this.template.setExecutor(executor);
+		this.template.setBufferSize(1);
+
+		assertThatExceptionOfType(RejectedExecutionException.class).isThrownBy(() ->
+				this.template.queryForStream(SQL, QueryPartition.hashBuckets("id", 6), (rs, rowNum) -> rs.getInt(1), true, "even"));
+		executor.shutdown();
+		assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void buildPartitionArgs() {
+		QueryPartition partition = QueryPartition.range("id", 10, 20);
+		assertThat(this.template.buildPartitionSql("select * from item where a = ? and {partition} and b = ?", partition))
+				.isEqualTo("select * from item where a = ? and (id >= ? AND id < ?) and b = ?");
+		assertThat(this.template.buildPartitionArgs(
+				"select * from item where a = ? and {partition} and b = ?", new Object[] {"a", "b"}, partition))
+				.containsExactly("a", 10, 20, "b");
+		assertThat(this.template.buildPartitionArgs("select * from item where {partition}", null, partition))
+				.containsExactly(10, 20);
+	}
+
+}
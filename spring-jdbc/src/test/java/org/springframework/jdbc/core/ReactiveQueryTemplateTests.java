@@ -0,0 +1,184 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link ReactiveQueryTemplate}.
+ */
+class ReactiveQueryTemplateTests {
+
+	private static final int ROW_COUNT = 100;
+
+	private EmbeddedDatabase database;
+
+	private ReactiveQueryTemplate template;
+
+
+	@BeforeEach
+	void setUp() {
+		this.database = new EmbeddedDatabaseBuilder().generateUniqueName(true).setType(EmbeddedDatabaseType.H2).build();
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(this.database);
+		jdbcTemplate.execute("create table item (id int primary key, category varchar(10))");
+		jdbcTemplate.batchUpdate("insert into item (id, category) values (?, ?)",
+				IntStream.range(0, ROW_COUNT).boxed().collect(Collectors.toList()), 50,
+				(ps, id) -> {
+					ps.setInt(1, id);
+					ps.setString(2, id % 2 == 0 ? "even" : "odd");
+				});
+		this.template = new ReactiveQueryTemplate(jdbcTemplate);
+	}
+
+	@AfterEach
+	void shutdown() {
+		this.database.shutdown();
+	}
+
+
+	@Test
+	void queryForFlux() {
+		StepVerifier.create(this.template.queryForFlux(
+				"select id from item where category = ? order by id", (rs, rowNum) -> rs.getInt(1), "even"))
+				.expectNext(0, 2, 4)
+				.expectNextCount(ROW_COUNT / 2 - 3)
+				.verifyComplete();
+	}
+
+	@Test
+	void queryForFluxEmitsOnDemand() {
+		StepVerifier.create(this.template.queryForFlux(
+				"select id from item order by id", (rs, rowNum) -> rs.getInt(1)), 0)
+				.expectSubscription()
+				.expectNoEvent(Duration.ofMillis(50))
+				.thenRequest(2)
+				.expectNext(0, 1)
+				.expectNoEvent(Duration.ofMillis(50))
+				.thenRequest(1)
+				.expectNext(2)
+				.thenCancel()
+				.verify();
+	}
+
+	@Test
+	void queryForFluxWithBadSql() {
+		StepVerifier.create(this.template.queryForFlux("select no_such_column from item", (rs, rowNum) -> 1))
+				.expectError(BadSqlGrammarException.class)
+				.verify();
+	}
+
+	@Test
+	void queryForFluxWithNullRow() {
+		StepVerifier.create(this.template.queryForFlux("select id from item", (rs, rowNum) -> null))
+				.expectError(IllegalStateException.class)
+				.verify();
+	}
+
+	@Test
+	void fetchSizeFollowsDemand() throws Exception {
+		DataSource dataSource = mock(DataSource.class);
+		Connection connection = mock(Connection.class);
+		PreparedStatement ps = mock(PreparedStatement.class);
+		ResultSet rs = mock(ResultSet.class);
+		given(dataSource.getConnection()).willReturn(connection);
+		given(connection.prepareStatement("select id from item")).willReturn(ps);
+		given(ps.executeQuery()).willReturn(rs);
+		given(rs.next()).willReturn(true, true, true, true, false);
+		given(rs.getInt(1)).willReturn(1, 2, 3, 4);
+		ReactiveQueryTemplate template = new ReactiveQueryTemplate(dataSource);
+		template.setScheduler(Schedulers.immediate());
+		template.setMaxFetchSize(3);
+
+		StepVerifier.create(template.queryForFlux("select id from item", (r, rowNum) -> r.getInt(1)), 2)
+				.expectNext(1, 2)
+				.thenRequest(Long.MAX_VALUE)
+				.expectNext(3, 4)
+				.verifyComplete();
+
+		InOrder ordered = inOrder(ps, rs, connection);
+		ordered.verify(ps).setFetchSize(2);
+		ordered.verify(ps).executeQuery();
+		ordered.verify(rs).setFetchSize(3);
+		ordered.verify(rs).close();
+		ordered.verify(ps).close();
+		ordered.verify(connection).close();
+	}
+
+	@Test
+	void cancelReleasesConnection() throws Exception {
+		DataSource dataSource = mock(DataSource.class);
+		Connection connection = mock(Connection.class);
+		PreparedStatement ps = mock(PreparedStatement.class);
+		ResultSet rs = mock(ResultSet.class);
+		given(dataSource.getConnection()).willReturn(connection);
+		given(connection.prepareStatement("select id from item")).willReturn(ps);
+		given(ps.executeQuery()).willReturn(rs);
+		given(rs.next()).willReturn(true);
+		given(rs.getInt(1)).willReturn(1);
+		ReactiveQueryTemplate template = new ReactiveQueryTemplate(dataSource);
+
+		StepVerifier.create(template.queryForFlux("select id from item", (r, rowNum) -> r.getInt(1)).take(5))
+				.expectNextCount(5)
+				.verifyComplete();
+
+		verify(rs, timeout(1000)).close();
+		verify(ps, timeout(1000)).close();
+		verify(connection, timeout(1000)).close();
+	}
+
+	@Test
+	void cancelBeforeRequestDoesNotObtainConnection() throws Exception {
+		DataSource dataSource = mock(DataSource.class);
+		ReactiveQueryTemplate template = new ReactiveQueryTemplate(dataSource);
+		template.setScheduler(Schedulers.immediate());
+
+		StepVerifier.create(template.queryForFlux("select id from item", (r, rowNum) -> r.getInt(1)), 0)
+				.thenCancel()
+				.verify();
+
+		verify(dataSource, never()).getConnection();
+		assertThat(template.getMaxFetchSize()).isEqualTo(ReactiveQueryTemplate.DEFAULT_MAX_FETCH_SIZE);
+	}
+
+}
@@ -39,6 +39,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InOrder;
 
 import org.springframework.jdbc.Customer;
+import org.springframework.jdbc.core.BatchUpdateSummary;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.PreparedStatementCallback;
@@ -46,11 +47,15 @@ import org.springframework.jdbc.core.SqlParameterValue;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -344,6 +349,101 @@ public class NamedParameterJdbcTemplateTests {
 		verify(connection).close();
 	}
 
+	@Test
+	public void testQueryWithInClauseSharesStatementShape() throws SQLException {
+		given(resultSet.next()).willReturn(false);
+
+		namedParameterTemplate.query("select id from custmr where id in (:ids)",
+				Collections.singletonMap("ids", Arrays.asList(1, 2, 3)), (rs, rownum) -> rs.getInt(1));
+		namedParameterTemplate.query("select id from custmr where id in (:ids)",
+				Collections.singletonMap("ids", Arrays.asList(4, 5, 6)), (rs, rownum) -> rs.getInt(1));
+		namedParameterTemplate.query("select id from custmr where id in (:ids)",
+				Collections.singletonMap("ids", Collections.singletonList(7)), (rs, rownum) -> rs.getInt(1));
+
+		verify(connection, times(2)).prepareStatement("select id from custmr where id in (?, ?, ?)");
+		verify(connection).prepareStatement("select id from custmr where id in (?)");
+		verify(preparedStatement).setObject(3, 6);
+		verify(preparedStatement).setObject(1, 7);
+	}
+
+	@Test
+	public void testQueryWithInClauseParameterPadding() throws SQLException {
+		given(resultSet.next()).willReturn(false);
+		namedParameterTemplate.setInClauseParameterPadding(true);
+
+		params.put("ids", Arrays.asList(1, 2, 3, 4, 5));
+		params.put("country", new SqlParameterValue(Types.VARCHAR, Arrays.asList("UK", "US", "DE")));
+		namedParameterTemplate.query("select id from custmr where id in (:ids) and country in (:country)",
+				params, (rs, rownum) -> rs.getInt(1));
+
+		verify(connection).prepareStatement(
+				"select id from custmr where id in (?, ?, ?, ?, ?, ?, ?, ?) and country in (?, ?, ?, ?)");
+		verify(preparedStatement).setObject(5, 5);
+		verify(preparedStatement).setObject(6, 5);
+		verify(preparedStatement).setObject(8, 5);
+		verify(preparedStatement).setString(11, "DE");
+		verify(preparedStatement).setString(12, "DE");
+		verify(preparedStatement).close();
+		verify(connection).close();
+	}
+
+	@Test
+	public void testQueryWithInClauseParameterPaddingForExactSize() throws SQLException {
+		given(resultSet.next()).willReturn(false);
+		namedParameterTemplate.setInClauseParameterPadding(true);
+
+		params.put("ids", Arrays.asList(1, 2, 3, 4));
+		namedParameterTemplate.query("select id from custmr where id in (:ids)", params, (rs, rownum) -> rs.getInt(1));
+
+		verify(connection).prepareStatement("select id from custmr where id in (?, ?, ?, ?)");
+		verify(preparedStatement).setObject(4, 4);
+	}
+
+	@Test
+	public void testQueryWithInClauseParameterPaddingLimit() throws SQLException {
+		given(resultSet.next()).willReturn(false);
+		namedParameterTemplate.setInClauseParameterPadding(true);
+		namedParameterTemplate.setInClauseParameterPaddingLimit(8);
+
+		params.put("ids", Arrays.asList(1, 2, 3, 4, 5));
+		namedParameterTemplate.query("select id from custmr where id in (:ids)", params, (rs, rownum) -> rs.getInt(1));
+		params.put("ids", Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9));
+		namedParameterTemplate.query("select id from custmr where id in (:ids)", params, (rs, rownum) -> rs.getInt(1));
+
+		verify(connection).prepareStatement("select id from custmr where id in (?, ?, ?, ?, ?, ?, ?, ?)");
+		verify(connection).prepareStatement("select id from custmr where id in (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+		verify(preparedStatement).setObject(9, 9);
+	}
+
+	@Test
+	public void testQueryWithInClauseParameterPaddingAboveDefaultLimit() throws SQLException {
+		given(resultSet.next()).willReturn(false);
+		namedParameterTemplate.setInClauseParameterPadding(true);
+
+		List<Integer> ids = new ArrayList<>();
+		for (int i = 1; i <= 600; i++) {
+			ids.add(i);
+		}
+		params.put("ids", ids);
+		namedParameterTemplate.query("select id from custmr where id in (:ids)", params, (rs, rownum) -> rs.getInt(1));
+
+		verify(preparedStatement).setObject(600, 600);
+		verify(preparedStatement, never()).setObject(eq(601), any());
+	}
+
+	@Test
+	public void testUpdateWithInClauseParameterPaddingOutsideOfInList() throws SQLException {
+		given(preparedStatement.executeUpdate()).willReturn(3);
+		namedParameterTemplate.setInClauseParameterPadding(true);
+
+		params.put("rows", Arrays.asList(new Object[] {1, "a"}, new Object[] {2, "b"}, new Object[] {3, "c"}));
+		namedParameterTemplate.update("insert into custmr (id, name) values :rows", params);
+
+		verify(connection).prepareStatement("insert into custmr (id, name) values (?, ?), (?, ?), (?, ?)");
+		verify(preparedStatement).setObject(5, 3);
+		verify(preparedStatement).setString(6, "c");
+	}
+
 	@Test
 	public void testQueryWithRowMapperNoParameters() throws SQLException {
 		given(resultSet.next()).willReturn(true, false);
@@ -519,6 +619,51 @@ public class NamedParameterJdbcTemplateTests {
 		verify(connection, atLeastOnce()).close();
 	}
 
+	@Test
+	public void testBatchUpdateWithStreamOfSqlParameterSources() throws Exception {
+		given(preparedStatement.executeBatch()).willReturn(new int[] {1, 1}, new int[] {1});
+		given(connection.getMetaData()).willReturn(databaseMetaData);
+		namedParameterTemplate = new NamedParameterJdbcTemplate(new JdbcTemplate(dataSource, false));
+
+		BatchUpdateSummary summary = namedParameterTemplate.batchUpdate(
+				"UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = :id",
+				Stream.of(100, 200, 300).map(id -> new MapSqlParameterSource("id", id)), 2);
+		assertThat(summary.getBatchCount()).isEqualTo(2);
+		assertThat(summary.getRowsAffected()).isEqualTo(3);
+		verify(connection).prepareStatement("UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = ?");
+		verify(preparedStatement).setObject(1, 100);
+		verify(preparedStatement).setObject(1, 200);
+		verify(preparedStatement).setObject(1, 300);
+		verify(preparedStatement, times(3)).addBatch();
+		verify(preparedStatement, times(2)).executeBatch();
+		verify(preparedStatement, atLeastOnce()).close();
+		verify(connection, atLeastOnce()).close();
+	}
+
+	@Test
+	public void testBatchUpdateWithStreamOnCustomNamedParameterJdbcOperations() {
+		String sql = "UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = :id";
+		NamedParameterJdbcOperations operations = mock(NamedParameterJdbcOperations.class, CALLS_REAL_METHODS);
+		given(operations.batchUpdate(eq(sql), any(SqlParameterSource[].class))).willReturn(
+				new int[] {1, 1}, new int[] {1});
+
+		BatchUpdateSummary summary = operations.batchUpdate(
+				sql, Stream.of(100, 200, 300).map(id -> new MapSqlParameterSource("id", id)), 2);
+		assertThat(summary.getBatchCount()).isEqualTo(2);
+		assertThat(summary.getStatementCount()).isEqualTo(3);
+		assertThat(summary.getRowsAffected()).isEqualTo(3);
+		verify(operations, times(2)).batchUpdate(eq(sql), any(SqlParameterSource[].class));
+	}
+
+	@Test
+	public void testBatchUpdateWithEmptyStream() throws Exception {
+		namedParameterTemplate = new NamedParameterJdbcTemplate(new JdbcTemplate(dataSource, false));
+		BatchUpdateSummary summary = namedParameterTemplate.batchUpdate(
+				"UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE WHERE ID = :id", Stream.empty(), 2);
+		assertThat(summary.getStatementCount()).isEqualTo(0);
+		verify(connection, never()).prepareStatement(anyString());
+	}
+
 	@Test
 	public void testBatchUpdateWithInClause() throws Exception {
 		@SuppressWarnings("unchecked")
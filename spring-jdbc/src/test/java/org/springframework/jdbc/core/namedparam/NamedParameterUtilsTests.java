@@ -16,6 +16,8 @@
 
 package org.springframework.jdbc.core.namedparam;
 
+import java.sql.Types;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -70,6 +72,42 @@ public class NamedParameterUtilsTests {
 		assertThat(NamedParameterUtils.substituteNamedParameters("xxx :a :b :c xx :a :a", namedParams)).isEqualTo("xxx ? ? ? xx ? ?");
 	}
 
+	@Test
+	public void substitutePlaceholdersByShape() {
+		ParsedSql parsedSql = NamedParameterUtils.parseSqlStatement(
+				"select * from t where a = :a and b in (:b) and (c, d) in (:cd) and e = :e");
+		MapSqlParameterSource namedParams = new MapSqlParameterSource();
+		namedParams.addValue("a", 1);
+		namedParams.addValue("b", new SqlParameterValue(Types.INTEGER, Arrays.asList(1, 2, 3)));
+		namedParams.addValue("cd", Arrays.asList(new Object[] {1, 2}, "x", new Object[] {}));
+
+		int[] shape = NamedParameterUtils.buildParameterShape(parsedSql, namedParams);
+		assertThat(shape).containsExactly(-1, 3, -5, 2, -1, 0, -1);
+		assertThat(NamedParameterUtils.substitutePlaceholders(parsedSql, shape))
+				.isEqualTo(NamedParameterUtils.substituteNamedParameters(parsedSql, namedParams))
+				.isEqualTo("select * from t where a = ? and b in (?, ?, ?) and (c, d) in ((?, ?), ?, ()) and e = ?");
+
+		namedParams.addValue("b", Collections.emptyList());
+		namedParams.addValue("cd", Collections.singleton("y"));
+		shape = NamedParameterUtils.buildParameterShape(parsedSql, namedParams);
+		assertThat(shape).containsExactly(-1, 0, 1, -1);
+		assertThat(NamedParameterUtils.substitutePlaceholders(parsedSql, shape))
+				.isEqualTo(NamedParameterUtils.substituteNamedParameters(parsedSql, namedParams));
+	}
+
+	@Test
+	public void findInClauseParameterNames() {
+		ParsedSql parsedSql = NamedParameterUtils.parseSqlStatement(
+				"select * from t where a IN (:a) and b not in(:b) and c in (:c, :d) and e = :e " +
+				"and f in (:f) and g = :f and h join(:h) and i in ( :{i} )");
+		assertThat(NamedParameterUtils.findInClauseParameterNames(parsedSql)).containsOnly("a", "b", "i");
+
+		parsedSql = NamedParameterUtils.parseSqlStatement("insert into t (a, b) values :rows");
+		assertThat(NamedParameterUtils.findInClauseParameterNames(parsedSql)).isEmpty();
+		parsedSql = NamedParameterUtils.parseSqlStatement("insert into t (a, b, c) values (:list)");
+		assertThat(NamedParameterUtils.findInClauseParameterNames(parsedSql)).isEmpty();
+	}
+
 	@Test
 	public void convertParamMapToArray() {
 		Map<String, String> paramMap = new HashMap<>();
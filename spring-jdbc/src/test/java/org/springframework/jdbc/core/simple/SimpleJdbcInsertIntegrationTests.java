@@ -0,0 +1,217 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core.simple;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.dao.InvalidDataAccessResourceUsageException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.support.KeyHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Integration tests for {@link SimpleJdbcInsert} against an embedded H2 database.
+ */
+class SimpleJdbcInsertIntegrationTests {
+
+	private EmbeddedDatabase database;
+
+	private JdbcTemplate jdbcTemplate;
+
+
+	@BeforeEach
+	void setUp() {
+		this.database = new EmbeddedDatabaseBuilder().generateUniqueName(true).setType(EmbeddedDatabaseType.H2).build();
+		this.jdbcTemplate = new JdbcTemplate(this.database);
+		this.jdbcTemplate.execute("create table customer (id int auto_increment primary key, name varchar(50), age int)");
+	}
+
+	@AfterEach
+	void shutdown() {
+		this.database.shutdown();
+	}
+
+
+	@Test
+	void executeBatchWithMultiRowInserts() {
+		SimpleJdbcInsert insert = new SimpleJdbcInsert(this.jdbcTemplate)
+				.withTableName("customer").usingColumns("name", "age").withMultiRowInserts();
+		insert.setMaxRowsPerInsert(3);
+
+		int[] rowsAffected = insert.executeBatch(customers(8));
+
+		assertThat(rowsAffected).containsExactly(1, 1, 1, 1, 1, 1, 1, 1);
+		assertThat(this.jdbcTemplate.queryForObject("select count(*) from customer", Integer.class)).isEqualTo(8);
+		assertThat(this.jdbcTemplate.queryForObject("select age from customer where name = 'c7'", Integer.class))
+				.isEqualTo(27);
+	}
+
+	@Test
+	void executeBatchWithMultiRowInsertsLimitedByParameters() {
+		SimpleJdbcInsert insert = new SimpleJdbcInsert(this.jdbcTemplate)
+				.withTableName("customer").usingColumns("name", "age").withMultiRowInserts();
+		insert.setMaxParametersPerInsert(5);
+
+		int[] rowsAffected = insert.executeBatch(customers(5));
+
+		assertThat(rowsAffected).containsExactly(1, 1, 1, 1, 1);
+		assertThat(this.jdbcTemplate.queryForObject("select count(*) from customer", Integer.class)).isEqualTo(5);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void executeBatchWithMaps() {
+		SimpleJdbcInsert insert = new SimpleJdbcInsert(this.jdbcTemplate)
+				.withTableName("customer").usingColumns("name", "age").withMultiRowInserts();
+
+		Map<String, Object> first = new HashMap<>();
+		first.put("name", "a");
+		first.put("age", 1);
+		Map<String, Object> second = new HashMap<>();
+		second.put("name", "b");
+		second.put("age", 2);
+		int[] rowsAffected = insert.executeBatch(first, second);
+
+		assertThat(rowsAffected).containsExactly(1, 1);
+		assertThat(this.jdbcTemplate.queryForList("select name from customer order by id", String.class))
+				.containsExactly("a", "b");
+	}
+
+	@Test
+	void executeBatchAndReturnKeyHolderWithMultiRowInserts() {
+		SimpleJdbcInsert insert = new SimpleJdbcInsert(this.jdbcTemplate)
+				.withTableName("customer").usingColumns("name", "age").usingGeneratedKeyColumns("id")
+				.withMultiRowInserts();
+		insert.setMaxRowsPerInsert(2);
+
+		KeyHolder keyHolder = insert.executeBatchAndReturnKeyHolder(customers(5));
+
+		assertThat(keyHolder.getKeyList()).hasSize(5);
+		assertThat(keyHolder.getKeyList()).extracting(keys -> ((Number) keys.get("ID")).intValue())
+				.containsExactly(1, 2, 3, 4, 5);
+	}
+
+	@Test
+	void executeBatchAndReturnKeyHolderWithMultiRowInsertsAndLastKeyOnly() {
+		JdbcTemplate lastKeyOnlyTemplate = new JdbcTemplate(this.database) {
+			@Override
+			public int update(PreparedStatementCreator psc, KeyHolder generatedKeyHolder) {
+				int rows = super.update(psc, generatedKeyHolder);
+				List<Map<String, Object>> keys = generatedKeyHolder.getKeyList();
+				keys.subList(0, keys.size() - 1).clear();
+				return rows;
+			}
+		};
+		SimpleJdbcInsert insert = new SimpleJdbcInsert(lastKeyOnlyTemplate)
+				.withTableName("customer").usingColumns("name", "age").usingGeneratedKeyColumns("id")
+				.withMultiRowInserts();
+
+		assertThatExceptionOfType(InvalidDataAccessResourceUsageException.class)
+				.isThrownBy(() -> insert.executeBatchAndReturnKeyHolder(customers(3)))
+				.withMessageContaining("returned 1 generated keys");
+	}
+
+	@Test
+	void executeBatchAndReturnKeyHolderWithMultiRowInsertsOnUnknownDatabase() {
+		AtomicInteger statementCount = new AtomicInteger();
+		JdbcTemplate countingTemplate = new JdbcTemplate(new DelegatingDataSource(this.database) {
+			@Override
+			public Connection getConnection() throws SQLException {
+				return withProductName(super.getConnection(), "Unknown Database");
+			}
+		}) {
+			@Override
+			public int update(PreparedStatementCreator psc, KeyHolder generatedKeyHolder) {
+				statementCount.incrementAndGet();
+				return super.update(psc, generatedKeyHolder);
+			}
+		};
+		SimpleJdbcInsert insert = new SimpleJdbcInsert(countingTemplate)
+				.withTableName("customer").usingColumns("name", "age").usingGeneratedKeyColumns("id")
+				.withMultiRowInserts();
+
+		KeyHolder keyHolder = insert.executeBatchAndReturnKeyHolder(customers(3));
+
+		assertThat(statementCount.get()).isEqualTo(3);
+		assertThat(keyHolder.getKeyList()).extracting(keys -> ((Number) keys.get("ID")).intValue())
+				.containsExactly(1, 2, 3);
+	}
+
+	@Test
+	void executeBatchAndReturnKeyHolderWithoutMultiRowInserts() {
+		SimpleJdbcInsert insert = new SimpleJdbcInsert(this.jdbcTemplate)
+				.withTableName("customer").usingColumns("name", "age").usingGeneratedKeyColumns("id");
+
+		KeyHolder keyHolder = insert.executeBatchAndReturnKeyHolder(customers(3));
+
+		assertThat(keyHolder.getKeyList()).hasSize(3);
+		assertThat(this.jdbcTemplate.queryForObject("select count(*) from customer", Integer.class)).isEqualTo(3);
+	}
+
+
+	private static SqlParameterSource[] customers(int count) {
+		SqlParameterSource[] batch = new SqlParameterSource[count];
+		for (int i = 0; i < count; i++) {
+			batch[i] = new MapSqlParameterSource("name", "c" + i).addValue("age", 20 + i);
+		}
+		return batch;
+	}
+
+	private static Connection withProductName(Connection connection, String productName) throws SQLException {
+		DatabaseMetaData metaData = connection.getMetaData();
+		DatabaseMetaData metaDataProxy = (DatabaseMetaData) Proxy.newProxyInstance(
+				SimpleJdbcInsertIntegrationTests.class.getClassLoader(), new Class<?>[] {DatabaseMetaData.class},
+				(proxy, method, args) -> (method.getName().equals("getDatabaseProductName") ? productName :
+						invoke(method, metaData, args)));
+		return (Connection) Proxy.newProxyInstance(
+				SimpleJdbcInsertIntegrationTests.class.getClassLoader(), new Class<?>[] {Connection.class},
+				(proxy, method, args) -> (method.getName().equals("getMetaData") ? metaDataProxy :
+						invoke(method, connection, args)));
+	}
+
+	private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		}
+		catch (InvocationTargetException ex) {
+			throw ex.getTargetException();
+		}
+	}
+
+}
@@ -21,6 +21,7 @@ import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -160,4 +161,18 @@ public class TableMetaDataContextTests  {
 		verify(columnsResultSet).close();
 	}
 
+	@Test
+	public void testMultiRowInsertString() throws Exception {
+		given(databaseMetaData.getDatabaseProductName()).willReturn("MyDB");
+		given(databaseMetaData.getUserName()).willReturn("me");
+
+		context.setTableName("customers");
+		context.setAccessTableColumnMetaData(false);
+		context.processMetaData(dataSource, Arrays.asList("name", "age"), new String[0]);
+
+		assertThat(context.createInsertString()).isEqualTo("INSERT INTO customers (name, age) VALUES(?, ?)");
+		assertThat(context.createInsertString(3))
+				.isEqualTo("INSERT INTO customers (name, age) VALUES(?, ?), (?, ?), (?, ?)");
+	}
+
 }
@@ -0,0 +1,312 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link PoolingDataSource}.
+ */
+public class PoolingDataSourceTests {
+
+	private final DataSource target = mock(DataSource.class);
+
+	private final List<Connection> physicalConnections = new ArrayList<>();
+
+	private final PoolingDataSource dataSource = new PoolingDataSource(this.target);
+
+
+	@BeforeEach
+	public void setup() throws Exception {
+		given(this.target.getConnection()).willAnswer(invocation -> {
+			Connection con = mock(Connection.class);
+			given(con.getAutoCommit()).willReturn(true);
+			given(con.getTransactionIsolation()).willReturn(Connection.TRANSACTION_READ_COMMITTED);
+			given(con.isValid(anyInt())).willReturn(true);
+			this.physicalConnections.add(con);
+			return con;
+		});
+	}
+
+	@AfterEach
+	public void destroy() {
+		this.dataSource.destroy();
+	}
+
+
+	@Test
+	public void connectionReturnedToPoolOnClose() throws Exception {
+		Connection first = this.dataSource.getConnection();
+		assertThat(this.dataSource.getActiveConnections()).isEqualTo(1);
+		first.close();
+		assertThat(first.isClosed()).isTrue();
+		assertThat(this.dataSource.getIdleConnections()).isEqualTo(1);
+
+		Connection second = this.dataSource.getConnection();
+		assertThat(second).isNotSameAs(first);
+		assertThat(DataSourceUtils.getTargetConnection(second)).isSameAs(this.physicalConnections.get(0));
+		second.close();
+
+		verify(this.target, times(1)).getConnection();
+		verify(this.physicalConnections.get(0), never()).close();
+		assertThat(this.dataSource.getBorrowCount()).isEqualTo(2);
+		assertThat(this.dataSource.getCreatedConnectionCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void closedHandleRejectsFurtherUse() throws Exception {
+		Connection con = this.dataSource.getConnection();
+		con.close();
+		con.close();
+
+		assertThatExceptionOfType(SQLException.class).isThrownBy(con::createStatement);
+		assertThat(this.dataSource.getIdleConnections()).isEqualTo(1);
+	}
+
+	@Test
+	public void borrowTimesOutWhenPoolExhausted() throws Exception {
+		this.dataSource.setMaxPoolSize(1);
+		this.dataSource.setConnectionTimeout(Duration.ofMillis(50));
+		Connection con = this.dataSource.getConnection();
+
+		assertThatExceptionOfType(SQLTransientConnectionException.class).isThrownBy(this.dataSource::getConnection);
+		assertThat(this.dataSource.getTimeoutCount()).isEqualTo(1);
+
+		con.close();
+		this.dataSource.getConnection().close();
+		assertThat(this.dataSource.getTotalConnections()).isEqualTo(1);
+	}
+
+	@Test
+	public void waitingThreadReceivesReturnedConnection() throws Exception {
+		this.dataSource.setMaxPoolSize(1);
+		Connection con = this.dataSource.getConnection();
+
+		CompletableFuture<Connection> waiting = CompletableFuture.supplyAsync(() -> {
+			try {
+				return DataSourceUtils.getTargetConnection(this.dataSource.getConnection());
+			}
+			catch (SQLException ex) {
+				throw new IllegalStateException(ex);
+			}
+		});
+		while (this.dataSource.getThreadsAwaitingConnection() == 0 && !waiting.isDone()) {
+			Thread.sleep(5);
+		}
+		con.close();
+
+		assertThat(waiting.get(5, TimeUnit.SECONDS)).isSameAs(this.physicalConnections.get(0));
+		assertThat(this.physicalConnections).hasSize(1);
+	}
+
+	@Test
+	public void waitingThreadReceivesConnectionCreatedInBackground() throws Exception {
+		CountDownLatch creating = new CountDownLatch(1);
+		CountDownLatch proceed = new CountDownLatch(1);
+		Connection con = mock(Connection.class);
+		given(con.getAutoCommit()).willReturn(true);
+		given(con.isValid(anyInt())).willReturn(true);
+		given(this.target.getConnection()).willAnswer(invocation -> {
+			creating.countDown();
+			proceed.await(5, TimeUnit.SECONDS);
+			return con;
+		});
+		this.dataSource.setMaxPoolSize(1);
+		this.dataSource.setMinIdle(1);
+		this.dataSource.afterPropertiesSet();
+		assertThat(creating.await(5, TimeUnit.SECONDS)).isTrue();
+
+		// Pool slot reserved by the housekeeper: the borrower has to wait for it
+		CompletableFuture<Connection> waiting = CompletableFuture.supplyAsync(() -> {
+			try {
+				return DataSourceUtils.getTargetConnection(this.dataSource.getConnection());
+			}
+			catch (SQLException ex) {
+				throw new IllegalStateException(ex);
+			}
+		});
+		Thread.sleep(50);
+		assertThat(waiting).isNotDone();
+		proceed.countDown();
+
+		assertThat(waiting.get(5, TimeUnit.SECONDS)).isSameAs(con);
+		verify(this.target, times(1)).getConnection();
+	}
+
+	@Test
+	public void concurrentCloseReturnsConnectionOnce() throws Exception {
+		Connection con = this.dataSource.getConnection();
+		con.setAutoCommit(false);
+
+		CompletableFuture<?>[] closing = new CompletableFuture<?>[8];
+		for (int i = 0; i < closing.length; i++) {
+			closing[i] = CompletableFuture.runAsync(() -> {
+				try {
+					con.close();
+				}
+				catch (SQLException ex) {
+					throw new IllegalStateException(ex);
+				}
+			});
+		}
+		CompletableFuture.allOf(closing).get(5, TimeUnit.SECONDS);
+
+		verify(this.physicalConnections.get(0), times(1)).rollback();
+		verify(this.physicalConnections.get(0), times(1)).setAutoCommit(true);
+		assertThat(this.dataSource.getIdleConnections()).isEqualTo(1);
+		assertThat(this.dataSource.getThreadsAwaitingConnection()).isEqualTo(0);
+	}
+
+	@Test
+	public void invalidConnectionReplacedOnBorrow() throws Exception {
+		this.dataSource.setValidationInterval(Duration.ZERO);
+		this.dataSource.getConnection().close();
+		Connection invalid = this.physicalConnections.get(0);
+		given(invalid.isValid(anyInt())).willReturn(false);
+
+		Connection con = this.dataSource.getConnection();
+		assertThat(DataSourceUtils.getTargetConnection(con)).isSameAs(this.physicalConnections.get(1));
+		verify(invalid).close();
+		assertThat(this.dataSource.getTotalConnections()).isEqualTo(1);
+	}
+
+	@Test
+	public void brokenConnectionDiscardedOnReturn() throws Exception {
+		Connection con = this.dataSource.getConnection();
+		Connection physical = this.physicalConnections.get(0);
+		given(physical.createStatement()).willThrow(new SQLException("Connection reset", "08S01"));
+
+		assertThatExceptionOfType(SQLException.class).isThrownBy(con::createStatement);
+		con.close();
+
+		verify(physical).close();
+		assertThat(this.dataSource.getTotalConnections()).isEqualTo(0);
+	}
+
+	@Test
+	public void connectionStateResetOnReturn() throws Exception {
+		Connection con = this.dataSource.getConnection();
+		con.setAutoCommit(false);
+		con.setReadOnly(true);
+		con.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+		con.close();
+
+		Connection physical = this.physicalConnections.get(0);
+		verify(physical).rollback();
+		verify(physical).setAutoCommit(true);
+		verify(physical).setReadOnly(false);
+		verify(physical).setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+	}
+
+	@Test
+	public void transactionReusesSingleBorrowedConnection() throws Exception {
+		TransactionTemplate tt = new TransactionTemplate(new DataSourceTransactionManager(this.dataSource));
+		tt.execute(status -> {
+			Connection first = DataSourceUtils.getConnection(this.dataSource);
+			Connection second = DataSourceUtils.getConnection(this.dataSource);
+			assertThat(second).isSameAs(first);
+			assertThat(this.dataSource.getActiveConnections()).isEqualTo(1);
+			DataSourceUtils.releaseConnection(second, this.dataSource);
+			return null;
+		});
+
+		assertThat(this.dataSource.getBorrowCount()).isEqualTo(1);
+		assertThat(this.dataSource.getIdleConnections()).isEqualTo(1);
+		Connection physical = this.physicalConnections.get(0);
+		verify(physical).commit();
+		verify(physical, times(1)).setAutoCommit(true);
+		verify(physical, never()).rollback();
+	}
+
+	@Test
+	public void leakDetection() throws Exception {
+		this.dataSource.setLeakDetectionThreshold(Duration.ofMillis(1));
+		Connection con = this.dataSource.getConnection();
+		Thread.sleep(10);
+
+		this.dataSource.runHousekeeping();
+		this.dataSource.runHousekeeping();
+		assertThat(this.dataSource.getLeakCount()).isEqualTo(1);
+		con.close();
+	}
+
+	@Test
+	public void idleConnectionsEvictedDownToMinIdle() throws Exception {
+		this.dataSource.setIdleTimeout(Duration.ofMillis(1));
+		this.dataSource.setMinIdle(1);
+		Connection first = this.dataSource.getConnection();
+		Connection second = this.dataSource.getConnection();
+		first.close();
+		second.close();
+		Thread.sleep(10);
+
+		this.dataSource.runHousekeeping();
+		assertThat(this.dataSource.getTotalConnections()).isEqualTo(1);
+		assertThat(this.dataSource.getIdleConnections()).isEqualTo(1);
+	}
+
+	@Test
+	public void minIdleConnectionsCreated() throws Exception {
+		this.dataSource.setMinIdle(2);
+
+		this.dataSource.runHousekeeping();
+		assertThat(this.dataSource.getIdleConnections()).isEqualTo(2);
+		assertThat(this.physicalConnections).hasSize(2);
+	}
+
+	@Test
+	public void destroyClosesConnections() throws Exception {
+		Connection idle = this.dataSource.getConnection();
+		Connection active = this.dataSource.getConnection();
+		idle.close();
+
+		this.dataSource.destroy();
+		verify(this.physicalConnections.get(0)).close();
+		verify(this.physicalConnections.get(1), never()).close();
+		assertThatExceptionOfType(SQLException.class).isThrownBy(this.dataSource::getConnection);
+
+		active.close();
+		verify(this.physicalConnections.get(1)).close();
+		assertThat(this.dataSource.getTotalConnections()).isEqualTo(0);
+	}
+
+}
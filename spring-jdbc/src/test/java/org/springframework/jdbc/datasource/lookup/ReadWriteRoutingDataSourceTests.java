@@ -0,0 +1,231 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.lookup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.ReadWriteRoutingDataSource.LoadBalancingStrategy;
+import org.springframework.jdbc.datasource.lookup.ReadWriteRoutingDataSource.RoutingTarget;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link ReadWriteRoutingDataSource}.
+ */
+public class ReadWriteRoutingDataSourceTests {
+
+	private final DataSource primary = mock(DataSource.class);
+
+	private final DataSource replica1 = mock(DataSource.class);
+
+	private final DataSource replica2 = mock(DataSource.class);
+
+	private final Connection primaryConnection = mock(Connection.class);
+
+	private final Connection replica1Connection = mock(Connection.class);
+
+	private final Connection replica2Connection = mock(Connection.class);
+
+	private final ReadWriteRoutingDataSource router = new ReadWriteRoutingDataSource();
+
+
+	@BeforeEach
+	public void setup() throws Exception {
+		given(this.primary.getConnection()).willReturn(this.primaryConnection);
+		given(this.replica1.getConnection()).willReturn(this.replica1Connection);
+		given(this.replica2.getConnection()).willReturn(this.replica2Connection);
+		Map<String, DataSource> replicas = new LinkedHashMap<>();
+		replicas.put("replica1", this.replica1);
+		replicas.put("replica2", this.replica2);
+		this.router.setDefaultTargetDataSource(this.primary);
+		this.router.setReplicaDataSources(replicas);
+	}
+
+	@AfterEach
+	public void resetReadOnly() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+	}
+
+
+	@Test
+	public void writeConnectionsFromPrimary() throws Exception {
+		this.router.afterPropertiesSet();
+		Connection con = this.router.getConnection();
+
+		assertThat(DataSourceUtils.getTargetConnection(con)).isSameAs(this.primaryConnection);
+		assertThat(this.router.getPrimaryTarget().getActiveConnections()).isEqualTo(1);
+		con.close();
+		verify(this.primaryConnection).close();
+		assertThat(this.router.getPrimaryTarget().getActiveConnections()).isEqualTo(0);
+		assertThat(this.router.getPrimaryTarget().getConnectionCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void readOnlyConnectionsBalancedByOutstandingConnections() throws Exception {
+		this.router.afterPropertiesSet();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		Connection first = this.router.getConnection();
+		Connection second = this.router.getConnection();
+		assertThat(DataSourceUtils.getTargetConnection(first)).isNotSameAs(this.primaryConnection);
+		assertThat(DataSourceUtils.getTargetConnection(second)).isNotSameAs(this.primaryConnection)
+				.isNotSameAs(DataSourceUtils.getTargetConnection(first));
+
+		first.close();
+		first.close();
+		Connection third = this.router.getConnection();
+		assertThat(DataSourceUtils.getTargetConnection(third)).isSameAs(DataSourceUtils.getTargetConnection(first));
+
+		for (RoutingTarget replica : this.router.getReplicaTargets()) {
+			assertThat(replica.getActiveConnections()).isEqualTo(1);
+		}
+		verify(this.primary, never()).getConnection();
+	}
+
+	@Test
+	public void readOnlyConnectionsWeightedByLatency() throws Exception {
+		this.router.setLoadBalancingStrategy(LoadBalancingStrategy.LATENCY_WEIGHTED);
+		this.router.afterPropertiesSet();
+		RoutingTarget fast = this.router.getReplicaTargets().get(0);
+		RoutingTarget slow = this.router.getReplicaTargets().get(1);
+		fast.recordLatency(Duration.ofMillis(1).toNanos());
+		slow.recordLatency(Duration.ofMillis(200).toNanos());
+		assertThat(slow.getAverageLatency()).isEqualTo(Duration.ofMillis(200));
+
+		int fastCount = 0;
+		for (int i = 0; i < 1000; i++) {
+			if (this.router.selectReplica(null) == fast) {
+				fastCount++;
+			}
+		}
+		assertThat(fastCount).isGreaterThan(950);
+	}
+
+	@Test
+	public void latencyMeasuredForObtainingConnection() throws Exception {
+		given(this.replica2.getConnection()).willAnswer(invocation -> {
+			Thread.sleep(50);
+			return this.replica2Connection;
+		});
+		this.router.afterPropertiesSet();
+		RoutingTarget fast = this.router.getReplicaTargets().get(0);
+		RoutingTarget slow = this.router.getReplicaTargets().get(1);
+
+		Connection held = fast.getConnection();
+		slow.getConnection().close();
+		held.close();
+
+		assertThat(slow.getAverageLatency()).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+		assertThat(fast.getAverageLatency()).isLessThan(slow.getAverageLatency());
+	}
+
+	@Test
+	public void failingReplicaEjected() throws Exception {
+		this.router.setFailureThreshold(2);
+		this.router.afterPropertiesSet();
+		given(this.replica1.getConnection()).willThrow(new SQLException("down"));
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		for (int i = 0; i < 4; i++) {
+			Connection con = this.router.getConnection();
+			assertThat(DataSourceUtils.getTargetConnection(con)).isSameAs(this.replica2Connection);
+			con.close();
+		}
+
+		RoutingTarget failing = this.router.getReplicaTargets().get(0);
+		assertThat(failing.isEjected()).isTrue();
+		assertThat(failing.getFailureCount()).isEqualTo(2);
+		verify(this.replica1, times(2)).getConnection();
+	}
+
+	@Test
+	public void ejectedReplicaRetriedAfterEjectionDuration() throws Exception {
+		this.router.setFailureThreshold(1);
+		this.router.setEjectionDuration(Duration.ZERO);
+		this.router.afterPropertiesSet();
+		RoutingTarget target = this.router.getReplicaTargets().get(0);
+		given(this.replica1.getConnection()).willThrow(new SQLException("down")).willReturn(this.replica1Connection);
+
+		assertThatExceptionOfType(SQLException.class).isThrownBy(target::getConnection);
+		assertThat(target.isAvailable(System.nanoTime())).isTrue();
+		target.getConnection().close();
+		assertThat(target.isEjected()).isFalse();
+	}
+
+	@Test
+	public void readOnlyFallsBackToPrimaryWithoutReplicas() throws Exception {
+		given(this.replica1.getConnection()).willThrow(new SQLException("down"));
+		given(this.replica2.getConnection()).willThrow(new SQLException("down"));
+		this.router.afterPropertiesSet();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		Connection con = this.router.getConnection();
+		assertThat(DataSourceUtils.getTargetConnection(con)).isSameAs(this.primaryConnection);
+
+		this.router.setFallbackToPrimary(false);
+		assertThatExceptionOfType(SQLException.class).isThrownBy(this.router::getConnection);
+	}
+
+	@Test
+	public void readOnlyTransactionWithLazyConnectionDataSourceProxy() throws Exception {
+		this.router.afterPropertiesSet();
+		DataSource dataSource = new LazyConnectionDataSourceProxy(this.router);
+		long primaryConnections = this.router.getPrimaryTarget().getConnectionCount();
+		TransactionTemplate tt = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+		tt.setReadOnly(true);
+		tt.executeWithoutResult(status -> {
+			Connection con = DataSourceUtils.getConnection(dataSource);
+			assertThat(DataSourceUtils.getTargetConnection(con)).isIn(this.replica1Connection, this.replica2Connection);
+		});
+		tt.setReadOnly(false);
+		tt.executeWithoutResult(status -> {
+			Connection con = DataSourceUtils.getConnection(dataSource);
+			assertThat(DataSourceUtils.getTargetConnection(con)).isSameAs(this.primaryConnection);
+		});
+
+		long replicaConnections = 0;
+		for (RoutingTarget replica : this.router.getReplicaTargets()) {
+			replicaConnections += replica.getConnectionCount();
+			assertThat(replica.getActiveConnections()).isEqualTo(0);
+		}
+		assertThat(replicaConnections).isEqualTo(1);
+		assertThat(this.router.getPrimaryTarget().getConnectionCount()).isEqualTo(primaryConnections + 1);
+	}
+
+}
@@ -0,0 +1,374 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.r2dbc.core;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.dao.TypeMismatchDataAccessException;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link BiFunction Mapping function} implementation that converts a row
+ * into a new instance of the specified mapped target class: a data class
+ * or record bound through its constructor, a JavaBean bound through its
+ * setters, or a mixture of both.
+ *
+ * <p>Constructor parameters and bean properties are matched to columns by
+ * name, either directly or after converting the name from camelCase to
+ * underscore notation, ignoring case. Parameter names need to be available
+ * at runtime, e.g. through compilation with {@code -parameters}.
+ *
+ * <p>Name matching happens once per result shape, i.e. per sequence of column
+ * names: it results in a mapping plan of column indexes, which gets reused
+ * for all rows and for subsequent executions with the same column names.
+ * Values are read through {@link Row#get(int)} and converted through the
+ * configured {@link ConversionService} only if not already of the target type.
+ *
+ * <p>For a {@linkplain BeanUtils#isSimpleValueType simple value type} such as
+ * {@code String} or {@code Integer}, the single column of each row is converted
+ * to the mapped class.
+ *
+ * @param <T> the result type
+ * @since 5.3.6
+ * @see DatabaseClient.GenericExecuteSpec#mapTo(Class)
+ */
+public class DataClassRowMapper<T> implements BiFunction<Row, RowMetadata, T> {
+
+	private static final int PLAN_CACHE_LIMIT = 32;
+
+	private static final Map<Class<?>, DataClassRowMapper<?>> sharedInstances = new ConcurrentReferenceHashMap<>();
+
+
+	private final Class<T> mappedClass;
+
+	private final ConversionService conversionService;
+
+	private final boolean simpleValueType;
+
+	@Nullable
+	private final Constructor<T> mappedConstructor;
+
+	private final String[] constructorParameterNames;
+
+	private final Class<?>[] constructorParameterTypes;
+
+	private final Map<String, PropertyDescriptor> mappedProperties = new HashMap<>();
+
+	private final ConcurrentLruCache<List<String>, MappingPlan> mappingPlans =
+			new ConcurrentLruCache<>(PLAN_CACHE_LIMIT, this::buildMappingPlan);
+
+	@Nullable
+	private volatile BoundMappingPlan lastMappingPlan;
+
+
+	/**
+	 * Create a new {@code DataClassRowMapper} for the given class,
+	 * using the shared {@link DefaultConversionService}.
+	 * @param mappedClass the class that each row should be mapped to
+	 */
+	public DataClassRowMapper(Class<T> mappedClass) {
+		this(mappedClass, DefaultConversionService.getSharedInstance());
+	}
+
+	/**
+	 * Create a new {@code DataClassRowMapper} for the given class.
+	 * @param mappedClass the class that each row should be mapped to
+	 * @param conversionService the {@link ConversionService} for converting
+	 * column values to constructor parameter and property types
+	 */
+	public DataClassRowMapper(Class<T> mappedClass, ConversionService conversionService) {
+		Assert.notNull(mappedClass, "Mapped class must not be null");
+		Assert.notNull(conversionService, "ConversionService must not be null");
+		this.mappedClass = mappedClass;
+		this.conversionService = conversionService;
+		this.simpleValueType = BeanUtils.isSimpleValueType(ClassUtils.resolvePrimitiveIfNecessary(mappedClass));
+		if (this.simpleValueType) {
+			this.mappedConstructor = null;
+			this.constructorParameterNames = new String[0];
+			this.constructorParameterTypes = new Class<?>[0];
+		}
+		else {
+			this.mappedConstructor = BeanUtils.getResolvableConstructor(mappedClass);
+			ReflectionUtils.makeAccessible(this.mappedConstructor);
+			this.constructorParameterTypes = this.mappedConstructor.getParameterTypes();
+			this.constructorParameterNames = (this.constructorParameterTypes.length > 0 ?
+					BeanUtils.getParameterNames(this.mappedConstructor) : new String[0]);
+			for (PropertyDescriptor pd : BeanUtils.getPropertyDescriptors(mappedClass)) {
+				if (pd.getWriteMethod() != null) {
+					this.mappedProperties.put(lowerCaseName(pd.getName()), pd);
+					this.mappedProperties.put(underscoreName(pd.getName()), pd);
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Return the class that rows get mapped to.
+	 */
+	public final Class<T> getMappedClass() {
+		return this.mappedClass;
+	}
+
+	@Override
+	public T apply(Row row, RowMetadata rowMetadata) {
+		if (this.simpleValueType) {
+			return convertValue(row.get(0), this.mappedClass, "column 1");
+		}
+		MappingPlan plan = getMappingPlan(rowMetadata);
+
+		T mappedObject;
+		Constructor<T> constructor = this.mappedConstructor;
+		Assert.state(constructor != null, "No mapped constructor");
+		int[] constructorColumns = plan.constructorColumns;
+		if (constructorColumns.length > 0) {
+			Object[] args = new Object[constructorColumns.length];
+			for (int i = 0; i < args.length; i++) {
+				args[i] = convertValue(row.get(constructorColumns[i]), this.constructorParameterTypes[i],
+						this.constructorParameterNames[i]);
+			}
+			mappedObject = BeanUtils.instantiateClass(constructor, args);
+		}
+		else {
+			mappedObject = BeanUtils.instantiateClass(constructor);
+		}
+
+		for (PropertyMapping mapping : plan.propertyMappings) {
+			Object value = convertValue(row.get(mapping.column), mapping.valueType, mapping.propertyName);
+			if (value != null || !mapping.primitive) {
+				mapping.write(mappedObject, value);
+			}
+		}
+		return mappedObject;
+	}
+
+	/**
+	 * Return the mapping plan for the given row metadata, reusing the plan of the
+	 * previous row as long as its metadata or at least its column names are the same.
+	 */
+	private MappingPlan getMappingPlan(RowMetadata rowMetadata) {
+		BoundMappingPlan bound = this.lastMappingPlan;
+		if (bound != null && bound.rowMetadata == rowMetadata) {
+			return bound.plan;
+		}
+		List<String> columns = new ArrayList<>(rowMetadata.getColumnNames());
+		MappingPlan plan = (bound != null && bound.plan.columns.equals(columns) ?
+				bound.plan : this.mappingPlans.get(columns));
+		this.lastMappingPlan = new BoundMappingPlan(rowMetadata, plan);
+		return plan;
+	}
+
+	private MappingPlan buildMappingPlan(List<String> columns) {
+		Map<String, Integer> columnIndexes = new HashMap<>();
+		for (int i = 0; i < columns.size(); i++) {
+			columnIndexes.putIfAbsent(lowerCaseName(StringUtils.delete(columns.get(i), " ")), i);
+		}
+
+		int[] constructorColumns = new int[this.constructorParameterNames.length];
+		boolean[] consumed = new boolean[columns.size()];
+		for (int i = 0; i < constructorColumns.length; i++) {
+			String name = this.constructorParameterNames[i];
+			Integer index = columnIndexes.get(lowerCaseName(name));
+			if (index == null) {
+				index = columnIndexes.get(underscoreName(name));
+			}
+			if (index == null) {
+				throw new InvalidDataAccessApiUsageException("No column found for constructor parameter '" +
+						name + "' of " + this.mappedClass.getName() + " in " + columns);
+			}
+			constructorColumns[i] = index;
+			consumed[index] = true;
+		}
+
+		List<PropertyMapping> propertyMappings = new ArrayList<>();
+		for (int i = 0; i < columns.size(); i++) {
+			if (!consumed[i]) {
+				PropertyDescriptor pd = this.mappedProperties.get(
+						lowerCaseName(StringUtils.delete(columns.get(i), " ")));
+				if (pd != null) {
+					propertyMappings.add(new PropertyMapping(i, pd));
+				}
+			}
+		}
+		return new MappingPlan(columns, constructorColumns, propertyMappings.toArray(new PropertyMapping[0]));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Nullable
+	private <V> V convertValue(@Nullable Object value, Class<V> type, String name) {
+		if (value == null || ClassUtils.resolvePrimitiveIfNecessary(type).isInstance(value)) {
+			return (V) value;
+		}
+		if (!this.conversionService.canConvert(value.getClass(), type)) {
+			throw new TypeMismatchDataAccessException("Cannot convert value of type [" +
+					value.getClass().getName() + "] to required type [" + type.getName() + "] for " + name);
+		}
+		return this.conversionService.convert(value, type);
+	}
+
+	private static String lowerCaseName(String name) {
+		return name.toLowerCase(Locale.US);
+	}
+
+	/**
+	 * Convert a name in camelCase to an underscored name in lower case.
+	 */
+	private static String underscoreName(String name) {
+		StringBuilder result = new StringBuilder(name.length() + 4);
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (Character.isUpperCase(c)) {
+				result.append('_').append(Character.toLowerCase(c));
+			}
+			else {
+				result.append(c);
+			}
+		}
+		return result.toString();
+	}
+
+
+	/**
+	 * Return a shared {@code DataClassRowMapper} for the given class, using the
+	 * shared {@link DefaultConversionService}, so that its mapping plans get
+	 * reused across executions.
+	 * @param mappedClass the class that each row should be mapped to
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> DataClassRowMapper<T> forClass(Class<T> mappedClass) {
+		return (DataClassRowMapper<T>) sharedInstances.computeIfAbsent(mappedClass, DataClassRowMapper::new);
+	}
+
+
+	/**
+	 * Column index bindings for a specific sequence of column names.
+	 */
+	private static final class MappingPlan {
+
+		final List<String> columns;
+
+		final int[] constructorColumns;
+
+		final PropertyMapping[] propertyMappings;
+
+		MappingPlan(List<String> columns, int[] constructorColumns, PropertyMapping[] propertyMappings) {
+			this.columns = columns;
+			this.constructorColumns = constructorColumns;
+			this.propertyMappings = propertyMappings;
+		}
+	}
+
+
+	/**
+	 * Binding of a column index to a bean property setter.
+	 */
+	private static final class PropertyMapping {
+
+		final int column;
+
+		final String propertyName;
+
+		final Class<?> valueType;
+
+		final boolean primitive;
+
+		final Method writeMethod;
+
+		@Nullable
+		final MethodHandle writeHandle;
+
+		PropertyMapping(int column, PropertyDescriptor pd) {
+			this.column = column;
+			this.propertyName = pd.getName();
+			this.valueType = pd.getPropertyType();
+			this.primitive = this.valueType.isPrimitive();
+			Method writeMethod = pd.getWriteMethod();
+			Assert.state(writeMethod != null, "No write method");
+			this.writeMethod = writeMethod;
+			this.writeHandle = createWriteHandle(writeMethod);
+		}
+
+		void write(Object mappedObject, @Nullable Object value) {
+			try {
+				if (this.writeHandle != null) {
+					this.writeHandle.invokeExact(mappedObject, value);
+				}
+				else {
+					this.writeMethod.invoke(mappedObject, value);
+				}
+			}
+			catch (Throwable ex) {
+				throw new InvalidDataAccessApiUsageException(
+						"Failed to set property '" + this.propertyName + "' to value [" + value + "]", ex);
+			}
+		}
+
+		@Nullable
+		private static MethodHandle createWriteHandle(Method writeMethod) {
+			try {
+				ReflectionUtils.makeAccessible(writeMethod);
+				return MethodHandles.lookup().unreflect(writeMethod)
+						.asType(MethodType.methodType(void.class, Object.class, Object.class));
+			}
+			catch (Exception ex) {
+				// Not accessible -> reflective invocation instead
+				return null;
+			}
+		}
+	}
+
+
+	/**
+	 * A mapping plan along with the row metadata it was last used for.
+	 */
+	private static final class BoundMappingPlan {
+
+		final RowMetadata rowMetadata;
+
+		final MappingPlan plan;
+
+		BoundMappingPlan(RowMetadata rowMetadata, MappingPlan plan) {
+			this.rowMetadata = rowMetadata;
+			this.plan = plan;
+		}
+	}
+
+}
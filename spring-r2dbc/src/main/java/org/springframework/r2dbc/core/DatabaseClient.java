@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.r2dbc.core;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
@@ -26,6 +28,7 @@ import io.r2dbc.spi.ConnectionFactory;
 import io.r2dbc.spi.Row;
 import io.r2dbc.spi.RowMetadata;
 import io.r2dbc.spi.Statement;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import org.springframework.r2dbc.core.binding.BindMarkersFactory;
@@ -88,6 +91,38 @@ public interface DatabaseClient extends ConnectionAccessor {
 	 */
 	GenericExecuteSpec sql(Supplier<String> sqlSupplier);
 
+	/**
+	 * Specify a parameterized {@code sql} statement to run for multiple sets
+	 * of bindings. The binding sets are executed in chunks, each chunk as a
+	 * single {@link Statement} with {@link Statement#add()} separating its
+	 * binding sets, instead of one round-trip per binding set. The SQL string
+	 * can contain either native parameter bind markers or named parameters
+	 * (e.g. {@literal :foo, :bar}) when {@link NamedParameterExpander} is enabled.
+	 * <p>The default implementation throws {@link UnsupportedOperationException};
+	 * clients obtained through {@link #create} or {@link #builder()} support it.
+	 * @param sql the SQL statement
+	 * @return a new {@link BatchExecuteSpec}
+	 * @since 5.3.6
+	 * @see Statement#add()
+	 */
+	default BatchExecuteSpec batch(String sql) {
+		throw new UnsupportedOperationException("Batch execution not supported by " + getClass().getName());
+	}
+
+	/**
+	 * Specify static SQL statements to run as a {@link io.r2dbc.spi.Batch},
+	 * in chunks of {@link StatementBatchSpec#chunkSize chunkSize} statements
+	 * per {@link io.r2dbc.spi.Connection#createBatch() Batch}.
+	 * <p>The default implementation throws {@link UnsupportedOperationException};
+	 * clients obtained through {@link #create} or {@link #builder()} support it.
+	 * @param statements the SQL statements, without bind markers
+	 * @return a new {@link StatementBatchSpec}
+	 * @since 5.3.6
+	 */
+	default StatementBatchSpec batch(List<String> statements) {
+		throw new UnsupportedOperationException("Batch execution not supported by " + getClass().getName());
+	}
+
 
 	// Static factory methods
 
@@ -231,6 +266,23 @@ public interface DatabaseClient extends ConnectionAccessor {
 		 */
 		<R> RowsFetchSpec<R> map(BiFunction<Row, RowMetadata, R> mappingFunction);
 
+		/**
+		 * Configure a result mapping to the given class and enter the execution stage.
+		 * <p>Rows are mapped by a shared {@link DataClassRowMapper} for the given class,
+		 * binding columns by index according to a mapping plan that is determined
+		 * once per sequence of column names and reused across executions.
+		 * @param mappedClass the class that each row should be mapped to: a data
+		 * class, record or JavaBean, or a simple value type for single-column results
+		 * @param <R> the result type
+		 * @return a {@link FetchSpec} for configuration what to fetch
+		 * @since 5.3.6
+		 * @see DataClassRowMapper#forClass(Class)
+		 */
+		default <R> RowsFetchSpec<R> mapTo(Class<R> mappedClass) {
+			Assert.notNull(mappedClass, "Mapped class must not be null");
+			return map(DataClassRowMapper.forClass(mappedClass));
+		}
+
 		/**
 		 * Perform the SQL call and retrieve the result by entering the execution stage.
 		 */
@@ -244,4 +296,106 @@ public interface DatabaseClient extends ConnectionAccessor {
 		Mono<Void> then();
 	}
 
+
+	/**
+	 * Contract for specifying the binding sets of a batch along with options
+	 * leading to the execution.
+	 * @since 5.3.6
+	 */
+	interface BatchExecuteSpec {
+
+		/**
+		 * Add a binding set with values identified by parameter name.
+		 * Values can be either scalar values or {@link Parameter} objects;
+		 * use {@link Parameter#empty(Class)} for {@code null} values.
+		 * @param bindings the values to bind, keyed by parameter name
+		 */
+		BatchExecuteSpec add(Map<String, ?> bindings);
+
+		/**
+		 * Add a binding set with values identified by their zero based index.
+		 * Values can be either scalar values or {@link Parameter} objects;
+		 * use {@link Parameter#empty(Class)} for {@code null} values.
+		 * @param values the values to bind, in order of their index
+		 */
+		BatchExecuteSpec add(Object... values);
+
+		/**
+		 * Add the given binding sets with values identified by parameter name.
+		 * @param bindings the binding sets to add
+		 * @see #add(Map)
+		 */
+		BatchExecuteSpec addAll(Collection<? extends Map<String, ?>> bindings);
+
+		/**
+		 * Configure the maximum number of binding sets to execute per
+		 * {@link Statement}. Default is 1000.
+		 * @param chunkSize the number of binding sets per statement execution
+		 */
+		BatchExecuteSpec chunkSize(int chunkSize);
+
+		/**
+		 * Add the given filter to the end of the filter chain, applied to the
+		 * Statement of each chunk.
+		 * @param filterFunction the filter to be added to the chain
+		 * @see GenericExecuteSpec#filter(Function)
+		 */
+		default BatchExecuteSpec filter(Function<? super Statement, ? extends Statement> filterFunction) {
+			Assert.notNull(filterFunction, "Filter function must not be null");
+			return filter((statement, next) -> next.execute(filterFunction.apply(statement)));
+		}
+
+		/**
+		 * Add the given filter to the end of the filter chain, applied to the
+		 * Statement of each chunk.
+		 * @param filter the filter to be added to the chain
+		 * @see GenericExecuteSpec#filter(StatementFilterFunction)
+		 */
+		BatchExecuteSpec filter(StatementFilterFunction filter);
+
+		/**
+		 * Perform the batch and emit the number of updated rows per chunk,
+		 * with all chunks executed in order on a single Connection.
+		 * @return a {@link Flux} emitting the aggregated update count of each chunk
+		 */
+		Flux<Integer> rowsUpdated();
+
+		/**
+		 * Perform the batch and return a {@link Mono} that completes without
+		 * result once all chunks have been executed.
+		 * @return a {@link Mono} ignoring its payload (actively dropping)
+		 */
+		Mono<Void> then();
+	}
+
+
+	/**
+	 * Contract for specifying options of a batch of static SQL statements
+	 * leading to the execution.
+	 * @since 5.3.6
+	 */
+	interface StatementBatchSpec {
+
+		/**
+		 * Configure the maximum number of statements to execute per
+		 * {@link io.r2dbc.spi.Batch}. Default is 1000.
+		 * @param chunkSize the number of statements per batch execution
+		 */
+		StatementBatchSpec chunkSize(int chunkSize);
+
+		/**
+		 * Perform the batch and emit the number of updated rows per chunk,
+		 * with all chunks executed in order on a single Connection.
+		 * @return a {@link Flux} emitting the aggregated update count of each chunk
+		 */
+		Flux<Integer> rowsUpdated();
+
+		/**
+		 * Perform the batch and return a {@link Mono} that completes without
+		 * result once all chunks have been executed.
+		 * @return a {@link Mono} ignoring its payload (actively dropping)
+		 */
+		Mono<Void> then();
+	}
+
 }
@@ -20,6 +20,9 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -30,6 +33,7 @@ import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import io.r2dbc.spi.Batch;
 import io.r2dbc.spi.Connection;
 import io.r2dbc.spi.ConnectionFactory;
 import io.r2dbc.spi.R2dbcException;
@@ -64,6 +68,8 @@ import org.springframework.util.StringUtils;
  */
 class DefaultDatabaseClient implements DatabaseClient {
 
+	private static final int DEFAULT_BATCH_CHUNK_SIZE = 1000;
+
 	private final Log logger = LogFactory.getLog(getClass());
 
 	private final BindMarkersFactory bindMarkersFactory;
@@ -103,6 +109,21 @@ class DefaultDatabaseClient implements DatabaseClient {
 		return new DefaultGenericExecuteSpec(sqlSupplier);
 	}
 
+	@Override
+	public BatchExecuteSpec batch(String sql) {
+		Assert.hasText(sql, "SQL must not be null or empty");
+		return new DefaultBatchExecuteSpec(sql, null, DEFAULT_BATCH_CHUNK_SIZE, StatementFilterFunction.EMPTY_FILTER);
+	}
+
+	@Override
+	public StatementBatchSpec batch(List<String> statements) {
+		Assert.notNull(statements, "Statements must not be null");
+		for (String statement : statements) {
+			Assert.hasText(statement, "Statements must not contain empty SQL");
+		}
+		return new DefaultStatementBatchSpec(new ArrayList<>(statements), DEFAULT_BATCH_CHUNK_SIZE);
+	}
+
 	@Override
 	public <T> Mono<T> inConnection(Function<Connection, Mono<T>> action) throws DataAccessException {
 		Assert.notNull(action, "Callback object must not be null");
@@ -195,6 +216,14 @@ class DefaultDatabaseClient implements DatabaseClient {
 				.collect(Collectors.summingInt(Integer::intValue));
 	}
 
+	private static <T> List<List<T>> partition(List<T> elements, int chunkSize) {
+		List<List<T>> chunks = new ArrayList<>((elements.size() + chunkSize - 1) / chunkSize);
+		for (int i = 0; i < elements.size(); i += chunkSize) {
+			chunks.add(elements.subList(i, Math.min(i + chunkSize, elements.size())));
+		}
+		return chunks;
+	}
+
 	/**
 	 * Determine SQL from potential provider object.
 	 * @param sqlProvider object that's potentially a SqlProvider
@@ -455,6 +484,303 @@ class DefaultDatabaseClient implements DatabaseClient {
 	}
 
 
+	/**
+	 * Default {@link DatabaseClient.BatchExecuteSpec} implementation.
+	 */
+	class DefaultBatchExecuteSpec implements BatchExecuteSpec {
+
+		final String sql;
+
+		@Nullable
+		final BindingSetNode bindings;
+
+		final int chunkSize;
+
+		final StatementFilterFunction filterFunction;
+
+		DefaultBatchExecuteSpec(String sql, @Nullable BindingSetNode bindings, int chunkSize,
+				StatementFilterFunction filterFunction) {
+
+			this.sql = sql;
+			this.bindings = bindings;
+			this.chunkSize = chunkSize;
+			this.filterFunction = filterFunction;
+		}
+
+		@Override
+		public DefaultBatchExecuteSpec add(Map<String, ?> bindings) {
+			Assert.notNull(bindings, "Bindings must not be null");
+			return withBindings(new BindingSetNode(this.bindings, BindingSet.byName(bindings)));
+		}
+
+		@Override
+		public DefaultBatchExecuteSpec add(Object... values) {
+			Assert.notNull(values, "Values must not be null");
+			return withBindings(new BindingSetNode(this.bindings, BindingSet.byIndex(values)));
+		}
+
+		@Override
+		public DefaultBatchExecuteSpec addAll(Collection<? extends Map<String, ?>> bindings) {
+			Assert.notNull(bindings, "Bindings must not be null");
+			BindingSetNode node = this.bindings;
+			for (Map<String, ?> binding : bindings) {
+				Assert.notNull(binding, "Bindings must not contain null elements");
+				node = new BindingSetNode(node, BindingSet.byName(binding));
+			}
+			return withBindings(node);
+		}
+
+		private DefaultBatchExecuteSpec withBindings(@Nullable BindingSetNode bindings) {
+			return new DefaultBatchExecuteSpec(this.sql, bindings, this.chunkSize, this.filterFunction);
+		}
+
+		@Override
+		public DefaultBatchExecuteSpec chunkSize(int chunkSize) {
+			Assert.isTrue(chunkSize > 0, "Chunk size must be greater than zero");
+			return new DefaultBatchExecuteSpec(this.sql, this.bindings, chunkSize, this.filterFunction);
+		}
+
+		@Override
+		public DefaultBatchExecuteSpec filter(StatementFilterFunction filter) {
+			Assert.notNull(filter, "Statement FilterFunction must not be null");
+			return new DefaultBatchExecuteSpec(
+					this.sql, this.bindings, this.chunkSize, this.filterFunction.andThen(filter));
+		}
+
+		@Override
+		public Flux<Integer> rowsUpdated() {
+			if (this.bindings == null) {
+				return Flux.empty();
+			}
+			List<List<BindingSet>> chunks = partition(this.bindings.toList(), this.chunkSize);
+			return inConnectionMany(new ConnectionFunction<>(this.sql, connection ->
+					Flux.fromIterable(chunks).concatMap(chunk -> executeChunk(connection, chunk))));
+		}
+
+		@Override
+		public Mono<Void> then() {
+			return rowsUpdated().then();
+		}
+
+		private Mono<Integer> executeChunk(Connection connection, List<BindingSet> chunk) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Executing SQL batch [" + this.sql + "] with " + chunk.size() + " binding sets");
+			}
+			// Binding sets expanding to different SQL (e.g. for collection parameters
+			// of different size) cannot share a Statement: group consecutive ones.
+			List<Statement> statements = new ArrayList<>(1);
+			Statement statement = null;
+			String statementSql = null;
+			for (BindingSet bindingSet : chunk) {
+				Map<String, Parameter> remainderByName = new LinkedHashMap<>(bindingSet.byName);
+				Map<Integer, Parameter> remainderByIndex = new LinkedHashMap<>(bindingSet.byIndex);
+				PreparedOperation<String> operation = null;
+				String sqlToUse = this.sql;
+				NamedParameterExpander expander = DefaultDatabaseClient.this.namedParameterExpander;
+				if (expander != null) {
+					List<String> parameterNames = expander.getParameterNames(this.sql);
+					MapBindParameterSource namedBindings = retrieveParameters(
+							bindingSet, parameterNames, remainderByName, remainderByIndex);
+					operation = expander.expand(this.sql, DefaultDatabaseClient.this.bindMarkersFactory, namedBindings);
+					sqlToUse = operation.toQuery();
+				}
+				if (statement == null || !sqlToUse.equals(statementSql)) {
+					if (logger.isTraceEnabled() && !sqlToUse.equals(this.sql)) {
+						logger.trace("Expanded SQL [" + sqlToUse + "]");
+					}
+					statement = connection.createStatement(sqlToUse);
+					statementSql = sqlToUse;
+					statements.add(statement);
+				}
+				else {
+					statement.add();
+				}
+				if (operation != null) {
+					operation.bindTo(new StatementWrapper(statement));
+				}
+				bindByName(statement, remainderByName);
+				bindByIndex(statement, remainderByIndex);
+			}
+			return Flux.fromIterable(statements)
+					.concatMap(it -> Flux.from(this.filterFunction.filter(it, DefaultDatabaseClient.this.executeFunction)))
+					.concatMap(Result::getRowsUpdated)
+					.reduce(0, Integer::sum)
+					.checkpoint("SQL batch \"" + this.sql + "\" [DatabaseClient]");
+		}
+
+		private MapBindParameterSource retrieveParameters(BindingSet bindingSet, List<String> parameterNames,
+				Map<String, Parameter> remainderByName, Map<Integer, Parameter> remainderByIndex) {
+
+			Map<String, Parameter> namedBindings = CollectionUtils.newLinkedHashMap(parameterNames.size());
+			for (String parameterName : parameterNames) {
+				Parameter parameter = bindingSet.byName.get(parameterName);
+				if (parameter != null) {
+					remainderByName.remove(parameterName);
+				}
+				else {
+					int index = parameterNames.indexOf(parameterName);
+					parameter = bindingSet.byIndex.get(index);
+					remainderByIndex.remove(index);
+				}
+				if (parameter == null) {
+					throw new InvalidDataAccessApiUsageException(
+							String.format("No parameter specified for [%s] in query [%s]", parameterName, this.sql));
+				}
+				namedBindings.put(parameterName, parameter);
+			}
+			return new MapBindParameterSource(namedBindings);
+		}
+
+		private void bindByName(Statement statement, Map<String, Parameter> byName) {
+			byName.forEach((name, parameter) -> {
+				Object value = parameter.getValue();
+				if (value != null) {
+					statement.bind(name, value);
+				}
+				else {
+					statement.bindNull(name, parameter.getType());
+				}
+			});
+		}
+
+		private void bindByIndex(Statement statement, Map<Integer, Parameter> byIndex) {
+			byIndex.forEach((i, parameter) -> {
+				Object value = parameter.getValue();
+				if (value != null) {
+					statement.bind(i, value);
+				}
+				else {
+					statement.bindNull(i, parameter.getType());
+				}
+			});
+		}
+	}
+
+
+	/**
+	 * Default {@link DatabaseClient.StatementBatchSpec} implementation.
+	 */
+	class DefaultStatementBatchSpec implements StatementBatchSpec {
+
+		final List<String> statements;
+
+		final int chunkSize;
+
+		DefaultStatementBatchSpec(List<String> statements, int chunkSize) {
+			this.statements = statements;
+			this.chunkSize = chunkSize;
+		}
+
+		@Override
+		public DefaultStatementBatchSpec chunkSize(int chunkSize) {
+			Assert.isTrue(chunkSize > 0, "Chunk size must be greater than zero");
+			return new DefaultStatementBatchSpec(this.statements, chunkSize);
+		}
+
+		@Override
+		public Flux<Integer> rowsUpdated() {
+			if (this.statements.isEmpty()) {
+				return Flux.empty();
+			}
+			List<List<String>> chunks = partition(this.statements, this.chunkSize);
+			return inConnectionMany(new ConnectionFunction<>(this.statements.get(0), connection ->
+					Flux.fromIterable(chunks).concatMap(chunk -> executeChunk(connection, chunk))));
+		}
+
+		@Override
+		public Mono<Void> then() {
+			return rowsUpdated().then();
+		}
+
+		private Mono<Integer> executeChunk(Connection connection, List<String> chunk) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Executing batch of " + chunk.size() + " SQL statements");
+			}
+			Batch batch = connection.createBatch();
+			for (String sql : chunk) {
+				batch.add(sql);
+			}
+			return Flux.from(batch.execute())
+					.concatMap(Result::getRowsUpdated)
+					.reduce(0, Integer::sum)
+					.checkpoint("SQL batch [DatabaseClient]");
+		}
+	}
+
+
+	/**
+	 * Immutable node of the binding sets added to a batch so far, linked to
+	 * the previously added ones: adding a binding set shares all previous
+	 * nodes instead of copying them, with specs derived from the same
+	 * predecessor not affecting each other.
+	 */
+	static final class BindingSetNode {
+
+		@Nullable
+		final BindingSetNode previous;
+
+		final BindingSet bindingSet;
+
+		final int size;
+
+		BindingSetNode(@Nullable BindingSetNode previous, BindingSet bindingSet) {
+			this.previous = previous;
+			this.bindingSet = bindingSet;
+			this.size = (previous != null ? previous.size + 1 : 1);
+		}
+
+		/**
+		 * Return the binding sets up to and including this node, in the order of addition.
+		 */
+		List<BindingSet> toList() {
+			BindingSet[] bindingSets = new BindingSet[this.size];
+			for (BindingSetNode node = this; node != null; node = node.previous) {
+				bindingSets[node.size - 1] = node.bindingSet;
+			}
+			return Arrays.asList(bindingSets);
+		}
+	}
+
+
+	/**
+	 * A single set of bindings of a batch, by name and by index.
+	 */
+	static class BindingSet {
+
+		final Map<String, Parameter> byName;
+
+		final Map<Integer, Parameter> byIndex;
+
+		private BindingSet(Map<String, Parameter> byName, Map<Integer, Parameter> byIndex) {
+			this.byName = byName;
+			this.byIndex = byIndex;
+		}
+
+		static BindingSet byName(Map<String, ?> bindings) {
+			Map<String, Parameter> byName = CollectionUtils.newLinkedHashMap(bindings.size());
+			bindings.forEach((name, value) -> {
+				Assert.hasText(name, "Parameter name must not be null or empty!");
+				byName.put(name, toParameter(value, name));
+			});
+			return new BindingSet(byName, Collections.emptyMap());
+		}
+
+		static BindingSet byIndex(Object[] values) {
+			Map<Integer, Parameter> byIndex = CollectionUtils.newLinkedHashMap(values.length);
+			for (int i = 0; i < values.length; i++) {
+				byIndex.put(i, toParameter(values[i], i));
+			}
+			return new BindingSet(Collections.emptyMap(), byIndex);
+		}
+
+		private static Parameter toParameter(@Nullable Object value, Object identifier) {
+			Assert.notNull(value, () -> String.format(
+					"Value for parameter %s must not be null. Use Parameter.empty(…) instead.", identifier));
+			return (value instanceof Parameter ? (Parameter) value : Parameter.fromOrEmpty(value, value.getClass()));
+		}
+	}
+
+
 	/**
 	 * Invocation handler that suppresses close calls on R2DBC Connections. Also prepares
 	 * returned Statement (Prepared/CallbackStatement) objects.
@@ -44,3 +44,10 @@ inline fun <reified T : Any> DatabaseClient.GenericExecuteSpec.bind(index: Int,
  */
 @Suppress("EXTENSION_SHADOWED_BY_MEMBER")
 inline fun <reified T : Any> DatabaseClient.GenericExecuteSpec.bind(name: String, value: T?) = bind(name, Parameter.fromOrEmpty(value, T::class.java))
+
+/**
+ * Extension for [DatabaseClient.GenericExecuteSpec.mapTo] providing a variant leveraging reified type parameters
+ *
+ * @since 5.3.6
+ */
+inline fun <reified T : Any> DatabaseClient.GenericExecuteSpec.mapTo(): RowsFetchSpec<T> = mapTo(T::class.java)
@@ -16,6 +16,12 @@
 
 package org.springframework.r2dbc.core;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import io.r2dbc.spi.ConnectionFactory;
 import io.r2dbc.spi.Result;
 import org.junit.jupiter.api.BeforeEach;
@@ -149,4 +155,187 @@ public abstract class AbstractDatabaseClientIntegrationTests {
 				.verifyComplete();
 	}
 
+	@Test
+	public void executeBatchInChunks() {
+		DatabaseClient databaseClient = DatabaseClient.create(connectionFactory);
+
+		List<Map<String, Object>> bindings = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			Map<String, Object> binding = new HashMap<>();
+			binding.put("id", 1000 + i);
+			binding.put("name", "SET-" + i);
+			binding.put("manual", i % 2 == 0 ? i : Parameter.empty(Integer.class));
+			bindings.add(binding);
+		}
+
+		databaseClient.batch("INSERT INTO legoset (id, name, manual) VALUES(:id, :name, :manual)")
+				.addAll(bindings)
+				.chunkSize(10)
+				.rowsUpdated()
+				.as(StepVerifier::create)
+				.expectNext(10, 10, 5)
+				.verifyComplete();
+
+		databaseClient.sql("SELECT COUNT(*) FROM legoset WHERE manual IS NULL")
+				.map(row -> ((Number) row.get(0)).intValue())
+				.first()
+				.as(StepVerifier::create)
+				.expectNext(12)
+				.verifyComplete();
+	}
+
+	@Test
+	public void executeBatchWithIndexedBindings() {
+		DatabaseClient databaseClient = DatabaseClient.create(connectionFactory);
+
+		databaseClient.batch("INSERT INTO legoset (id, name, manual) VALUES(:id, :name, :manual)")
+				.add(1, "FIRST", 10)
+				.add(2, "SECOND", Parameter.empty(Integer.class))
+				.then()
+				.as(StepVerifier::create)
+				.verifyComplete();
+
+		databaseClient.batch("UPDATE legoset SET manual = :manual WHERE id = :id")
+				.add(20, 1)
+				.add(30, 2)
+				.add(40, 3)
+				.rowsUpdated()
+				.as(StepVerifier::create)
+				.expectNext(2)
+				.verifyComplete();
+
+		databaseClient.sql("SELECT manual FROM legoset ORDER BY id")
+				.map(row -> ((Number) row.get("manual")).intValue())
+				.all()
+				.as(StepVerifier::create)
+				.expectNext(20, 30)
+				.verifyComplete();
+	}
+
+	@Test
+	public void shouldTranslateBatchDuplicateKeyException() {
+		DatabaseClient databaseClient = DatabaseClient.create(connectionFactory);
+
+		databaseClient.batch("INSERT INTO legoset (id, name, manual) VALUES(:id, :name, :manual)")
+				.add(1, "FIRST", 10)
+				.add(1, "DUPLICATE", 10)
+				.rowsUpdated()
+				.as(StepVerifier::create)
+				.expectErrorSatisfies(exception -> assertThat(exception)
+						.isInstanceOf(DataIntegrityViolationException.class)
+						.hasMessageContaining("SQL [INSERT INTO legoset"))
+				.verify();
+	}
+
+	@Test
+	public void executeStatementBatch() {
+		DatabaseClient databaseClient = DatabaseClient.create(connectionFactory);
+
+		databaseClient.batch(Arrays.asList(
+				"INSERT INTO legoset (id, name, manual) VALUES(1, 'FIRST', 10)",
+				"INSERT INTO legoset (id, name, manual) VALUES(2, 'SECOND', 20)",
+				"UPDATE legoset SET manual = 30"))
+				.chunkSize(2)
+				.rowsUpdated()
+				.as(StepVerifier::create)
+				.expectNext(2, 2)
+				.verifyComplete();
+	}
+
+	@Test
+	public void executeMapTo() {
+		DatabaseClient databaseClient = DatabaseClient.create(connectionFactory);
+
+		executeInsert();
+
+		databaseClient.sql("SELECT id, name, manual FROM legoset")
+				.mapTo(LegoSet.class)
+				.first()
+				.as(StepVerifier::create)
+				.assertNext(actual -> {
+					assertThat(actual.getId()).isEqualTo(42055);
+					assertThat(actual.getName()).isEqualTo("SCHAUFELRADBAGGER");
+					assertThat(actual.getManual()).isNull();
+				}).verifyComplete();
+
+		databaseClient.sql("SELECT manual, name AS set_name, id FROM legoset")
+				.mapTo(LegoSetBean.class)
+				.first()
+				.as(StepVerifier::create)
+				.assertNext(actual -> {
+					assertThat(actual.getId()).isEqualTo(42055L);
+					assertThat(actual.getSetName()).isEqualTo("SCHAUFELRADBAGGER");
+					assertThat(actual.getManual()).isEqualTo(0);
+				}).verifyComplete();
+
+		databaseClient.sql("SELECT name FROM legoset")
+				.mapTo(String.class)
+				.first()
+				.as(StepVerifier::create)
+				.expectNext("SCHAUFELRADBAGGER")
+				.verifyComplete();
+	}
+
+
+	public static class LegoSet {
+
+		private final int id;
+
+		private final String name;
+
+		private final Integer manual;
+
+		public LegoSet(int id, String name, Integer manual) {
+			this.id = id;
+			this.name = name;
+			this.manual = manual;
+		}
+
+		public int getId() {
+			return id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public Integer getManual() {
+			return manual;
+		}
+	}
+
+
+	public static class LegoSetBean {
+
+		private long id;
+
+		private String setName;
+
+		private int manual;
+
+		public long getId() {
+			return id;
+		}
+
+		public void setId(long id) {
+			this.id = id;
+		}
+
+		public String getSetName() {
+			return setName;
+		}
+
+		public void setSetName(String setName) {
+			this.setName = setName;
+		}
+
+		public int getManual() {
+			return manual;
+		}
+
+		public void setManual(int manual) {
+			this.manual = manual;
+		}
+	}
+
 }
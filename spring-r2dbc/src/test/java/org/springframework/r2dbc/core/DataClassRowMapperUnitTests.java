@@ -0,0 +1,132 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.r2dbc.core;
+
+import java.util.Arrays;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.dao.TypeMismatchDataAccessException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.mock;
+import static org.mockito.BDDMockito.never;
+import static org.mockito.BDDMockito.times;
+import static org.mockito.BDDMockito.verify;
+
+/**
+ * Unit tests for {@link DataClassRowMapper}.
+ */
+class DataClassRowMapperUnitTests {
+
+	@Test
+	void shouldMapConstructorAndPropertiesByIndex() {
+		RowMetadata metadata = metadata("FIRST_NAME", "AGE", "NICK_NAME");
+		Row row = mock(Row.class);
+		given(row.get(0)).willReturn("Walter");
+		given(row.get(1)).willReturn(42L);
+		given(row.get(2)).willReturn("Heisenberg");
+
+		DataClassRowMapper<Person> mapper = new DataClassRowMapper<>(Person.class);
+		Person person = mapper.apply(row, metadata);
+		person = mapper.apply(row, metadata);
+
+		assertThat(person.firstName).isEqualTo("Walter");
+		assertThat(person.age).isEqualTo(42);
+		assertThat(person.nickName).isEqualTo("Heisenberg");
+		verify(row, never()).get(anyString());
+		verify(metadata, times(1)).getColumnNames();
+	}
+
+	@Test
+	void shouldReusePlanForSameColumnNames() {
+		Row row = mock(Row.class);
+		given(row.get(0)).willReturn("Walter");
+		given(row.get(1)).willReturn(null);
+
+		DataClassRowMapper<Person> mapper = new DataClassRowMapper<>(Person.class);
+		Person first = mapper.apply(row, metadata("first_name", "age"));
+		Person second = mapper.apply(row, metadata("first_name", "age"));
+
+		assertThat(first.firstName).isEqualTo(second.firstName).isEqualTo("Walter");
+		assertThat(second.age).isEqualTo(0);
+		assertThat(second.nickName).isNull();
+	}
+
+	@Test
+	void shouldMapSimpleValueType() {
+		Row row = mock(Row.class);
+		given(row.get(0)).willReturn(42);
+
+		assertThat(DataClassRowMapper.forClass(Long.class).apply(row, metadata("count"))).isEqualTo(42L);
+		assertThat(DataClassRowMapper.forClass(Long.class)).isSameAs(DataClassRowMapper.forClass(Long.class));
+	}
+
+	@Test
+	void shouldRejectMissingConstructorColumn() {
+		DataClassRowMapper<Person> mapper = new DataClassRowMapper<>(Person.class);
+
+		assertThatExceptionOfType(InvalidDataAccessApiUsageException.class)
+				.isThrownBy(() -> mapper.apply(mock(Row.class), metadata("nick_name")))
+				.withMessageContaining("firstName");
+	}
+
+	@Test
+	void shouldRejectInconvertibleValue() {
+		Row row = mock(Row.class);
+		given(row.get(0)).willReturn("Walter");
+		given(row.get(1)).willReturn(new Object());
+
+		DataClassRowMapper<Person> mapper = new DataClassRowMapper<>(Person.class);
+
+		assertThatExceptionOfType(TypeMismatchDataAccessException.class)
+				.isThrownBy(() -> mapper.apply(row, metadata("first_name", "age")))
+				.withMessageContaining("age");
+	}
+
+	private static RowMetadata metadata(String... columnNames) {
+		RowMetadata metadata = mock(RowMetadata.class);
+		given(metadata.getColumnNames()).willReturn(Arrays.asList(columnNames));
+		return metadata;
+	}
+
+
+	public static class Person {
+
+		final String firstName;
+
+		final int age;
+
+		String nickName;
+
+		public Person(String firstName, int age) {
+			this.firstName = firstName;
+			this.age = age;
+		}
+
+		public void setNickName(String nickName) {
+			this.nickName = nickName;
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -224,6 +224,34 @@ class DefaultDatabaseClientUnitTests {
 		verify(statement).bind(0, "foo");
 	}
 
+	@Test
+	void batchSpecsDerivedFromSameSpecShouldNotShareBindings() {
+		Statement statement = mockStatementFor("INSERT INTO person (name) VALUES ($1)");
+		DatabaseClient databaseClient = databaseClientBuilder.build();
+
+		DatabaseClient.BatchExecuteSpec batch =
+				databaseClient.batch("INSERT INTO person (name) VALUES ($1)").add("Walter");
+		DatabaseClient.BatchExecuteSpec first = batch.add("Jesse");
+		DatabaseClient.BatchExecuteSpec second = batch.add("Skyler").add("Hank");
+
+		first.then().as(StepVerifier::create).verifyComplete();
+		InOrder inOrder = inOrder(statement);
+		inOrder.verify(statement).bind(0, "Walter");
+		inOrder.verify(statement).add();
+		inOrder.verify(statement).bind(0, "Jesse");
+		inOrder.verify(statement).execute();
+		inOrder.verifyNoMoreInteractions();
+
+		second.then().as(StepVerifier::create).verifyComplete();
+		inOrder.verify(statement).bind(0, "Walter");
+		inOrder.verify(statement).add();
+		inOrder.verify(statement).bind(0, "Skyler");
+		inOrder.verify(statement).add();
+		inOrder.verify(statement).bind(0, "Hank");
+		inOrder.verify(statement).execute();
+		inOrder.verifyNoMoreInteractions();
+	}
+
 	@Test
 	@SuppressWarnings("unchecked")
 	void rowsUpdatedShouldEmitSingleValue() {
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction.support;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.core.NamedThreadLocal;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+/**
+ * Benchmarks for the thread-bound state managed by {@link TransactionSynchronizationManager}
+ * for a short transaction: begin, resource lookup, commit.
+ *
+ * <p>{@code separateThreadLocals} replays the same sequence against one
+ * {@code ThreadLocal} per kind of state plus a {@code HashMap} of resources,
+ * as a baseline for {@code synchronizationManager}.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class TransactionSynchronizationManagerBenchmark {
+
+	@Benchmark
+	public void synchronizationManager(BenchmarkState state, Blackhole bh) {
+		TransactionSynchronizationManager.initSynchronization(
+				state.definition.getName(), state.definition.isReadOnly(), null, true);
+		TransactionSynchronizationManager.bindResource(state.resourceKey, state.resource);
+		bh.consume(TransactionSynchronizationManager.getResource(state.resourceKey));
+		bh.consume(TransactionSynchronizationManager.isActualTransactionActive());
+		bh.consume(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+		TransactionSynchronizationManager.unbindResource(state.resourceKey);
+		TransactionSynchronizationManager.clear();
+	}
+
+	@Benchmark
+	public void separateThreadLocals(BenchmarkState state, Blackhole bh) {
+		SeparateThreadLocals.actualTransactionActive.set(Boolean.TRUE);
+		SeparateThreadLocals.currentTransactionIsolationLevel.set(null);
+		SeparateThreadLocals.currentTransactionReadOnly.set(state.definition.isReadOnly() ? Boolean.TRUE : null);
+		SeparateThreadLocals.currentTransactionName.set(state.definition.getName());
+		SeparateThreadLocals.synchronizations.set(new LinkedHashSet<>());
+		Map<Object, Object> map = SeparateThreadLocals.resources.get();
+		if (map == null) {
+			map = new HashMap<>();
+			SeparateThreadLocals.resources.set(map);
+		}
+		map.put(state.resourceKey, state.resource);
+		bh.consume(SeparateThreadLocals.resources.get().get(state.resourceKey));
+		bh.consume(SeparateThreadLocals.actualTransactionActive.get() != null);
+		bh.consume(SeparateThreadLocals.currentTransactionReadOnly.get() != null);
+		map = SeparateThreadLocals.resources.get();
+		map.remove(state.resourceKey);
+		if (map.isEmpty()) {
+			SeparateThreadLocals.resources.remove();
+		}
+		SeparateThreadLocals.synchronizations.remove();
+		SeparateThreadLocals.currentTransactionName.remove();
+		SeparateThreadLocals.currentTransactionReadOnly.remove();
+		SeparateThreadLocals.currentTransactionIsolationLevel.remove();
+		SeparateThreadLocals.actualTransactionActive.remove();
+	}
+
+	@Benchmark
+	public void transactionManager(BenchmarkState state) {
+		TransactionStatus status = state.transactionManager.getTransaction(state.definition);
+		state.transactionManager.commit(status);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		public final Object resourceKey = new Object();
+
+		public final Object resource = new Object();
+
+		public DefaultTransactionDefinition definition;
+
+		public BenchmarkTransactionManager transactionManager;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.definition = new DefaultTransactionDefinition();
+			this.definition.setName("benchmark");
+			this.transactionManager = new BenchmarkTransactionManager(this.resourceKey, this.resource);
+		}
+	}
+
+
+	/**
+	 * Minimal transaction manager binding a resource for each new transaction,
+	 * like resource transaction managers such as DataSourceTransactionManager.
+	 */
+	@SuppressWarnings("serial")
+	static class BenchmarkTransactionManager extends AbstractPlatformTransactionManager {
+
+		private final Object resourceKey;
+
+		private final Object resource;
+
+		BenchmarkTransactionManager(Object resourceKey, Object resource) {
+			this.resourceKey = resourceKey;
+			this.resource = resource;
+		}
+
+		@Override
+		protected Object doGetTransaction() {
+			return new Object();
+		}
+
+		@Override
+		protected boolean isExistingTransaction(Object transaction) {
+			return TransactionSynchronizationManager.hasResource(this.resourceKey);
+		}
+
+		@Override
+		protected void doBegin(Object transaction, TransactionDefinition definition) {
+			TransactionSynchronizationManager.bindResource(this.resourceKey, this.resource);
+		}
+
+		@Override
+		protected void doCommit(DefaultTransactionStatus status) {
+		}
+
+		@Override
+		protected void doRollback(DefaultTransactionStatus status) {
+		}
+
+		@Override
+		protected void doCleanupAfterCompletion(Object transaction) {
+			TransactionSynchronizationManager.unbindResource(this.resourceKey);
+		}
+	}
+
+
+	/**
+	 * Thread-bound state kept in separate thread-locals, for comparison.
+	 */
+	static class SeparateThreadLocals {
+
+		static final ThreadLocal<Map<Object, Object>> resources =
+				new NamedThreadLocal<>("Transactional resources");
+
+		static final ThreadLocal<Set<TransactionSynchronization>> synchronizations =
+				new NamedThreadLocal<>("Transaction synchronizations");
+
+		static final ThreadLocal<String> currentTransactionName =
+				new NamedThreadLocal<>("Current transaction name");
+
+		static final ThreadLocal<Boolean> currentTransactionReadOnly =
+				new NamedThreadLocal<>("Current transaction read-only status");
+
+		static final ThreadLocal<Integer> currentTransactionIsolationLevel =
+				new NamedThreadLocal<>("Current transaction isolation level");
+
+		static final ThreadLocal<Boolean> actualTransactionActive =
+				new NamedThreadLocal<>("Actual transaction active");
+	}
+
+}
@@ -17,7 +17,9 @@
 package org.springframework.transaction.interceptor;
 
 import java.lang.reflect.Method;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 import io.vavr.control.Try;
@@ -53,6 +55,7 @@ import org.springframework.transaction.support.CallbackPreferringPlatformTransac
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -100,6 +103,11 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 */
 	private static final Object DEFAULT_TRANSACTION_MANAGER_KEY = new Object();
 
+	/**
+	 * Key to use for transaction plans resolved without a target class.
+	 */
+	private static final Class<?> NO_TARGET_CLASS = Void.class;
+
 	private static final String COROUTINES_FLOW_CLASS_NAME = "kotlinx.coroutines.flow.Flow";
 
 	/**
@@ -185,6 +193,11 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	private final ConcurrentMap<Method, ReactiveTransactionSupport> transactionSupportCache =
 			new ConcurrentReferenceHashMap<>(1024);
 
+	private final ConcurrentMap<Method, TransactionPlans> transactionPlanCache =
+			new ConcurrentReferenceHashMap<>(1024);
+
+	private final boolean transactionManagerCacheable;
+
 
 	protected TransactionAspectSupport() {
 		if (reactiveStreamsPresent) {
@@ -193,6 +206,14 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 		else {
 			this.reactiveAdapterRegistry = null;
 		}
+		this.transactionManagerCacheable =
+				!isOverridden("determineTransactionManager", TransactionAttribute.class) &&
+				!isOverridden("getTransactionManager");
+	}
+
+	private boolean isOverridden(String methodName, Class<?>... paramTypes) {
+		Method method = ReflectionUtils.findMethod(getClass(), methodName, paramTypes);
+		return (method != null && method.getDeclaringClass() != TransactionAspectSupport.class);
 	}
 
 
@@ -203,6 +224,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 */
 	public void setTransactionManagerBeanName(@Nullable String transactionManagerBeanName) {
 		this.transactionManagerBeanName = transactionManagerBeanName;
+		this.transactionPlanCache.clear();
 	}
 
 	/**
@@ -224,6 +246,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 */
 	public void setTransactionManager(@Nullable TransactionManager transactionManager) {
 		this.transactionManager = transactionManager;
+		this.transactionPlanCache.clear();
 	}
 
 	/**
@@ -252,6 +275,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 		NameMatchTransactionAttributeSource tas = new NameMatchTransactionAttributeSource();
 		tas.setProperties(transactionAttributes);
 		this.transactionAttributeSource = tas;
+		this.transactionPlanCache.clear();
 	}
 
 	/**
@@ -264,6 +288,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 */
 	public void setTransactionAttributeSources(TransactionAttributeSource... transactionAttributeSources) {
 		this.transactionAttributeSource = new CompositeTransactionAttributeSource(transactionAttributeSources);
+		this.transactionPlanCache.clear();
 	}
 
 	/**
@@ -277,6 +302,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 */
 	public void setTransactionAttributeSource(@Nullable TransactionAttributeSource transactionAttributeSource) {
 		this.transactionAttributeSource = transactionAttributeSource;
+		this.transactionPlanCache.clear();
 	}
 
 	/**
@@ -293,6 +319,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	@Override
 	public void setBeanFactory(@Nullable BeanFactory beanFactory) {
 		this.beanFactory = beanFactory;
+		this.transactionPlanCache.clear();
 	}
 
 	/**
@@ -337,9 +364,10 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 			final InvocationCallback invocation) throws Throwable {
 
 		// If the transaction attribute is null, the method is non-transactional.
-		TransactionAttributeSource tas = getTransactionAttributeSource();
-		final TransactionAttribute txAttr = (tas != null ? tas.getTransactionAttribute(method, targetClass) : null);
-		final TransactionManager tm = determineTransactionManager(txAttr);
+		TransactionPlan plan = getTransactionPlan(method, targetClass);
+		final TransactionAttribute txAttr = plan.transactionAttribute;
+		final TransactionManager tm = (plan.transactionManagerResolved ?
+				plan.transactionManager : determineTransactionManager(txAttr));
 
 		if (this.reactiveAdapterRegistry != null && tm instanceof ReactiveTransactionManager) {
 			boolean isSuspendingFunction = KotlinDetector.isSuspendingFunction(method);
@@ -375,11 +403,12 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 		}
 
 		PlatformTransactionManager ptm = asPlatformTransactionManager(tm);
-		final String joinpointIdentification = methodIdentification(method, targetClass, txAttr);
+		final String joinpointIdentification = plan.joinpointIdentification;
 
 		if (txAttr == null || !(ptm instanceof CallbackPreferringPlatformTransactionManager)) {
 			// Standard transaction demarcation with getTransaction and commit/rollback calls.
-			TransactionInfo txInfo = createTransactionIfNecessary(ptm, txAttr, joinpointIdentification);
+			// The plan provides the attribute already named after the joinpoint.
+			TransactionInfo txInfo = createTransactionIfNecessary(ptm, plan.namedTransactionAttribute, joinpointIdentification);
 
 			Object retVal;
 			try {
@@ -470,11 +499,42 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 		}
 	}
 
+	/**
+	 * Return the transaction plan for the given method and target class,
+	 * resolving it on first invocation.
+	 * <p>The transaction attribute is re-resolved on every call unless the
+	 * {@link TransactionAttributeSource} is an {@link AbstractFallbackTransactionAttributeSource}
+	 * (which caches attributes per method and target class itself); a cached
+	 * plan is only reused as long as the source returns the same attribute.
+	 */
+	private TransactionPlan getTransactionPlan(Method method, @Nullable Class<?> targetClass) {
+		TransactionPlans plans = this.transactionPlanCache.get(method);
+		if (plans == null) {
+			plans = new TransactionPlans();
+			TransactionPlans existing = this.transactionPlanCache.putIfAbsent(method, plans);
+			if (existing != null) {
+				plans = existing;
+			}
+		}
+		TransactionAttributeSource tas = getTransactionAttributeSource();
+		TransactionPlan plan = plans.get(targetClass);
+		if (plan != null && (tas instanceof AbstractFallbackTransactionAttributeSource || tas == null)) {
+			return plan;
+		}
+		TransactionAttribute txAttr = (tas != null ? tas.getTransactionAttribute(method, targetClass) : null);
+		if (plan == null || plan.transactionAttribute != txAttr) {
+			plan = new TransactionPlan(method, targetClass, txAttr);
+			plans.put(plan);
+		}
+		return plan;
+	}
+
 	/**
 	 * Clear the transaction manager cache.
 	 */
 	protected void clearTransactionManagerCache() {
 		this.transactionManagerCache.clear();
+		this.transactionPlanCache.clear();
 		this.beanFactory = null;
 	}
 
@@ -712,6 +772,85 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	}
 
 
+	/**
+	 * Transaction setup for a specific method and target class: the transaction
+	 * attribute (also decorated with the method identification as transaction name),
+	 * the transaction manager unless it needs to be determined per invocation, and
+	 * the joinpoint identification.
+	 */
+	private final class TransactionPlan {
+
+		final Class<?> targetClassKey;
+
+		@Nullable
+		final TransactionAttribute transactionAttribute;
+
+		@Nullable
+		final TransactionAttribute namedTransactionAttribute;
+
+		@Nullable
+		final TransactionManager transactionManager;
+
+		final boolean transactionManagerResolved;
+
+		final String joinpointIdentification;
+
+		@SuppressWarnings("serial")
+		TransactionPlan(Method method, @Nullable Class<?> targetClass, @Nullable TransactionAttribute txAttr) {
+			this.targetClassKey = (targetClass != null ? targetClass : NO_TARGET_CLASS);
+			this.transactionAttribute = txAttr;
+			this.transactionManagerResolved = transactionManagerCacheable;
+			this.transactionManager = (transactionManagerCacheable ? determineTransactionManager(txAttr) : null);
+			String joinpointIdentification = methodIdentification(method, targetClass, txAttr);
+			this.joinpointIdentification = joinpointIdentification;
+			if (txAttr != null && txAttr.getName() == null) {
+				this.namedTransactionAttribute = new DelegatingTransactionAttribute(txAttr) {
+					@Override
+					public String getName() {
+						return joinpointIdentification;
+					}
+				};
+			}
+			else {
+				this.namedTransactionAttribute = txAttr;
+			}
+		}
+	}
+
+
+	/**
+	 * Transaction plans for a specific method, usually invoked on a single
+	 * target class only.
+	 */
+	private static final class TransactionPlans {
+
+		@Nullable
+		private volatile TransactionPlan primaryPlan;
+
+		private final Map<Class<?>, TransactionPlan> otherPlans = new ConcurrentHashMap<>(4);
+
+		@Nullable
+		TransactionPlan get(@Nullable Class<?> targetClass) {
+			Class<?> key = (targetClass != null ? targetClass : NO_TARGET_CLASS);
+			TransactionPlan plan = this.primaryPlan;
+			if (plan != null && plan.targetClassKey == key) {
+				return plan;
+			}
+			return this.otherPlans.get(key);
+		}
+
+		void put(TransactionPlan plan) {
+			TransactionPlan primaryPlan = this.primaryPlan;
+			if (primaryPlan == null || primaryPlan.targetClassKey == plan.targetClassKey) {
+				this.primaryPlan = plan;
+			}
+			else {
+				this.otherPlans.put(plan.targetClassKey, plan);
+			}
+		}
+	}
+
+
 	/**
 	 * Opaque object used to hold transaction information. Subclasses
 	 * must pass it back to methods on this class, but not see its internals.
@@ -17,8 +17,9 @@
 package org.springframework.transaction.support;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -64,6 +65,9 @@ import org.springframework.util.Assert;
  * within a JTA transaction, e.g. a JDBC Connection or a Hibernate Session for
  * any given DataSource or SessionFactory, respectively.
  *
+ * <p>All of this state is kept in a single context object per thread, bound
+ * to one {@link ThreadLocal} only as long as any of the state is present.
+ *
  * @author Juergen Hoeller
  * @since 02.06.2003
  * @see #isSynchronizationActive
@@ -78,23 +82,8 @@ public abstract class TransactionSynchronizationManager {
 
 	private static final Log logger = LogFactory.getLog(TransactionSynchronizationManager.class);
 
-	private static final ThreadLocal<Map<Object, Object>> resources =
-			new NamedThreadLocal<>("Transactional resources");
-
-	private static final ThreadLocal<Set<TransactionSynchronization>> synchronizations =
-			new NamedThreadLocal<>("Transaction synchronizations");
-
-	private static final ThreadLocal<String> currentTransactionName =
-			new NamedThreadLocal<>("Current transaction name");
-
-	private static final ThreadLocal<Boolean> currentTransactionReadOnly =
-			new NamedThreadLocal<>("Current transaction read-only status");
-
-	private static final ThreadLocal<Integer> currentTransactionIsolationLevel =
-			new NamedThreadLocal<>("Current transaction isolation level");
-
-	private static final ThreadLocal<Boolean> actualTransactionActive =
-			new NamedThreadLocal<>("Actual transaction active");
+	private static final ThreadLocal<TransactionContext> transactionContext =
+			new NamedThreadLocal<>("Transactional resources and synchronization state");
 
 
 	//-------------------------------------------------------------------------
@@ -111,8 +100,15 @@ public abstract class TransactionSynchronizationManager {
 	 * @see #hasResource
 	 */
 	public static Map<Object, Object> getResourceMap() {
-		Map<Object, Object> map = resources.get();
-		return (map != null ? Collections.unmodifiableMap(map) : Collections.emptyMap());
+		TransactionContext context = transactionContext.get();
+		if (context == null || context.resourceCount == 0) {
+			return Collections.emptyMap();
+		}
+		Map<Object, Object> map = new LinkedHashMap<>(context.resourceCount * 2);
+		for (int i = 0; i < context.resourceCount; i++) {
+			map.put(context.resourceKeys[i], context.resourceValues[i]);
+		}
+		return Collections.unmodifiableMap(map);
 	}
 
 	/**
@@ -150,18 +146,20 @@ public abstract class TransactionSynchronizationManager {
 	 */
 	@Nullable
 	private static Object doGetResource(Object actualKey) {
-		Map<Object, Object> map = resources.get();
-		if (map == null) {
+		TransactionContext context = transactionContext.get();
+		if (context == null) {
+			return null;
+		}
+		int index = context.indexOfResource(actualKey);
+		if (index < 0) {
 			return null;
 		}
-		Object value = map.get(actualKey);
+		Object value = context.resourceValues[index];
 		// Transparently remove ResourceHolder that was marked as void...
 		if (value instanceof ResourceHolder && ((ResourceHolder) value).isVoid()) {
-			map.remove(actualKey);
+			context.removeResource(index);
 			// Remove entire ThreadLocal if empty...
-			if (map.isEmpty()) {
-				resources.remove();
-			}
+			releaseIfEmpty(context);
 			value = null;
 		}
 		return value;
@@ -177,13 +175,7 @@ public abstract class TransactionSynchronizationManager {
 	public static void bindResource(Object key, Object value) throws IllegalStateException {
 		Object actualKey = TransactionSynchronizationUtils.unwrapResourceIfNecessary(key);
 		Assert.notNull(value, "Value must not be null");
-		Map<Object, Object> map = resources.get();
-		// set ThreadLocal Map if none found
-		if (map == null) {
-			map = new HashMap<>();
-			resources.set(map);
-		}
-		Object oldValue = map.put(actualKey, value);
+		Object oldValue = obtainContext().putResource(actualKey, value);
 		// Transparently suppress a ResourceHolder that was marked as void...
 		if (oldValue instanceof ResourceHolder && ((ResourceHolder) oldValue).isVoid()) {
 			oldValue = null;
@@ -231,15 +223,17 @@ public abstract class TransactionSynchronizationManager {
 	 */
 	@Nullable
 	private static Object doUnbindResource(Object actualKey) {
-		Map<Object, Object> map = resources.get();
-		if (map == null) {
+		TransactionContext context = transactionContext.get();
+		if (context == null) {
 			return null;
 		}
-		Object value = map.remove(actualKey);
-		// Remove entire ThreadLocal if empty...
-		if (map.isEmpty()) {
-			resources.remove();
+		int index = context.indexOfResource(actualKey);
+		if (index < 0) {
+			return null;
 		}
+		Object value = context.removeResource(index);
+		// Remove entire ThreadLocal if empty...
+		releaseIfEmpty(context);
 		// Transparently suppress a ResourceHolder that was marked as void...
 		if (value instanceof ResourceHolder && ((ResourceHolder) value).isVoid()) {
 			value = null;
@@ -262,7 +256,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see #registerSynchronization
 	 */
 	public static boolean isSynchronizationActive() {
-		return (synchronizations.get() != null);
+		TransactionContext context = transactionContext.get();
+		return (context != null && context.synchronizationActive);
 	}
 
 	/**
@@ -271,11 +266,42 @@ public abstract class TransactionSynchronizationManager {
 	 * @throws IllegalStateException if synchronization is already active
 	 */
 	public static void initSynchronization() throws IllegalStateException {
-		if (isSynchronizationActive()) {
+		TransactionContext context = obtainContext();
+		if (context.synchronizationActive) {
+			throw new IllegalStateException("Cannot activate transaction synchronization - already active");
+		}
+		logger.trace("Initializing transaction synchronization");
+		context.synchronizationActive = true;
+	}
+
+	/**
+	 * Expose the given transaction characteristics and activate transaction
+	 * synchronization for the current thread, in a single step.
+	 * Called by {@link AbstractPlatformTransactionManager} on transaction begin.
+	 * @param name the name of the transaction, or {@code null} if none
+	 * @param readOnly whether the transaction is read-only
+	 * @param isolationLevel the isolation level to expose, or {@code null} if none
+	 * @param actualTransactionActive whether there is an actual transaction active
+	 * @throws IllegalStateException if synchronization is already active
+	 * @see #setCurrentTransactionName
+	 * @see #setCurrentTransactionReadOnly
+	 * @see #setCurrentTransactionIsolationLevel
+	 * @see #setActualTransactionActive
+	 * @see #initSynchronization()
+	 */
+	static void initSynchronization(@Nullable String name, boolean readOnly,
+			@Nullable Integer isolationLevel, boolean actualTransactionActive) throws IllegalStateException {
+
+		TransactionContext context = obtainContext();
+		context.actualTransactionActive = actualTransactionActive;
+		context.isolationLevel = isolationLevel;
+		context.readOnly = readOnly;
+		context.name = name;
+		if (context.synchronizationActive) {
 			throw new IllegalStateException("Cannot activate transaction synchronization - already active");
 		}
 		logger.trace("Initializing transaction synchronization");
-		synchronizations.set(new LinkedHashSet<>());
+		context.synchronizationActive = true;
 	}
 
 	/**
@@ -292,10 +318,15 @@ public abstract class TransactionSynchronizationManager {
 			throws IllegalStateException {
 
 		Assert.notNull(synchronization, "TransactionSynchronization must not be null");
-		Set<TransactionSynchronization> synchs = synchronizations.get();
-		if (synchs == null) {
+		TransactionContext context = transactionContext.get();
+		if (context == null || !context.synchronizationActive) {
 			throw new IllegalStateException("Transaction synchronization is not active");
 		}
+		Set<TransactionSynchronization> synchs = context.synchronizations;
+		if (synchs == null) {
+			synchs = new LinkedHashSet<>();
+			context.synchronizations = synchs;
+		}
 		synchs.add(synchronization);
 	}
 
@@ -307,14 +338,15 @@ public abstract class TransactionSynchronizationManager {
 	 * @see TransactionSynchronization
 	 */
 	public static List<TransactionSynchronization> getSynchronizations() throws IllegalStateException {
-		Set<TransactionSynchronization> synchs = synchronizations.get();
-		if (synchs == null) {
+		TransactionContext context = transactionContext.get();
+		if (context == null || !context.synchronizationActive) {
 			throw new IllegalStateException("Transaction synchronization is not active");
 		}
 		// Return unmodifiable snapshot, to avoid ConcurrentModificationExceptions
 		// while iterating and invoking synchronization callbacks that in turn
 		// might register further synchronizations.
-		if (synchs.isEmpty()) {
+		Set<TransactionSynchronization> synchs = context.synchronizations;
+		if (synchs == null || synchs.isEmpty()) {
 			return Collections.emptyList();
 		}
 		else {
@@ -331,11 +363,14 @@ public abstract class TransactionSynchronizationManager {
 	 * @throws IllegalStateException if synchronization is not active
 	 */
 	public static void clearSynchronization() throws IllegalStateException {
-		if (!isSynchronizationActive()) {
+		TransactionContext context = transactionContext.get();
+		if (context == null || !context.synchronizationActive) {
 			throw new IllegalStateException("Cannot deactivate transaction synchronization - not active");
 		}
 		logger.trace("Clearing transaction synchronization");
-		synchronizations.remove();
+		context.synchronizationActive = false;
+		context.synchronizations = null;
+		releaseIfEmpty(context);
 	}
 
 
@@ -350,7 +385,11 @@ public abstract class TransactionSynchronizationManager {
 	 * @see org.springframework.transaction.TransactionDefinition#getName()
 	 */
 	public static void setCurrentTransactionName(@Nullable String name) {
-		currentTransactionName.set(name);
+		TransactionContext context = (name != null ? obtainContext() : transactionContext.get());
+		if (context != null) {
+			context.name = name;
+			releaseIfEmpty(context);
+		}
 	}
 
 	/**
@@ -361,7 +400,8 @@ public abstract class TransactionSynchronizationManager {
 	 */
 	@Nullable
 	public static String getCurrentTransactionName() {
-		return currentTransactionName.get();
+		TransactionContext context = transactionContext.get();
+		return (context != null ? context.name : null);
 	}
 
 	/**
@@ -372,7 +412,11 @@ public abstract class TransactionSynchronizationManager {
 	 * @see org.springframework.transaction.TransactionDefinition#isReadOnly()
 	 */
 	public static void setCurrentTransactionReadOnly(boolean readOnly) {
-		currentTransactionReadOnly.set(readOnly ? Boolean.TRUE : null);
+		TransactionContext context = (readOnly ? obtainContext() : transactionContext.get());
+		if (context != null) {
+			context.readOnly = readOnly;
+			releaseIfEmpty(context);
+		}
 	}
 
 	/**
@@ -388,7 +432,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see TransactionSynchronization#beforeCommit(boolean)
 	 */
 	public static boolean isCurrentTransactionReadOnly() {
-		return (currentTransactionReadOnly.get() != null);
+		TransactionContext context = transactionContext.get();
+		return (context != null && context.readOnly);
 	}
 
 	/**
@@ -408,7 +453,11 @@ public abstract class TransactionSynchronizationManager {
 	 * @see org.springframework.transaction.TransactionDefinition#getIsolationLevel()
 	 */
 	public static void setCurrentTransactionIsolationLevel(@Nullable Integer isolationLevel) {
-		currentTransactionIsolationLevel.set(isolationLevel);
+		TransactionContext context = (isolationLevel != null ? obtainContext() : transactionContext.get());
+		if (context != null) {
+			context.isolationLevel = isolationLevel;
+			releaseIfEmpty(context);
+		}
 	}
 
 	/**
@@ -430,7 +479,8 @@ public abstract class TransactionSynchronizationManager {
 	 */
 	@Nullable
 	public static Integer getCurrentTransactionIsolationLevel() {
-		return currentTransactionIsolationLevel.get();
+		TransactionContext context = transactionContext.get();
+		return (context != null ? context.isolationLevel : null);
 	}
 
 	/**
@@ -440,7 +490,11 @@ public abstract class TransactionSynchronizationManager {
 	 * with an actual transaction; {@code false} to reset that marker
 	 */
 	public static void setActualTransactionActive(boolean active) {
-		actualTransactionActive.set(active ? Boolean.TRUE : null);
+		TransactionContext context = (active ? obtainContext() : transactionContext.get());
+		if (context != null) {
+			context.actualTransactionActive = active;
+			releaseIfEmpty(context);
+		}
 	}
 
 	/**
@@ -455,7 +509,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see #isSynchronizationActive()
 	 */
 	public static boolean isActualTransactionActive() {
-		return (actualTransactionActive.get() != null);
+		TransactionContext context = transactionContext.get();
+		return (context != null && context.actualTransactionActive);
 	}
 
 
@@ -469,11 +524,123 @@ public abstract class TransactionSynchronizationManager {
 	 * @see #setActualTransactionActive
 	 */
 	public static void clear() {
-		synchronizations.remove();
-		currentTransactionName.remove();
-		currentTransactionReadOnly.remove();
-		currentTransactionIsolationLevel.remove();
-		actualTransactionActive.remove();
+		TransactionContext context = transactionContext.get();
+		if (context != null) {
+			context.synchronizationActive = false;
+			context.synchronizations = null;
+			context.name = null;
+			context.readOnly = false;
+			context.isolationLevel = null;
+			context.actualTransactionActive = false;
+			releaseIfEmpty(context);
+		}
+	}
+
+
+	/**
+	 * Return the context of the current thread, binding a new one if none yet.
+	 */
+	private static TransactionContext obtainContext() {
+		TransactionContext context = transactionContext.get();
+		if (context == null) {
+			context = new TransactionContext();
+			transactionContext.set(context);
+		}
+		return context;
+	}
+
+	/**
+	 * Remove the given context of the current thread if it does not hold any
+	 * state anymore, in order to not keep it bound to a pooled thread.
+	 */
+	private static void releaseIfEmpty(TransactionContext context) {
+		if (context.isEmpty()) {
+			transactionContext.remove();
+		}
+	}
+
+
+	/**
+	 * Resources and synchronization state of a thread. Resources are kept in
+	 * small inline arrays, given that only very few of them (typically one)
+	 * are bound at the same time.
+	 */
+	private static final class TransactionContext {
+
+		private static final int INITIAL_RESOURCE_CAPACITY = 4;
+
+		Object[] resourceKeys = new Object[INITIAL_RESOURCE_CAPACITY];
+
+		Object[] resourceValues = new Object[INITIAL_RESOURCE_CAPACITY];
+
+		int resourceCount;
+
+		boolean synchronizationActive;
+
+		@Nullable
+		Set<TransactionSynchronization> synchronizations;
+
+		@Nullable
+		String name;
+
+		boolean readOnly;
+
+		@Nullable
+		Integer isolationLevel;
+
+		boolean actualTransactionActive;
+
+		int indexOfResource(Object key) {
+			for (int i = 0; i < this.resourceCount; i++) {
+				Object candidate = this.resourceKeys[i];
+				if (candidate == key || candidate.equals(key)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * Put the given resource, returning the previous value for the key, if any.
+		 */
+		@Nullable
+		Object putResource(Object key, Object value) {
+			int index = indexOfResource(key);
+			if (index >= 0) {
+				Object oldValue = this.resourceValues[index];
+				this.resourceValues[index] = value;
+				return oldValue;
+			}
+			if (this.resourceCount == this.resourceKeys.length) {
+				this.resourceKeys = Arrays.copyOf(this.resourceKeys, this.resourceCount * 2);
+				this.resourceValues = Arrays.copyOf(this.resourceValues, this.resourceCount * 2);
+			}
+			this.resourceKeys[this.resourceCount] = key;
+			this.resourceValues[this.resourceCount] = value;
+			this.resourceCount++;
+			return null;
+		}
+
+		/**
+		 * Remove the resource at the given index, preserving the order of the others.
+		 */
+		Object removeResource(int index) {
+			Object value = this.resourceValues[index];
+			int last = this.resourceCount - 1;
+			if (index < last) {
+				System.arraycopy(this.resourceKeys, index + 1, this.resourceKeys, index, last - index);
+				System.arraycopy(this.resourceValues, index + 1, this.resourceValues, index, last - index);
+			}
+			this.resourceKeys[last] = null;
+			this.resourceValues[last] = null;
+			this.resourceCount = last;
+			return value;
+		}
+
+		boolean isEmpty() {
+			return (this.resourceCount == 0 && !this.synchronizationActive && this.name == null &&
+					!this.readOnly && this.isolationLevel == null && !this.actualTransactionActive);
+		}
 	}
 
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,13 +17,18 @@
 package org.springframework.transaction.interceptor;
 
 import java.io.Serializable;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.testfixture.beans.ITestBean;
+import org.springframework.beans.testfixture.beans.TestBean;
 import org.springframework.core.testfixture.io.SerializationTestUtils;
 import org.springframework.lang.Nullable;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -34,6 +39,7 @@ import org.springframework.transaction.TransactionStatus;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -261,6 +267,93 @@ public class TransactionInterceptorTests extends AbstractTransactionAspectTests
 		verify(beanFactory, times(1)).getBean(TransactionManager.class);
 	}
 
+	@Test
+	public void transactionPlanReusedForSameAttribute() {
+		TransactionAttribute txAttr = new DefaultTransactionAttribute();
+		AtomicInteger lookups = new AtomicInteger();
+		TransactionAttributeSource tas = (method, targetClass) -> {
+			lookups.incrementAndGet();
+			return txAttr;
+		};
+		PlatformTransactionManager ptm = mock(PlatformTransactionManager.class);
+		ITestBean itb = (ITestBean) advised(new TestBean(), ptm, tas);
+
+		itb.getName();
+		itb.getName();
+
+		ArgumentCaptor<TransactionDefinition> definitions = ArgumentCaptor.forClass(TransactionDefinition.class);
+		verify(ptm, times(2)).getTransaction(definitions.capture());
+		List<TransactionDefinition> values = definitions.getAllValues();
+		assertThat(values.get(0)).isSameAs(values.get(1));
+		assertThat(values.get(0).getName()).isEqualTo(TestBean.class.getName() + ".getName");
+		assertThat(lookups.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void transactionPlanFollowsChangingAttribute() {
+		DefaultTransactionAttribute readOnly = new DefaultTransactionAttribute();
+		readOnly.setReadOnly(true);
+		DefaultTransactionAttribute readWrite = new DefaultTransactionAttribute();
+		TransactionAttributeSource tas = mock(TransactionAttributeSource.class);
+		given(tas.getTransactionAttribute(any(), any())).willReturn(readOnly, readWrite);
+		PlatformTransactionManager ptm = mock(PlatformTransactionManager.class);
+		ITestBean itb = (ITestBean) advised(new TestBean(), ptm, tas);
+
+		itb.getName();
+		itb.getName();
+
+		ArgumentCaptor<TransactionDefinition> definitions = ArgumentCaptor.forClass(TransactionDefinition.class);
+		verify(ptm, times(2)).getTransaction(definitions.capture());
+		assertThat(definitions.getAllValues().get(0).isReadOnly()).isTrue();
+		assertThat(definitions.getAllValues().get(1).isReadOnly()).isFalse();
+	}
+
+	@Test
+	public void transactionPlanClearedOnTransactionManagerChange() {
+		MapTransactionAttributeSource tas = new MapTransactionAttributeSource();
+		tas.register(getNameMethod, new DefaultTransactionAttribute());
+		PlatformTransactionManager ptm = mock(PlatformTransactionManager.class);
+		PlatformTransactionManager otherPtm = mock(PlatformTransactionManager.class);
+		TransactionInterceptor ti = new TransactionInterceptor();
+		ti.setTransactionManager(ptm);
+		ti.setTransactionAttributeSource(tas);
+		ProxyFactory pf = new ProxyFactory(new TestBean());
+		pf.addAdvice(ti);
+		ITestBean itb = (ITestBean) pf.getProxy();
+
+		itb.getName();
+		ti.setTransactionManager(otherPtm);
+		itb.getName();
+
+		verify(ptm, times(1)).getTransaction(any());
+		verify(otherPtm, times(1)).getTransaction(any());
+	}
+
+	@Test
+	public void transactionPlanWithCustomTransactionManagerDetermination() {
+		MapTransactionAttributeSource tas = new MapTransactionAttributeSource();
+		tas.register(getNameMethod, new DefaultTransactionAttribute());
+		PlatformTransactionManager ptm = mock(PlatformTransactionManager.class);
+		AtomicInteger determinations = new AtomicInteger();
+		TransactionInterceptor ti = new TransactionInterceptor() {
+			@Override
+			protected TransactionManager determineTransactionManager(@Nullable TransactionAttribute txAttr) {
+				determinations.incrementAndGet();
+				return ptm;
+			}
+		};
+		ti.setTransactionAttributeSource(tas);
+		ProxyFactory pf = new ProxyFactory(new TestBean());
+		pf.addAdvice(ti);
+		ITestBean itb = (ITestBean) pf.getProxy();
+
+		itb.getName();
+		itb.getName();
+
+		assertThat(determinations.get()).isEqualTo(2);
+		verify(ptm, times(2)).getTransaction(any());
+	}
+
 
 	private TransactionInterceptor createTransactionInterceptor(BeanFactory beanFactory,
 			String transactionManagerName, PlatformTransactionManager transactionManager) {
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link TransactionSynchronizationManager}.
+ */
+class TransactionSynchronizationManagerTests {
+
+	@AfterEach
+	void verifyTransactionSynchronizationManagerState() {
+		assertThat(TransactionSynchronizationManager.getResourceMap().isEmpty()).isTrue();
+		assertThat(TransactionSynchronizationManager.isSynchronizationActive()).isFalse();
+		assertThat(TransactionSynchronizationManager.getCurrentTransactionName()).isNull();
+		assertThat(TransactionSynchronizationManager.isCurrentTransactionReadOnly()).isFalse();
+		assertThat(TransactionSynchronizationManager.getCurrentTransactionIsolationLevel()).isNull();
+		assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+	}
+
+
+	@Test
+	void bindAndUnbindResources() {
+		for (int i = 0; i < 10; i++) {
+			TransactionSynchronizationManager.bindResource("key" + i, "value" + i);
+		}
+		assertThat(TransactionSynchronizationManager.getResource("key7")).isEqualTo("value7");
+		assertThat(TransactionSynchronizationManager.getResourceMap()).hasSize(10);
+		assertThatIllegalStateException().isThrownBy(() ->
+				TransactionSynchronizationManager.bindResource("key0", "other"));
+
+		assertThat(TransactionSynchronizationManager.unbindResource("key3")).isEqualTo("value3");
+		assertThat(TransactionSynchronizationManager.hasResource("key3")).isFalse();
+		assertThat(TransactionSynchronizationManager.getResource("key9")).isEqualTo("value9");
+		assertThat(TransactionSynchronizationManager.unbindResourceIfPossible("key3")).isNull();
+		assertThatIllegalStateException().isThrownBy(() -> TransactionSynchronizationManager.unbindResource("key3"));
+
+		for (int i = 0; i < 10; i++) {
+			if (i != 3) {
+				TransactionSynchronizationManager.unbindResource("key" + i);
+			}
+		}
+	}
+
+	@Test
+	void voidResourceHolderRemovedOnAccess() {
+		ResourceHolderSupport holder = new ResourceHolderSupport() {};
+		TransactionSynchronizationManager.bindResource("key", holder);
+		holder.unbound();
+
+		assertThat(TransactionSynchronizationManager.getResource("key")).isNull();
+		TransactionSynchronizationManager.bindResource("key", "value");
+		assertThat(TransactionSynchronizationManager.unbindResource("key")).isEqualTo("value");
+	}
+
+	@Test
+	void synchronizationAndCharacteristics() {
+		TransactionSynchronizationManager.initSynchronization("tx", true, 2, true);
+		assertThatIllegalStateException().isThrownBy(TransactionSynchronizationManager::initSynchronization);
+		assertThat(TransactionSynchronizationManager.isSynchronizationActive()).isTrue();
+		assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+
+		TransactionSynchronization synchronization = new TransactionSynchronization() {};
+		TransactionSynchronizationManager.registerSynchronization(synchronization);
+		TransactionSynchronizationManager.registerSynchronization(synchronization);
+		assertThat(TransactionSynchronizationManager.getSynchronizations()).containsExactly(synchronization);
+		assertThat(TransactionSynchronizationManager.getCurrentTransactionName()).isEqualTo("tx");
+		assertThat(TransactionSynchronizationManager.isCurrentTransactionReadOnly()).isTrue();
+		assertThat(TransactionSynchronizationManager.getCurrentTransactionIsolationLevel()).isEqualTo(2);
+		assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isTrue();
+
+		TransactionSynchronizationManager.clear();
+		assertThatIllegalStateException().isThrownBy(TransactionSynchronizationManager::getSynchronizations);
+		assertThatIllegalStateException().isThrownBy(TransactionSynchronizationManager::clearSynchronization);
+	}
+
+}
@@ -32,11 +32,19 @@ import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.infra.Blackhole;
 
 import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.HeaderContentNegotiationStrategy;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
 
 /**
  * Benchmarks for parsing Media Types using {@link MediaType}.
  * <p>{@code MediaType is using }{@link MimeTypeUtils} has an internal parser only accessible through a package private method.
  * The publicly accessible method is backed by a LRUCache for better performance.
+ * <p>Also benchmarks the resolution of typical "Accept" headers through
+ * {@link HeaderContentNegotiationStrategy}, which caches the sorted media types
+ * per header value, against parsing and sorting them on every request.
  *
  * @author Brian Clozel
  * @see MimeTypeUtils
@@ -58,6 +66,22 @@ public class MediaTypeBenchmark {
 		}
 	}
 
+	@Benchmark
+	public void parseAndSortAcceptHeaders(AcceptHeaderData data, Blackhole bh) {
+		for (String header : data.acceptHeaders) {
+			List<MediaType> mediaTypes = MediaType.parseMediaTypes(header);
+			MediaType.sortBySpecificityAndQuality(mediaTypes);
+			bh.consume(mediaTypes);
+		}
+	}
+
+	@Benchmark
+	public void resolveAcceptHeaders(AcceptHeaderData data, Blackhole bh) throws HttpMediaTypeNotAcceptableException {
+		for (NativeWebRequest request : data.requests) {
+			bh.consume(data.strategy.resolveMediaTypes(request));
+		}
+	}
+
 	/**
 	 * Benchmark data holding typical raw Media Types.
 	 * A {@code customTypesCount} parameter can be used to pad the list with artificial types.
@@ -118,4 +142,38 @@ public class MediaTypeBenchmark {
 
 	}
 
+	/**
+	 * Benchmark data holding "Accept" headers as sent by common browsers and
+	 * HTTP clients, along with requests carrying them.
+	 */
+	@State(Scope.Benchmark)
+	public static class AcceptHeaderData {
+
+		public List<String> acceptHeaders;
+
+		public List<NativeWebRequest> requests;
+
+		public HeaderContentNegotiationStrategy strategy;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.acceptHeaders = Arrays.asList(
+					"text/html,application/xhtml+xml,application/xml;q=0.9,image/webp,*/*;q=0.8",
+					"text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,image/apng,*/*;q=0.8,application/signed-exchange;v=b3;q=0.9",
+					"image/avif,image/webp,image/apng,image/svg+xml,image/*,*/*;q=0.8",
+					"text/css,*/*;q=0.1",
+					"application/json, text/plain, */*",
+					"application/json",
+					"*/*"
+			);
+			this.requests = new ArrayList<>();
+			for (String header : this.acceptHeaders) {
+				MockHttpServletRequest request = new MockHttpServletRequest();
+				request.addHeader(HttpHeaders.ACCEPT, header);
+				this.requests.add(new ServletWebRequest(request));
+			}
+			this.strategy = new HeaderContentNegotiationStrategy();
+		}
+	}
+
 }
@@ -0,0 +1,691 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http;
+
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Compact {@link MultiValueMap} for HTTP header names and values, used as the
+ * default store behind {@link HttpHeaders}.
+ *
+ * <p>Header names are matched case-insensitively without converting them to
+ * lower case on each access, using an open-addressing index over entries kept
+ * in insertion order. Like {@link org.springframework.util.LinkedCaseInsensitiveMap}
+ * it retains the case of the header names as they were last put. Common header
+ * names are interned to the corresponding {@link HttpHeaders} constants.
+ *
+ * <p>{@link #getFirst} and {@link #toSingleValueMap()} access the first
+ * value of a header directly. A header added through {@link #add} or
+ * {@link #set} starts out with a value list of initial capacity 1, which
+ * grows as further values are added.
+ *
+ * <p>Does <i>not</i> support {@code null} header names.
+ *
+ * @since 5.3.6
+ * @see HttpHeaders#HttpHeaders()
+ */
+@SuppressWarnings("serial")
+public final class CaseInsensitiveHeadersMap implements MultiValueMap<String, String>, Serializable {
+
+	private static final String[] COMMON_HEADER_NAMES = {
+			HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_CHARSET, HttpHeaders.ACCEPT_ENCODING,
+			HttpHeaders.ACCEPT_LANGUAGE, HttpHeaders.ACCEPT_RANGES, HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN,
+			HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, HttpHeaders.AGE, HttpHeaders.ALLOW,
+			HttpHeaders.AUTHORIZATION, HttpHeaders.CACHE_CONTROL, HttpHeaders.CONNECTION,
+			HttpHeaders.CONTENT_DISPOSITION, HttpHeaders.CONTENT_ENCODING, HttpHeaders.CONTENT_LANGUAGE,
+			HttpHeaders.CONTENT_LENGTH, HttpHeaders.CONTENT_LOCATION, HttpHeaders.CONTENT_RANGE,
+			HttpHeaders.CONTENT_TYPE, HttpHeaders.COOKIE, HttpHeaders.DATE, HttpHeaders.ETAG,
+			HttpHeaders.EXPECT, HttpHeaders.EXPIRES, HttpHeaders.HOST, HttpHeaders.IF_MATCH,
+			HttpHeaders.IF_MODIFIED_SINCE, HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_UNMODIFIED_SINCE,
+			HttpHeaders.LAST_MODIFIED, HttpHeaders.LOCATION, HttpHeaders.ORIGIN, HttpHeaders.PRAGMA,
+			HttpHeaders.RANGE, HttpHeaders.REFERER, HttpHeaders.SERVER, HttpHeaders.SET_COOKIE,
+			HttpHeaders.TRANSFER_ENCODING, HttpHeaders.UPGRADE, HttpHeaders.USER_AGENT,
+			HttpHeaders.VARY, HttpHeaders.WWW_AUTHENTICATE
+	};
+
+	private static final String[] COMMON_HEADER_NAMES_TABLE = new String[128];
+
+	static {
+		int mask = COMMON_HEADER_NAMES_TABLE.length - 1;
+		for (String headerName : COMMON_HEADER_NAMES) {
+			int i = hash(headerName) & mask;
+			while (COMMON_HEADER_NAMES_TABLE[i] != null) {
+				i = (i + 1) & mask;
+			}
+			COMMON_HEADER_NAMES_TABLE[i] = headerName;
+		}
+	}
+
+
+	private String[] keys;
+
+	private List<String>[] values;
+
+	private int[] hashes;
+
+	// Entry index + 1 per slot, 0 for an empty slot
+	private int[] table;
+
+	private int size;
+
+	@Nullable
+	private transient Set<String> keySet;
+
+	@Nullable
+	private transient Collection<List<String>> valuesCollection;
+
+	@Nullable
+	private transient Set<Entry<String, List<String>>> entrySet;
+
+
+	/**
+	 * Create a new, empty map.
+	 */
+	public CaseInsensitiveHeadersMap() {
+		this(8);
+	}
+
+	/**
+	 * Create a new, empty map that can accommodate the specified number of
+	 * headers without resizing.
+	 * @param expectedSize the expected number of headers
+	 */
+	public CaseInsensitiveHeadersMap(int expectedSize) {
+		int capacity = Math.max(expectedSize, 4);
+		this.keys = new String[capacity];
+		this.values = newValuesArray(capacity);
+		this.hashes = new int[capacity];
+		this.table = new int[tableSizeFor(capacity)];
+	}
+
+
+	// MultiValueMap implementation
+
+	@Override
+	@Nullable
+	public String getFirst(String key) {
+		int index = indexOf(key);
+		if (index < 0) {
+			return null;
+		}
+		List<String> values = this.values[index];
+		return (values != null && !values.isEmpty() ? values.get(0) : null);
+	}
+
+	@Override
+	public void add(String key, @Nullable String value) {
+		int hash = hash(key);
+		int index = indexOf(key, hash);
+		if (index < 0) {
+			addEntry(key, hash, newList(value));
+		}
+		else {
+			currentValues(index).add(value);
+		}
+	}
+
+	@Override
+	public void addAll(String key, List<? extends String> values) {
+		int hash = hash(key);
+		int index = indexOf(key, hash);
+		if (index < 0) {
+			addEntry(key, hash, new ArrayList<>(values));
+		}
+		else {
+			currentValues(index).addAll(values);
+		}
+	}
+
+	@Override
+	public void addAll(MultiValueMap<String, String> values) {
+		for (Entry<String, List<String>> entry : values.entrySet()) {
+			addAll(entry.getKey(), entry.getValue());
+		}
+	}
+
+	@Override
+	public void set(String key, @Nullable String value) {
+		put(key, newList(value));
+	}
+
+	@Override
+	public void setAll(Map<String, String> values) {
+		values.forEach(this::set);
+	}
+
+	@Override
+	public Map<String, String> toSingleValueMap() {
+		Map<String, String> singleValueMap = CollectionUtils.newLinkedHashMap(this.size);
+		for (int i = 0; i < this.size; i++) {
+			List<String> values = this.values[i];
+			if (values != null && !values.isEmpty()) {
+				singleValueMap.put(this.keys[i], values.get(0));
+			}
+		}
+		return singleValueMap;
+	}
+
+
+	// Map implementation
+
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return (this.size == 0);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return (indexOf(key) >= 0);
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		for (int i = 0; i < this.size; i++) {
+			if (ObjectUtils.nullSafeEquals(this.values[i], value)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	@Nullable
+	public List<String> get(Object key) {
+		int index = indexOf(key);
+		return (index >= 0 ? this.values[index] : null);
+	}
+
+	@Override
+	@Nullable
+	public List<String> put(String key, List<String> value) {
+		int hash = hash(key);
+		int index = indexOf(key, hash);
+		if (index < 0) {
+			addEntry(key, hash, value);
+			return null;
+		}
+		List<String> oldValue = this.values[index];
+		this.values[index] = value;
+		if (!this.keys[index].equals(key)) {
+			this.keys[index] = intern(key, hash);
+		}
+		return oldValue;
+	}
+
+	@Override
+	@Nullable
+	public List<String> remove(Object key) {
+		int index = indexOf(key);
+		if (index < 0) {
+			return null;
+		}
+		List<String> value = this.values[index];
+		removeAt(index);
+		return value;
+	}
+
+	@Override
+	public void putAll(Map<? extends String, ? extends List<String>> map) {
+		map.forEach(this::put);
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(this.keys, 0, this.size, null);
+		Arrays.fill(this.values, 0, this.size, null);
+		Arrays.fill(this.table, 0);
+		this.size = 0;
+	}
+
+	@Override
+	public Set<String> keySet() {
+		Set<String> keySet = this.keySet;
+		if (keySet == null) {
+			keySet = new KeySet();
+			this.keySet = keySet;
+		}
+		return keySet;
+	}
+
+	@Override
+	public Collection<List<String>> values() {
+		Collection<List<String>> values = this.valuesCollection;
+		if (values == null) {
+			values = new Values();
+			this.valuesCollection = values;
+		}
+		return values;
+	}
+
+	@Override
+	public Set<Entry<String, List<String>>> entrySet() {
+		Set<Entry<String, List<String>>> entrySet = this.entrySet;
+		if (entrySet == null) {
+			entrySet = new EntrySet();
+			this.entrySet = entrySet;
+		}
+		return entrySet;
+	}
+
+	@Override
+	public boolean equals(@Nullable Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof Map)) {
+			return false;
+		}
+		Map<?, ?> otherMap = (Map<?, ?>) other;
+		if (otherMap.size() != this.size) {
+			return false;
+		}
+		for (int i = 0; i < this.size; i++) {
+			Object otherValue = otherMap.get(this.keys[i]);
+			if (otherValue == null || !otherValue.equals(this.values[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hashCode = 0;
+		for (int i = 0; i < this.size; i++) {
+			hashCode += this.keys[i].hashCode() ^ ObjectUtils.nullSafeHashCode(this.values[i]);
+		}
+		return hashCode;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("{");
+		for (int i = 0; i < this.size; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(this.keys[i]).append('=').append(this.values[i]);
+		}
+		return sb.append('}').toString();
+	}
+
+
+	// Internal helpers
+
+	private int indexOf(@Nullable Object key) {
+		return (key instanceof String ? indexOf((String) key, hash((String) key)) : -1);
+	}
+
+	private int indexOf(String name, int hash) {
+		int mask = this.table.length - 1;
+		for (int i = hash & mask; ; i = (i + 1) & mask) {
+			int slot = this.table[i];
+			if (slot == 0) {
+				return -1;
+			}
+			int index = slot - 1;
+			if (this.hashes[index] == hash) {
+				String candidate = this.keys[index];
+				if (candidate == name || candidate.equalsIgnoreCase(name)) {
+					return index;
+				}
+			}
+		}
+	}
+
+	private void addEntry(String key, int hash, @Nullable List<String> value) {
+		if (this.size == this.keys.length) {
+			int capacity = this.size * 2;
+			this.keys = Arrays.copyOf(this.keys, capacity);
+			this.values = Arrays.copyOf(this.values, capacity);
+			this.hashes = Arrays.copyOf(this.hashes, capacity);
+			this.table = new int[tableSizeFor(capacity)];
+			rebuildTable();
+		}
+		int index = this.size++;
+		this.keys[index] = intern(key, hash);
+		this.values[index] = value;
+		this.hashes[index] = hash;
+		insertIntoTable(hash, index);
+	}
+
+	private void removeAt(int index) {
+		int remaining = this.size - index - 1;
+		if (remaining > 0) {
+			System.arraycopy(this.keys, index + 1, this.keys, index, remaining);
+			System.arraycopy(this.values, index + 1, this.values, index, remaining);
+			System.arraycopy(this.hashes, index + 1, this.hashes, index, remaining);
+		}
+		this.size--;
+		this.keys[this.size] = null;
+		this.values[this.size] = null;
+		Arrays.fill(this.table, 0);
+		rebuildTable();
+	}
+
+	private void rebuildTable() {
+		for (int i = 0; i < this.size; i++) {
+			insertIntoTable(this.hashes[i], i);
+		}
+	}
+
+	private void insertIntoTable(int hash, int index) {
+		int mask = this.table.length - 1;
+		int i = hash & mask;
+		while (this.table[i] != 0) {
+			i = (i + 1) & mask;
+		}
+		this.table[i] = index + 1;
+	}
+
+	private List<String> currentValues(int index) {
+		List<String> values = this.values[index];
+		if (values == null) {
+			values = new ArrayList<>(1);
+			this.values[index] = values;
+		}
+		return values;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<String>[] newValuesArray(int capacity) {
+		return (List<String>[]) new List<?>[capacity];
+	}
+
+	private static List<String> newList(@Nullable String value) {
+		List<String> list = new ArrayList<>(1);
+		list.add(value);
+		return list;
+	}
+
+	private static String intern(String key, int hash) {
+		int mask = COMMON_HEADER_NAMES_TABLE.length - 1;
+		for (int i = hash & mask; ; i = (i + 1) & mask) {
+			String headerName = COMMON_HEADER_NAMES_TABLE[i];
+			if (headerName == null) {
+				return key;
+			}
+			if (headerName.equals(key)) {
+				return headerName;
+			}
+		}
+	}
+
+	/**
+	 * Compute a hash code for the given header name that is consistent with
+	 * {@link String#equalsIgnoreCase}, without allocating a lower case copy.
+	 */
+	private static int hash(String key) {
+		int hash = 0;
+		for (int i = 0; i < key.length(); i++) {
+			char c = key.charAt(i);
+			if (c < 128) {
+				if (c >= 'A' && c <= 'Z') {
+					c += 'a' - 'A';
+				}
+			}
+			else {
+				c = Character.toLowerCase(Character.toUpperCase(c));
+			}
+			hash = 31 * hash + c;
+		}
+		return hash ^ (hash >>> 16);
+	}
+
+	private static int tableSizeFor(int capacity) {
+		return Integer.highestOneBit(capacity * 2 - 1) << 1;
+	}
+
+
+	private abstract class EntryIterator<T> implements Iterator<T> {
+
+		private int next;
+
+		private int last = -1;
+
+		@Override
+		public boolean hasNext() {
+			return (this.next < size);
+		}
+
+		@Override
+		public T next() {
+			if (this.next >= size) {
+				throw new NoSuchElementException();
+			}
+			this.last = this.next++;
+			return get(this.last);
+		}
+
+		protected abstract T get(int index);
+
+		@Override
+		public void remove() {
+			if (this.last < 0) {
+				throw new IllegalStateException();
+			}
+			removeAt(this.last);
+			this.next = this.last;
+			this.last = -1;
+		}
+	}
+
+
+	private class KeySet extends AbstractSet<String> {
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return containsKey(o);
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			int index = indexOf(o);
+			if (index < 0) {
+				return false;
+			}
+			removeAt(index);
+			return true;
+		}
+
+		@Override
+		public void clear() {
+			CaseInsensitiveHeadersMap.this.clear();
+		}
+
+		@Override
+		public Iterator<String> iterator() {
+			return new EntryIterator<String>() {
+				@Override
+				protected String get(int index) {
+					return keys[index];
+				}
+			};
+		}
+	}
+
+
+	private class Values extends AbstractCollection<List<String>> {
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return containsValue(o);
+		}
+
+		@Override
+		public void clear() {
+			CaseInsensitiveHeadersMap.this.clear();
+		}
+
+		@Override
+		public Iterator<List<String>> iterator() {
+			return new EntryIterator<List<String>>() {
+				@Override
+				protected List<String> get(int index) {
+					return values[index];
+				}
+			};
+		}
+	}
+
+
+	private class EntrySet extends AbstractSet<Entry<String, List<String>>> {
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof Entry)) {
+				return false;
+			}
+			Entry<?, ?> entry = (Entry<?, ?>) o;
+			int index = indexOf(entry.getKey());
+			return (index >= 0 && ObjectUtils.nullSafeEquals(values[index], entry.getValue()));
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			if (!(o instanceof Entry)) {
+				return false;
+			}
+			Entry<?, ?> entry = (Entry<?, ?>) o;
+			int index = indexOf(entry.getKey());
+			if (index >= 0 && ObjectUtils.nullSafeEquals(values[index], entry.getValue())) {
+				removeAt(index);
+				return true;
+			}
+			return false;
+		}
+
+		@Override
+		public void clear() {
+			CaseInsensitiveHeadersMap.this.clear();
+		}
+
+		@Override
+		public Iterator<Entry<String, List<String>>> iterator() {
+			return new EntryIterator<Entry<String, List<String>>>() {
+				@Override
+				protected Entry<String, List<String>> get(int index) {
+					return new HeaderEntry(keys[index], index);
+				}
+			};
+		}
+	}
+
+
+	private class HeaderEntry implements Entry<String, List<String>> {
+
+		private final String key;
+
+		private int index;
+
+		HeaderEntry(String key, int index) {
+			this.key = key;
+			this.index = index;
+		}
+
+		@Override
+		public String getKey() {
+			return this.key;
+		}
+
+		@Override
+		@Nullable
+		public List<String> getValue() {
+			int index = currentIndex();
+			return (index >= 0 ? values[index] : null);
+		}
+
+		@Override
+		public List<String> setValue(List<String> value) {
+			int index = currentIndex();
+			if (index < 0) {
+				throw new IllegalStateException("Header '" + this.key + "' has been removed");
+			}
+			List<String> oldValue = values[index];
+			values[index] = value;
+			return oldValue;
+		}
+
+		private int currentIndex() {
+			if (this.index >= size || keys[this.index] != this.key) {
+				this.index = indexOf(this.key);
+			}
+			return this.index;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof Entry)) {
+				return false;
+			}
+			Entry<?, ?> otherEntry = (Entry<?, ?>) other;
+			List<String> value = getValue();
+			return (this.key.equals(otherEntry.getKey()) &&
+					(value != null ? value.equals(otherEntry.getValue()) : otherEntry.getValue() == null));
+		}
+
+		@Override
+		public int hashCode() {
+			List<String> value = getValue();
+			return this.key.hashCode() ^ (value != null ? value.hashCode() : 0);
+		}
+
+		@Override
+		public String toString() {
+			return this.key + "=" + getValue();
+		}
+	}
+
+}
@@ -46,8 +46,6 @@ import java.util.stream.Collectors;
 
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
-import org.springframework.util.CollectionUtils;
-import org.springframework.util.LinkedCaseInsensitiveMap;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
@@ -426,9 +424,10 @@ public class HttpHeaders implements MultiValueMap<String, String>, Serializable
 	/**
 	 * Construct a new, empty instance of the {@code HttpHeaders} object.
 	 * <p>This is the common constructor, using a case-insensitive map structure.
+	 * @see CaseInsensitiveHeadersMap
 	 */
 	public HttpHeaders() {
-		this(CollectionUtils.toMultiValueMap(new LinkedCaseInsensitiveMap<>(8, Locale.ENGLISH)));
+		this(new CaseInsensitiveHeadersMap());
 	}
 
 	/**
@@ -16,25 +16,61 @@
 
 package org.springframework.web.accept;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
+import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.StringUtils;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.context.request.NativeWebRequest;
 
 /**
  * A {@code ContentNegotiationStrategy} that checks the 'Accept' request header.
  *
+ * <p>The parsed and sorted media types are cached by raw header value, so that
+ * repeated 'Accept' headers, as sent by the same kind of client, are resolved
+ * without parsing and sorting them again.
+ *
  * @author Rossen Stoyanchev
  * @author Juergen Hoeller
  * @since 3.2
  */
 public class HeaderContentNegotiationStrategy implements ContentNegotiationStrategy {
 
+	private static final int DEFAULT_CACHE_LIMIT = 256;
+
+
+	private final ConcurrentLruCache<String, List<MediaType>> mediaTypesCache;
+
+
+	/**
+	 * Create an instance that caches the media types for up to 256 distinct
+	 * 'Accept' header values.
+	 */
+	public HeaderContentNegotiationStrategy() {
+		this(DEFAULT_CACHE_LIMIT);
+	}
+
+	/**
+	 * Create an instance that caches the media types for up to the given
+	 * number of distinct 'Accept' header values.
+	 * @param cacheLimit the maximum number of cached header values,
+	 * or 0 to parse the header on every request
+	 * @since 5.3.6
+	 */
+	public HeaderContentNegotiationStrategy(int cacheLimit) {
+		Assert.isTrue(cacheLimit >= 0, "Cache limit must not be negative");
+		this.mediaTypesCache = new ConcurrentLruCache<>(cacheLimit, HeaderContentNegotiationStrategy::parseMediaTypes);
+	}
+
+
 	/**
 	 * {@inheritDoc}
 	 * @throws HttpMediaTypeNotAcceptableException if the 'Accept' header cannot be parsed
@@ -48,16 +84,25 @@ public class HeaderContentNegotiationStrategy implements ContentNegotiationStrat
 			return MEDIA_TYPE_ALL_LIST;
 		}
 
-		List<String> headerValues = Arrays.asList(headerValueArray);
+		String headerValue = (headerValueArray.length == 1 ? headerValueArray[0] :
+				StringUtils.arrayToDelimitedString(headerValueArray, ","));
+		if (!StringUtils.hasLength(headerValue)) {
+			return MEDIA_TYPE_ALL_LIST;
+		}
 		try {
-			List<MediaType> mediaTypes = MediaType.parseMediaTypes(headerValues);
-			MediaType.sortBySpecificityAndQuality(mediaTypes);
-			return !CollectionUtils.isEmpty(mediaTypes) ? mediaTypes : MEDIA_TYPE_ALL_LIST;
+			List<MediaType> mediaTypes = this.mediaTypesCache.get(headerValue);
+			return !CollectionUtils.isEmpty(mediaTypes) ? new ArrayList<>(mediaTypes) : MEDIA_TYPE_ALL_LIST;
 		}
 		catch (InvalidMediaTypeException ex) {
 			throw new HttpMediaTypeNotAcceptableException(
-					"Could not parse 'Accept' header " + headerValues + ": " + ex.getMessage());
+					"Could not parse 'Accept' header " + Arrays.asList(headerValueArray) + ": " + ex.getMessage());
 		}
 	}
 
+	private static List<MediaType> parseMediaTypes(String headerValue) {
+		List<MediaType> mediaTypes = MediaType.parseMediaTypes(headerValue);
+		MediaType.sortBySpecificityAndQuality(mediaTypes);
+		return Collections.unmodifiableList(mediaTypes);
+	}
+
 }
@@ -18,17 +18,22 @@ package org.springframework.web.filter;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.util.zip.CRC32;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.ServletOutputStream;
 import javax.servlet.ServletRequest;
+import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.DigestUtils;
 import org.springframework.util.StringUtils;
@@ -46,6 +51,11 @@ import org.springframework.web.util.WebUtils;
  * (e.g. a {@link org.springframework.web.servlet.View}) is still rendered.
  * As such, this filter only saves bandwidth, not server performance.
  *
+ * <p>By default the entire response content is buffered in order to compute
+ * the ETag. A {@link #setContentCacheLimit content cache limit} can be set
+ * so that larger responses are streamed to the client as they are written,
+ * without an ETag, instead of being held in memory.
+ *
  * <p><b>NOTE:</b> As of Spring Framework 5.0, this filter uses request/response
  * decorators built on the Servlet 3.1 API.
  *
@@ -64,6 +74,10 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 	private boolean writeWeakETag = false;
 
+	private int contentCacheLimit = -1;
+
+	private boolean useFastHash = false;
+
 
 	/**
 	 * Set whether the ETag value written to the response should be weak, as per RFC 7232.
@@ -84,6 +98,53 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		return this.writeWeakETag;
 	}
 
+	/**
+	 * Set the maximum number of bytes of response content to buffer for the
+	 * purpose of computing an ETag. Once a response grows beyond this limit,
+	 * or declares a larger content length up front, the buffered content is
+	 * written out, the remaining content is streamed directly to the client,
+	 * and no ETag is generated for the response.
+	 * <p>By default this is set to -1, in which case the entire response
+	 * content is buffered regardless of its size.
+	 * <p>Should be configured using an {@code <init-param>} for parameter name
+	 * "contentCacheLimit" in the filter definition in {@code web.xml}.
+	 * @since 5.3.6
+	 */
+	public void setContentCacheLimit(int contentCacheLimit) {
+		this.contentCacheLimit = contentCacheLimit;
+	}
+
+	/**
+	 * Return the maximum number of bytes of response content to buffer.
+	 * @since 5.3.6
+	 */
+	public int getContentCacheLimit() {
+		return this.contentCacheLimit;
+	}
+
+	/**
+	 * Set whether the ETag value should be derived from a CRC-32 checksum and
+	 * the content length rather than from an MD5 hash. The checksum is
+	 * considerably cheaper to compute for large responses, at the expense of
+	 * a higher chance of collisions, which is generally acceptable for ETags
+	 * that only need to detect changes to the same resource.
+	 * <p>By default this is set to {@code false}.
+	 * <p>Should be configured using an {@code <init-param>} for parameter name
+	 * "useFastHash" in the filter definition in {@code web.xml}.
+	 * @since 5.3.6
+	 */
+	public void setUseFastHash(boolean useFastHash) {
+		this.useFastHash = useFastHash;
+	}
+
+	/**
+	 * Return whether the ETag value is derived from a CRC-32 checksum.
+	 * @since 5.3.6
+	 */
+	public boolean isUseFastHash() {
+		return this.useFastHash;
+	}
+
 
 	/**
 	 * The default value is {@code false} so that the filter may delay the generation
@@ -100,7 +161,7 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 		HttpServletResponse responseToUse = response;
 		if (!isAsyncDispatch(request) && !(response instanceof ConditionalContentCachingResponseWrapper)) {
-			responseToUse = new ConditionalContentCachingResponseWrapper(response, request);
+			responseToUse = new ConditionalContentCachingResponseWrapper(response, request, this.contentCacheLimit);
 		}
 
 		filterChain.doFilter(request, responseToUse);
@@ -116,7 +177,7 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		Assert.notNull(wrapper, "ContentCachingResponseWrapper not found");
 		HttpServletResponse rawResponse = (HttpServletResponse) wrapper.getResponse();
 
-		if (isEligibleForEtag(request, wrapper, wrapper.getStatus(), wrapper.getContentInputStream())) {
+		if (!wrapper.isContentCacheLimitExceeded() && isEligibleForEtag(request, wrapper, wrapper.getStatus(), wrapper.getContentInputStream())) {
 			String eTag = wrapper.getHeader(HttpHeaders.ETAG);
 			if (!StringUtils.hasText(eTag)) {
 				eTag = generateETagHeaderValue(wrapper.getContentInputStream(), this.writeWeakETag);
@@ -161,7 +222,8 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 	/**
 	 * Generate the ETag header value from the given response body byte array.
-	 * <p>The default implementation generates an MD5 hash.
+	 * <p>The default implementation generates an MD5 hash, or a CRC-32 checksum
+	 * combined with the content length if {@link #setUseFastHash} is set.
 	 * @param inputStream the response body as an InputStream
 	 * @param isWeak whether the generated ETag should be weak
 	 * @return the ETag header value
@@ -173,12 +235,34 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		if (isWeak) {
 			builder.append("W/");
 		}
-		builder.append("\"0");
-		DigestUtils.appendMd5DigestAsHex(inputStream, builder);
+		if (this.useFastHash) {
+			builder.append("\"1");
+			appendChecksumAsHex(inputStream, builder);
+		}
+		else {
+			builder.append("\"0");
+			DigestUtils.appendMd5DigestAsHex(inputStream, builder);
+		}
 		builder.append('"');
 		return builder.toString();
 	}
 
+	private static void appendChecksumAsHex(InputStream inputStream, StringBuilder builder) throws IOException {
+		CRC32 checksum = new CRC32();
+		byte[] buffer = new byte[4096];
+		long length = 0;
+		int bytesRead;
+		while ((bytesRead = inputStream.read(buffer)) != -1) {
+			checksum.update(buffer, 0, bytesRead);
+			length += bytesRead;
+		}
+		String value = Long.toHexString(checksum.getValue());
+		for (int i = value.length(); i < 8; i++) {
+			builder.append('0');
+		}
+		builder.append(value).append('-').append(Long.toHexString(length));
+	}
+
 
 	/**
 	 * This method can be used to suppress the content caching response wrapper
@@ -201,32 +285,183 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 	/**
 	 * Returns the raw OutputStream, instead of the one that does caching,
-	 * if {@link #isContentCachingDisabled}.
+	 * if {@link #isContentCachingDisabled}, and switches to the raw
+	 * OutputStream once the content cache limit, if any, is exceeded.
 	 */
 	private static class ConditionalContentCachingResponseWrapper extends ContentCachingResponseWrapper {
 
 		private final HttpServletRequest request;
 
-		ConditionalContentCachingResponseWrapper(HttpServletResponse response, HttpServletRequest request) {
+		private final int contentCacheLimit;
+
+		private boolean contentCacheLimitExceeded;
+
+		@Nullable
+		private ServletOutputStream limitedOutputStream;
+
+		@Nullable
+		private PrintWriter limitedWriter;
+
+		ConditionalContentCachingResponseWrapper(
+				HttpServletResponse response, HttpServletRequest request, int contentCacheLimit) {
+
 			super(response);
 			this.request = request;
+			this.contentCacheLimit = contentCacheLimit;
 		}
 
 		@Override
 		public ServletOutputStream getOutputStream() throws IOException {
-			return (isContentCachingDisabled(this.request) || hasETag() ?
-					getResponse().getOutputStream() : super.getOutputStream());
+			if (isContentCachingDisabled(this.request) || hasETag()) {
+				return getResponse().getOutputStream();
+			}
+			if (this.contentCacheLimit < 0) {
+				return super.getOutputStream();
+			}
+			if (this.limitedOutputStream == null) {
+				this.limitedOutputStream = new LimitedServletOutputStream(super.getOutputStream());
+			}
+			return this.limitedOutputStream;
 		}
 
 		@Override
 		public PrintWriter getWriter() throws IOException {
-			return (isContentCachingDisabled(this.request) || hasETag()?
-					getResponse().getWriter() : super.getWriter());
+			if (isContentCachingDisabled(this.request) || hasETag()) {
+				return getResponse().getWriter();
+			}
+			if (this.contentCacheLimit < 0) {
+				return super.getWriter();
+			}
+			if (this.limitedWriter == null) {
+				String characterEncoding = getCharacterEncoding();
+				this.limitedWriter = new LimitedPrintWriter(getOutputStream(),
+						characterEncoding != null ? characterEncoding : WebUtils.DEFAULT_CHARACTER_ENCODING);
+			}
+			return this.limitedWriter;
+		}
+
+		@Override
+		public void setContentLength(int len) {
+			if (exceedsContentCacheLimit(len)) {
+				getResponse().setContentLength(len);
+			}
+			else {
+				super.setContentLength(len);
+			}
+		}
+
+		@Override
+		public void setContentLengthLong(long len) {
+			if (exceedsContentCacheLimit(len)) {
+				getResponse().setContentLengthLong(len);
+			}
+			else {
+				super.setContentLengthLong(len);
+			}
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			if (this.contentCacheLimitExceeded) {
+				getResponse().flushBuffer();
+			}
+		}
+
+		boolean isContentCacheLimitExceeded() {
+			return this.contentCacheLimitExceeded;
 		}
 
 		private boolean hasETag() {
 			return StringUtils.hasText(getHeader(HttpHeaders.ETAG));
 		}
+
+		private boolean exceedsContentCacheLimit(long len) {
+			if (this.contentCacheLimitExceeded) {
+				return true;
+			}
+			if (this.contentCacheLimit < 0 || len <= this.contentCacheLimit) {
+				return false;
+			}
+			try {
+				switchToStreaming();
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to write cached content to the response", ex);
+			}
+			return true;
+		}
+
+		private void switchToStreaming() throws IOException {
+			if (!this.contentCacheLimitExceeded) {
+				this.contentCacheLimitExceeded = true;
+				copyBodyToResponse(false);
+			}
+		}
+
+
+		private class LimitedServletOutputStream extends ServletOutputStream {
+
+			private final ServletOutputStream cachingStream;
+
+			LimitedServletOutputStream(ServletOutputStream cachingStream) {
+				this.cachingStream = cachingStream;
+			}
+
+			@Override
+			public void write(int b) throws IOException {
+				getTargetStream(1).write(b);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				getTargetStream(len).write(b, off, len);
+			}
+
+			private ServletOutputStream getTargetStream(int len) throws IOException {
+				if (!contentCacheLimitExceeded && getContentSize() + (long) len > contentCacheLimit) {
+					switchToStreaming();
+				}
+				return (contentCacheLimitExceeded ? getResponse().getOutputStream() : this.cachingStream);
+			}
+
+			@Override
+			public boolean isReady() {
+				return this.cachingStream.isReady();
+			}
+
+			@Override
+			public void setWriteListener(WriteListener writeListener) {
+				this.cachingStream.setWriteListener(writeListener);
+			}
+		}
+
+
+		private static class LimitedPrintWriter extends PrintWriter {
+
+			LimitedPrintWriter(ServletOutputStream outputStream, String characterEncoding)
+					throws UnsupportedEncodingException {
+
+				super(new OutputStreamWriter(outputStream, characterEncoding));
+			}
+
+			@Override
+			public void write(char[] buf, int off, int len) {
+				super.write(buf, off, len);
+				super.flush();
+			}
+
+			@Override
+			public void write(String s, int off, int len) {
+				super.write(s, off, len);
+				super.flush();
+			}
+
+			@Override
+			public void write(int c) {
+				super.write(c);
+				super.flush();
+			}
+		}
 	}
 
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -43,6 +43,9 @@ public class HandlerMethodArgumentResolverComposite implements HandlerMethodArgu
 	private final Map<MethodParameter, HandlerMethodArgumentResolver> argumentResolverCache =
 			new ConcurrentHashMap<>(256);
 
+	private final Map<MethodParameter[], HandlerMethodArgumentResolver[]> argumentResolversCache =
+			new ConcurrentHashMap<>(256);
+
 
 	/**
 	 * Add the given {@link HandlerMethodArgumentResolver}.
@@ -121,6 +124,27 @@ public class HandlerMethodArgumentResolverComposite implements HandlerMethodArgu
 		return resolver.resolveArgument(parameter, mavContainer, webRequest, binderFactory);
 	}
 
+	/**
+	 * Find the registered {@link HandlerMethodArgumentResolver HandlerMethodArgumentResolvers}
+	 * supporting the given parameters of a handler method, in order. The selection
+	 * is cached per parameters array, which all copies of a handler method share.
+	 * A {@code null} element indicates that no resolver supported the parameter
+	 * at the time of the selection.
+	 * <p>Package-private for use in {@link InvocableHandlerMethod}.
+	 * @since 5.3.6
+	 */
+	HandlerMethodArgumentResolver[] getArgumentResolvers(MethodParameter[] parameters) {
+		HandlerMethodArgumentResolver[] result = this.argumentResolversCache.get(parameters);
+		if (result == null) {
+			result = new HandlerMethodArgumentResolver[parameters.length];
+			for (int i = 0; i < parameters.length; i++) {
+				result[i] = getArgumentResolver(parameters[i]);
+			}
+			this.argumentResolversCache.put(parameters, result);
+		}
+		return result;
+	}
+
 	/**
 	 * Find a registered {@link HandlerMethodArgumentResolver} that supports
 	 * the given method parameter.
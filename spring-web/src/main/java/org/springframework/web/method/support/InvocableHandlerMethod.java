@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -155,19 +155,29 @@ public class InvocableHandlerMethod extends HandlerMethod {
 			return EMPTY_ARGS;
 		}
 
+		for (MethodParameter parameter : parameters) {
+			parameter.initParameterNameDiscovery(this.parameterNameDiscoverer);
+		}
+		// Resolvers selected once per handler method, unless customized
+		HandlerMethodArgumentResolver[] argumentResolvers =
+				(this.resolvers.getClass() == HandlerMethodArgumentResolverComposite.class ?
+						this.resolvers.getArgumentResolvers(parameters) : null);
 		Object[] args = new Object[parameters.length];
 		for (int i = 0; i < parameters.length; i++) {
 			MethodParameter parameter = parameters[i];
-			parameter.initParameterNameDiscovery(this.parameterNameDiscoverer);
 			args[i] = findProvidedArgument(parameter, providedArgs);
 			if (args[i] != null) {
 				continue;
 			}
-			if (!this.resolvers.supportsParameter(parameter)) {
-				throw new IllegalStateException(formatArgumentError(parameter, "No suitable resolver"));
+			HandlerMethodArgumentResolver resolver = (argumentResolvers != null ? argumentResolvers[i] : null);
+			if (resolver == null) {
+				if (!this.resolvers.supportsParameter(parameter)) {
+					throw new IllegalStateException(formatArgumentError(parameter, "No suitable resolver"));
+				}
+				resolver = this.resolvers;
 			}
 			try {
-				args[i] = this.resolvers.resolveArgument(parameter, mavContainer, request, this.dataBinderFactory);
+				args[i] = resolver.resolveArgument(parameter, mavContainer, request, this.dataBinderFactory);
 			}
 			catch (Exception ex) {
 				// Leave stack trace for later, exception may actually be resolved and handled...
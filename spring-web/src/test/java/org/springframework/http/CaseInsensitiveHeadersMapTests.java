@@ -0,0 +1,176 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.testfixture.io.SerializationTestUtils;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.springframework.util.MultiValueMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Unit tests for {@link CaseInsensitiveHeadersMap}.
+ */
+class CaseInsensitiveHeadersMapTests {
+
+	private final CaseInsensitiveHeadersMap map = new CaseInsensitiveHeadersMap();
+
+
+	@Test
+	void caseInsensitiveLookup() {
+		this.map.add("Content-Type", "text/plain");
+		this.map.add("x-custom", "a");
+
+		assertThat(this.map.getFirst("content-type")).isEqualTo("text/plain");
+		assertThat(this.map.getFirst("CONTENT-TYPE")).isEqualTo("text/plain");
+		assertThat(this.map.get("X-Custom")).containsExactly("a");
+		assertThat(this.map.containsKey("X-CUSTOM")).isTrue();
+		assertThat(this.map.containsKey("Accept")).isFalse();
+		assertThat(this.map.get(1)).isNull();
+		assertThat(this.map.keySet()).containsExactly("Content-Type", "x-custom");
+	}
+
+	@Test
+	void singleValueConvertedToList() {
+		this.map.set("Accept", "text/html");
+		this.map.add("Accept", "text/plain");
+		assertThat(this.map.get("accept")).containsExactly("text/html", "text/plain");
+
+		this.map.set("Host", "example.org");
+		List<String> values = this.map.get("host");
+		values.add("example.com");
+		assertThat(this.map.get("Host")).containsExactly("example.org", "example.com");
+		assertThat(this.map.getFirst("Host")).isEqualTo("example.org");
+	}
+
+	@Test
+	void nullValues() {
+		this.map.add("X-Null", null);
+		this.map.set("X-Other", null);
+
+		assertThat(this.map.get("x-null")).containsExactly((String) null);
+		assertThat(this.map.getFirst("x-other")).isNull();
+		assertThat(this.map.containsKey("x-other")).isTrue();
+	}
+
+	@Test
+	void putReplacesValuesAndCase() {
+		this.map.add("content-type", "text/plain");
+		this.map.add("Accept", "*/*");
+		List<String> previous = this.map.put("Content-Type", Collections.singletonList("text/html"));
+
+		assertThat(previous).containsExactly("text/plain");
+		assertThat(this.map.keySet()).containsExactly("Content-Type", "Accept");
+		assertThat(this.map.getFirst("CONTENT-TYPE")).isEqualTo("text/html");
+	}
+
+	@Test
+	void remove() {
+		for (int i = 0; i < 20; i++) {
+			this.map.add("X-Header-" + i, String.valueOf(i));
+		}
+		assertThat(this.map.remove("x-header-5")).containsExactly("5");
+		assertThat(this.map.remove("x-header-5")).isNull();
+		assertThat(this.map.size()).isEqualTo(19);
+		for (int i = 0; i < 20; i++) {
+			assertThat(this.map.getFirst("X-HEADER-" + i)).isEqualTo(i != 5 ? String.valueOf(i) : null);
+		}
+
+		this.map.keySet().removeIf(key -> key.endsWith("1"));
+		assertThat(this.map.size()).isEqualTo(17);
+		assertThat(this.map.containsKey("X-Header-11")).isFalse();
+		assertThat(this.map.getFirst("X-Header-19")).isEqualTo("19");
+
+		this.map.clear();
+		assertThat(this.map).isEmpty();
+		assertThat(this.map.getFirst("X-Header-19")).isNull();
+	}
+
+	@Test
+	void entrySet() {
+		this.map.set("Accept", "text/html");
+		this.map.add("Vary", "Origin");
+		this.map.add("Vary", "Accept");
+
+		assertThat(this.map.entrySet()).containsExactly(
+				entry("Accept", Collections.singletonList("text/html")),
+				entry("Vary", Arrays.asList("Origin", "Accept")));
+
+		Iterator<Map.Entry<String, List<String>>> iterator = this.map.entrySet().iterator();
+		Map.Entry<String, List<String>> entry = iterator.next();
+		entry.setValue(Collections.singletonList("*/*"));
+		assertThat(this.map.getFirst("accept")).isEqualTo("*/*");
+		iterator.remove();
+		assertThat(this.map.keySet()).containsExactly("Vary");
+	}
+
+	@Test
+	void toSingleValueMap() {
+		this.map.set("Accept", "text/html");
+		this.map.add("Vary", "Origin");
+		this.map.add("Vary", "Accept");
+
+		assertThat(this.map.toSingleValueMap()).containsExactly(
+				entry("Accept", "text/html"), entry("Vary", "Origin"));
+	}
+
+	@Test
+	void equalsAndHashCode() {
+		MultiValueMap<String, String> other =
+				CollectionUtils.toMultiValueMap(new LinkedCaseInsensitiveMap<>(8, Locale.ENGLISH));
+		other.set("Accept", "text/html");
+		other.add("Vary", "Origin");
+		other.add("Vary", "Accept");
+
+		this.map.set("Accept", "text/html");
+		this.map.add("Vary", "Origin");
+		this.map.add("Vary", "Accept");
+
+		assertThat(this.map).isEqualTo(other);
+		assertThat(other).isEqualTo(this.map);
+		assertThat(this.map.hashCode()).isEqualTo(other.hashCode());
+		assertThat(this.map.toString()).isEqualTo(other.toString());
+	}
+
+	@Test
+	void commonHeaderNamesInterned() {
+		this.map.set(new String("Content-Type".toCharArray()), "text/plain");
+		assertThat(this.map.keySet().iterator().next()).isSameAs(HttpHeaders.CONTENT_TYPE);
+	}
+
+	@Test
+	void serialization() throws Exception {
+		this.map.set("Accept", "text/html");
+		this.map.add("Vary", "Origin");
+
+		CaseInsensitiveHeadersMap copy = SerializationTestUtils.serializeAndDeserialize(this.map);
+		assertThat(copy).isEqualTo(this.map);
+		assertThat(copy.getFirst("vary")).isEqualTo("Origin");
+	}
+
+}
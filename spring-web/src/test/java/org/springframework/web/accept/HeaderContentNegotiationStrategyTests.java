@@ -69,6 +69,26 @@ public class HeaderContentNegotiationStrategyTests {
 		assertThat(mediaTypes.get(3).toString()).isEqualTo("text/plain;q=0.5");
 	}
 
+	@Test
+	public void resolveMediaTypesFromCache() throws Exception {
+		this.servletRequest.addHeader("Accept", "text/plain; q=0.5, text/html");
+		List<MediaType> mediaTypes = this.strategy.resolveMediaTypes(this.webRequest);
+		mediaTypes.clear();
+
+		List<MediaType> cachedMediaTypes = this.strategy.resolveMediaTypes(this.webRequest);
+		assertThat(cachedMediaTypes).containsExactly(MediaType.TEXT_HTML, MediaType.parseMediaType("text/plain;q=0.5"));
+		assertThat(cachedMediaTypes.get(0)).isSameAs(this.strategy.resolveMediaTypes(this.webRequest).get(0));
+	}
+
+	@Test
+	public void resolveMediaTypesWithoutCache() throws Exception {
+		HeaderContentNegotiationStrategy strategy = new HeaderContentNegotiationStrategy(0);
+		this.servletRequest.addHeader("Accept", "text/plain; q=0.5, text/html");
+
+		assertThat(strategy.resolveMediaTypes(this.webRequest))
+				.containsExactly(MediaType.TEXT_HTML, MediaType.parseMediaType("text/plain;q=0.5"));
+	}
+
 	@Test
 	public void resolveMediaTypesParseError() throws Exception {
 		this.servletRequest.addHeader("Accept", "textplain; q=0.5");
@@ -266,4 +266,102 @@ public class ShallowEtagHeaderFilterTests {
 		assertThat(response.getContentAsByteArray()).as("Invalid content").isEqualTo(responseBody);
 	}
 
+	@Test
+	public void filterWithinContentCacheLimit() throws Exception {
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		final byte[] responseBody = "Hello World".getBytes(StandardCharsets.UTF_8);
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			((HttpServletResponse) filterResponse).setStatus(HttpServletResponse.SC_OK);
+			FileCopyUtils.copy(responseBody, filterResponse.getOutputStream());
+		};
+		this.filter.setContentCacheLimit(responseBody.length);
+		this.filter.doFilter(request, response, filterChain);
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getHeader("ETag")).isEqualTo("\"0b10a8db164e0754105b7a99be72e3fe5\"");
+		assertThat(response.getContentLength()).isEqualTo(responseBody.length);
+		assertThat(response.getContentAsByteArray()).isEqualTo(responseBody);
+	}
+
+	@Test
+	public void filterExceedingContentCacheLimit() throws Exception {
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			((HttpServletResponse) filterResponse).setStatus(HttpServletResponse.SC_OK);
+			filterResponse.getOutputStream().write("Hello".getBytes(StandardCharsets.UTF_8));
+			assertThat(response.getContentAsByteArray()).isEmpty();
+			filterResponse.getOutputStream().write(" World".getBytes(StandardCharsets.UTF_8));
+			assertThat(response.getContentAsString()).isEqualTo("Hello World");
+		};
+		this.filter.setContentCacheLimit(8);
+		this.filter.doFilter(request, response, filterChain);
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getHeader("ETag")).isNull();
+		assertThat(response.getContentAsString()).isEqualTo("Hello World");
+	}
+
+	@Test
+	public void filterWriterExceedingContentCacheLimit() throws Exception {
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			((HttpServletResponse) filterResponse).setStatus(HttpServletResponse.SC_OK);
+			filterResponse.setContentType("text/plain;charset=UTF-8");
+			filterResponse.getWriter().write("Hello");
+			filterResponse.getWriter().write(" World");
+		};
+		this.filter.setContentCacheLimit(8);
+		this.filter.doFilter(request, response, filterChain);
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getHeader("ETag")).isNull();
+		assertThat(response.getContentAsString()).isEqualTo("Hello World");
+	}
+
+	@Test
+	public void filterContentLengthExceedingContentCacheLimit() throws Exception {
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		final byte[] responseBody = "Hello World".getBytes(StandardCharsets.UTF_8);
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			((HttpServletResponse) filterResponse).setStatus(HttpServletResponse.SC_OK);
+			filterResponse.setContentLength(responseBody.length);
+			assertThat(response.getContentLength()).isEqualTo(responseBody.length);
+			FileCopyUtils.copy(responseBody, filterResponse.getOutputStream());
+		};
+		this.filter.setContentCacheLimit(8);
+		this.filter.doFilter(request, response, filterChain);
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getHeader("ETag")).isNull();
+		assertThat(response.getContentAsByteArray()).isEqualTo(responseBody);
+	}
+
+	@Test
+	public void filterMatchFastHash() throws Exception {
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		String etag = "\"14a17b156-b\"";
+		request.addHeader("If-None-Match", etag);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			byte[] responseBody = "Hello World".getBytes(StandardCharsets.UTF_8);
+			FileCopyUtils.copy(responseBody, filterResponse.getOutputStream());
+			filterResponse.setContentLength(responseBody.length);
+		};
+		this.filter.setUseFastHash(true);
+		this.filter.doFilter(request, response, filterChain);
+
+		assertThat(response.getStatus()).isEqualTo(304);
+		assertThat(response.getHeader("ETag")).isEqualTo(etag);
+		assertThat(response.getContentAsByteArray()).isEmpty();
+	}
+
 }
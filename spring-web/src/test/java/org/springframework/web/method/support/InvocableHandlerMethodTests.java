@@ -25,6 +25,7 @@ import org.springframework.core.MethodParameter;
 import org.springframework.web.bind.support.WebDataBinderFactory;
 import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.testfixture.method.ResolvableMethod;
 import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
 import org.springframework.web.testfixture.servlet.MockHttpServletResponse;
@@ -156,6 +157,49 @@ public class InvocableHandlerMethodTests {
 			.withMessageContaining("Illegal argument");
 	}
 
+	@Test
+	public void resolveArgWithSharedResolverPlan() throws Exception {
+		CountingArgumentResolver resolver = new CountingArgumentResolver();
+		this.composite.addResolver(resolver);
+		this.composite.addResolver(new StubArgumentResolver("value"));
+
+		Method method = ResolvableMethod.on(Handler.class).argTypes(Integer.class, String.class).resolveMethod();
+		HandlerMethod handlerMethod = new HandlerMethod(new Handler(), method);
+		for (int i = 0; i < 3; i++) {
+			InvocableHandlerMethod invocable = new InvocableHandlerMethod(handlerMethod);
+			invocable.setHandlerMethodArgumentResolvers(this.composite);
+			assertThat(invocable.invokeForRequest(this.request, null)).isEqualTo("99-value");
+		}
+
+		assertThat(resolver.supportsParameterCount).isEqualTo(2);
+		assertThat(resolver.resolveArgumentCount).isEqualTo(3);
+	}
+
+	@Test
+	public void resolveArgWithResolverPlanPerComposite() throws Exception {
+		CountingArgumentResolver resolver1 = new CountingArgumentResolver();
+		this.composite.addResolver(resolver1);
+		this.composite.addResolver(new StubArgumentResolver("value1"));
+		CountingArgumentResolver resolver2 = new CountingArgumentResolver();
+		HandlerMethodArgumentResolverComposite otherComposite = new HandlerMethodArgumentResolverComposite();
+		otherComposite.addResolver(resolver2);
+		otherComposite.addResolver(new StubArgumentResolver("value2"));
+
+		Method method = ResolvableMethod.on(Handler.class).argTypes(Integer.class, String.class).resolveMethod();
+		HandlerMethod handlerMethod = new HandlerMethod(new Handler(), method);
+		for (int i = 0; i < 3; i++) {
+			InvocableHandlerMethod invocable = new InvocableHandlerMethod(handlerMethod);
+			invocable.setHandlerMethodArgumentResolvers(this.composite);
+			assertThat(invocable.invokeForRequest(this.request, null)).isEqualTo("99-value1");
+			invocable = new InvocableHandlerMethod(handlerMethod);
+			invocable.setHandlerMethodArgumentResolvers(otherComposite);
+			assertThat(invocable.invokeForRequest(this.request, null)).isEqualTo("99-value2");
+		}
+
+		assertThat(resolver1.supportsParameterCount).isEqualTo(2);
+		assertThat(resolver2.supportsParameterCount).isEqualTo(2);
+	}
+
 	private InvocableHandlerMethod getInvocable(Class<?>... argTypes) {
 		Method method = ResolvableMethod.on(Handler.class).argTypes(argTypes).resolveMethod();
 		InvocableHandlerMethod handlerMethod = new InvocableHandlerMethod(new Handler(), method);
@@ -200,4 +244,26 @@ public class InvocableHandlerMethodTests {
 		}
 	}
 
+
+	private static class CountingArgumentResolver implements HandlerMethodArgumentResolver {
+
+		private int supportsParameterCount;
+
+		private int resolveArgumentCount;
+
+		@Override
+		public boolean supportsParameter(MethodParameter parameter) {
+			this.supportsParameterCount++;
+			return parameter.getParameterType() == Integer.class;
+		}
+
+		@Override
+		public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+				NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+
+			this.resolveArgumentCount++;
+			return 99;
+		}
+	}
+
 }
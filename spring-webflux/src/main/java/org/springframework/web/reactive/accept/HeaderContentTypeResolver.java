@@ -16,28 +16,73 @@
 
 package org.springframework.web.reactive.accept;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
+import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.StringUtils;
 import org.springframework.web.server.NotAcceptableStatusException;
 import org.springframework.web.server.ServerWebExchange;
 
 /**
  * Resolver that looks at the 'Accept' header of the request.
  *
+ * <p>The parsed and sorted media types are cached by raw header value, so that
+ * repeated 'Accept' headers, as sent by the same kind of client, are resolved
+ * without parsing and sorting them again.
+ *
  * @author Rossen Stoyanchev
  * @since 5.0
  */
 public class HeaderContentTypeResolver implements RequestedContentTypeResolver {
 
+	private static final int DEFAULT_CACHE_LIMIT = 256;
+
+
+	private final ConcurrentLruCache<String, List<MediaType>> mediaTypesCache;
+
+
+	/**
+	 * Create an instance that caches the media types for up to 256 distinct
+	 * 'Accept' header values.
+	 */
+	public HeaderContentTypeResolver() {
+		this(DEFAULT_CACHE_LIMIT);
+	}
+
+	/**
+	 * Create an instance that caches the media types for up to the given
+	 * number of distinct 'Accept' header values.
+	 * @param cacheLimit the maximum number of cached header values,
+	 * or 0 to parse the header on every request
+	 * @since 5.3.6
+	 */
+	public HeaderContentTypeResolver(int cacheLimit) {
+		Assert.isTrue(cacheLimit >= 0, "Cache limit must not be negative");
+		this.mediaTypesCache = new ConcurrentLruCache<>(cacheLimit, HeaderContentTypeResolver::parseMediaTypes);
+	}
+
+
 	@Override
 	public List<MediaType> resolveMediaTypes(ServerWebExchange exchange) throws NotAcceptableStatusException {
+		List<String> headerValues = exchange.getRequest().getHeaders().get(HttpHeaders.ACCEPT);
+		if (CollectionUtils.isEmpty(headerValues)) {
+			return MEDIA_TYPE_ALL_LIST;
+		}
+		String headerValue = (headerValues.size() == 1 ? headerValues.get(0) :
+				StringUtils.collectionToDelimitedString(headerValues, ","));
+		if (!StringUtils.hasLength(headerValue)) {
+			return MEDIA_TYPE_ALL_LIST;
+		}
 		try {
-			List<MediaType> mediaTypes = exchange.getRequest().getHeaders().getAccept();
-			MediaType.sortBySpecificityAndQuality(mediaTypes);
-			return (!CollectionUtils.isEmpty(mediaTypes) ? mediaTypes : MEDIA_TYPE_ALL_LIST);
+			List<MediaType> mediaTypes = this.mediaTypesCache.get(headerValue);
+			return (!CollectionUtils.isEmpty(mediaTypes) ? new ArrayList<>(mediaTypes) : MEDIA_TYPE_ALL_LIST);
 		}
 		catch (InvalidMediaTypeException ex) {
 			String value = exchange.getRequest().getHeaders().getFirst("Accept");
@@ -46,4 +91,10 @@ public class HeaderContentTypeResolver implements RequestedContentTypeResolver {
 		}
 	}
 
+	private static List<MediaType> parseMediaTypes(String headerValue) {
+		List<MediaType> mediaTypes = MediaType.parseMediaTypes(headerValue);
+		MediaType.sortBySpecificityAndQuality(mediaTypes);
+		return Collections.unmodifiableList(mediaTypes);
+	}
+
 }
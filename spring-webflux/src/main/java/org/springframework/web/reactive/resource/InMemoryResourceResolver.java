@@ -0,0 +1,416 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * A {@link ResourceResolver} that keeps the content of resolved resources in
+ * memory, along with their size, last-modified timestamp, an {@code ETag}
+ * computed from the content, and any response headers contributed by an
+ * {@link HttpResource} such as the encoded variants returned from
+ * {@link EncodedResourceResolver}.
+ *
+ * <p>Cached resources are served without accessing the underlying resource
+ * at all. The cache is bounded by a {@link #setMaxCacheSize total size} in
+ * bytes, evicting the least recently used entries first, and resources larger
+ * than {@link #setMaxResourceSize} are passed through as-is. The content of
+ * a resource is read on a {@link Schedulers#boundedElastic() bounded elastic}
+ * thread when it is first resolved. Entries are
+ * checked for changes to the underlying resource at most once per
+ * {@link #setChangeCheckInterval check interval}.
+ *
+ * <p>This resolver is typically registered in place of
+ * {@link CachingResourceResolver} and before {@link EncodedResourceResolver}
+ * and {@link PathResourceResolver}.
+ *
+ * @since 5.3.6
+ */
+public class InMemoryResourceResolver extends AbstractResourceResolver {
+
+	private final List<String> contentCodings = new ArrayList<>(EncodedResourceResolver.DEFAULT_CODINGS);
+
+	private long maxCacheSize = 10 * 1024 * 1024;
+
+	private long maxResourceSize = 1024 * 1024;
+
+	private long changeCheckInterval = 5000;
+
+	private final LinkedHashMap<String, CachedResource> cache = new LinkedHashMap<>(64, 0.75f, true);
+
+	private long cacheSize;
+
+
+	/**
+	 * Configure the supported content codings from the
+	 * {@literal "Accept-Encoding"} header for which to cache resource variations.
+	 * <p>The codings configured here are generally expected to match those
+	 * configured on {@link EncodedResourceResolver#setContentCodings(List)}.
+	 * <p>By default this property is set to {@literal ["br", "gzip"]} based on
+	 * the value of {@link EncodedResourceResolver#DEFAULT_CODINGS}.
+	 * @param codings one or more supported content codings
+	 */
+	public void setContentCodings(List<String> codings) {
+		Assert.notEmpty(codings, "At least one content coding expected");
+		this.contentCodings.clear();
+		this.contentCodings.addAll(codings);
+	}
+
+	/**
+	 * Return a read-only list with the supported content codings.
+	 */
+	public List<String> getContentCodings() {
+		return Collections.unmodifiableList(this.contentCodings);
+	}
+
+	/**
+	 * Set the maximum number of bytes to keep in memory across all cached
+	 * resources, after which least recently used entries are evicted.
+	 * <p>By default this is set to 10 MB.
+	 */
+	public void setMaxCacheSize(long maxCacheSize) {
+		Assert.isTrue(maxCacheSize > 0, "Max cache size must be positive");
+		this.maxCacheSize = maxCacheSize;
+	}
+
+	/**
+	 * Return the configured maximum cache size in bytes.
+	 */
+	public long getMaxCacheSize() {
+		return this.maxCacheSize;
+	}
+
+	/**
+	 * Set the maximum size in bytes of an individual resource to be cached.
+	 * Larger resources are not kept in memory and are returned as resolved.
+	 * <p>By default this is set to 1 MB.
+	 */
+	public void setMaxResourceSize(long maxResourceSize) {
+		Assert.isTrue(maxResourceSize > 0, "Max resource size must be positive");
+		this.maxResourceSize = maxResourceSize;
+	}
+
+	/**
+	 * Return the configured maximum size of an individual resource.
+	 */
+	public long getMaxResourceSize() {
+		return this.maxResourceSize;
+	}
+
+	/**
+	 * Set how often a cached resource is compared against the last-modified
+	 * timestamp of the underlying resource, evicting it if it has changed.
+	 * A negative duration turns off change detection, which is appropriate
+	 * for immutable, versioned resources.
+	 * <p>By default this is set to 5 seconds.
+	 */
+	public void setChangeCheckInterval(Duration changeCheckInterval) {
+		Assert.notNull(changeCheckInterval, "Change check interval must not be null");
+		this.changeCheckInterval = changeCheckInterval.toMillis();
+	}
+
+	/**
+	 * Return the configured change check interval.
+	 */
+	public Duration getChangeCheckInterval() {
+		return Duration.ofMillis(this.changeCheckInterval);
+	}
+
+	/**
+	 * Return the number of bytes currently held in memory.
+	 */
+	public synchronized long getCacheSize() {
+		return this.cacheSize;
+	}
+
+	/**
+	 * Remove all cached resources.
+	 */
+	public synchronized void clearCache() {
+		this.cache.clear();
+		this.cacheSize = 0;
+	}
+
+
+	@Override
+	protected Mono<Resource> resolveResourceInternal(@Nullable ServerWebExchange exchange,
+			String requestPath, List<? extends Resource> locations, ResourceResolverChain chain) {
+
+		String key = computeKey(exchange, requestPath);
+		CachedResource cachedResource = getCachedResource(key);
+		if (cachedResource != null) {
+			String logPrefix = exchange != null ? exchange.getLogPrefix() : "";
+			logger.trace(logPrefix + "Resource resolved from memory");
+			return Mono.just(cachedResource);
+		}
+
+		return chain.resolveResource(exchange, requestPath, locations)
+				.flatMap(resource -> {
+					if (resource instanceof CachedResource) {
+						return Mono.just(resource);
+					}
+					// Reading the content is blocking: keep it off the event loop
+					return Mono.fromCallable(() -> cacheResource(key, resource))
+							.subscribeOn(Schedulers.boundedElastic());
+				});
+	}
+
+	@Override
+	protected Mono<String> resolveUrlPathInternal(String resourceUrlPath,
+			List<? extends Resource> locations, ResourceResolverChain chain) {
+
+		return chain.resolveUrlPath(resourceUrlPath, locations);
+	}
+
+	protected String computeKey(@Nullable ServerWebExchange exchange, String requestPath) {
+		if (exchange != null) {
+			String codingKey = getContentCodingKey(exchange);
+			if (StringUtils.hasText(codingKey)) {
+				return requestPath + "+encoding=" + codingKey;
+			}
+		}
+		return requestPath;
+	}
+
+	@Nullable
+	private String getContentCodingKey(ServerWebExchange exchange) {
+		String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING);
+		if (!StringUtils.hasText(header)) {
+			return null;
+		}
+		return Arrays.stream(StringUtils.tokenizeToStringArray(header, ","))
+				.map(token -> {
+					int index = token.indexOf(';');
+					return (index >= 0 ? token.substring(0, index) : token).trim().toLowerCase();
+				})
+				.filter(this.contentCodings::contains)
+				.sorted()
+				.collect(Collectors.joining(","));
+	}
+
+	@Nullable
+	private CachedResource getCachedResource(String key) {
+		CachedResource cachedResource;
+		synchronized (this) {
+			cachedResource = this.cache.get(key);
+		}
+		if (cachedResource == null || !cachedResource.isModified(this.changeCheckInterval)) {
+			return cachedResource;
+		}
+		synchronized (this) {
+			if (this.cache.remove(key, cachedResource)) {
+				this.cacheSize -= cachedResource.contentLength();
+			}
+		}
+		return null;
+	}
+
+	private synchronized void putCachedResource(String key, CachedResource cachedResource) {
+		CachedResource previous = this.cache.put(key, cachedResource);
+		if (previous != null) {
+			this.cacheSize -= previous.contentLength();
+		}
+		this.cacheSize += cachedResource.contentLength();
+		Iterator<Map.Entry<String, CachedResource>> it = this.cache.entrySet().iterator();
+		while (this.cacheSize > this.maxCacheSize && it.hasNext()) {
+			CachedResource eldest = it.next().getValue();
+			it.remove();
+			this.cacheSize -= eldest.contentLength();
+		}
+	}
+
+	private Resource cacheResource(String key, Resource resource) {
+		CachedResource newResource;
+		try {
+			newResource = createCachedResource(resource);
+		}
+		catch (IOException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to cache " + resource + " in memory: " + ex.getMessage());
+			}
+			return resource;
+		}
+		if (newResource == null) {
+			return resource;
+		}
+		putCachedResource(key, newResource);
+		return newResource;
+	}
+
+	@Nullable
+	private CachedResource createCachedResource(Resource resource) throws IOException {
+		long contentLength = resource.contentLength();
+		if (contentLength > this.maxResourceSize || contentLength > this.maxCacheSize) {
+			return null;
+		}
+		long lastModified = resource.lastModified();
+		byte[] content;
+		try (InputStream inputStream = resource.getInputStream()) {
+			content = StreamUtils.copyToByteArray(inputStream);
+		}
+		return new CachedResource(resource, content, lastModified);
+	}
+
+
+	/**
+	 * An {@link HttpResource} that holds the content and metadata of a resolved
+	 * resource in memory, exposing a content-based {@code ETag} header.
+	 */
+	static class CachedResource extends AbstractResource implements HttpResource {
+
+		private final Resource original;
+
+		private final byte[] content;
+
+		private final long lastModified;
+
+		private final HttpHeaders headers;
+
+		@Nullable
+		private final String filename;
+
+		private final String description;
+
+		private volatile long lastChecked;
+
+		CachedResource(Resource original, byte[] content, long lastModified) {
+			this.original = original;
+			this.content = content;
+			this.lastModified = lastModified;
+			this.headers = new HttpHeaders();
+			if (original instanceof HttpResource) {
+				this.headers.addAll(((HttpResource) original).getResponseHeaders());
+			}
+			this.headers.setETag("\"" + DigestUtils.md5DigestAsHex(content) + "\"");
+			this.filename = original.getFilename();
+			this.description = original.getDescription();
+			this.lastChecked = System.currentTimeMillis();
+		}
+
+		/**
+		 * Whether the underlying resource has changed or disappeared, checking
+		 * at most once per the given interval in milliseconds.
+		 */
+		boolean isModified(long checkInterval) {
+			if (checkInterval < 0) {
+				return false;
+			}
+			long now = System.currentTimeMillis();
+			if (now - this.lastChecked < checkInterval) {
+				return false;
+			}
+			this.lastChecked = now;
+			try {
+				return (!this.original.exists() || this.original.lastModified() != this.lastModified);
+			}
+			catch (IOException ex) {
+				return true;
+			}
+		}
+
+		@Override
+		public InputStream getInputStream() {
+			return new ByteArrayInputStream(this.content);
+		}
+
+		@Override
+		public boolean exists() {
+			return true;
+		}
+
+		@Override
+		public URL getURL() throws IOException {
+			return this.original.getURL();
+		}
+
+		@Override
+		public URI getURI() throws IOException {
+			return this.original.getURI();
+		}
+
+		@Override
+		public long contentLength() {
+			return this.content.length;
+		}
+
+		@Override
+		public long lastModified() {
+			return this.lastModified;
+		}
+
+		@Override
+		public Resource createRelative(String relativePath) throws IOException {
+			return this.original.createRelative(relativePath);
+		}
+
+		@Override
+		@Nullable
+		public String getFilename() {
+			return this.filename;
+		}
+
+		@Override
+		public String getDescription() {
+			return this.description;
+		}
+
+		@Override
+		public HttpHeaders getResponseHeaders() {
+			HttpHeaders headers = new HttpHeaders();
+			this.headers.forEach((name, values) -> headers.put(name, new ArrayList<>(values)));
+			return headers;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			return (this == other || (other instanceof CachedResource &&
+					this.original.equals(((CachedResource) other).original)));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.original.hashCode();
+		}
+	}
+
+}
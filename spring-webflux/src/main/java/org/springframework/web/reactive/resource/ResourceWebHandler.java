@@ -369,6 +369,9 @@ public class ResourceWebHandler implements WebHandler, InitializingBean {
 	 * {@code Last-Modified} value, or the header is not present, the content resource
 	 * of the resource will be written to the response with caching headers
 	 * set to expire one year in the future.
+	 * <p>If the resource is an {@link HttpResource} that exposes an {@code ETag}
+	 * header, e.g. as cached by {@link InMemoryResourceResolver}, the request is
+	 * also checked against that {@code ETag}.
 	 */
 	@Override
 	public Mono<Void> handle(ServerWebExchange exchange) {
@@ -392,9 +395,14 @@ public class ResourceWebHandler implements WebHandler, InitializingBean {
 						}
 
 						// Header phase
-						if (isUseLastModified() && exchange.checkNotModified(Instant.ofEpochMilli(resource.lastModified()))) {
-							logger.trace(exchange.getLogPrefix() + "Resource not modified");
-							return Mono.empty();
+						String eTag = (resource instanceof HttpResource ?
+								((HttpResource) resource).getResponseHeaders().getETag() : null);
+						if (isUseLastModified() || eTag != null) {
+							long lastModified = (isUseLastModified() ? resource.lastModified() : -1);
+							if (exchange.checkNotModified(eTag, Instant.ofEpochMilli(lastModified))) {
+								logger.trace(exchange.getLogPrefix() + "Resource not modified");
+								return Mono.empty();
+							}
 						}
 
 						// Apply cache settings, if any
@@ -18,6 +18,7 @@ package org.springframework.web.reactive.result;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -33,6 +34,7 @@ import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.http.MediaType;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.web.reactive.HandlerMapping;
 import org.springframework.web.reactive.HandlerResult;
 import org.springframework.web.reactive.accept.RequestedContentTypeResolver;
@@ -60,6 +62,9 @@ public abstract class HandlerResultHandlerSupport implements Ordered {
 
 	private int order = LOWEST_PRECEDENCE;
 
+	private final ConcurrentLruCache<MediaTypesKey, List<MediaType>> compatibleMediaTypesCache =
+			new ConcurrentLruCache<>(256, this::computeCompatibleMediaTypes);
+
 
 	protected HandlerResultHandlerSupport(RequestedContentTypeResolver contentTypeResolver,
 			ReactiveAdapterRegistry adapterRegistry) {
@@ -131,17 +136,8 @@ public abstract class HandlerResultHandlerSupport implements Ordered {
 		List<MediaType> acceptableTypes = getAcceptableTypes(exchange);
 		List<MediaType> producibleTypes = getProducibleTypes(exchange, producibleTypesSupplier);
 
-		Set<MediaType> compatibleMediaTypes = new LinkedHashSet<>();
-		for (MediaType acceptable : acceptableTypes) {
-			for (MediaType producible : producibleTypes) {
-				if (acceptable.isCompatibleWith(producible)) {
-					compatibleMediaTypes.add(selectMoreSpecificMediaType(acceptable, producible));
-				}
-			}
-		}
-
-		List<MediaType> result = new ArrayList<>(compatibleMediaTypes);
-		MediaType.sortBySpecificityAndQuality(result);
+		List<MediaType> result =
+				this.compatibleMediaTypesCache.get(new MediaTypesKey(acceptableTypes, producibleTypes));
 
 		MediaType selected = null;
 		for (MediaType mediaType : result) {
@@ -181,10 +177,67 @@ public abstract class HandlerResultHandlerSupport implements Ordered {
 		return (mediaTypes != null ? new ArrayList<>(mediaTypes) : producibleTypesSupplier.get());
 	}
 
+	/**
+	 * Return the media types compatible with both the acceptable and the
+	 * producible media types, sorted by specificity and quality. The result
+	 * is cached for each combination of acceptable and producible media types.
+	 */
+	private List<MediaType> computeCompatibleMediaTypes(MediaTypesKey key) {
+		Set<MediaType> compatibleMediaTypes = new LinkedHashSet<>();
+		for (MediaType acceptable : key.acceptableTypes) {
+			for (MediaType producible : key.producibleTypes) {
+				if (acceptable.isCompatibleWith(producible)) {
+					compatibleMediaTypes.add(selectMoreSpecificMediaType(acceptable, producible));
+				}
+			}
+		}
+		List<MediaType> result = new ArrayList<>(compatibleMediaTypes);
+		MediaType.sortBySpecificityAndQuality(result);
+		return Collections.unmodifiableList(result);
+	}
+
 	private MediaType selectMoreSpecificMediaType(MediaType acceptable, MediaType producible) {
 		producible = producible.copyQualityValue(acceptable);
 		Comparator<MediaType> comparator = MediaType.SPECIFICITY_COMPARATOR;
 		return (comparator.compare(acceptable, producible) <= 0 ? acceptable : producible);
 	}
 
+
+	/**
+	 * Cache key for a combination of acceptable and producible media types.
+	 */
+	private static final class MediaTypesKey {
+
+		private final List<MediaType> acceptableTypes;
+
+		private final List<MediaType> producibleTypes;
+
+		private final int hashCode;
+
+		MediaTypesKey(List<MediaType> acceptableTypes, List<MediaType> producibleTypes) {
+			this.acceptableTypes = acceptableTypes;
+			this.producibleTypes = producibleTypes;
+			this.hashCode = 31 * acceptableTypes.hashCode() + producibleTypes.hashCode();
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof MediaTypesKey)) {
+				return false;
+			}
+			MediaTypesKey otherKey = (MediaTypesKey) other;
+			return (this.hashCode == otherKey.hashCode &&
+					this.acceptableTypes.equals(otherKey.acceptableTypes) &&
+					this.producibleTypes.equals(otherKey.producibleTypes));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,6 +26,7 @@ import reactor.core.publisher.Mono;
 
 import org.springframework.core.MethodParameter;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.reactive.BindingContext;
 import org.springframework.web.server.ServerWebExchange;
 
@@ -44,6 +45,9 @@ class HandlerMethodArgumentResolverComposite implements HandlerMethodArgumentRes
 	private final Map<MethodParameter, HandlerMethodArgumentResolver> argumentResolverCache =
 			new ConcurrentHashMap<>(256);
 
+	private final Map<MethodParameter[], ArgumentResolverPlan> argumentResolverPlanCache =
+			new ConcurrentHashMap<>(256);
+
 
 	/**
 	 * Add the given {@link HandlerMethodArgumentResolver}.
@@ -118,6 +122,32 @@ class HandlerMethodArgumentResolverComposite implements HandlerMethodArgumentRes
 		return resolver.resolveArgument(parameter, bindingContext, exchange);
 	}
 
+	/**
+	 * Find the registered {@link HandlerMethodArgumentResolver HandlerMethodArgumentResolvers}
+	 * supporting the given parameters of a handler method, in order. The selection
+	 * is cached per parameters array, which all copies of a handler method share.
+	 * <p>Package-private for use in {@link InvocableHandlerMethod}.
+	 * @since 5.3.6
+	 */
+	ArgumentResolverPlan getArgumentResolverPlan(MethodParameter[] parameters) {
+		ArgumentResolverPlan plan = this.argumentResolverPlanCache.get(parameters);
+		if (plan == null) {
+			HandlerMethodArgumentResolver[] resolvers = new HandlerMethodArgumentResolver[parameters.length];
+			boolean[] syncResolution = new boolean[parameters.length];
+			for (int i = 0; i < parameters.length; i++) {
+				HandlerMethodArgumentResolver resolver = getArgumentResolver(parameters[i]);
+				resolvers[i] = resolver;
+				syncResolution[i] = (resolver instanceof SyncHandlerMethodArgumentResolver &&
+						ClassUtils.getMethod(resolver.getClass(), "resolveArgument", MethodParameter.class,
+								BindingContext.class, ServerWebExchange.class).getDeclaringClass() ==
+								SyncHandlerMethodArgumentResolver.class);
+			}
+			plan = new ArgumentResolverPlan(resolvers, syncResolution);
+			this.argumentResolverPlanCache.put(parameters, plan);
+		}
+		return plan;
+	}
+
 	/**
 	 * Find a registered {@link HandlerMethodArgumentResolver} that supports
 	 * the given method parameter.
@@ -137,4 +167,25 @@ class HandlerMethodArgumentResolverComposite implements HandlerMethodArgumentRes
 		return result;
 	}
 
+
+	/**
+	 * The argument resolvers selected for the parameters of a handler method,
+	 * along with whether each can be invoked synchronously, i.e. whether it is
+	 * a {@link SyncHandlerMethodArgumentResolver} that does not override
+	 * {@link SyncHandlerMethodArgumentResolver#resolveArgument}. A {@code null}
+	 * resolver indicates that none supported the parameter at the time of the
+	 * selection.
+	 */
+	static final class ArgumentResolverPlan {
+
+		final HandlerMethodArgumentResolver[] argumentResolvers;
+
+		final boolean[] syncResolution;
+
+		ArgumentResolverPlan(HandlerMethodArgumentResolver[] argumentResolvers, boolean[] syncResolution) {
+			this.argumentResolvers = argumentResolvers;
+			this.syncResolution = syncResolution;
+		}
+	}
+
 }
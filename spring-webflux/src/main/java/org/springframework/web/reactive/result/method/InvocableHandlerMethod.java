@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,7 +22,7 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Stream;
+import java.util.Map;
 
 import reactor.core.publisher.Mono;
 
@@ -36,6 +36,7 @@ import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.web.method.HandlerMethod;
@@ -59,8 +60,11 @@ public class InvocableHandlerMethod extends HandlerMethod {
 
 	private static final Object NO_ARG_VALUE = new Object();
 
+	private static final Map<List<HandlerMethodArgumentResolver>, HandlerMethodArgumentResolverComposite>
+			sharedResolvers = new ConcurrentReferenceHashMap<>(16);
 
-	private final HandlerMethodArgumentResolverComposite resolvers = new HandlerMethodArgumentResolverComposite();
+
+	private HandlerMethodArgumentResolverComposite resolvers = new HandlerMethodArgumentResolverComposite();
 
 	private ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
 
@@ -85,9 +89,20 @@ public class InvocableHandlerMethod extends HandlerMethod {
 	/**
 	 * Configure the argument resolvers to use to use for resolving method
 	 * argument values against a {@code ServerWebExchange}.
+	 * <p>Instances are typically created per request, so the composite for a
+	 * given list of resolvers is shared in order to keep its selection of
+	 * resolvers for the parameters of a handler method across requests.
 	 */
 	public void setArgumentResolvers(List<? extends HandlerMethodArgumentResolver> resolvers) {
-		this.resolvers.addResolvers(resolvers);
+		if (this.resolvers.getResolvers().isEmpty()) {
+			this.resolvers = getSharedResolvers(resolvers);
+		}
+		else {
+			HandlerMethodArgumentResolverComposite composite = new HandlerMethodArgumentResolverComposite();
+			composite.addResolvers(this.resolvers.getResolvers());
+			composite.addResolvers(resolvers);
+			this.resolvers = composite;
+		}
 	}
 
 	/**
@@ -184,30 +199,80 @@ public class InvocableHandlerMethod extends HandlerMethod {
 			return EMPTY_ARGS;
 		}
 
-		List<Mono<Object>> argMonos = new ArrayList<>(parameters.length);
 		for (MethodParameter parameter : parameters) {
 			parameter.initParameterNameDiscovery(this.parameterNameDiscoverer);
+		}
+		HandlerMethodArgumentResolverComposite.ArgumentResolverPlan plan = this.resolvers.getArgumentResolverPlan(parameters);
+		Object[] args = new Object[parameters.length];
+		List<Mono<Object>> argMonos = null;
+		int[] argMonoIndexes = null;
+		for (int i = 0; i < parameters.length; i++) {
+			MethodParameter parameter = parameters[i];
 			Object providedArg = findProvidedArgument(parameter, providedArgs);
 			if (providedArg != null) {
-				argMonos.add(Mono.just(providedArg));
+				args[i] = providedArg;
 				continue;
 			}
-			if (!this.resolvers.supportsParameter(parameter)) {
+			HandlerMethodArgumentResolver resolver = plan.argumentResolvers[i];
+			if (resolver == null && this.resolvers.supportsParameter(parameter)) {
+				resolver = this.resolvers;
+			}
+			if (resolver == null) {
 				return Mono.error(new IllegalStateException(
 						formatArgumentError(parameter, "No suitable resolver")));
 			}
+			Mono<Object> argMono;
 			try {
-				argMonos.add(this.resolvers.resolveArgument(parameter, bindingContext, exchange)
+				if (plan.syncResolution[i]) {
+					args[i] = ((SyncHandlerMethodArgumentResolver) resolver)
+							.resolveArgumentValue(parameter, bindingContext, exchange);
+					continue;
+				}
+				argMono = resolver.resolveArgument(parameter, bindingContext, exchange)
 						.defaultIfEmpty(NO_ARG_VALUE)
-						.doOnError(ex -> logArgumentErrorIfNecessary(exchange, parameter, ex)));
+						.doOnError(ex -> logArgumentErrorIfNecessary(exchange, parameter, ex));
 			}
 			catch (Exception ex) {
 				logArgumentErrorIfNecessary(exchange, parameter, ex);
-				argMonos.add(Mono.error(ex));
+				argMono = Mono.error(ex);
+			}
+			if (argMonos == null) {
+				argMonos = new ArrayList<>(parameters.length - i);
+				argMonoIndexes = new int[parameters.length - i];
+			}
+			argMonoIndexes[argMonos.size()] = i;
+			argMonos.add(argMono);
+		}
+
+		if (argMonos == null) {
+			return Mono.just(args);
+		}
+		int[] indexes = argMonoIndexes;
+		return Mono.zip(argMonos, values -> {
+			for (int i = 0; i < values.length; i++) {
+				args[indexes[i]] = (values[i] != NO_ARG_VALUE ? values[i] : null);
+			}
+			return args;
+		});
+	}
+
+	/**
+	 * Return the composite for the given list of resolvers, shared across
+	 * instances configured with an equal list.
+	 */
+	private static HandlerMethodArgumentResolverComposite getSharedResolvers(
+			List<? extends HandlerMethodArgumentResolver> resolvers) {
+
+		HandlerMethodArgumentResolverComposite composite = sharedResolvers.get(resolvers);
+		if (composite == null) {
+			List<HandlerMethodArgumentResolver> key = new ArrayList<>(resolvers);
+			composite = new HandlerMethodArgumentResolverComposite().addResolvers(key);
+			HandlerMethodArgumentResolverComposite existing = sharedResolvers.putIfAbsent(key, composite);
+			if (existing != null) {
+				composite = existing;
 			}
 		}
-		return Mono.zip(argMonos, values ->
-				Stream.of(values).map(value -> value != NO_ARG_VALUE ? value : null).toArray());
+		return composite;
 	}
 
 	private void logArgumentErrorIfNecessary(ServerWebExchange exchange, MethodParameter parameter, Throwable ex) {
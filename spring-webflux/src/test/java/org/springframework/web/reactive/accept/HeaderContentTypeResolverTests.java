@@ -51,6 +51,27 @@ public class HeaderContentTypeResolverTests {
 		assertThat(mediaTypes.get(3).toString()).isEqualTo("text/plain;q=0.5");
 	}
 
+	@Test
+	public void resolveMediaTypesFromCache() throws Exception {
+		String header = "text/plain; q=0.5, text/html";
+		List<MediaType> mediaTypes = this.resolver.resolveMediaTypes(
+				MockServerWebExchange.from(MockServerHttpRequest.get("/").header("accept", header)));
+		mediaTypes.clear();
+
+		List<MediaType> cachedMediaTypes = this.resolver.resolveMediaTypes(
+				MockServerWebExchange.from(MockServerHttpRequest.get("/").header("accept", header)));
+		assertThat(cachedMediaTypes).containsExactly(MediaType.TEXT_HTML, MediaType.parseMediaType("text/plain;q=0.5"));
+	}
+
+	@Test
+	public void resolveMediaTypesFromMultipleHeaderValues() throws Exception {
+		List<MediaType> mediaTypes = this.resolver.resolveMediaTypes(MockServerWebExchange.from(
+				MockServerHttpRequest.get("/").header("accept", "text/plain; q=0.5, text/html", "text/x-c")));
+
+		assertThat(mediaTypes).containsExactly(MediaType.TEXT_HTML,
+				MediaType.parseMediaType("text/x-c"), MediaType.parseMediaType("text/plain;q=0.5"));
+	}
+
 	@Test
 	public void resolveMediaTypesParseError() throws Exception {
 		String header = "textplain; q=0.5";
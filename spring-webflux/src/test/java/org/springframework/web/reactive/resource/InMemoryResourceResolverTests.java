@@ -0,0 +1,190 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.resource.GzipSupport.GzippedFiles;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.testfixture.server.MockServerWebExchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.web.testfixture.http.server.reactive.MockServerHttpRequest.get;
+
+/**
+ * Unit tests for {@link InMemoryResourceResolver}.
+ */
+@ExtendWith(GzipSupport.class)
+public class InMemoryResourceResolverTests {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+
+	private InMemoryResourceResolver resolver;
+
+	private ResourceResolverChain chain;
+
+	private List<Resource> locations;
+
+
+	@BeforeEach
+	public void setup() {
+		this.resolver = new InMemoryResourceResolver();
+
+		List<ResourceResolver> resolvers = new ArrayList<>();
+		resolvers.add(this.resolver);
+		resolvers.add(new EncodedResourceResolver());
+		resolvers.add(new PathResourceResolver());
+		this.chain = new DefaultResourceResolverChain(resolvers);
+
+		this.locations = new ArrayList<>();
+		this.locations.add(new ClassPathResource("test/", getClass()));
+	}
+
+
+	@Test
+	public void resolveResourceInternal() throws Exception {
+		Resource expected = new ClassPathResource("test/bar.css", getClass());
+		MockServerWebExchange exchange = MockServerWebExchange.from(get(""));
+		Resource actual = this.chain.resolveResource(exchange, "bar.css", this.locations).block(TIMEOUT);
+
+		assertThat(actual).isInstanceOf(HttpResource.class);
+		assertThat(actual.getFilename()).isEqualTo("bar.css");
+		assertThat(actual.contentLength()).isEqualTo(expected.contentLength());
+		assertThat(((HttpResource) actual).getResponseHeaders().getETag()).startsWith("\"");
+		assertThat(this.resolver.getCacheSize()).isEqualTo(expected.contentLength());
+
+		exchange = MockServerWebExchange.from(get(""));
+		assertThat(this.chain.resolveResource(exchange, "bar.css", this.locations).block(TIMEOUT)).isSameAs(actual);
+	}
+
+	@Test
+	public void resolveResourceInternalNoMatch() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(get(""));
+		assertThat(this.chain.resolveResource(exchange, "invalid.css", this.locations).block(TIMEOUT)).isNull();
+		assertThat(this.resolver.getCacheSize()).isEqualTo(0);
+	}
+
+	@Test
+	public void resolveEncodedResource(GzippedFiles gzippedFiles) {
+		String file = "foo.css";
+		gzippedFiles.create(file);
+
+		MockServerWebExchange exchange = MockServerWebExchange.from(get("").header("Accept-Encoding", "gzip"));
+		Resource gzipped = this.chain.resolveResource(exchange, file, this.locations).block(TIMEOUT);
+
+		HttpHeaders headers = ((HttpResource) gzipped).getResponseHeaders();
+		assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(gzipped.getFilename()).isEqualTo("foo.css");
+
+		exchange = MockServerWebExchange.from(get(""));
+		Resource plain = this.chain.resolveResource(exchange, file, this.locations).block(TIMEOUT);
+		assertThat(plain).isNotSameAs(gzipped);
+
+		exchange = MockServerWebExchange.from(get("").header("Accept-Encoding", "gzip"));
+		assertThat(this.chain.resolveResource(exchange, file, this.locations).block(TIMEOUT)).isSameAs(gzipped);
+	}
+
+	@Test
+	public void resourceLargerThanMaxSizeNotCached() {
+		this.resolver.setMaxResourceSize(1);
+		MockServerWebExchange exchange = MockServerWebExchange.from(get(""));
+		Resource actual = this.chain.resolveResource(exchange, "bar.css", this.locations).block(TIMEOUT);
+
+		assertThat(actual).isNotInstanceOf(HttpResource.class);
+		assertThat(this.resolver.getCacheSize()).isEqualTo(0);
+	}
+
+	@Test
+	public void resourceContentReadOffCallingThread() {
+		AtomicReference<Thread> readingThread = new AtomicReference<>();
+		Resource resource = new ByteArrayResource("var a;".getBytes(StandardCharsets.UTF_8)) {
+			@Override
+			public InputStream getInputStream() throws IOException {
+				readingThread.set(Thread.currentThread());
+				return super.getInputStream();
+			}
+			@Override
+			public long lastModified() {
+				return 1000;
+			}
+		};
+		ResourceResolverChain chain = new DefaultResourceResolverChain(Arrays.asList(this.resolver,
+				new AbstractResourceResolver() {
+					@Override
+					protected Mono<Resource> resolveResourceInternal(@Nullable ServerWebExchange exchange,
+							String requestPath, List<? extends Resource> locations, ResourceResolverChain chain) {
+						return Mono.just(resource);
+					}
+					@Override
+					protected Mono<String> resolveUrlPathInternal(String resourceUrlPath,
+							List<? extends Resource> locations, ResourceResolverChain chain) {
+						return Mono.just(resourceUrlPath);
+					}
+				}));
+
+		Resource actual = chain.resolveResource(null, "app.js", this.locations).block(TIMEOUT);
+
+		assertThat(actual).isInstanceOf(HttpResource.class);
+		assertThat(readingThread.get()).isNotNull().isNotSameAs(Thread.currentThread());
+		assertThat(readingThread.get().getName()).startsWith("boundedElastic");
+	}
+
+	@Test
+	public void detectChanges(@TempDir Path tempDir) throws Exception {
+		File file = tempDir.resolve("app.js").toFile();
+		Files.write(file.toPath(), "var a;".getBytes(StandardCharsets.UTF_8));
+		file.setLastModified(1000);
+		List<Resource> locations = Collections.singletonList(new FileSystemResource(tempDir.toFile() + "/"));
+		this.resolver.setChangeCheckInterval(Duration.ZERO);
+
+		Resource first = this.chain.resolveResource(null, "app.js", locations).block(TIMEOUT);
+		assertThat(this.chain.resolveResource(null, "app.js", locations).block(TIMEOUT)).isSameAs(first);
+
+		Files.write(file.toPath(), "var ab;".getBytes(StandardCharsets.UTF_8));
+		file.setLastModified(2000);
+
+		Resource second = this.chain.resolveResource(null, "app.js", locations).block(TIMEOUT);
+		assertThat(second).isNotSameAs(first);
+		assertThat(second.contentLength()).isEqualTo(7);
+		assertThat(this.resolver.getCacheSize()).isEqualTo(7);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,16 +24,19 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
+import reactor.core.Scannable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import org.springframework.core.MethodParameter;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.reactive.BindingContext;
 import org.springframework.web.reactive.HandlerResult;
 import org.springframework.web.server.ServerWebExchange;
@@ -48,6 +51,8 @@ import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.web.testfixture.http.server.reactive.MockServerHttpRequest.get;
 
 /**
@@ -215,6 +220,57 @@ public class InvocableHandlerMethodTests {
 	}
 
 
+	@Test
+	public void resolveSyncArgsWithoutZip() {
+		SyncStubResolver stringResolver = new SyncStubResolver(String.class, "value1");
+		SyncStubResolver integerResolver = new SyncStubResolver(Integer.class, 2);
+		this.resolvers.add(stringResolver);
+		this.resolvers.add(integerResolver);
+		Method method = ResolvableMethod.on(TestController.class).mockCall(o -> o.twoArgs(null, null)).method();
+		Mono<HandlerResult> mono = invoke(new TestController(), method);
+
+		assertThat(stringResolver.resolveCount).isEqualTo(1);
+		assertThat(integerResolver.resolveCount).isEqualTo(1);
+		assertThat(Scannable.from(mono).parents().map(p -> p.getClass().getSimpleName()))
+				.contains("MonoJust").doesNotContain("MonoZip");
+		assertHandlerResultValue(mono, "success:value1-2");
+	}
+
+	@Test
+	public void resolveMixedArgsZipsAsyncArgsOnly() {
+		SyncStubResolver stringResolver = new SyncStubResolver(String.class, "value1");
+		HandlerMethodArgumentResolver integerResolver = stubResolver(Mono.<Object>just(2).delayElement(Duration.ofMillis(10)));
+		this.resolvers.add(stringResolver);
+		this.resolvers.add(integerResolver);
+		Method method = ResolvableMethod.on(TestController.class).mockCall(o -> o.twoArgs(null, null)).method();
+		Mono<HandlerResult> mono = invoke(new TestController(), method);
+
+		assertThat(stringResolver.resolveCount).isEqualTo(1);
+		assertThat(Scannable.from(mono).parents().map(p -> p.getClass().getSimpleName())).contains("MonoZip");
+		assertHandlerResultValue(mono, "success:value1-2");
+		verify(integerResolver, times(1)).resolveArgument(any(), any(), any());
+	}
+
+	@Test
+	public void resolverPlanSharedAcrossCopiesPerListOfResolvers() {
+		HandlerMethodArgumentResolver resolver1 = stubResolver("value1");
+		this.resolvers.add(resolver1);
+		List<HandlerMethodArgumentResolver> otherResolvers = new ArrayList<>();
+		HandlerMethodArgumentResolver resolver2 = stubResolver("value2");
+		otherResolvers.add(resolver2);
+		Method method = ResolvableMethod.on(TestController.class).mockCall(o -> o.singleArg(null)).method();
+		HandlerMethod handlerMethod = new HandlerMethod(new TestController(), method);
+
+		for (int i = 0; i < 3; i++) {
+			assertHandlerResultValue(invoke(handlerMethod, this.resolvers), "success:value1");
+			assertHandlerResultValue(invoke(handlerMethod, otherResolvers), "success:value2");
+		}
+		verify(resolver1, times(1)).supportsParameter(any());
+		verify(resolver1, times(3)).resolveArgument(any(), any(), any());
+		verify(resolver2, times(1)).supportsParameter(any());
+		verify(resolver2, times(3)).resolveArgument(any(), any(), any());
+	}
+
 	@Nullable
 	private HandlerResult invokeForResult(Object handler, Method method, Object... providedArgs) {
 		return invoke(handler, method, providedArgs).block(Duration.ofSeconds(5));
@@ -226,6 +282,12 @@ public class InvocableHandlerMethodTests {
 		return invocable.invoke(this.exchange, new BindingContext(), providedArgs);
 	}
 
+	private Mono<HandlerResult> invoke(HandlerMethod handlerMethod, List<HandlerMethodArgumentResolver> resolvers) {
+		InvocableHandlerMethod invocable = new InvocableHandlerMethod(handlerMethod);
+		invocable.setArgumentResolvers(resolvers);
+		return invocable.invoke(this.exchange, new BindingContext());
+	}
+
 	private <T> HandlerMethodArgumentResolver stubResolver(Object stubValue) {
 		return stubResolver(Mono.just(stubValue));
 	}
@@ -252,6 +314,10 @@ public class InvocableHandlerMethodTests {
 			return "success:" + q;
 		}
 
+		String twoArgs(String q, Integer n) {
+			return "success:" + q + "-" + n;
+		}
+
 		String noArgs() {
 			return "success";
 		}
@@ -297,4 +363,32 @@ public class InvocableHandlerMethodTests {
 		}
 	}
 
+
+	private static class SyncStubResolver implements SyncHandlerMethodArgumentResolver {
+
+		private final Class<?> parameterType;
+
+		private final Object value;
+
+		private int resolveCount;
+
+		SyncStubResolver(Class<?> parameterType, Object value) {
+			this.parameterType = parameterType;
+			this.value = value;
+		}
+
+		@Override
+		public boolean supportsParameter(MethodParameter parameter) {
+			return parameter.getParameterType() == this.parameterType;
+		}
+
+		@Override
+		public Object resolveArgumentValue(
+				MethodParameter parameter, BindingContext bindingContext, ServerWebExchange exchange) {
+
+			this.resolveCount++;
+			return this.value;
+		}
+	}
+
 }
@@ -53,6 +53,7 @@ import org.springframework.http.server.ServletServerHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.util.StringUtils;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.accept.ContentNegotiationManager;
@@ -95,6 +96,9 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 
 	private final Set<String> safeExtensions = new HashSet<>();
 
+	private final ConcurrentLruCache<MediaTypesKey, List<MediaType>> mediaTypesToUseCache =
+			new ConcurrentLruCache<>(256, this::computeMediaTypesToUse);
+
 
 	/**
 	 * Constructor with list of converters only.
@@ -233,14 +237,8 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 				throw new HttpMessageNotWritableException(
 						"No converter found for return value of type: " + valueType);
 			}
-			List<MediaType> mediaTypesToUse = new ArrayList<>();
-			for (MediaType requestedType : acceptableTypes) {
-				for (MediaType producibleType : producibleTypes) {
-					if (requestedType.isCompatibleWith(producibleType)) {
-						mediaTypesToUse.add(getMostSpecificMediaType(requestedType, producibleType));
-					}
-				}
-			}
+			List<MediaType> mediaTypesToUse =
+					this.mediaTypesToUseCache.get(new MediaTypesKey(acceptableTypes, producibleTypes));
 			if (mediaTypesToUse.isEmpty()) {
 				if (body != null) {
 					throw new HttpMediaTypeNotAcceptableException(producibleTypes);
@@ -251,8 +249,6 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 				return;
 			}
 
-			MediaType.sortBySpecificityAndQuality(mediaTypesToUse);
-
 			for (MediaType mediaType : mediaTypesToUse) {
 				if (mediaType.isConcrete()) {
 					selectedMediaType = mediaType;
@@ -394,6 +390,24 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 		return this.contentNegotiationManager.resolveMediaTypes(new ServletWebRequest(request));
 	}
 
+	/**
+	 * Return the media types compatible with both the acceptable and the
+	 * producible media types, sorted by specificity and quality. The result
+	 * is cached for each combination of acceptable and producible media types.
+	 */
+	private List<MediaType> computeMediaTypesToUse(MediaTypesKey key) {
+		List<MediaType> mediaTypesToUse = new ArrayList<>();
+		for (MediaType requestedType : key.acceptableTypes) {
+			for (MediaType producibleType : key.producibleTypes) {
+				if (requestedType.isCompatibleWith(producibleType)) {
+					mediaTypesToUse.add(getMostSpecificMediaType(requestedType, producibleType));
+				}
+			}
+		}
+		MediaType.sortBySpecificityAndQuality(mediaTypesToUse);
+		return Collections.unmodifiableList(mediaTypesToUse);
+	}
+
 	/**
 	 * Return the more specific of the acceptable and the producible media types
 	 * with the q-value of the former.
@@ -493,4 +507,42 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 				mediaType.getSubtype().endsWith("+xml"));
 	}
 
+
+	/**
+	 * Cache key for a combination of acceptable and producible media types.
+	 */
+	private static final class MediaTypesKey {
+
+		private final List<MediaType> acceptableTypes;
+
+		private final List<MediaType> producibleTypes;
+
+		private final int hashCode;
+
+		MediaTypesKey(List<MediaType> acceptableTypes, List<MediaType> producibleTypes) {
+			this.acceptableTypes = acceptableTypes;
+			this.producibleTypes = producibleTypes;
+			this.hashCode = 31 * acceptableTypes.hashCode() + producibleTypes.hashCode();
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof MediaTypesKey)) {
+				return false;
+			}
+			MediaTypesKey otherKey = (MediaTypesKey) other;
+			return (this.hashCode == otherKey.hashCode &&
+					this.acceptableTypes.equals(otherKey.acceptableTypes) &&
+					this.producibleTypes.equals(otherKey.producibleTypes));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+
 }
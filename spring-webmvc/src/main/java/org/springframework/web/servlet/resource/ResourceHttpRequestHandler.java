@@ -514,6 +514,9 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 	 * {@code Last-Modified} value, or the header is not present, the content resource
 	 * of the resource will be written to the response with caching headers
 	 * set to expire one year in the future.
+	 * <p>If the resource is an {@link HttpResource} that exposes an {@code ETag}
+	 * header, e.g. as cached by {@link InMemoryResourceResolver}, the request is
+	 * also checked against that {@code ETag}.
 	 */
 	@Override
 	public void handleRequest(HttpServletRequest request, HttpServletResponse response)
@@ -536,9 +539,13 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		checkRequest(request);
 
 		// Header phase
-		if (isUseLastModified() && new ServletWebRequest(request, response).checkNotModified(resource.lastModified())) {
-			logger.trace("Resource not modified");
-			return;
+		String eTag = (resource instanceof HttpResource ? ((HttpResource) resource).getResponseHeaders().getETag() : null);
+		if (isUseLastModified() || eTag != null) {
+			long lastModified = (isUseLastModified() ? resource.lastModified() : -1);
+			if (new ServletWebRequest(request, response).checkNotModified(eTag, lastModified)) {
+				logger.trace("Resource not modified");
+				return;
+			}
 		}
 
 		// Apply cache settings, if any
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.resource;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.resource.GzipSupport.GzippedFiles;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link InMemoryResourceResolver}.
+ */
+@ExtendWith(GzipSupport.class)
+public class InMemoryResourceResolverTests {
+
+	private InMemoryResourceResolver resolver;
+
+	private ResourceResolverChain chain;
+
+	private List<Resource> locations;
+
+
+	@BeforeEach
+	public void setup() {
+		this.resolver = new InMemoryResourceResolver();
+
+		List<ResourceResolver> resolvers = new ArrayList<>();
+		resolvers.add(this.resolver);
+		resolvers.add(new EncodedResourceResolver());
+		resolvers.add(new PathResourceResolver());
+		this.chain = new DefaultResourceResolverChain(resolvers);
+
+		this.locations = new ArrayList<>();
+		this.locations.add(new ClassPathResource("test/", getClass()));
+	}
+
+
+	@Test
+	public void resolveResourceInternal() throws Exception {
+		Resource expected = new ClassPathResource("test/bar.css", getClass());
+		Resource actual = this.chain.resolveResource(null, "bar.css", this.locations);
+
+		assertThat(actual).isInstanceOf(HttpResource.class);
+		assertThat(actual.getFilename()).isEqualTo("bar.css");
+		assertThat(actual.contentLength()).isEqualTo(expected.contentLength());
+		assertThat(actual.lastModified()).isEqualTo(expected.lastModified());
+		assertThat(StreamUtils.copyToByteArray(actual.getInputStream()))
+				.isEqualTo(StreamUtils.copyToByteArray(expected.getInputStream()));
+		assertThat(((HttpResource) actual).getResponseHeaders().getETag()).startsWith("\"");
+		assertThat(this.resolver.getCacheSize()).isEqualTo(expected.contentLength());
+	}
+
+	@Test
+	public void resolveResourceInternalFromMemory() {
+		Resource first = this.chain.resolveResource(null, "bar.css", this.locations);
+		Resource second = this.chain.resolveResource(null, "bar.css", this.locations);
+
+		assertThat(second).isSameAs(first);
+	}
+
+	@Test
+	public void resolveResourceInternalNoMatch() {
+		assertThat(this.chain.resolveResource(null, "invalid.css", this.locations)).isNull();
+		assertThat(this.resolver.getCacheSize()).isEqualTo(0);
+	}
+
+	@Test
+	public void resolveEncodedResource(GzippedFiles gzippedFiles) throws Exception {
+		String file = "js/foo.js";
+		gzippedFiles.create(file);
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", file);
+		request.addHeader("Accept-Encoding", "gzip");
+		Resource gzipped = this.chain.resolveResource(request, file, this.locations);
+
+		HttpHeaders headers = ((HttpResource) gzipped).getResponseHeaders();
+		assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(gzipped.getFilename()).isEqualTo("foo.js");
+
+		Resource plain = this.chain.resolveResource(new MockHttpServletRequest("GET", file), file, this.locations);
+		assertThat(plain).isNotSameAs(gzipped);
+		assertThat(((HttpResource) plain).getResponseHeaders().getETag()).isNotEqualTo(headers.getETag());
+
+		request = new MockHttpServletRequest("GET", file);
+		request.addHeader("Accept-Encoding", "gzip");
+		assertThat(this.chain.resolveResource(request, file, this.locations)).isSameAs(gzipped);
+	}
+
+	@Test
+	public void resourceLargerThanMaxSizeNotCached() {
+		this.resolver.setMaxResourceSize(1);
+		Resource actual = this.chain.resolveResource(null, "bar.css", this.locations);
+
+		assertThat(actual).isNotInstanceOf(HttpResource.class);
+		assertThat(this.resolver.getCacheSize()).isEqualTo(0);
+	}
+
+	@Test
+	public void evictLeastRecentlyUsed() throws Exception {
+		Resource foo = new ClassPathResource("test/foo.css", getClass());
+		Resource bar = new ClassPathResource("test/bar.css", getClass());
+		this.resolver.setMaxCacheSize(foo.contentLength() + bar.contentLength());
+
+		Resource cachedFoo = this.chain.resolveResource(null, "foo.css", this.locations);
+		this.chain.resolveResource(null, "bar.css", this.locations);
+		this.chain.resolveResource(null, "foo.txt", this.locations);
+
+		assertThat(this.resolver.getCacheSize()).isLessThanOrEqualTo(this.resolver.getMaxCacheSize());
+		assertThat(this.chain.resolveResource(null, "foo.css", this.locations)).isNotSameAs(cachedFoo);
+	}
+
+	@Test
+	public void detectChanges(@TempDir Path tempDir) throws Exception {
+		File file = tempDir.resolve("app.js").toFile();
+		Files.write(file.toPath(), "var a;".getBytes(StandardCharsets.UTF_8));
+		file.setLastModified(1000);
+		List<Resource> locations = Collections.singletonList(new FileSystemResource(tempDir.toFile() + "/"));
+		this.resolver.setChangeCheckInterval(Duration.ZERO);
+
+		Resource first = this.chain.resolveResource(null, "app.js", locations);
+		assertThat(this.chain.resolveResource(null, "app.js", locations)).isSameAs(first);
+
+		Files.write(file.toPath(), "var ab;".getBytes(StandardCharsets.UTF_8));
+		file.setLastModified(2000);
+
+		Resource second = this.chain.resolveResource(null, "app.js", locations);
+		assertThat(second).isNotSameAs(first);
+		assertThat(second.contentLength()).isEqualTo(7);
+		assertThat(this.resolver.getCacheSize()).isEqualTo(7);
+	}
+
+	@Test
+	public void changeDetectionDisabled(@TempDir Path tempDir) throws Exception {
+		File file = tempDir.resolve("app.js").toFile();
+		Files.write(file.toPath(), "var a;".getBytes(StandardCharsets.UTF_8));
+		List<Resource> locations = Collections.singletonList(new FileSystemResource(tempDir.toFile() + "/"));
+		this.resolver.setChangeCheckInterval(Duration.ofMillis(-1));
+
+		Resource first = this.chain.resolveResource(null, "app.js", locations);
+		assertThat(file.delete()).isTrue();
+
+		assertThat(this.chain.resolveResource(null, "app.js", locations)).isSameAs(first);
+	}
+
+}
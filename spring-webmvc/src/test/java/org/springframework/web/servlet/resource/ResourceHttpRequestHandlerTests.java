@@ -160,6 +160,28 @@ public class ResourceHttpRequestHandlerTests {
 		assertThat(this.response.getHeaders("Accept-Ranges").size()).isEqualTo(1);
 	}
 
+	@Test
+	public void getInMemoryResource() throws Exception {
+		this.handler.setResourceResolvers(Arrays.asList(new InMemoryResourceResolver(), new PathResourceResolver()));
+		this.handler.afterPropertiesSet();
+
+		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "foo.css");
+		this.handler.handleRequest(this.request, this.response);
+
+		String eTag = this.response.getHeader("ETag");
+		assertThat(eTag).isNotNull();
+		assertThat(this.response.getContentType()).isEqualTo("text/css");
+		assertThat(this.response.getContentLength()).isEqualTo(17);
+		assertThat(this.response.getDateHeader("Last-Modified") / 1000).isEqualTo(resourceLastModified("test/foo.css") / 1000);
+		assertThat(this.response.getContentAsString()).isEqualTo("h1 { color:red; }");
+
+		this.request.addHeader("If-None-Match", eTag);
+		this.response = new MockHttpServletResponse();
+		this.handler.handleRequest(this.request, this.response);
+
+		assertThat(this.response.getStatus()).isEqualTo(HttpServletResponse.SC_NOT_MODIFIED);
+	}
+
 	@Test
 	@SuppressWarnings("deprecation")
 	public void getResourceHttp10BehaviorCache() throws Exception {